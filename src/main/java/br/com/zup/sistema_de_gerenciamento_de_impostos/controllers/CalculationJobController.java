@@ -0,0 +1,111 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.CalculationJobDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.CalculationJobResultPageDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.CalculationJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/calculo/jobs")
+@Tag(name = "Jobs de Cálculo", description = "Endpoints para cálculo assíncrono de lotes grandes")
+public class CalculationJobController {
+    @Autowired
+    private CalculationJobService calculationJobService;
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Submete um lote para cálculo assíncrono",
+        description = "Registra o lote como um job e retorna imediatamente o seu identificador. O progresso é consultado em /calculo/jobs/{id}. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "202", description = "Job aceito"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou inválido", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Fila de jobs cheia", content = @Content)
+        }
+    )
+    public ResponseEntity<CalculationJobDto> submit(@RequestBody List<TaxCalculationRequestDto> requests) {
+        CalculationJobDto job = calculationJobService.submit(requests);
+        return ResponseEntity.accepted()
+                .location(URI.create("/calculo/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Consulta o progresso de um job",
+        description = "Retorna o status, o total de itens, os itens processados e os erros do job. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<CalculationJobDto> findById(@PathVariable Long id) {
+        return ResponseEntity.ok(calculationJobService.findById(id));
+    }
+
+    @GetMapping("/{id}/resultados")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Baixa uma página de resultados do job",
+        description = "Retorna os resultados já calculados, em ordem de entrada, paginados por índice. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "400", description = "Página inválida", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<CalculationJobResultPageDto> findResults(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "0") int pagina,
+                                                                   @RequestParam(defaultValue = "1000") int tamanho) {
+        return ResponseEntity.ok(calculationJobService.findResults(id, pagina, tamanho));
+    }
+
+    @GetMapping(value = "/{id}/resultados/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Baixa os resultados do job em streaming (NDJSON)",
+        description = "Escreve um resultado por linha, lendo o armazenamento em blocos. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Resultados escritos linha a linha"),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public void streamResults(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        // Valida o job antes de comprometer a resposta com o tipo NDJSON
+        calculationJobService.findById(id);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        calculationJobService.streamResults(id, response.getOutputStream());
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.IcmsRateRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IcmsRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.IcmsRateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/icms/aliquotas")
+@Tag(name = "Alíquotas de ICMS por UF", description = "Endpoints para gerenciamento da matriz de alíquotas de ICMS entre UFs")
+public class IcmsRateController {
+    @Autowired
+    private IcmsRateService icmsRateService;
+
+    @GetMapping
+    @Operation(
+        summary = "Lista a matriz de alíquotas de ICMS",
+        description = "Retorna as alíquotas de ICMS por UF de origem e de destino; origem igual ao destino é a alíquota interna",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida")
+        }
+    )
+    public ResponseEntity<List<IcmsRate>> findAll() {
+        return ResponseEntity.ok(icmsRateService.findAll());
+    }
+
+    @PutMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Substitui a matriz de alíquotas de ICMS",
+        description = "Substitui todas as alíquotas de ICMS por UF. A nova matriz é carregada em memória após a gravação, sem bloquear os cálculos em andamento. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Matriz substituída com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<List<IcmsRate>> replace(@RequestBody List<@Valid IcmsRateRequestDto> requestDtos) {
+        return ResponseEntity.ok(icmsRateService.replace(requestDtos));
+    }
+}
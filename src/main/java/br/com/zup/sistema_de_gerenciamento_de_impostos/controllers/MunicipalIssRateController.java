@@ -0,0 +1,54 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.MunicipalIssImportResultDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.MunicipalIssRateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/iss/municipios")
+@Tag(name = "ISS Municipal", description = "Endpoints para gerenciamento das alíquotas de ISS por município")
+public class MunicipalIssRateController {
+    @Autowired
+    private MunicipalIssRateService municipalIssRateService;
+
+    @GetMapping("/{codigoMunicipio}")
+    @Operation(
+        summary = "Consulta a alíquota de ISS de um município",
+        description = "Retorna a alíquota de ISS do município pelo código IBGE",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "404", description = "Município não encontrado", content = @Content)
+        }
+    )
+    public ResponseEntity<MunicipalIssRate> findByIbgeCode(@PathVariable Integer codigoMunicipio) {
+        return ResponseEntity.ok(municipalIssRateService.findByIbgeCode(codigoMunicipio));
+    }
+
+    @PostMapping(value = "/importar", consumes = {"text/csv", "text/plain"})
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Importa a tabela de ISS municipal",
+        description = "Substitui todas as alíquotas municipais a partir de um CSV (codigo_ibge;municipio;uf;aliquota). O índice em memória é trocado de uma vez após a importação. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Tabela importada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Arquivo inválido", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<MunicipalIssImportResultDto> importCsv(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(municipalIssRateService.importCsv(request.getInputStream()));
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.NcmRateRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.NcmRateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/tipos/{taxTypeId}/ncm")
+@Tag(name = "Regras por NCM", description = "Endpoints para gerenciamento das alíquotas por código NCM de um tipo de imposto")
+public class NcmRateController {
+    @Autowired
+    private NcmRateService ncmRateService;
+
+    @GetMapping
+    @Operation(
+        summary = "Lista as regras por NCM de um tipo de imposto",
+        description = "Retorna as alíquotas por NCM ou prefixo de NCM do tipo de imposto, ordenadas pelo código",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content)
+        }
+    )
+    public ResponseEntity<List<NcmRate>> findAll(@PathVariable Long taxTypeId) {
+        return ResponseEntity.ok(ncmRateService.findByTaxType(taxTypeId));
+    }
+
+    @PutMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Define as regras por NCM",
+        description = "Substitui as alíquotas por NCM do tipo de imposto. Cada regra vale para um código ou prefixo (capítulo, posição, subposição) e, no cálculo, prevalece a de prefixo mais longo. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Regras salvas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content)
+        }
+    )
+    public ResponseEntity<List<NcmRate>> replace(@PathVariable Long taxTypeId,
+                                                 @RequestBody List<@Valid NcmRateRequestDto> requestDtos) {
+        return ResponseEntity.ok(ncmRateService.replace(taxTypeId, requestDtos));
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Remove as regras por NCM",
+        description = "Exclui as regras por NCM e volta a calcular o imposto pela alíquota do tipo. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "204", description = "Regras excluídas com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<Void> delete(@PathVariable Long taxTypeId) {
+        ncmRateService.delete(taxTypeId);
+        return ResponseEntity.noContent().build();
+    }
+}
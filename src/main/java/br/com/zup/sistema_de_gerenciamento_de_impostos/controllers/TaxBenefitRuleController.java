@@ -0,0 +1,73 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxBenefitRuleRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TaxBenefitRuleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/tipos/{taxTypeId}/beneficios")
+@Tag(name = "Benefícios Fiscais", description = "Endpoints para gerenciamento da tabela de decisão de isenções e reduções de base de um tipo de imposto")
+public class TaxBenefitRuleController {
+    @Autowired
+    private TaxBenefitRuleService taxBenefitRuleService;
+
+    @GetMapping
+    @Operation(
+        summary = "Lista as regras de benefício de um tipo de imposto",
+        description = "Retorna as regras de isenção e redução de base do tipo de imposto, em ordem de prioridade",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content)
+        }
+    )
+    public ResponseEntity<List<TaxBenefitRule>> findAll(@PathVariable Long taxTypeId) {
+        return ResponseEntity.ok(taxBenefitRuleService.findByTaxType(taxTypeId));
+    }
+
+    @PutMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Define a tabela de benefícios",
+        description = "Substitui as regras de benefício do tipo de imposto. Cada regra tem condições opcionais (UF de origem, prefixo de NCM, CFOP, regime tributário) e, entre as que casam com a operação, vale a de maior prioridade. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Regras salvas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content)
+        }
+    )
+    public ResponseEntity<List<TaxBenefitRule>> replace(@PathVariable Long taxTypeId,
+                                                 @RequestBody List<@Valid TaxBenefitRuleRequestDto> requestDtos) {
+        return ResponseEntity.ok(taxBenefitRuleService.replace(taxTypeId, requestDtos));
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Remove a tabela de benefícios",
+        description = "Exclui todas as regras de benefício do tipo de imposto. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "204", description = "Regras excluídas com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<Void> delete(@PathVariable Long taxTypeId) {
+        taxBenefitRuleService.delete(taxTypeId);
+        return ResponseEntity.noContent().build();
+    }
+}
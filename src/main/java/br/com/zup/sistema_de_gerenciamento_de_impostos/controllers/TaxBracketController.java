@@ -0,0 +1,73 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxBracketRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBracket;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TaxBracketService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/tipos/{taxTypeId}/faixas")
+@Tag(name = "Faixas Progressivas", description = "Endpoints para gerenciamento da tabela progressiva de um tipo de imposto")
+public class TaxBracketController {
+    @Autowired
+    private TaxBracketService taxBracketService;
+
+    @GetMapping
+    @Operation(
+        summary = "Lista as faixas de um tipo de imposto",
+        description = "Retorna a tabela progressiva do tipo de imposto ordenada pelo valor inicial de cada faixa",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content)
+        }
+    )
+    public ResponseEntity<List<TaxBracket>> findAll(@PathVariable Long taxTypeId) {
+        return ResponseEntity.ok(taxBracketService.findByTaxType(taxTypeId));
+    }
+
+    @PutMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Define a tabela progressiva",
+        description = "Substitui as faixas do tipo de imposto, que passa a ser calculado por tabela progressiva: imposto = base * alíquota da faixa - parcela a deduzir. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Tabela salva com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content)
+        }
+    )
+    public ResponseEntity<List<TaxBracket>> replace(@PathVariable Long taxTypeId,
+                                                    @RequestBody List<@Valid TaxBracketRequestDto> requestDtos) {
+        return ResponseEntity.ok(taxBracketService.replace(taxTypeId, requestDtos));
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Remove a tabela progressiva",
+        description = "Exclui as faixas e volta a calcular o imposto pela alíquota única do tipo. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "204", description = "Tabela excluída com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<Void> delete(@PathVariable Long taxTypeId) {
+        taxBracketService.delete(taxTypeId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,15 +1,23 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceResponseDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationRequestDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationResponseDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.InvoiceCalculationService;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TaxCalculationService;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,13 +25,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 @RestController
 @RequestMapping("/calculo")
 @Tag(name = "Cálculo de Impostos", description = "Endpoint para cálculo de impostos")
 public class TaxCalculationController {
+    // Presente só quando a resposta veio do snapshot em memória com o banco indisponível
+    public static final String SNAPSHOT_HEADER = "X-Impostos-Snapshot";
+
     @Autowired
     private TaxCalculationService taxCalculationService;
     
+    @Autowired
+    private InvoiceCalculationService invoiceCalculationService;
+    
     @PostMapping
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     @Operation(
@@ -34,11 +52,81 @@ public class TaxCalculationController {
             @ApiResponse(responseCode = "200", description = "Cálculo realizado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
             @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content),
-            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Banco indisponível e tipo de imposto fora do snapshot em memória", content = @Content)
         }
     )
     public ResponseEntity<TaxCalculationResponseDto> calculate(@Valid @RequestBody TaxCalculationRequestDto requestDto) {
         TaxCalculationResponseDto responseDto = taxCalculationService.calculate(requestDto);
-        return ResponseEntity.ok(responseDto);
+        return ok(responseDto);
+    }
+    
+    @PostMapping("/lote")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Calcula o valor do imposto para um lote de itens",
+        description = "Calcula o imposto de vários itens em uma única requisição. Itens inválidos são reportados individualmente sem interromper o lote. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Lote processado"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou inválido", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<TaxCalculationBatchResponseDto> calculateBatch(@RequestBody List<TaxCalculationRequestDto> requests) {
+        TaxCalculationBatchResponseDto responseDto = taxCalculationService.calculateBatch(requests);
+        return ok(responseDto);
+    }
+    
+    @PostMapping("/nota")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Calcula os impostos de uma nota fiscal",
+        description = "Calcula vários impostos sobre cada item da nota, respeitando a composição das bases entre eles (por exemplo, IPI na base do ICMS, ou ICMS por dentro), e totaliza por imposto. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Cálculo realizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou dependência circular entre as bases", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Banco indisponível e tipo de imposto fora do snapshot em memória", content = @Content)
+        }
+    )
+    public ResponseEntity<InvoiceResponseDto> calculateInvoice(@Valid @RequestBody InvoiceRequestDto requestDto) {
+        return ok(invoiceCalculationService.calculate(requestDto));
+    }
+    
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Calcula impostos em streaming (NDJSON)",
+        description = "Lê uma requisição por linha (NDJSON) e escreve cada resultado assim que calculado, sem manter o lote inteiro em memória. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Resultados escritos linha a linha"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public void calculateStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        TaxRateSnapshot degraded = taxCalculationService.degradedSnapshot();
+        if (degraded != null) {
+            response.setHeader(SNAPSHOT_HEADER, describe(degraded));
+        }
+        taxCalculationService.calculateStream(request.getInputStream(), response.getOutputStream());
+    }
+    
+    private <T> ResponseEntity<T> ok(T body) {
+        TaxRateSnapshot degraded = taxCalculationService.degradedSnapshot();
+        if (degraded == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok().header(SNAPSHOT_HEADER, describe(degraded)).body(body);
+    }
+    
+    // Ex.: "versao=12; origem=disco; carregado-em=2025-03-01T10:15:30Z"
+    private static String describe(TaxRateSnapshot snapshot) {
+        return "versao=" + snapshot.version() + "; origem=" + snapshot.origin() + "; carregado-em=" + snapshot.loadedAt();
     }
 }
\ No newline at end of file
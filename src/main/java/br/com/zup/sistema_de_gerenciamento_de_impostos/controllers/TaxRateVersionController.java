@@ -0,0 +1,76 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxRateVersionRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TaxRateVersionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/tipos/{taxTypeId}/aliquotas")
+@Tag(name = "Vigências de Alíquotas", description = "Endpoints para gerenciamento das alíquotas de um tipo de imposto ao longo do tempo")
+public class TaxRateVersionController {
+    @Autowired
+    private TaxRateVersionService taxRateVersionService;
+
+    @GetMapping
+    @Operation(
+        summary = "Lista as vigências de alíquota de um tipo de imposto",
+        description = "Retorna as alíquotas do tipo de imposto ordenadas pelo início da vigência",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida"),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content)
+        }
+    )
+    public ResponseEntity<List<TaxRateVersion>> findAll(@PathVariable Long taxTypeId) {
+        return ResponseEntity.ok(taxRateVersionService.findByTaxType(taxTypeId));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Cadastra uma vigência de alíquota",
+        description = "Cadastra a alíquota válida em um intervalo de datas. O fim da vigência é opcional e inclusivo. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "201", description = "Vigência criada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tipo de imposto não encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Vigência sobreposta a outra existente", content = @Content)
+        }
+    )
+    public ResponseEntity<TaxRateVersion> save(@PathVariable Long taxTypeId,
+                                               @Valid @RequestBody TaxRateVersionRequestDto requestDto) {
+        TaxRateVersion saved = taxRateVersionService.save(taxTypeId, requestDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(
+        summary = "Exclui uma vigência de alíquota",
+        description = "Exclui uma vigência de alíquota do tipo de imposto. Requer permissão de ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "204", description = "Vigência excluída com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Vigência não encontrada", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
+        }
+    )
+    public ResponseEntity<Void> delete(@PathVariable Long taxTypeId, @PathVariable Long id) {
+        taxRateVersionService.delete(taxTypeId, id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import java.time.LocalDateTime;
+
+public record CalculationJobDto(
+        Long id,
+        String status,
+        int totalItens,
+        int processados,
+        int erros,
+        String erro,
+        LocalDateTime criadoEm,
+        LocalDateTime atualizadoEm
+) {}
@@ -0,0 +1,13 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import java.util.List;
+
+public record CalculationJobResultPageDto(
+        Long jobId,
+        String status,
+        int pagina,
+        int tamanho,
+        int totalItens,
+        int processados,
+        List<TaxCalculationBatchItemDto> itens
+) {}
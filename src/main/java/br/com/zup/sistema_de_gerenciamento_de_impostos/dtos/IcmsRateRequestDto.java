@@ -0,0 +1,15 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record IcmsRateRequestDto(
+        @NotNull(message = "A UF de origem é obrigatória")
+        Uf ufOrigem,
+        @NotNull(message = "A UF de destino é obrigatória")
+        Uf ufDestino,
+        @NotNull(message = "A alíquota é obrigatória")
+        @PositiveOrZero(message = "A alíquota não pode ser negativa")
+        Double aliquota
+) {}
@@ -0,0 +1,18 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+// ncm e cfop são opcionais e, como no cálculo avulso, selecionam a regra por NCM e a regra de benefício do item
+public record InvoiceItemDto(
+        String descricao,
+        @NotNull(message = "O valor do item é obrigatório")
+        @Positive(message = "O valor do item deve ser positivo")
+        Double valor,
+        String ncm,
+        String cfop
+) {
+    public InvoiceItemDto(String descricao, Double valor) {
+        this(descricao, valor, null, null);
+    }
+}
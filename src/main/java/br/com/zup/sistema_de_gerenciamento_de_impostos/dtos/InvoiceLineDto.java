@@ -0,0 +1,10 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import java.util.Map;
+
+public record InvoiceLineDto(
+        int indice,
+        String descricao,
+        Double valor,
+        Map<String, Double> impostos
+) {}
@@ -0,0 +1,27 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// dataReferencia é opcional: sem ela valem as alíquotas atuais; com ela, a vigência daquela data em todos os itens.
+// regime, também opcional, é o do emitente e vale para as regras de benefício de todos os itens
+public record InvoiceRequestDto(
+        @NotEmpty(message = "Informe ao menos um tipo de imposto")
+        List<Long> tiposImpostoIds,
+        @NotEmpty(message = "A nota deve conter ao menos um item")
+        List<@Valid InvoiceItemDto> itens,
+        LocalDate dataReferencia,
+        TaxRegime regime
+) {
+    public InvoiceRequestDto(List<Long> tiposImpostoIds, List<InvoiceItemDto> itens) {
+        this(tiposImpostoIds, itens, null);
+    }
+
+    public InvoiceRequestDto(List<Long> tiposImpostoIds, List<InvoiceItemDto> itens, LocalDate dataReferencia) {
+        this(tiposImpostoIds, itens, dataReferencia, null);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import java.util.List;
+
+public record InvoiceResponseDto(
+        int totalItens,
+        Double valorItens,
+        Double valorImpostos,
+        List<InvoiceTaxTotalDto> impostos,
+        List<InvoiceLineDto> itens
+) {}
@@ -0,0 +1,7 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+public record InvoiceTaxTotalDto(
+        Long tipoImpostoId,
+        String tipoImposto,
+        Double valorImposto
+) {}
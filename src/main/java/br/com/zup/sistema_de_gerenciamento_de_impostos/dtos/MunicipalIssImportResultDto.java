@@ -0,0 +1,5 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+public record MunicipalIssImportResultDto(
+        int municipiosImportados
+) {}
@@ -0,0 +1,14 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+// ncm aceita de 2 a 8 dígitos, com ou sem pontos (84, 8471, 8471.30, 8471.30.12)
+public record NcmRateRequestDto(
+        @NotBlank(message = "O NCM é obrigatório")
+        String ncm,
+        @NotNull(message = "A alíquota é obrigatória")
+        @PositiveOrZero(message = "A alíquota não pode ser negativa")
+        Double aliquota
+) {}
@@ -0,0 +1,22 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+// Condições omitidas (uf, ncm, cfop, regime) valem para qualquer operação.
+// percentualReducao é obrigatório em BASE_REDUCTION; prioridade padrão 0, a maior vence
+public record TaxBenefitRuleRequestDto(
+        @NotNull(message = "O tipo de benefício é obrigatório")
+        TaxBenefitType tipo,
+        Double percentualReducao,
+        Integer prioridade,
+        @NotBlank(message = "A descrição é obrigatória")
+        String descricao,
+        Uf uf,
+        String ncm,
+        String cfop,
+        TaxRegime regime
+) {}
@@ -0,0 +1,15 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record TaxBracketRequestDto(
+        @NotNull(message = "O valor inicial da faixa é obrigatório")
+        @PositiveOrZero(message = "O valor inicial da faixa não pode ser negativo")
+        Double valorInicial,
+        @NotNull(message = "A alíquota é obrigatória")
+        @PositiveOrZero(message = "A alíquota não pode ser negativa")
+        Double aliquota,
+        @PositiveOrZero(message = "A parcela a deduzir não pode ser negativa")
+        Double deducao
+) {}
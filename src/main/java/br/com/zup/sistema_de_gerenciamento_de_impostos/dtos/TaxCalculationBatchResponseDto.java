@@ -0,0 +1,10 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import java.util.List;
+
+public record TaxCalculationBatchResponseDto(
+        int totalItens,
+        int totalSucessos,
+        int totalErros,
+        List<TaxCalculationBatchItemDto> itens
+) {}
@@ -1,6 +1,45 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+
+import java.time.LocalDate;
+
+// dataReferencia é opcional: sem ela vale a alíquota atual do tipo de imposto.
+// ufOrigem e ufDestino, também opcionais, calculam o ICMS pela matriz de alíquotas entre UFs,
+// codigoMunicipio (código IBGE) aplica ao ISS a alíquota do município
+// e ncm aplica a regra de prefixo mais específica cadastrada para o tipo de imposto.
+// ufOrigem, ncm, cfop e regime também selecionam as regras de benefício (isenção, redução de base)
 public record TaxCalculationRequestDto(
         Long tipoImpostoId,
-        Double valorBase
-) {}
\ No newline at end of file
+        Double valorBase,
+        LocalDate dataReferencia,
+        Uf ufOrigem,
+        Uf ufDestino,
+        Integer codigoMunicipio,
+        String ncm,
+        String cfop,
+        TaxRegime regime
+) {
+    public TaxCalculationRequestDto(Long tipoImpostoId, Double valorBase) {
+        this(tipoImpostoId, valorBase, null);
+    }
+
+    public TaxCalculationRequestDto(Long tipoImpostoId, Double valorBase, LocalDate dataReferencia) {
+        this(tipoImpostoId, valorBase, dataReferencia, null, null, null, null);
+    }
+
+    public TaxCalculationRequestDto(Long tipoImpostoId, Double valorBase, LocalDate dataReferencia, Uf ufOrigem, Uf ufDestino) {
+        this(tipoImpostoId, valorBase, dataReferencia, ufOrigem, ufDestino, null, null);
+    }
+
+    public TaxCalculationRequestDto(Long tipoImpostoId, Double valorBase, LocalDate dataReferencia, Uf ufOrigem, Uf ufDestino,
+                                    Integer codigoMunicipio) {
+        this(tipoImpostoId, valorBase, dataReferencia, ufOrigem, ufDestino, codigoMunicipio, null);
+    }
+
+    public TaxCalculationRequestDto(Long tipoImpostoId, Double valorBase, LocalDate dataReferencia, Uf ufOrigem, Uf ufDestino,
+                                    Integer codigoMunicipio, String ncm) {
+        this(tipoImpostoId, valorBase, dataReferencia, ufOrigem, ufDestino, codigoMunicipio, ncm, null, null);
+    }
+}
@@ -1,8 +1,25 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
 
+// valorDifal só é preenchido em operações interestaduais de ICMS;
+// beneficio traz a descrição da regra de isenção ou redução de base aplicada, se houver
 public record TaxCalculationResponseDto(
         String tipoImposto,
         Double valorBase,
         Double aliquota,
-        Double valorImposto
-) {}
\ No newline at end of file
+        Double valorImposto,
+        Double valorDifal,
+        String beneficio
+) {
+    public TaxCalculationResponseDto(String tipoImposto, Double valorBase, Double aliquota, Double valorImposto) {
+        this(tipoImposto, valorBase, aliquota, valorImposto, null, null);
+    }
+
+    public TaxCalculationResponseDto(String tipoImposto, Double valorBase, Double aliquota, Double valorImposto,
+                                     Double valorDifal) {
+        this(tipoImposto, valorBase, aliquota, valorImposto, valorDifal, null);
+    }
+
+    public TaxCalculationResponseDto withBeneficio(String beneficio) {
+        return new TaxCalculationResponseDto(tipoImposto, valorBase, aliquota, valorImposto, valorDifal, beneficio);
+    }
+}
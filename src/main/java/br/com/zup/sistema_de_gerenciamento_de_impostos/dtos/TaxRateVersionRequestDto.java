@@ -0,0 +1,15 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+
+public record TaxRateVersionRequestDto(
+        @NotNull(message = "A alíquota é obrigatória")
+        @Positive(message = "A alíquota deve ser um valor positivo")
+        Double aliquota,
+        @NotNull(message = "O início da vigência é obrigatório")
+        LocalDate vigenciaInicio,
+        LocalDate vigenciaFim
+) {}
@@ -0,0 +1,5 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.events;
+
+// Publicado quando a matriz de alíquotas de ICMS por UF é substituída
+public record IcmsRatesChangedEvent() {
+}
@@ -0,0 +1,5 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.events;
+
+// Publicado quando a tabela de alíquotas municipais de ISS é reimportada
+public record MunicipalIssRatesChangedEvent() {
+}
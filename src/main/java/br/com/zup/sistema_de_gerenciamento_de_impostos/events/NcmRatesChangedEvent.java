@@ -0,0 +1,5 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.events;
+
+// Publicado quando as regras por NCM de um tipo de imposto são substituídas ou removidas
+public record NcmRatesChangedEvent(Long taxTypeId) {
+}
@@ -0,0 +1,24 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.events;
+
+// Payload do NOTIFY enviado aos demais nós quando uma tabela de referência muda: "nó;versão;tabela;id".
+// O id é o do tipo de imposto nas tabelas por tipo (NCM e benefícios) e "-" nas demais
+public record ReferenceTableChangeNotification(String nodeId, long version, String table, Long taxTypeId) {
+
+    public String format() {
+        return nodeId + ";" + version + ";" + table + ";" + (taxTypeId != null ? taxTypeId : "-");
+    }
+
+    // Lança IllegalArgumentException para payloads fora do formato
+    public static ReferenceTableChangeNotification parse(String payload) {
+        String[] parts = payload != null ? payload.split(";") : new String[0];
+        if (parts.length != 4 || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Notificação de tabela inválida: " + payload);
+        }
+        try {
+            return new ReferenceTableChangeNotification(parts[0], Long.parseLong(parts[1]), parts[2],
+                    parts[3].equals("-") ? null : Long.valueOf(parts[3]));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Notificação de tabela inválida: " + payload);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.events;
+
+// Payload do NOTIFY enviado aos demais nós quando um tipo de imposto muda: "nó;versão;id;S|D"
+public record TaxTypeChangeNotification(String nodeId, long version, Long taxTypeId, boolean deleted) {
+
+    public String format() {
+        return nodeId + ";" + version + ";" + taxTypeId + ";" + (deleted ? "D" : "S");
+    }
+
+    // Lança IllegalArgumentException para payloads fora do formato
+    public static TaxTypeChangeNotification parse(String payload) {
+        String[] parts = payload != null ? payload.split(";") : new String[0];
+        if (parts.length != 4 || !(parts[3].equals("S") || parts[3].equals("D"))) {
+            throw new IllegalArgumentException("Notificação de alteração inválida: " + payload);
+        }
+        try {
+            return new TaxTypeChangeNotification(parts[0], Long.parseLong(parts[1]), Long.valueOf(parts[2]), parts[3].equals("D"));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Notificação de alteração inválida: " + payload);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.events;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+
+// Publicado quando um tipo de imposto é criado ou excluído; taxType é nulo na exclusão
+public record TaxTypeChangedEvent(Long taxTypeId, TaxType taxType) {
+
+    public static TaxTypeChangedEvent saved(TaxType taxType) {
+        return new TaxTypeChangedEvent(taxType.getId(), taxType);
+    }
+
+    public static TaxTypeChangedEvent deleted(Long taxTypeId) {
+        return new TaxTypeChangedEvent(taxTypeId, null);
+    }
+
+    public boolean isDeleted() {
+        return taxType == null;
+    }
+}
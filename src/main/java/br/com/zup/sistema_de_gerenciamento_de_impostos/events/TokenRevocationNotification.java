@@ -0,0 +1,22 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.events;
+
+// Payload do NOTIFY enviado aos demais nós quando os tokens de um usuário são revogados: "nó;versão;username"
+public record TokenRevocationNotification(String nodeId, long version, String username) {
+
+    public String format() {
+        return nodeId + ";" + version + ";" + username;
+    }
+
+    // O username vem por último e pode conter ';'. Lança IllegalArgumentException para payloads fora do formato
+    public static TokenRevocationNotification parse(String payload) {
+        String[] parts = payload != null ? payload.split(";", 3) : new String[0];
+        if (parts.length != 3 || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Notificação de revogação inválida: " + payload);
+        }
+        try {
+            return new TokenRevocationNotification(parts[0], Long.parseLong(parts[1]), parts[2]);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Notificação de revogação inválida: " + payload);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.events;
+
+// Publicado quando um usuário é alterado ou excluído; username é o nome sob o qual ele pode estar em cache
+public record UserChangedEvent(String username) {
+}
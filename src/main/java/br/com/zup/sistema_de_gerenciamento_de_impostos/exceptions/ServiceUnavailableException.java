@@ -0,0 +1,7 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// BCrypt em um pool próprio e limitado: uma rajada de logins ocupa no máximo estas threads, e não a CPU
+// de todo o Tomcat. Com a fila cheia a requisição recebe 503 na hora, sem esperar o hash
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private static final String SATURATED = "Muitas autenticações em andamento. Tente novamente em instantes.";
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maximumWait;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    public BoundedPasswordEncoder(MeterRegistry meterRegistry,
+                                  @Value("${impostos.senhas.custo:10}") int strength,
+                                  @Value("${impostos.senhas.threads:0}") int threads,
+                                  @Value("${impostos.senhas.fila:64}") int queueCapacity,
+                                  @Value("${impostos.senhas.espera-maxima:PT5S}") Duration maximumWait) {
+        // O custo configurado vale para hashes novos; upgradeEncoding aponta os antigos com custo menor
+        this.delegate = new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "hash-senha-" + sequence.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.maximumWait = maximumWait;
+
+        this.encodeTimer = Timer.builder("impostos.senhas.hash")
+                .description("Tempo de cálculo do BCrypt, sem a espera na fila")
+                .tag("operacao", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("impostos.senhas.hash")
+                .description("Tempo de cálculo do BCrypt, sem a espera na fila")
+                .tag("operacao", "matches")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("impostos.senhas.espera")
+                .description("Tempo na fila do pool de hash de senhas")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("impostos.senhas.rejeicoes")
+                .description("Requisições recusadas com o pool de hash de senhas saturado")
+                .register(meterRegistry);
+        Gauge.builder("impostos.senhas.fila", executor, pool -> pool.getQueue().size())
+                .description("Hashes de senha aguardando uma thread do pool")
+                .register(meterRegistry);
+        Gauge.builder("impostos.senhas.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads do pool de hash de senhas calculando no momento")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Só lê o custo gravado no hash: roda na thread da requisição
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    <T> T submit(Timer timer, Supplier<T> hash) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(hash);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            throw new ServiceUnavailableException(SATURATED);
+        }
+
+        try {
+            return future.get(maximumWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // O cancel só tira da fila o hash que ainda não começou: o BCrypt não checa interrupção, então um
+            // hash em andamento vai até o fim e a thread segue ocupada. Quem limita a CPU é o tamanho do pool,
+            // não a espera máxima; o 503 apenas libera a thread da requisição
+            future.cancel(true);
+            rejections.increment();
+            throw new ServiceUnavailableException(SATURATED);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(SATURATED);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +10,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -19,8 +21,9 @@ import java.io.IOException;
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,16 +32,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Obter o token diretamente da requisição atual
         String token = getTokenFromRequest(request);
         
-        if(StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)){
-            String username = jwtTokenProvider.getUsername(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            UsernamePasswordAuthenticationToken authenticationToken = jwtTokenProvider.getAuthentication(token);
-            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        // Assinatura verificada uma vez por token; repetições saem do cache sem HMAC nem parse.
+        // Token revogado segue sem autenticação e recebe 401 do entry point
+        VerifiedToken verified = StringUtils.hasText(token) ? verifiedTokenCache.verify(token) : null;
+        if(verified != null && !tokenRevocationService.isRevoked(verified.jti())){
+            UserDetails user = currentUser(verified.username());
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authenticationToken =
+                        new UsernamePasswordAuthenticationToken(user.getUsername(), null, user.getAuthorities());
+                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    // O cadastro atual, do cache de usuários, prevalece sobre o token: usuário excluído ou desabilitado segue
+    // sem autenticação, e as permissões são as do perfil atual, não as gravadas no token na emissão
+    private UserDetails currentUser(String username) {
+        try {
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            return user.isEnabled() && user.isAccountNonLocked() && user.isAccountNonExpired() ? user : null;
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+    }
+
     // Modificado para receber o request como parâmetro
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
@@ -1,8 +1,8 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,77 +13,82 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
     
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Chave e parser montados uma vez na subida; o parser do jjwt é imutável e seguro entre threads
+    private final SecretKey key;
     
-    @Value("${jwt.expiration}")
-    private long jwtExpirationDate;
+    private final JwtParser parser;
+    
+    private final long jwtExpirationDate;
+    
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.expiration}") long jwtExpirationDate) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.jwtExpirationDate = jwtExpirationDate;
+    }
     
     public String generateToken(Authentication authentication) {
+        return sign(authentication).value();
+    }
+    
+    // Emite o token e devolve também o que seria lido dele, sem refazer o HMAC nem o parse
+    public SignedToken sign(Authentication authentication) {
+        String jti = UUID.randomUUID().toString();
         String username = authentication.getName();
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationDate);
         
-        String authorities = authentication.getAuthorities().stream()
+        List<String> roles = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(","));
+                .toList();
         
         String token = Jwts.builder()
+                .id(jti)
                 .subject(username)
-                .issuedAt(new Date())
+                .issuedAt(currentDate)
                 .expiration(expireDate)
-                .claim("roles", authorities)
-                .signWith(SignatureAlgorithm.HS256, key())
+                .claim("roles", String.join(",", roles))
+                .signWith(key, Jwts.SIG.HS256)
                 .compact();
         
-        return token;
+        // O exp do token tem precisão de segundos
+        long expiresAtMillis = expireDate.getTime() / 1000 * 1000;
+        List<SimpleGrantedAuthority> authorities = roles.stream().map(SimpleGrantedAuthority::new).toList();
+        return new SignedToken(token, new VerifiedToken(jti, username, authorities, expiresAtMillis));
+    }
+    
+    // Única verificação de assinatura e expiração do token; lança JwtException se for inválido
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
     
-    private Key key(){
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    // Verifica e reduz o token ao que o filtro precisa; o VerifiedTokenCache guarda o resultado
+    public VerifiedToken verify(String token) {
+        return VerifiedToken.of(parseClaims(token));
     }
     
     public String getUsername(String token){
-        return Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
     
     public boolean validateToken(String token){
-        Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build()
-                .parse(token);
+        parseClaims(token);
         return true;
     }
     
     public UsernamePasswordAuthenticationToken getAuthentication(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        String username = claims.getSubject();
-        String roles = claims.get("roles", String.class);
-        List<String> rolesList = Arrays.asList(roles.split(","));
-        
-        List<SimpleGrantedAuthority> authorities = rolesList.stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-        
-        return new UsernamePasswordAuthenticationToken(username, null, authorities);
+        return getAuthentication(parseClaims(token));
+    }
+    
+    // Monta a autenticação a partir de claims já verificados, sem tocar de novo na assinatura
+    public UsernamePasswordAuthenticationToken getAuthentication(Claims claims) {
+        return VerifiedToken.of(claims).toAuthentication();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,5 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
+
+// Token recém-assinado com os valores usados na assinatura: quem o emite não precisa verificá-lo de novo
+public record SignedToken(String value, VerifiedToken verified) {
+}
@@ -0,0 +1,98 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Tokens revogados (jti -> vencimento em epoch millis), imutável e substituído por inteiro a cada revogação.
+// Um filtro de Bloom responde "não revogado" para quase todos os tokens com poucas leituras de um long[];
+// só um positivo consulta o conjunto exato, que descarta os falsos positivos
+public final class TokenRevocationList {
+    private static final double LN2 = Math.log(2);
+
+    private final long[] bits;
+    private final int mask;
+    private final int hashes;
+    private final Map<String, Long> revoked;
+
+    private TokenRevocationList(Map<String, Long> revoked, int capacity, double falsePositiveRate) {
+        int expected = Math.max(capacity, revoked.size() * 2);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (LN2 * LN2));
+        // Potência de dois: o índice do bit sai de uma máscara em vez de um resto
+        int bitCount = (int) Math.min(1L << 30, Math.max(64, Long.highestOneBit(optimalBits - 1) << 1));
+        this.bits = new long[bitCount >>> 6];
+        this.mask = bitCount - 1;
+        this.hashes = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / expected * LN2)));
+        this.revoked = Map.copyOf(revoked);
+        for (String jti : this.revoked.keySet()) {
+            long hash = hash(jti);
+            for (int i = 0; i < hashes; i++) {
+                int index = index(hash, i);
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    // capacity: revogações simultâneas esperadas; com mais que isso a lista é dimensionada pelo dobro do tamanho
+    public static TokenRevocationList of(Map<String, Long> revoked, int capacity, double falsePositiveRate) {
+        if (capacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Capacidade e taxa de falso positivo da lista de revogação inválidas.");
+        }
+        return new TokenRevocationList(revoked, capacity, falsePositiveRate);
+    }
+
+    // Nova lista com as revogações somadas e as já vencidas descartadas
+    public TokenRevocationList with(Map<String, Long> added, long nowMillis, int capacity, double falsePositiveRate) {
+        Map<String, Long> merged = new HashMap<>(revoked.size() + added.size());
+        merged.putAll(revoked);
+        merged.putAll(added);
+        merged.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        return of(merged, capacity, falsePositiveRate);
+    }
+
+    // false garante que o token não foi revogado; true ainda precisa da confirmação em isRevoked
+    public boolean mightBeRevoked(String jti) {
+        long hash = hash(jti);
+        for (int i = 0; i < hashes; i++) {
+            int index = index(hash, i);
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        return mightBeRevoked(jti) && revoked.containsKey(jti);
+    }
+
+    public Map<String, Long> entries() {
+        return revoked;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Memória do filtro de Bloom, em bytes
+    public long filterBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    // Duplo hashing (Kirsch-Mitzenmacher): as k posições saem das duas metades de um único hash de 64 bits
+    private int index(long hash, int i) {
+        return ((int) hash + i * ((int) (hash >>> 32) | 1)) & mask;
+    }
+
+    private static long hash(String jti) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < jti.length(); i++) {
+            h = (h ^ jti.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
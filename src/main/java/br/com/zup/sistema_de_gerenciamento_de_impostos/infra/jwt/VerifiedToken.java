@@ -0,0 +1,29 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+// O que o filtro usa de um token já verificado; imutável para poder ser compartilhado entre requisições
+// jti é nulo em tokens emitidos antes da revogação por jti
+public record VerifiedToken(String jti, String username, List<SimpleGrantedAuthority> authorities, long expiresAtMillis) {
+
+    public static VerifiedToken of(Claims claims) {
+        String roles = claims.get("roles", String.class);
+        List<SimpleGrantedAuthority> authorities = Arrays.stream(roles.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(claims.getId(), claims.getSubject(), authorities,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
+    // Instância nova a cada requisição: o filtro grava os detalhes da requisição nela
+    public UsernamePasswordAuthenticationToken toAuthentication() {
+        return new UsernamePasswordAuthenticationToken(username, null, authorities);
+    }
+}
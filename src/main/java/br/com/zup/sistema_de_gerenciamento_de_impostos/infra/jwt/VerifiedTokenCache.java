@@ -0,0 +1,92 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+// Tokens já verificados, indexados pelo SHA-256 do token: uma requisição repetida não refaz o HMAC nem o parse do JSON
+@Component
+public class VerifiedTokenCache {
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final Cache<TokenDigest, VerifiedToken> byDigest;
+
+    public VerifiedTokenCache(JwtTokenProvider jwtTokenProvider,
+                              MeterRegistry meterRegistry,
+                              @Value("${impostos.jwt.cache.tamanho-maximo:10000}") long maximumSize,
+                              @Value("${impostos.jwt.cache.expiracao-maxima:PT10M}") Duration maximumLifetime) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.byDigest = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires(maximumLifetime.toNanos()))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byDigest, "verifiedTokens");
+    }
+
+    // Token inválido ou expirado lança JwtException e não entra no cache
+    public VerifiedToken verify(String token) {
+        return byDigest.get(TokenDigest.of(token), digest -> jwtTokenProvider.verify(token));
+    }
+
+    public void invalidateAll() {
+        byDigest.invalidateAll();
+    }
+
+    long size() {
+        byDigest.cleanUp();
+        return byDigest.estimatedSize();
+    }
+
+    // Só o resumo fica no heap, nunca o token em si
+    record TokenDigest(long h0, long h1, long h2, long h3) {
+
+        static TokenDigest of(String token) {
+            // UTF-8, não US-ASCII: caracteres fora do ASCII virariam '?' e tokens diferentes teriam o mesmo resumo
+            ByteBuffer digest = ByteBuffer.wrap(sha256().digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new TokenDigest(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+            }
+        }
+    }
+
+    // A entrada vence no exp do token, limitada a maximumLifetime
+    private record UntilTokenExpires(long maximumLifetimeNanos) implements Expiry<TokenDigest, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            if (remainingMillis <= 0) {
+                return 0;
+            }
+            return remainingMillis >= maximumLifetimeNanos / 1_000_000 ? maximumLifetimeNanos : remainingMillis * 1_000_000;
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
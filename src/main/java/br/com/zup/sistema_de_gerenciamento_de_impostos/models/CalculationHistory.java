@@ -0,0 +1,45 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+// Gravado só pelo CalculationHistoryRecorder, com INSERT nativo e parâmetros por nome (ON CONFLICT para as linhas de job)
+@Table(name = "calculation_history",
+        uniqueConstraints = @UniqueConstraint(name = "uk_calculation_history_job_item", columnNames = {"job_id", "item_index"}))
+public class CalculationHistory {
+
+    // O INSERT do recorder usa nextval da sequência diretamente; o mapeamento mantém a sequência no schema
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calculation_history_seq")
+    @SequenceGenerator(name = "calculation_history_seq", sequenceName = "calculation_history_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taxTypeId;
+
+    @Column(nullable = false)
+    private String taxTypeName;
+
+    @Column(nullable = false)
+    private Double baseValue;
+
+    @Column(nullable = false)
+    private Double rate;
+
+    @Column(nullable = false)
+    private Double taxValue;
+
+    @Column(nullable = false)
+    private LocalDateTime calculatedAt;
+
+    // Job e linha de origem (nulos fora dos jobs); a chave única impede gravar duas vezes a linha refeita na retomada
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "item_index")
+    private Integer itemIndex;
+}
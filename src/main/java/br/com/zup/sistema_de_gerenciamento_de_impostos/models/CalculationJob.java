@@ -0,0 +1,51 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "calculation_jobs", indexes = @Index(name = "idx_calculation_jobs_status_lease", columnList = "status, lease_expires_at"))
+public class CalculationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CalculationJobStatus status;
+
+    // Nó que detém o lease do job; só ele grava o progresso enquanto o lease estiver em dia
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    // Renovado periodicamente pelo nó dono; vencido (ou nulo), o job pode ser assumido por qualquer nó
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(nullable = false)
+    private int totalItems;
+
+    // Itens já calculados e gravados; a retomada continua a partir deste índice
+    @Column(nullable = false)
+    private int processedItems;
+
+    @Column(nullable = false)
+    private int errorCount;
+
+    // Lote original em JSON, mantido para permitir a retomada
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(columnDefinition = "text")
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Chave natural (job, índice): sem IDENTITY, as inserções de cada bloco podem ser agrupadas em batch
+@Entity
+@Data
+@IdClass(CalculationJobResultId.class)
+@Table(name = "calculation_job_results")
+public class CalculationJobResult {
+
+    @Id
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Id
+    @Column(name = "item_index")
+    private Integer itemIndex;
+
+    private String taxTypeName;
+
+    private Double baseValue;
+
+    private Double rate;
+
+    private Double taxValue;
+
+    private String errorMessage;
+}
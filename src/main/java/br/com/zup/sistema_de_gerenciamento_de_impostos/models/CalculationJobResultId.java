@@ -0,0 +1,9 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import java.io.Serializable;
+
+public record CalculationJobResultId(Long jobId, Integer itemIndex) implements Serializable {
+    public CalculationJobResultId() {
+        this(null, null);
+    }
+}
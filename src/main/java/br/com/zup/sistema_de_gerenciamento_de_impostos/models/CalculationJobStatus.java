@@ -0,0 +1,12 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+public enum CalculationJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Contador de alterações por escopo, incrementado na mesma transação da alteração.
+// Nós sem a conexão de escuta comparam este valor periodicamente para saber se estão defasados
+@Entity
+@Data
+@Table(name = "change_versions")
+public class ChangeVersion {
+
+    @Id
+    private String scope;
+
+    @Column(nullable = false)
+    private Long version;
+}
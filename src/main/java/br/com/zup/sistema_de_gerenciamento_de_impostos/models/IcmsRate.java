@@ -0,0 +1,26 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Alíquota de ICMS de uma UF de origem para uma de destino; com origem igual ao destino, a alíquota interna
+@Entity
+@Data
+@Table(name = "icms_rates", uniqueConstraints = @UniqueConstraint(columnNames = {"origin_uf", "destination_uf"}))
+public class IcmsRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "origin_uf", nullable = false, length = 2)
+    private Uf originUf;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "destination_uf", nullable = false, length = 2)
+    private Uf destinationUf;
+
+    @Column(nullable = false)
+    private Double rate;
+}
@@ -0,0 +1,31 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Token JWT emitido no login, pelo jti. Permite revogar os tokens de um usuário; só os revogados
+// e ainda não vencidos são carregados em memória
+@Entity
+@Data
+@Table(name = "issued_tokens", indexes = {
+        @Index(name = "idx_issued_tokens_username", columnList = "username"),
+        @Index(name = "idx_issued_tokens_revoked_at", columnList = "revoked_at")
+})
+public class IssuedToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Nulo enquanto o token vale
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+}
@@ -0,0 +1,30 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Alíquota de ISS de um município, identificado pelo código IBGE de 7 dígitos
+@Entity
+@Data
+@Table(name = "municipal_iss_rates")
+public class MunicipalIssRate {
+
+    // SEQUENCE em vez do código IBGE como id: com id atribuído o saveAll faria um SELECT por linha na importação
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "municipal_iss_rates_seq")
+    @SequenceGenerator(name = "municipal_iss_rates_seq", sequenceName = "municipal_iss_rates_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "ibge_code", nullable = false, unique = true)
+    private Integer ibgeCode;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 2)
+    private Uf uf;
+
+    @Column(nullable = false)
+    private Double rate;
+}
@@ -0,0 +1,28 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Alíquota de um tipo de imposto para um código NCM ou prefixo (capítulo, posição, subposição, item).
+// Vale a regra de prefixo mais longo: 8471.30.12 usa a regra de 847130 antes da de 8471
+@Entity
+@Data
+@Table(name = "ncm_rates", uniqueConstraints = @UniqueConstraint(columnNames = {"tax_type_id", "ncm_prefix"}))
+public class NcmRate {
+
+    // SEQUENCE para que o saveAll da TIPI completa seja gravado em lotes
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ncm_rates_seq")
+    @SequenceGenerator(name = "ncm_rates_seq", sequenceName = "ncm_rates_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "tax_type_id", nullable = false)
+    private Long taxTypeId;
+
+    // Somente dígitos, de 2 a 8
+    @Column(name = "ncm_prefix", nullable = false, length = 8)
+    private String ncmPrefix;
+
+    @Column(nullable = false)
+    private Double rate;
+}
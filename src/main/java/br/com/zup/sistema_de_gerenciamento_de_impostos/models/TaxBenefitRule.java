@@ -0,0 +1,49 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Linha da tabela de decisão de benefícios de um tipo de imposto. Condições nulas valem para qualquer valor;
+// entre as regras que casam vale a de maior prioridade e, no empate, a cadastrada primeiro
+@Entity
+@Data
+@Table(name = "tax_benefit_rules", indexes = @Index(name = "idx_tax_benefit_rules_type", columnList = "tax_type_id"))
+public class TaxBenefitRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tax_benefit_rules_seq")
+    @SequenceGenerator(name = "tax_benefit_rules_seq", sequenceName = "tax_benefit_rules_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "tax_type_id", nullable = false)
+    private Long taxTypeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "benefit_type", nullable = false)
+    private TaxBenefitType benefitType;
+
+    // Percentual de redução da base; só em BASE_REDUCTION
+    @Column(name = "base_reduction")
+    private Double baseReduction;
+
+    @Column(nullable = false)
+    private Integer priority;
+
+    @Column(nullable = false)
+    private String description;
+
+    // UF de origem da operação
+    @Enumerated(EnumType.STRING)
+    @Column(length = 2)
+    private Uf uf;
+
+    // Prefixo de 2 a 8 dígitos, como nas regras por NCM
+    @Column(name = "ncm_prefix", length = 8)
+    private String ncmPrefix;
+
+    @Column(length = 4)
+    private String cfop;
+
+    @Enumerated(EnumType.STRING)
+    private TaxRegime regime;
+}
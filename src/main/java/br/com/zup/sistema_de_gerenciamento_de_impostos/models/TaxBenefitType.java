@@ -0,0 +1,8 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+public enum TaxBenefitType {
+    // Isenção: o imposto é zero
+    EXEMPTION,
+    // Redução da base de cálculo em um percentual antes de aplicar a estratégia do tipo
+    BASE_REDUCTION
+}
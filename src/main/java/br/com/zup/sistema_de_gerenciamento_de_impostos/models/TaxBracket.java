@@ -0,0 +1,27 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Faixa de uma tabela progressiva: para bases a partir de lowerBound, imposto = base * rate% - deduction
+@Entity
+@Data
+@Table(name = "tax_brackets", indexes = @Index(name = "idx_tax_brackets_type_bound", columnList = "tax_type_id, lower_bound"))
+public class TaxBracket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tax_type_id", nullable = false)
+    private Long taxTypeId;
+
+    @Column(name = "lower_bound", nullable = false)
+    private Double lowerBound;
+
+    @Column(nullable = false)
+    private Double rate;
+
+    @Column(nullable = false)
+    private Double deduction;
+}
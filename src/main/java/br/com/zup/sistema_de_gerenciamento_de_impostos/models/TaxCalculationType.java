@@ -0,0 +1,10 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+public enum TaxCalculationType {
+    // Alíquota única sobre o valor base (padrão)
+    FLAT,
+    // Tabela progressiva de faixas com parcela a deduzir (tax_brackets)
+    BRACKETS,
+    // Fórmula cadastrada no tipo de imposto, compilada uma vez no registro de estratégias
+    FORMULA
+}
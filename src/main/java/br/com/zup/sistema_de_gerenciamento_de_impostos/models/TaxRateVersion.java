@@ -0,0 +1,34 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Alíquota de um tipo de imposto vigente no intervalo [validFrom, validTo]; validTo nulo = sem data de término
+@Entity
+@Data
+@Table(name = "tax_rate_versions", indexes = @Index(name = "idx_tax_rate_versions_type_from", columnList = "tax_type_id, valid_from"))
+public class TaxRateVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tax_type_id", nullable = false)
+    private Long taxTypeId;
+
+    @NotNull(message = "A alíquota é obrigatória")
+    @Positive(message = "A alíquota deve ser um valor positivo")
+    @Column(nullable = false)
+    private Double rate;
+
+    @NotNull(message = "O início da vigência é obrigatório")
+    @Column(name = "valid_from", nullable = false)
+    private LocalDate validFrom;
+
+    @Column(name = "valid_to")
+    private LocalDate validTo;
+}
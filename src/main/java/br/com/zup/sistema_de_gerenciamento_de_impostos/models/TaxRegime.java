@@ -0,0 +1,6 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+// Regime tributário do contribuinte, usado como condição nas regras de benefício
+public enum TaxRegime {
+    SIMPLES_NACIONAL, LUCRO_PRESUMIDO, LUCRO_REAL
+}
@@ -5,6 +5,11 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Data
@@ -28,6 +33,24 @@ public class TaxType {
     @Column(nullable = false)
     private Double rate;
     
+    // Nulo em registros antigos: tratado como FLAT
+    @Enumerated(EnumType.STRING)
+    private TaxCalculationType calculationType;
+    
+    // Opcional: validada e compilada no cadastro (ver TaxFormula)
+    @Column(length = 500)
+    private String formula;
+    
+    // "Por dentro": o imposto integra a própria base de cálculo, base / (1 - alíquota)
+    private Boolean inclusiveBase;
+    
+    // Tipos de imposto cujo valor compõe a base deste (ex.: IPI na base do ICMS) em uma nota fiscal
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "tax_type_base_includes", joinColumns = @JoinColumn(name = "tax_type_id"))
+    @Column(name = "included_tax_type_id")
+    private Set<Long> baseIncludes = new HashSet<>();
+    
     // Getters e Setters manuais
     public Long getId() {
         return id;
@@ -60,4 +83,36 @@ public class TaxType {
     public void setRate(Double rate) {
         this.rate = rate;
     }
+    
+    public TaxCalculationType getCalculationType() {
+        return calculationType;
+    }
+    
+    public void setCalculationType(TaxCalculationType calculationType) {
+        this.calculationType = calculationType;
+    }
+    
+    public String getFormula() {
+        return formula;
+    }
+    
+    public void setFormula(String formula) {
+        this.formula = formula;
+    }
+    
+    public Boolean getInclusiveBase() {
+        return inclusiveBase;
+    }
+    
+    public void setInclusiveBase(Boolean inclusiveBase) {
+        this.inclusiveBase = inclusiveBase;
+    }
+    
+    public Set<Long> getBaseIncludes() {
+        return baseIncludes;
+    }
+    
+    public void setBaseIncludes(Set<Long> baseIncludes) {
+        this.baseIncludes = baseIncludes;
+    }
 }
\ No newline at end of file
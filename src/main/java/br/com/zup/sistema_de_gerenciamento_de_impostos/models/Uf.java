@@ -0,0 +1,6 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.models;
+
+// Unidades federativas; o ordinal indexa a matriz de alíquotas de ICMS e não deve ser reordenado
+public enum Uf {
+    AC, AL, AP, AM, BA, CE, DF, ES, GO, MA, MT, MS, MG, PA, PB, PR, PE, PI, RJ, RN, RS, RO, RR, SC, SP, SE, TO
+}
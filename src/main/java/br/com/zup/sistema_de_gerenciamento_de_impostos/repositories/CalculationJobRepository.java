@@ -0,0 +1,69 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJob;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CalculationJobRepository extends JpaRepository<CalculationJob, Long> {
+    @Query("select j from CalculationJob j where j.status in :statuses"
+            + " and (j.leaseExpiresAt is null or j.leaseExpiresAt < :now) order by j.id")
+    List<CalculationJob> findWithExpiredLease(@Param("statuses") Collection<CalculationJobStatus> statuses,
+                                              @Param("now") LocalDateTime now);
+
+    // UPDATE condicional: entre dois nós disputando o mesmo job, só um altera a linha
+    @Modifying
+    @Query("update CalculationJob j set j.nodeId = :nodeId, j.leaseExpiresAt = :leaseUntil where j.id = :jobId"
+            + " and j.status in :statuses and (j.leaseExpiresAt is null or j.leaseExpiresAt < :now)")
+    int claim(@Param("jobId") Long jobId, @Param("nodeId") String nodeId,
+              @Param("statuses") Collection<CalculationJobStatus> statuses,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("update CalculationJob j set j.leaseExpiresAt = :leaseUntil where j.id in :jobIds and j.nodeId = :nodeId")
+    int renewLeases(@Param("nodeId") String nodeId, @Param("jobIds") Collection<Long> jobIds,
+                    @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("select j.id from CalculationJob j where j.id in :jobIds and j.nodeId = :nodeId")
+    List<Long> findOwnedIds(@Param("nodeId") String nodeId, @Param("jobIds") Collection<Long> jobIds);
+
+    @Modifying
+    @Query("update CalculationJob j set j.status = :pending, j.leaseExpiresAt = null, j.updatedAt = :now"
+            + " where j.id = :jobId and j.nodeId = :nodeId and j.status in :statuses")
+    int release(@Param("jobId") Long jobId, @Param("nodeId") String nodeId,
+                @Param("statuses") Collection<CalculationJobStatus> statuses,
+                @Param("pending") CalculationJobStatus pending, @Param("now") LocalDateTime now);
+
+    // As gravações de progresso e de status final também são condicionais ao dono: um nó que perdeu o lease
+    // altera 0 linhas, e a linha fica travada até o commit, sem que outro nó a assuma no meio do bloco
+    @Modifying
+    @Query("update CalculationJob j set j.status = :status, j.updatedAt = :now"
+            + " where j.id = :jobId and j.nodeId = :nodeId")
+    int updateStatus(@Param("jobId") Long jobId, @Param("nodeId") String nodeId,
+                     @Param("status") CalculationJobStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update CalculationJob j set j.processedItems = :processedItems, j.errorCount = :errorCount,"
+            + " j.updatedAt = :now where j.id = :jobId and j.nodeId = :nodeId")
+    int updateProgress(@Param("jobId") Long jobId, @Param("nodeId") String nodeId,
+                       @Param("processedItems") int processedItems, @Param("errorCount") int errorCount,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update CalculationJob j set j.status = :failed, j.errorMessage = :errorMessage, j.updatedAt = :now"
+            + " where j.id = :jobId and j.nodeId = :nodeId")
+    int fail(@Param("jobId") Long jobId, @Param("nodeId") String nodeId,
+             @Param("failed") CalculationJobStatus failed, @Param("errorMessage") String errorMessage,
+             @Param("now") LocalDateTime now);
+
+    @Query("select j.processedItems from CalculationJob j where j.id = :jobId")
+    int findProcessedItems(@Param("jobId") Long jobId);
+}
@@ -0,0 +1,26 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJobResult;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJobResultId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CalculationJobResultRepository extends JpaRepository<CalculationJobResult, CalculationJobResultId> {
+    // Faixa [from, to) pela chave primária: cada página é uma varredura de índice, sem OFFSET
+    List<CalculationJobResult> findByJobIdAndItemIndexGreaterThanEqualAndItemIndexLessThanOrderByItemIndex(
+            Long jobId, int from, int to);
+
+    @Modifying
+    @Query("delete from CalculationJobResult r where r.jobId = :jobId and r.itemIndex >= :from")
+    int deleteFrom(@Param("jobId") Long jobId, @Param("from") int from);
+
+    @Modifying
+    @Query("delete from CalculationJobResult r where r.jobId = :jobId")
+    int deleteByJob(@Param("jobId") Long jobId);
+}
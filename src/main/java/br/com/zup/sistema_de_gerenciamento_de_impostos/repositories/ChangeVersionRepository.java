@@ -0,0 +1,9 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.ChangeVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeVersionRepository extends JpaRepository<ChangeVersion, String> {
+}
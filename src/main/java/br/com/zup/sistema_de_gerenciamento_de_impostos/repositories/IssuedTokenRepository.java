@@ -0,0 +1,26 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IssuedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface IssuedTokenRepository extends JpaRepository<IssuedToken, String> {
+    List<IssuedToken> findByRevokedAtIsNotNullAndExpiresAtAfter(Instant now);
+
+    List<IssuedToken> findByUsernameAndRevokedAtIsNullAndExpiresAtAfter(String username, Instant now);
+
+    List<IssuedToken> findByUsernameAndRevokedAtIsNotNullAndExpiresAtAfter(String username, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IssuedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,12 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MunicipalIssRateRepository extends JpaRepository<MunicipalIssRate, Long> {
+    Optional<MunicipalIssRate> findByIbgeCode(Integer ibgeCode);
+}
@@ -0,0 +1,19 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NcmRateRepository extends JpaRepository<NcmRate, Long> {
+    List<NcmRate> findByTaxTypeIdOrderByNcmPrefix(Long taxTypeId);
+
+    // DELETE único: a exclusão derivada carregaria e removeria as ~10 mil regras da TIPI uma a uma
+    @Modifying
+    @Query("DELETE FROM NcmRate r WHERE r.taxTypeId = :taxTypeId")
+    void deleteByTaxTypeId(Long taxTypeId);
+}
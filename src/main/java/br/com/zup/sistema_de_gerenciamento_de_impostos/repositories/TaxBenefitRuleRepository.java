@@ -0,0 +1,18 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaxBenefitRuleRepository extends JpaRepository<TaxBenefitRule, Long> {
+    List<TaxBenefitRule> findByTaxTypeIdOrderByPriorityDescIdAsc(Long taxTypeId);
+
+    @Modifying
+    @Query("DELETE FROM TaxBenefitRule r WHERE r.taxTypeId = :taxTypeId")
+    void deleteByTaxTypeId(Long taxTypeId);
+}
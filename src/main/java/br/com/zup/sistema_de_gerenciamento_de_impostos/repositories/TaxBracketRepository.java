@@ -0,0 +1,14 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBracket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaxBracketRepository extends JpaRepository<TaxBracket, Long> {
+    List<TaxBracket> findByTaxTypeIdOrderByLowerBound(Long taxTypeId);
+
+    void deleteByTaxTypeId(Long taxTypeId);
+}
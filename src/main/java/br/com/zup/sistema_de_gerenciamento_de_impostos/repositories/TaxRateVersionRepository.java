@@ -0,0 +1,17 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaxRateVersionRepository extends JpaRepository<TaxRateVersion, Long> {
+    List<TaxRateVersion> findByTaxTypeIdOrderByValidFrom(Long taxTypeId);
+
+    Optional<TaxRateVersion> findByIdAndTaxTypeId(Long id, Long taxTypeId);
+
+    void deleteByTaxTypeId(Long taxTypeId);
+}
@@ -1,7 +1,11 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.repositories;
 
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +13,9 @@ import java.util.Optional;
 @Repository
 public interface TaxTypeRepository extends JpaRepository<TaxType, Long> {
     Optional<TaxType> findByName(String name);
-}
\ No newline at end of file
+
+    // SELECT ... FOR UPDATE: serializa, até o commit, as gravações que dependem de ler o estado atual do tipo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TaxType t where t.id = :id")
+    Optional<TaxType> findByIdForUpdate(@Param("id") Long id);
+}
@@ -4,7 +4,9 @@ import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.AuthResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.LoginDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.RegisterUserDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.DuplicateResourceException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.JwtTokenProvider;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.SignedToken;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.User;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.UserRepository;
 import org.slf4j.Logger;
@@ -16,7 +18,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthService {
@@ -34,7 +35,15 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
     
-    @Transactional
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+    
+    // Sem @Transactional: o BCrypt pode esperar até impostos.senhas.espera-maxima na fila do pool de hash, e
+    // dentro da transação essa espera prenderia uma conexão do Hikari. As consultas e o save usam transações
+    // curtas do repositório; a corrida entre dois cadastros iguais segue barrada pelas colunas unique
     public User register(RegisterUserDto dto) {
         if (userRepository.findByUsername(dto.username()).isPresent()) {
             throw new DuplicateResourceException("Usuário", "username", dto.username());
@@ -54,14 +63,22 @@ public class AuthService {
         return userRepository.save(user);
     }
     
+    // Com o circuito do banco aberto o login é recusado (503) de propósito: um token sem registro do jti não
+    // poderia ser revogado até vencer. A checagem vem antes da autenticação para não gastar o BCrypt à toa;
+    // os tokens já emitidos continuam valendo, pois o filtro não consulta o banco
     public AuthResponseDto login(LoginDto dto) {
+        if (databaseCircuitBreaker.isOpen()) {
+            throw new ServiceUnavailableException("Banco de dados indisponível. Tente novamente em instantes.");
+        }
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(dto.username(), dto.password())
         );
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = jwtTokenProvider.generateToken(authentication);
+        SignedToken token = jwtTokenProvider.sign(authentication);
+        // O jti fica registrado para que os tokens do usuário possam ser revogados
+        tokenRevocationService.recordIssued(token.verified());
         
-        return new AuthResponseDto(token);
+        return new AuthResponseDto(token.value());
     }
 }
\ No newline at end of file
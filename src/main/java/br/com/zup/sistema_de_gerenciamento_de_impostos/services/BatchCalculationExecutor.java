@@ -0,0 +1,108 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+// Executa lotes grandes em um ForkJoinPool dedicado (nunca o common pool), preservando a ordem de entrada
+@Component
+public class BatchCalculationExecutor {
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
+    private final int chunkSize;
+
+    private final Counter parallelExecutions;
+    private final Counter sequentialExecutions;
+
+    public BatchCalculationExecutor(MeterRegistry meterRegistry,
+                                    @Value("${impostos.calculo.paralelo.tamanho-pool:0}") int poolSize,
+                                    @Value("${impostos.calculo.paralelo.limite:10000}") int sequentialThreshold,
+                                    @Value("${impostos.calculo.paralelo.tamanho-bloco:2048}") int chunkSize) {
+        int parallelism = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("calculo-lote-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.sequentialThreshold = sequentialThreshold;
+        this.chunkSize = Math.max(1, chunkSize);
+
+        this.parallelExecutions = Counter.builder("impostos.calculo.lote.execucoes")
+                .description("Lotes de cálculo executados, por modo")
+                .tag("modo", "paralelo")
+                .register(meterRegistry);
+        this.sequentialExecutions = Counter.builder("impostos.calculo.lote.execucoes")
+                .description("Lotes de cálculo executados, por modo")
+                .tag("modo", "sequencial")
+                .register(meterRegistry);
+        ExecutorServiceMetrics.monitor(meterRegistry, pool, "calculoLote");
+    }
+
+    // Preenche results[i] = calculator.apply(i) e devolve quantos resultados falharam
+    public <R> int execute(R[] results, IntFunction<R> calculator, Predicate<R> failed) {
+        if (results.length < sequentialThreshold || pool.getParallelism() == 1) {
+            sequentialExecutions.increment();
+            return calculateRange(results, calculator, failed, 0, results.length);
+        }
+        parallelExecutions.increment();
+        return pool.invoke(new ChunkTask<>(results, calculator, failed, 0, results.length, chunkSize));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static <R> int calculateRange(R[] results, IntFunction<R> calculator, Predicate<R> failed, int from, int to) {
+        int errors = 0;
+        for (int i = from; i < to; i++) {
+            R result = calculator.apply(i);
+            results[i] = result;
+            if (failed.test(result)) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    // Cada bloco escreve na própria faixa do array de resultados; só os totais são somados na junção
+    private static final class ChunkTask<R> extends RecursiveTask<Integer> {
+        private final R[] results;
+        private final IntFunction<R> calculator;
+        private final Predicate<R> failed;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        private ChunkTask(R[] results, IntFunction<R> calculator, Predicate<R> failed, int from, int to, int chunkSize) {
+            this.results = results;
+            this.calculator = calculator;
+            this.failed = failed;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= chunkSize) {
+                return calculateRange(results, calculator, failed, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask<R> left = new ChunkTask<>(results, calculator, failed, from, middle, chunkSize);
+            ChunkTask<R> right = new ChunkTask<>(results, calculator, failed, middle, to, chunkSize);
+            left.fork();
+            int rightErrors = right.compute();
+            return left.join() + rightErrors;
+        }
+    }
+}
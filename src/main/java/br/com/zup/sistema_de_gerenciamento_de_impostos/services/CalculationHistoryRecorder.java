@@ -0,0 +1,215 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Histórico de cálculos em write-behind: a requisição só enfileira; uma thread dedicada grava em lotes
+@Component
+public class CalculationHistoryRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(CalculationHistoryRecorder.class);
+
+    // Acorda a thread de gravação no desligamento sem interrompê-la no meio de um lote
+    private static final CalculationHistory WAKE_UP = new CalculationHistory();
+
+    // Parâmetros por nome: a ordem das colunas não depende do INSERT que o Hibernate geraria. ON CONFLICT: a linha
+    // de um job refeita na retomada já gravada é ignorada, sem derrubar o lote
+    static final String INSERT_SQL = "insert into calculation_history (id, tax_type_id, tax_type_name, base_value, rate,"
+            + " tax_value, calculated_at, job_id, item_index) values (nextval('calculation_history_seq'), :taxTypeId,"
+            + " :taxTypeName, :baseValue, :rate, :taxValue, :calculatedAt, :jobId, :itemIndex)"
+            + " on conflict (job_id, item_index) do nothing";
+
+    // Quanto um registro de job espera por vez na fila cheia antes de conferir se a gravação ainda está ativa
+    private static final long JOB_OFFER_WAIT_MILLIS = 100;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final BlockingQueue<CalculationHistory> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final Counter recorded;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public CalculationHistoryRecorder(NamedParameterJdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${impostos.historico.habilitado:true}") boolean enabled,
+                                      @Value("${impostos.historico.capacidade-fila:10000}") int queueCapacity,
+                                      @Value("${impostos.historico.tamanho-lote:500}") int batchSize,
+                                      @Value("${impostos.historico.intervalo-flush:PT1S}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+
+        this.recorded = Counter.builder("impostos.historico.gravados")
+                .description("Registros de histórico gravados no banco")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("impostos.historico.descartados")
+                .description("Registros de histórico descartados por fila cheia ou gravação parada")
+                .register(meterRegistry);
+        this.failed = Counter.builder("impostos.historico.falhas")
+                .description("Registros de histórico perdidos por falha na gravação")
+                .register(meterRegistry);
+        Gauge.builder("impostos.historico.fila", queue, BlockingQueue::size)
+                .description("Registros de histórico aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "historico-calculo");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Nunca bloqueia a requisição: com a fila cheia o registro é descartado e contado
+    public void record(Long taxTypeId, String taxTypeName, double baseValue, double rate, double taxValue) {
+        record(taxTypeId, taxTypeName, baseValue, rate, taxValue, null, null);
+    }
+
+    // Linha de um job: a chave (job, linha) torna a gravação idempotente quando o job é retomado. O job roda em
+    // segundo plano e seu histórico não pode sumir: com a fila cheia a thread do job espera a gravação abrir espaço,
+    // e só descarta (e conta) se a gravação estiver parada ou a thread for interrompida
+    public void record(Long taxTypeId, String taxTypeName, double baseValue, double rate, double taxValue,
+                       Long jobId, Integer itemIndex) {
+        if (!enabled) {
+            return;
+        }
+        CalculationHistory history = new CalculationHistory();
+        history.setJobId(jobId);
+        history.setItemIndex(itemIndex);
+        history.setTaxTypeId(taxTypeId);
+        history.setTaxTypeName(taxTypeName);
+        history.setBaseValue(baseValue);
+        history.setRate(rate);
+        history.setTaxValue(taxValue);
+        history.setCalculatedAt(LocalDateTime.now());
+        if (queue.offer(history)) {
+            return;
+        }
+        if (jobId == null || !offerUntilWritten(history)) {
+            dropped.increment();
+        }
+    }
+
+    private boolean offerUntilWritten(CalculationHistory history) {
+        try {
+            while (running) {
+                if (queue.offer(history, JOB_OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        // A thread é acordada, esvazia a fila, grava o último lote e termina; o banco ainda está disponível
+        // neste ponto. Interromper só como último recurso: a interrupção pode abortar o lote em andamento
+        running = false;
+        queue.offer(WAKE_UP);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (writer.isAlive()) {
+            logger.warn("Gravação do histórico de cálculo não terminou no desligamento; interrompendo");
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        writer = null;
+    }
+
+    // Grava quando o buffer atinge o tamanho do lote ou quando o intervalo expira, o que ocorrer primeiro
+    private void writeLoop() {
+        List<CalculationHistory> buffer = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (running || !queue.isEmpty() || !buffer.isEmpty()) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                CalculationHistory next = running && remaining > 0
+                        ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                        : queue.poll();
+                if (next != null && next != WAKE_UP) {
+                    buffer.add(next);
+                    queue.drainTo(buffer, batchSize - buffer.size());
+                }
+            } catch (InterruptedException ex) {
+                running = false;
+            }
+
+            if (buffer.size() >= batchSize || System.nanoTime() - deadline >= 0 || !running) {
+                flush(buffer);
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+        }
+    }
+
+    private void flush(List<CalculationHistory> buffer) {
+        buffer.removeIf(history -> history == WAKE_UP);
+        if (buffer.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] rows = new SqlParameterSource[buffer.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = parameters(buffer.get(i));
+        }
+        try {
+            // Um único batch JDBC em uma transação: o lote é gravado inteiro ou contado inteiro como falha
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+            recorded.increment(buffer.size());
+        } catch (RuntimeException ex) {
+            failed.increment(buffer.size());
+            logger.error("Falha ao gravar {} registros de histórico de cálculo", buffer.size(), ex);
+        }
+        buffer.clear();
+    }
+
+    private static SqlParameterSource parameters(CalculationHistory history) {
+        return new MapSqlParameterSource()
+                .addValue("taxTypeId", history.getTaxTypeId())
+                .addValue("taxTypeName", history.getTaxTypeName())
+                .addValue("baseValue", history.getBaseValue())
+                .addValue("rate", history.getRate())
+                .addValue("taxValue", history.getTaxValue())
+                .addValue("calculatedAt", history.getCalculatedAt())
+                .addValue("jobId", history.getJobId())
+                .addValue("itemIndex", history.getItemIndex());
+    }
+}
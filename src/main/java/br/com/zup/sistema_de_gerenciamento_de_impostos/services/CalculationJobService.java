@@ -0,0 +1,381 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.CalculationJobDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.CalculationJobResultPageDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJob;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJobStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class CalculationJobService {
+    private static final Logger logger = LoggerFactory.getLogger(CalculationJobService.class);
+
+    private static final TypeReference<List<TaxCalculationRequestDto>> REQUEST_LIST = new TypeReference<>() {};
+
+    // Mensagens de falha longas (pilhas, textos do banco) são cortadas antes de gravar
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 4000;
+    private static final String FALLBACK_ERROR_MESSAGE = "Falha no processamento; detalhes no log do nó.";
+
+    private final CalculationJobStore jobStore;
+    private final TaxCalculationService taxCalculationService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedJobs;
+    private final int chunkSize;
+    private final int maxPageSize;
+    private final String nodeId;
+    private final Duration lease;
+    private final Duration shutdownWait;
+
+    // Jobs com lease deste nó, na fila ou em execução; um job que sai daqui para no próximo bloco
+    private final Set<Long> ownedJobs = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+    private Thread leaseKeeper;
+
+    public CalculationJobService(CalculationJobStore jobStore,
+                                 TaxCalculationService taxCalculationService,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${impostos.jobs.tamanho-pool:2}") int poolSize,
+                                 @Value("${impostos.jobs.tamanho-fila:100}") int queueCapacity,
+                                 @Value("${impostos.jobs.tamanho-bloco:1000}") int chunkSize,
+                                 @Value("${impostos.jobs.tamanho-pagina-maximo:5000}") int maxPageSize,
+                                 @Value("${impostos.jobs.no:${HOSTNAME:local}}") String nodeName,
+                                 @Value("${impostos.jobs.lease:PT30S}") Duration lease,
+                                 @Value("${impostos.jobs.espera-desligamento:PT30S}") Duration shutdownWait) {
+        this.jobStore = jobStore;
+        this.taxCalculationService = taxCalculationService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxPageSize = maxPageSize;
+        // Sufixo aleatório: um reinício, ou outra instância no mesmo host, não herda os leases do processo anterior
+        this.nodeId = nodeName + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.lease = lease;
+        this.shutdownWait = shutdownWait;
+
+        // Fila limitada com AbortPolicy: quando cheia, o job é recusado em vez de acumular memória
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "calculo-job-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.rejectedJobs = Counter.builder("impostos.jobs.rejeitados")
+                .description("Jobs de cálculo recusados por fila cheia")
+                .register(meterRegistry);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "calculoJobs");
+    }
+
+    public CalculationJobDto submit(List<TaxCalculationRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("O lote deve conter ao menos um item.");
+        }
+
+        CalculationJob job = new CalculationJob();
+        job.setStatus(CalculationJobStatus.PENDING);
+        job.setNodeId(nodeId);
+        job.setTotalItems(requests.size());
+        job.setPayload(writePayload(requests));
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        job.setLeaseExpiresAt(job.getCreatedAt().plus(lease));
+        CalculationJob created = jobStore.create(job);
+
+        ownedJobs.add(created.getId());
+        try {
+            executor.execute(() -> run(created.getId()));
+        } catch (RejectedExecutionException ex) {
+            ownedJobs.remove(created.getId());
+            jobStore.delete(created.getId());
+            rejectedJobs.increment();
+            throw new ServiceUnavailableException("Fila de jobs de cálculo cheia. Tente novamente mais tarde.");
+        }
+        return toDto(created);
+    }
+
+    public CalculationJobDto findById(Long jobId) {
+        return toDto(getJob(jobId));
+    }
+
+    public CalculationJobResultPageDto findResults(Long jobId, int pagina, int tamanho) {
+        if (pagina < 0) {
+            throw new BadRequestException("A página deve ser maior ou igual a zero.");
+        }
+        if (tamanho <= 0 || tamanho > maxPageSize) {
+            throw new BadRequestException("O tamanho da página deve estar entre 1 e " + maxPageSize + ".");
+        }
+
+        CalculationJob job = getJob(jobId);
+        int from = (int) Math.min((long) pagina * tamanho, job.getProcessedItems());
+        int to = Math.min(from + tamanho, job.getProcessedItems());
+        List<TaxCalculationBatchItemDto> items = jobStore.findResults(jobId, from, to);
+
+        return new CalculationJobResultPageDto(jobId, job.getStatus().name(), pagina, tamanho,
+                job.getTotalItems(), job.getProcessedItems(), items);
+    }
+
+    // Escreve os resultados já calculados em NDJSON, lendo o armazenamento em blocos
+    public long streamResults(Long jobId, OutputStream output) throws IOException {
+        CalculationJob job = getJob(jobId);
+        ObjectWriter itemWriter = objectMapper.writerFor(TaxCalculationBatchItemDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long lines = 0;
+        for (int from = 0; from < job.getProcessedItems(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, job.getProcessedItems());
+            for (TaxCalculationBatchItemDto item : jobStore.findResults(jobId, from, to)) {
+                itemWriter.writeValue(generator, item);
+                generator.writeRaw('\n');
+                lines++;
+            }
+            generator.flush();
+        }
+        return lines;
+    }
+
+    // Na subida, assume os jobs sem dono; depois, uma thread renova os leases deste nó e
+    // retoma os jobs cujo lease venceu (nó que caiu sem liberá-los), a partir do último bloco gravado
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void resumeUnfinished() {
+        claimStale();
+        if (leaseKeeper == null && !stopping) {
+            leaseKeeper = new Thread(this::leaseLoop, "lease-jobs");
+            leaseKeeper.setDaemon(true);
+            leaseKeeper.start();
+        }
+    }
+
+    // Desligamento gracioso: para de aceitar jobs e espera os em execução terminarem o bloco atual.
+    // Os que não terminaram voltam a PENDING, sem lease, para que qualquer nó os retome de imediato
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownWait.toMillis(), TimeUnit.MILLISECONDS)) {
+            logger.warn("Jobs de cálculo ainda em execução após {}; interrompendo", shutdownWait);
+            executor.shutdownNow();
+            executor.awaitTermination(shutdownWait.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        synchronized (this) {
+            if (leaseKeeper != null) {
+                leaseKeeper.interrupt();
+                leaseKeeper.join(TimeUnit.SECONDS.toMillis(5));
+                leaseKeeper = null;
+            }
+        }
+        for (Long jobId : List.copyOf(ownedJobs)) {
+            release(jobId);
+        }
+    }
+
+    void claimStale() {
+        LocalDateTime now = LocalDateTime.now();
+        for (CalculationJob job : jobStore.findClaimable(now)) {
+            if (stopping) {
+                return;
+            }
+            if (!jobStore.claim(job.getId(), nodeId, now, now.plus(lease))) {
+                continue;
+            }
+            ownedJobs.add(job.getId());
+            try {
+                executor.execute(() -> run(job.getId()));
+                logger.info("Retomando job de cálculo {} a partir do item {}", job.getId(), job.getProcessedItems());
+            } catch (RejectedExecutionException ex) {
+                logger.warn("Fila cheia ao retomar o job de cálculo {}; ele permanece pendente", job.getId());
+                release(job.getId());
+                return;
+            }
+        }
+    }
+
+    // Um job cujo lease foi assumido por outro nó deixa o conjunto e para no próximo bloco
+    void renewLeases() {
+        List<Long> jobIds = List.copyOf(ownedJobs);
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        Set<Long> owned = jobStore.renewLeases(nodeId, jobIds, LocalDateTime.now().plus(lease));
+        for (Long jobId : jobIds) {
+            if (!owned.contains(jobId)) {
+                ownedJobs.remove(jobId);
+                logger.warn("Lease do job de cálculo {} assumido por outro nó", jobId);
+            }
+        }
+    }
+
+    void run(Long jobId) {
+        try {
+            process(jobId);
+        } finally {
+            ownedJobs.remove(jobId);
+        }
+    }
+
+    private void process(Long jobId) {
+        CalculationJob job = jobStore.findById(jobId).orElse(null);
+        if (job == null || job.getStatus().isFinished() || !nodeId.equals(job.getNodeId())) {
+            return;
+        }
+
+        try {
+            List<TaxCalculationRequestDto> requests = objectMapper.readValue(job.getPayload(), REQUEST_LIST);
+            if (stopping) {
+                release(jobId);
+                return;
+            }
+            if (!jobStore.markRunning(jobId, nodeId)) {
+                logLostLease(jobId);
+                return;
+            }
+
+            int processed = job.getProcessedItems();
+            int errors = job.getErrorCount();
+            while (processed < requests.size()) {
+                if (stopping || Thread.currentThread().isInterrupted()) {
+                    release(jobId);
+                    return;
+                }
+                if (!ownedJobs.contains(jobId)) {
+                    return;
+                }
+                int end = Math.min(processed + chunkSize, requests.size());
+                List<TaxCalculationBatchItemDto> items = new ArrayList<>(end - processed);
+                for (int i = processed; i < end; i++) {
+                    TaxCalculationBatchItemDto item = taxCalculationService.calculateItem(i, requests.get(i), jobId);
+                    if (item.erro() != null) {
+                        errors++;
+                    }
+                    items.add(item);
+                }
+                // Sem o lease, o bloco calculado é descartado: o novo dono refaz a partir do progresso gravado
+                if (!jobStore.appendResults(jobId, nodeId, items, end, errors)) {
+                    logLostLease(jobId);
+                    return;
+                }
+                processed = end;
+            }
+            if (!jobStore.complete(jobId, nodeId)) {
+                logLostLease(jobId);
+            }
+        } catch (Exception ex) {
+            if (stopping) {
+                // Interrompido no desligamento: o bloco em andamento é descartado e refeito na retomada
+                logger.info("Job de cálculo {} interrompido no desligamento; permanece retomável", jobId);
+                release(jobId);
+            } else if (ownedJobs.contains(jobId)) {
+                logger.error("Falha no job de cálculo {}", jobId, ex);
+                fail(jobId, ex);
+            }
+        }
+    }
+
+    private void fail(Long jobId, Exception cause) {
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+        if (message.length() > MAX_ERROR_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+        }
+        boolean owned;
+        try {
+            owned = jobStore.fail(jobId, nodeId, message);
+        } catch (RuntimeException ex) {
+            // Ex.: coluna ainda varchar(255) em um banco anterior ao text. Sem o FAILED gravado,
+            // o lease venceria e outro nó repetiria o job, então grava ao menos o status
+            logger.error("Não foi possível gravar a mensagem de falha do job de cálculo {}", jobId, ex);
+            owned = jobStore.fail(jobId, nodeId, FALLBACK_ERROR_MESSAGE);
+        }
+        if (!owned) {
+            logLostLease(jobId);
+        }
+    }
+
+    private void logLostLease(Long jobId) {
+        ownedJobs.remove(jobId);
+        logger.warn("Lease do job de cálculo {} assumido por outro nó; o bloco atual foi descartado", jobId);
+    }
+
+    private void release(Long jobId) {
+        try {
+            jobStore.release(jobId, nodeId);
+        } catch (RuntimeException ex) {
+            logger.warn("Não foi possível liberar o job de cálculo {}; ele será retomado quando o lease vencer", jobId, ex);
+        } finally {
+            ownedJobs.remove(jobId);
+        }
+    }
+
+    // Continua renovando durante o desligamento, enquanto os jobs em execução terminam o bloco atual
+    private void leaseLoop() {
+        long interval = Math.max(1, lease.toMillis() / 3);
+        while (true) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            try {
+                renewLeases();
+                claimStale();
+            } catch (RuntimeException ex) {
+                logger.warn("Falha ao renovar os leases dos jobs de cálculo", ex);
+            }
+        }
+    }
+
+    private CalculationJob getJob(Long jobId) {
+        return jobStore.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job", "id", jobId));
+    }
+
+    private String writePayload(List<TaxCalculationRequestDto> requests) {
+        try {
+            return objectMapper.writeValueAsString(requests);
+        } catch (JsonProcessingException ex) {
+            throw new BadRequestException("Lote inválido: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static CalculationJobDto toDto(CalculationJob job) {
+        return new CalculationJobDto(job.getId(), job.getStatus().name(), job.getTotalItems(),
+                job.getProcessedItems(), job.getErrorCount(), job.getErrorMessage(),
+                job.getCreatedAt(), job.getUpdatedAt());
+    }
+}
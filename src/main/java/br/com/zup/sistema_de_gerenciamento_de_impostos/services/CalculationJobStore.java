@@ -0,0 +1,48 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJob;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Estado dos jobs de cálculo: PostgreSQL em produção, memória para testes (impostos.jobs.armazenamento)
+public interface CalculationJobStore {
+    CalculationJob create(CalculationJob job);
+
+    Optional<CalculationJob> findById(Long jobId);
+
+    // Jobs PENDING/RUNNING sem lease ou com o lease vencido, candidatos à retomada por qualquer nó
+    List<CalculationJob> findClaimable(LocalDateTime now);
+
+    // Assume o job com um lease até leaseUntil; false se outro nó o assumiu antes ou o lease ainda vale
+    boolean claim(Long jobId, String nodeId, LocalDateTime now, LocalDateTime leaseUntil);
+
+    // Renova o lease dos jobs ainda detidos pelo nó e devolve os ids deles
+    Set<Long> renewLeases(String nodeId, Collection<Long> jobIds, LocalDateTime leaseUntil);
+
+    // Devolve um job não concluído a PENDING, sem lease, preservando o progresso gravado
+    void release(Long jobId, String nodeId);
+
+    // As gravações abaixo só valem para o nó que detém o job; false quando outro nó o assumiu (lease perdido
+    // em uma pausa de GC ou partição de rede), e nesse caso nada é gravado
+
+    // Marca o job como RUNNING e descarta resultados gravados além de processedItems
+    boolean markRunning(Long jobId, String nodeId);
+
+    // Grava um bloco de resultados e o progresso de forma atômica
+    boolean appendResults(Long jobId, String nodeId, List<TaxCalculationBatchItemDto> items,
+                          int processedItems, int errorCount);
+
+    boolean complete(Long jobId, String nodeId);
+
+    boolean fail(Long jobId, String nodeId, String errorMessage);
+
+    void delete(Long jobId);
+
+    // Resultados com índice em [from, to), em ordem
+    List<TaxCalculationBatchItemDto> findResults(Long jobId, int from, int to);
+}
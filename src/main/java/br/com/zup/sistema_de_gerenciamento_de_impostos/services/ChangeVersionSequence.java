@@ -0,0 +1,62 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.ChangeVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Versões aplicadas neste nó de um escopo de change_version, comum ao TaxTypeChangeListener e aos
+// ClusterNotificationHandler: a notificação seguinte à última aplicada é aplicada; uma lacuna indica mensagens
+// perdidas e força a recarga completa, assim como, no resync, uma versão do banco diferente da aplicada
+public class ChangeVersionSequence {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeVersionSequence.class);
+
+    private final String scope;
+    private final ChangeVersionRepository changeVersionRepository;
+    private final TaxTypeChangeNotifier notifier;
+
+    // Última versão aplicada neste nó; -1 antes da primeira leitura
+    private long appliedVersion = -1;
+
+    public ChangeVersionSequence(String scope, ChangeVersionRepository changeVersionRepository,
+                                 TaxTypeChangeNotifier notifier) {
+        this.scope = scope;
+        this.changeVersionRepository = changeVersionRepository;
+        this.notifier = notifier;
+    }
+
+    // Versões já aplicadas são ignoradas; apply só roda para alterações de outros nós, já que a deste nó foi
+    // aplicada na própria transação. A versão avança mesmo se apply ou reloadAll falharem: o próximo resync
+    // não recarrega, mas a falha fica no log e a próxima notificação segue normalmente
+    public synchronized void accept(long version, String originNodeId, Runnable apply, Runnable reloadAll) {
+        if (version <= appliedVersion) {
+            return;
+        }
+        boolean missed = appliedVersion >= 0 && version > appliedVersion + 1;
+        appliedVersion = version;
+        try {
+            if (missed) {
+                reloadAll.run();
+            } else if (!originNodeId.equals(notifier.nodeId())) {
+                apply.run();
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao aplicar a versão {} de {}", version, scope, ex);
+        }
+    }
+
+    // Ao conectar e a cada volta de polling; a primeira leitura só registra a versão, sem recarregar
+    public synchronized void resync(Runnable reloadAll) {
+        try {
+            long current = changeVersionRepository.findById(scope)
+                    .map(ChangeVersion::getVersion)
+                    .orElse(0L);
+            if (appliedVersion >= 0 && current != appliedVersion) {
+                reloadAll.run();
+            }
+            appliedVersion = current;
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao consultar a versão de {}", scope, ex);
+        }
+    }
+}
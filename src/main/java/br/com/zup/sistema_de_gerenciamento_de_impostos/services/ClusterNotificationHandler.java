@@ -0,0 +1,14 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+// Estado em memória sincronizado entre as réplicas por um canal próprio, escutado na mesma conexão
+// de LISTEN do TaxTypeChangeListener. A sequência de versões (aplicar ou recarregar tudo) fica no ChangeVersionSequence
+public interface ClusterNotificationHandler {
+
+    String channel();
+
+    // Notificação recebida no canal; não deve lançar exceção
+    void handle(String payload);
+
+    // Chamado ao conectar e a cada volta de polling: compara a versão com o banco e recarrega se estiver defasado
+    void resync();
+}
@@ -1,33 +1,135 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TokenRevocationNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.UserChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.UserRepository;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.User;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
 import java.util.Set;
 
+// O cache é invalidado nos demais nós pelo mesmo NOTIFY da revogação de tokens (um por alteração de usuário)
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
-    @Autowired
-    private UserRepository userRepository;
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService, ClusterNotificationHandler {
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
+    
+    private final UserRepository userRepository;
+    
+    // Só os dados do usuário ficam em cache: o UserDetails devolvido é sempre novo, porque o
+    // ProviderManager apaga a senha do principal depois do login
+    private final Cache<String, CachedUser> byUsername;
+    
+    private final ChangeVersionSequence versions;
+    
+    private final String channel;
+    
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    ChangeVersionRepository changeVersionRepository,
+                                    TaxTypeChangeNotifier notifier,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${impostos.cache.usuarios.tamanho-maximo:10000}") long maximumSize,
+                                    @Value("${impostos.cache.usuarios.expiracao:PT1M}") Duration expireAfterWrite,
+                                    @Value("${impostos.jwt.revogacao.canal:impostos_revogacoes}") String channel) {
+        this.userRepository = userRepository;
+        this.versions = new ChangeVersionSequence(TokenRevocationService.SCOPE, changeVersionRepository, notifier);
+        this.channel = TaxTypeChangeNotifier.requireValidChannel(channel);
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "usersByUsername");
+    }
     
     @Override
-
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Usuário inexistente não entra no cache: a exceção sai do carregamento sem gravar nada
+        CachedUser user = byUsername.get(username, this::load);
+        
+        return new org.springframework.security.core.userdetails.User(
+                user.username(),
+                user.password(),
+                user.authorities()
+        );
+    }
+    
+    // Chamado pelo DaoAuthenticationProvider após um login cujo hash tem custo menor que impostos.senhas.custo.
+    // Regravar é oportunista: uma falha no banco não desfaz o login, o hash é atualizado no próximo
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        try {
+            userRepository.findByUsername(user.getUsername()).ifPresent(existing -> {
+                existing.setPassword(newPassword);
+                userRepository.save(existing);
+            });
+            evict(user.getUsername());
+        } catch (DataAccessException ex) {
+            logger.warn("Falha ao regravar o hash da senha de {}", user.getUsername(), ex);
+            return user;
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build();
+    }
+    
+    public void evict(String username) {
+        if (username != null) {
+            byUsername.invalidate(username);
+        }
+    }
+    
+    // Só depois do commit, para que uma leitura concorrente não devolva ao cache o usuário antigo
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.username());
+    }
+    
+    @Override
+    public String channel() {
+        return channel;
+    }
+    
+    // Alteração feita em outro nó; uma lacuna de versão esvazia o cache inteiro
+    @Override
+    public void handle(String payload) {
+        TokenRevocationNotification notification;
+        try {
+            notification = TokenRevocationNotification.parse(payload);
+        } catch (IllegalArgumentException ex) {
+            logger.warn(ex.getMessage());
+            return;
+        }
+        versions.accept(notification.version(), notification.nodeId(), () -> evict(notification.username()), byUsername::invalidateAll);
+    }
+    
+    @Override
+    public void resync() {
+        versions.resync(byUsername::invalidateAll);
+    }
+    
+    private CachedUser load(String username) {
         User user = userRepository.findByUsername(username).orElseThrow(() ->
             new UsernameNotFoundException("Usuário não encontrado com o username: " + username));
         
         Set<GrantedAuthority> authorities = Set.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
-        
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                authorities
-        );
+        return new CachedUser(user.getUsername(), user.getPassword(), authorities);
+    }
+    
+    private record CachedUser(String username, String password, Set<GrantedAuthority> authorities) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Disjuntor das consultas ao banco feitas no caminho do cálculo. Após falhas consecutivas ele abre:
+// as chamadas falham na hora, sem esperar o timeout do pool, e uma thread sonda o banco até ele voltar
+@Component
+public class DatabaseCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int failureThreshold;
+    private final Duration probeInterval;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final Counter rejected;
+    private final Counter opened;
+
+    private volatile boolean open;
+    private volatile boolean running;
+    private Thread prober;
+
+    public DatabaseCircuitBreaker(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${impostos.banco.circuito.falhas:5}") int failureThreshold,
+                                  @Value("${impostos.banco.circuito.intervalo-sonda:PT5S}") Duration probeInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.probeInterval = probeInterval;
+
+        this.rejected = Counter.builder("impostos.banco.circuito.rejeicoes")
+                .description("Consultas ao banco recusadas com o circuito aberto")
+                .register(meterRegistry);
+        this.opened = Counter.builder("impostos.banco.circuito.aberturas")
+                .description("Vezes em que o circuito do banco abriu")
+                .register(meterRegistry);
+        Gauge.builder("impostos.banco.circuito.aberto", this, breaker -> breaker.open ? 1 : 0)
+                .description("1 enquanto o circuito do banco está aberto")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        prober = new Thread(this::probeLoop, "sonda-banco");
+        prober.setDaemon(true);
+        prober.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (prober == null) {
+            return;
+        }
+        running = false;
+        prober.interrupt();
+        prober.join(TimeUnit.SECONDS.toMillis(30));
+        prober = null;
+    }
+
+    // Lança ServiceUnavailableException com o circuito aberto ou quando o banco falha
+    public <T> T call(Supplier<T> operation) {
+        if (open) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Banco de dados indisponível. Tente novamente em instantes.");
+        }
+        try {
+            T result = operation.get();
+            consecutiveFailures.set(0);
+            return result;
+        } catch (DataAccessException | TransactionException ex) {
+            recordFailure(ex);
+            throw new ServiceUnavailableException("Banco de dados indisponível. Tente novamente em instantes.");
+        }
+    }
+
+    public void recordFailure(Exception ex) {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && !open) {
+            open = true;
+            opened.increment();
+            logger.warn("Circuito do banco aberto após {} falhas consecutivas", failureThreshold, ex);
+        }
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    // Fecha o circuito se o banco responder
+    boolean probe() {
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        } catch (DataAccessException | TransactionException ex) {
+            return false;
+        }
+        consecutiveFailures.set(0);
+        if (open) {
+            open = false;
+            logger.info("Banco de dados disponível; circuito fechado");
+        }
+        return true;
+    }
+
+    private void probeLoop() {
+        while (running) {
+            try {
+                Thread.sleep(probeInterval.toMillis());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (open) {
+                probe();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.IcmsRateRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.IcmsRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IcmsRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.IcmsRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class IcmsRateService {
+    @Autowired
+    private IcmsRateRepository icmsRateRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<IcmsRate> findAll() {
+        return icmsRateRepository.findAll().stream()
+                .sorted(Comparator.comparing(IcmsRate::getOriginUf).thenComparing(IcmsRate::getDestinationUf))
+                .toList();
+    }
+
+    // Substitui a matriz inteira; a nova matriz passa a valer após o commit
+    @Transactional
+    public List<IcmsRate> replace(List<IcmsRateRequestDto> requestDtos) {
+        if (requestDtos == null || requestDtos.isEmpty()) {
+            throw new BadRequestException("Informe ao menos uma alíquota.");
+        }
+
+        Set<String> pairs = new HashSet<>();
+        List<IcmsRate> icmsRates = new ArrayList<>(requestDtos.size());
+        for (IcmsRateRequestDto requestDto : requestDtos) {
+            if (requestDto == null || requestDto.ufOrigem() == null || requestDto.ufDestino() == null
+                    || requestDto.aliquota() == null) {
+                throw new BadRequestException("Cada alíquota deve informar UF de origem, UF de destino e alíquota.");
+            }
+            if (requestDto.aliquota() < 0 || requestDto.aliquota() >= 100) {
+                throw new BadRequestException("A alíquota deve estar entre 0 e 100.");
+            }
+            if (!pairs.add(requestDto.ufOrigem() + "-" + requestDto.ufDestino())) {
+                throw new BadRequestException("Alíquota repetida de " + requestDto.ufOrigem() + " para " + requestDto.ufDestino() + ".");
+            }
+            icmsRates.add(toEntity(requestDto.ufOrigem(), requestDto.ufDestino(), requestDto.aliquota()));
+        }
+
+        icmsRateRepository.deleteAllInBatch();
+        List<IcmsRate> saved = icmsRateRepository.saveAll(icmsRates);
+        eventPublisher.publishEvent(new IcmsRatesChangedEvent());
+        return saved;
+    }
+
+    private static IcmsRate toEntity(Uf origin, Uf destination, Double rate) {
+        IcmsRate icmsRate = new IcmsRate();
+        icmsRate.setOriginUf(origin);
+        icmsRate.setDestinationUf(destination);
+        icmsRate.setRate(rate);
+        return icmsRate;
+    }
+}
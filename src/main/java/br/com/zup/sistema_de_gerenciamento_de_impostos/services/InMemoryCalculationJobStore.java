@@ -0,0 +1,204 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJob;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJobStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Armazenamento local, sem persistência entre reinícios; indicado para testes
+@Component
+@ConditionalOnProperty(name = "impostos.jobs.armazenamento", havingValue = "memoria")
+public class InMemoryCalculationJobStore implements CalculationJobStore {
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, CalculationJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, List<TaxCalculationBatchItemDto>> results = new ConcurrentHashMap<>();
+
+    @Override
+    public CalculationJob create(CalculationJob job) {
+        CalculationJob stored = copy(job);
+        stored.setId(sequence.incrementAndGet());
+        jobs.put(stored.getId(), stored);
+        results.put(stored.getId(), new ArrayList<>());
+        return copy(stored);
+    }
+
+    @Override
+    public Optional<CalculationJob> findById(Long jobId) {
+        CalculationJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        synchronized (job) {
+            return Optional.of(copy(job));
+        }
+    }
+
+    @Override
+    public List<CalculationJob> findClaimable(LocalDateTime now) {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(CalculationJob::getId))
+                .map(job -> findById(job.getId()).orElseThrow())
+                .filter(job -> isClaimable(job, now))
+                .toList();
+    }
+
+    @Override
+    public boolean claim(Long jobId, String nodeId, LocalDateTime now, LocalDateTime leaseUntil) {
+        CalculationJob job = getJob(jobId);
+        synchronized (job) {
+            if (!isClaimable(job, now)) {
+                return false;
+            }
+            job.setNodeId(nodeId);
+            job.setLeaseExpiresAt(leaseUntil);
+            return true;
+        }
+    }
+
+    @Override
+    public Set<Long> renewLeases(String nodeId, Collection<Long> jobIds, LocalDateTime leaseUntil) {
+        Set<Long> owned = new HashSet<>();
+        for (Long jobId : jobIds) {
+            CalculationJob job = jobs.get(jobId);
+            if (job == null) {
+                continue;
+            }
+            synchronized (job) {
+                if (job.getNodeId().equals(nodeId)) {
+                    job.setLeaseExpiresAt(leaseUntil);
+                    owned.add(jobId);
+                }
+            }
+        }
+        return owned;
+    }
+
+    @Override
+    public void release(Long jobId, String nodeId) {
+        CalculationJob job = getJob(jobId);
+        synchronized (job) {
+            if (job.getNodeId().equals(nodeId) && !job.getStatus().isFinished()) {
+                job.setStatus(CalculationJobStatus.PENDING);
+                job.setLeaseExpiresAt(null);
+                job.setUpdatedAt(LocalDateTime.now());
+            }
+        }
+    }
+
+    @Override
+    public boolean markRunning(Long jobId, String nodeId) {
+        CalculationJob job = getJob(jobId);
+        synchronized (job) {
+            if (!job.getNodeId().equals(nodeId)) {
+                return false;
+            }
+            List<TaxCalculationBatchItemDto> jobResults = results.get(jobId);
+            jobResults.subList(job.getProcessedItems(), jobResults.size()).clear();
+            job.setStatus(CalculationJobStatus.RUNNING);
+            job.setUpdatedAt(LocalDateTime.now());
+            return true;
+        }
+    }
+
+    @Override
+    public boolean appendResults(Long jobId, String nodeId, List<TaxCalculationBatchItemDto> items,
+                                 int processedItems, int errorCount) {
+        CalculationJob job = getJob(jobId);
+        synchronized (job) {
+            if (!job.getNodeId().equals(nodeId)) {
+                return false;
+            }
+            results.get(jobId).addAll(items);
+            job.setProcessedItems(processedItems);
+            job.setErrorCount(errorCount);
+            job.setUpdatedAt(LocalDateTime.now());
+            return true;
+        }
+    }
+
+    @Override
+    public boolean complete(Long jobId, String nodeId) {
+        CalculationJob job = getJob(jobId);
+        synchronized (job) {
+            if (!job.getNodeId().equals(nodeId)) {
+                return false;
+            }
+            job.setStatus(CalculationJobStatus.COMPLETED);
+            job.setUpdatedAt(LocalDateTime.now());
+            return true;
+        }
+    }
+
+    @Override
+    public boolean fail(Long jobId, String nodeId, String errorMessage) {
+        CalculationJob job = getJob(jobId);
+        synchronized (job) {
+            if (!job.getNodeId().equals(nodeId)) {
+                return false;
+            }
+            job.setStatus(CalculationJobStatus.FAILED);
+            job.setErrorMessage(errorMessage);
+            job.setUpdatedAt(LocalDateTime.now());
+            return true;
+        }
+    }
+
+    @Override
+    public void delete(Long jobId) {
+        jobs.remove(jobId);
+        results.remove(jobId);
+    }
+
+    @Override
+    public List<TaxCalculationBatchItemDto> findResults(Long jobId, int from, int to) {
+        CalculationJob job = getJob(jobId);
+        synchronized (job) {
+            List<TaxCalculationBatchItemDto> jobResults = results.get(jobId);
+            int end = Math.min(to, jobResults.size());
+            return from >= end ? List.of() : List.copyOf(jobResults.subList(from, end));
+        }
+    }
+
+    private CalculationJob getJob(Long jobId) {
+        CalculationJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Job", "id", jobId);
+        }
+        return job;
+    }
+
+    private static boolean isClaimable(CalculationJob job, LocalDateTime now) {
+        return !job.getStatus().isFinished()
+                && (job.getLeaseExpiresAt() == null || job.getLeaseExpiresAt().isBefore(now));
+    }
+
+    private static CalculationJob copy(CalculationJob source) {
+        CalculationJob copy = new CalculationJob();
+        copy.setId(source.getId());
+        copy.setStatus(source.getStatus());
+        copy.setNodeId(source.getNodeId());
+        copy.setLeaseExpiresAt(source.getLeaseExpiresAt());
+        copy.setTotalItems(source.getTotalItems());
+        copy.setProcessedItems(source.getProcessedItems());
+        copy.setErrorCount(source.getErrorCount());
+        copy.setPayload(source.getPayload());
+        copy.setErrorMessage(source.getErrorMessage());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
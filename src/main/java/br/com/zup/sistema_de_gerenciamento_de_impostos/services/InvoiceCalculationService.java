@@ -0,0 +1,233 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceLineDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceResponseDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceTaxTotalDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.FlatRateTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.InvoicePlan;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MonetaryMath;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTrie;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.RegisteredTaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitMatcher;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class InvoiceCalculationService {
+    private final TaxCalculationStrategyRegistry strategyRegistry;
+    private final TaxBenefitTable taxBenefitTable;
+    private final NcmRateTable ncmRateTable;
+    private final CalculationHistoryRecorder historyRecorder;
+    private final RoundingMode roundingMode;
+
+    // Um plano por combinação distinta de impostos e data de referência (ou dia, sem ela), independente da ordem informada
+    private final Cache<PlanKey, InvoicePlan> plans;
+
+    public InvoiceCalculationService(TaxCalculationStrategyRegistry strategyRegistry,
+                                     TaxBenefitTable taxBenefitTable,
+                                     NcmRateTable ncmRateTable,
+                                     CalculationHistoryRecorder historyRecorder,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${impostos.calculo.arredondamento:HALF_EVEN}") RoundingMode roundingMode,
+                                     @Value("${impostos.nota.planos.tamanho-maximo:1000}") long maximumPlans) {
+        this.strategyRegistry = strategyRegistry;
+        this.taxBenefitTable = taxBenefitTable;
+        this.ncmRateTable = ncmRateTable;
+        this.historyRecorder = historyRecorder;
+        this.roundingMode = roundingMode;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maximumPlans)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, "invoicePlans");
+    }
+
+    public InvoiceResponseDto calculate(InvoiceRequestDto requestDto) {
+        if (requestDto.tiposImpostoIds() == null || requestDto.tiposImpostoIds().isEmpty()) {
+            throw new BadRequestException("Informe ao menos um tipo de imposto.");
+        }
+        if (requestDto.itens() == null || requestDto.itens().isEmpty()) {
+            throw new BadRequestException("A nota deve conter ao menos um item.");
+        }
+
+        // A chave do cache de planos não aceita null; id ausente é erro do pedido
+        for (int i = 0; i < requestDto.tiposImpostoIds().size(); i++) {
+            if (requestDto.tiposImpostoIds().get(i) == null) {
+                throw new BadRequestException("Tipo de imposto " + i + ": o id é obrigatório.");
+            }
+        }
+
+        Set<Long> taxTypeIds = new LinkedHashSet<>(requestDto.tiposImpostoIds());
+        InvoicePlan plan = planFor(taxTypeIds, requestDto.dataReferencia());
+
+        List<InvoiceItemDto> items = requestDto.itens();
+        long[] basesCentavos = new long[items.size()];
+        String[] ncms = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            InvoiceItemDto item = items.get(i);
+            if (item == null || item.valor() == null || item.valor() <= 0) {
+                throw new BadRequestException("Item " + i + ": o valor deve ser maior que zero.");
+            }
+            if (item.ncm() != null) {
+                ncms[i] = NcmRateTrie.normalize(item.ncm());
+                if (ncms[i] == null || ncms[i].length() != NcmRateTrie.CODE_LENGTH) {
+                    throw new BadRequestException("Item " + i + ": NCM deve ter 8 dígitos.");
+                }
+            }
+            if (item.cfop() != null && !TaxBenefitMatcher.isValidCfop(item.cfop())) {
+                throw new BadRequestException("Item " + i + ": CFOP deve ter 4 dígitos.");
+            }
+            basesCentavos[i] = MonetaryMath.toCentavos(item.valor());
+        }
+
+        int size = plan.size();
+        InvoicePlan.ItemRules itemRules = itemRules(plan, items, ncms, requestDto.regime(), requestDto.dataReferencia());
+        long[] taxCentavos = new long[basesCentavos.length * size];
+        double[] appliedRates = new double[taxCentavos.length];
+        try {
+            plan.execute(basesCentavos, taxCentavos, roundingMode, itemRules, appliedRates);
+        } catch (ArithmeticException ex) {
+            throw new BadRequestException("Valor base excede o limite suportado.");
+        }
+
+        record(plan, items, taxCentavos, appliedRates);
+        return toResponse(plan, taxTypeIds, items, basesCentavos, taxCentavos);
+    }
+
+    // Como no cálculo avulso, um registro por imposto de cada item, com o valor do item como base e a alíquota
+    // aplicada; só depois da nota inteira calculada, então uma nota recusada não deixa histórico parcial
+    private void record(InvoicePlan plan, List<InvoiceItemDto> items, long[] taxCentavos, double[] appliedRates) {
+        int size = plan.size();
+        for (int line = 0; line < items.size(); line++) {
+            for (int position = 0; position < size; position++) {
+                RegisteredTaxType taxType = plan.taxAt(position);
+                int cell = line * size + position;
+                historyRecorder.record(taxType.id(), taxType.name(), items.get(line).valor(), appliedRates[cell],
+                        MonetaryMath.toReais(taxCentavos[cell]));
+            }
+        }
+    }
+
+    // Compila o plano na primeira nota de cada combinação; recompila se algum tipo mudou no registro.
+    // Sem data de referência o plano usa as vigências de hoje, então o dia entra na chave e a virada troca o plano
+    InvoicePlan planFor(Set<Long> taxTypeIds, LocalDate referenceDate) {
+        LocalDate today = LocalDate.now();
+        PlanKey key = new PlanKey(Set.copyOf(taxTypeIds), referenceDate, referenceDate == null ? today : null);
+        InvoicePlan plan = plans.getIfPresent(key);
+        if (plan == null || !plan.isCurrent(strategyRegistry)) {
+            plan = compile(taxTypeIds, referenceDate, today);
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    private InvoicePlan compile(Set<Long> taxTypeIds, LocalDate referenceDate, LocalDate today) {
+        List<RegisteredTaxType> taxTypes = new ArrayList<>(taxTypeIds.size());
+        for (Long id : taxTypeIds) {
+            RegisteredTaxType taxType = strategyRegistry.find(id);
+            if (taxType == null) {
+                throw new ResourceNotFoundException("TipoImposto", "id", id);
+            }
+            taxTypes.add(taxType);
+        }
+        try {
+            return InvoicePlan.compile(taxTypes, referenceDate, today);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+    }
+
+    // Mesmas regras do cálculo avulso para cada item: benefício e alíquota por NCM. A nota não tem UF de origem,
+    // então, como no cálculo sem ufOrigem, só casam as regras de benefício sem condição de UF.
+    // null quando nenhum imposto da nota tem regras, e o plano roda sem consultas por item
+    private InvoicePlan.ItemRules itemRules(InvoicePlan plan, List<InvoiceItemDto> items, String[] ncms,
+                                            TaxRegime regime, LocalDate referenceDate) {
+        int size = plan.size();
+        TaxBenefitMatcher[] benefits = new TaxBenefitMatcher[size];
+        NcmRateTrie[] ncmRates = new NcmRateTrie[size];
+        boolean any = false;
+        for (int position = 0; position < size; position++) {
+            benefits[position] = taxBenefitTable.current(plan.taxAt(position).id());
+            ncmRates[position] = ncmRateTable.current(plan.taxAt(position).id());
+            any |= benefits[position].size() > 0 || ncmRates[position].size() > 0;
+        }
+        if (!any) {
+            return null;
+        }
+
+        int[] benefitRules = new int[items.size() * size];
+        int[] ncmRules = new int[items.size() * size];
+        for (int line = 0; line < items.size(); line++) {
+            for (int position = 0; position < size; position++) {
+                int cell = line * size + position;
+                benefitRules[cell] = benefits[position].match(null, ncms[line], items.get(line).cfop(), regime);
+                ncmRules[cell] = ncms[line] != null ? ncmRates[position].longestMatch(ncms[line]) : -1;
+                if (ncmRules[cell] >= 0) {
+                    RegisteredTaxType taxType = plan.taxAt(position);
+                    if (!(taxType.strategy() instanceof FlatRateTaxStrategy)) {
+                        throw new BadRequestException("Item " + line + ": regras por NCM se aplicam apenas a impostos de alíquota única.");
+                    }
+                    if (referenceDate != null) {
+                        throw new BadRequestException("Item " + line + ": as regras por NCM de " + taxType.name()
+                                + " não têm vigências; não informe dataReferencia para o NCM " + items.get(line).ncm() + ".");
+                    }
+                }
+            }
+        }
+        return new InvoicePlan.ItemRules(benefits, benefitRules, ncmRates, ncmRules);
+    }
+
+    private InvoiceResponseDto toResponse(InvoicePlan plan, Set<Long> taxTypeIds, List<InvoiceItemDto> items,
+                                          long[] basesCentavos, long[] taxCentavos) {
+        int size = plan.size();
+        // Resposta na ordem em que os impostos foram informados, não na ordem do plano
+        int[] positions = taxTypeIds.stream().mapToInt(plan::positionOf).toArray();
+        long[] totals = new long[size];
+        long itemsTotal = 0;
+        List<InvoiceLineDto> lines = new ArrayList<>(items.size());
+        for (int line = 0; line < items.size(); line++) {
+            int offset = line * size;
+            itemsTotal += basesCentavos[line];
+            Map<String, Double> lineTaxes = new LinkedHashMap<>();
+            for (int position : positions) {
+                long tax = taxCentavos[offset + position];
+                totals[position] += tax;
+                lineTaxes.put(plan.taxAt(position).name(), MonetaryMath.toReais(tax));
+            }
+            lines.add(new InvoiceLineDto(line, items.get(line).descricao(), items.get(line).valor(), lineTaxes));
+        }
+
+        long taxesTotal = 0;
+        List<InvoiceTaxTotalDto> taxTotals = new ArrayList<>(size);
+        for (int position : positions) {
+            RegisteredTaxType taxType = plan.taxAt(position);
+            taxesTotal += totals[position];
+            taxTotals.add(new InvoiceTaxTotalDto(taxType.id(), taxType.name(), MonetaryMath.toReais(totals[position])));
+        }
+        return new InvoiceResponseDto(items.size(), MonetaryMath.toReais(itemsTotal),
+                MonetaryMath.toReais(taxesTotal), taxTotals, lines);
+    }
+
+    private record PlanKey(Set<Long> taxTypeIds, LocalDate referenceDate, LocalDate today) {}
+}
@@ -0,0 +1,153 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationResponseDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJob;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJobResult;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJobStatus;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.CalculationJobRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.CalculationJobResultRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "impostos.jobs.armazenamento", havingValue = "postgres", matchIfMissing = true)
+public class JpaCalculationJobStore implements CalculationJobStore {
+    private static final Set<CalculationJobStatus> UNFINISHED =
+            EnumSet.of(CalculationJobStatus.PENDING, CalculationJobStatus.RUNNING);
+
+    @Autowired
+    private CalculationJobRepository jobRepository;
+
+    @Autowired
+    private CalculationJobResultRepository resultRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public CalculationJob create(CalculationJob job) {
+        return jobRepository.save(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CalculationJob> findById(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CalculationJob> findClaimable(LocalDateTime now) {
+        return jobRepository.findWithExpiredLease(UNFINISHED, now);
+    }
+
+    @Override
+    @Transactional
+    public boolean claim(Long jobId, String nodeId, LocalDateTime now, LocalDateTime leaseUntil) {
+        return jobRepository.claim(jobId, nodeId, UNFINISHED, now, leaseUntil) == 1;
+    }
+
+    @Override
+    @Transactional
+    public Set<Long> renewLeases(String nodeId, Collection<Long> jobIds, LocalDateTime leaseUntil) {
+        if (jobIds.isEmpty()) {
+            return Set.of();
+        }
+        jobRepository.renewLeases(nodeId, jobIds, leaseUntil);
+        return Set.copyOf(jobRepository.findOwnedIds(nodeId, jobIds));
+    }
+
+    @Override
+    @Transactional
+    public void release(Long jobId, String nodeId) {
+        jobRepository.release(jobId, nodeId, UNFINISHED, CalculationJobStatus.PENDING, LocalDateTime.now());
+    }
+
+    // O UPDATE condicional vem primeiro: só o dono chega ao delete, com a linha do job já travada
+    @Override
+    @Transactional
+    public boolean markRunning(Long jobId, String nodeId) {
+        if (jobRepository.updateStatus(jobId, nodeId, CalculationJobStatus.RUNNING, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        resultRepository.deleteFrom(jobId, jobRepository.findProcessedItems(jobId));
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean appendResults(Long jobId, String nodeId, List<TaxCalculationBatchItemDto> items,
+                                 int processedItems, int errorCount) {
+        if (jobRepository.updateProgress(jobId, nodeId, processedItems, errorCount, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        // persist direto: a chave é atribuída, então não há SELECT prévio como no merge do saveAll
+        for (TaxCalculationBatchItemDto item : items) {
+            entityManager.persist(toEntity(jobId, item));
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean complete(Long jobId, String nodeId) {
+        return jobRepository.updateStatus(jobId, nodeId, CalculationJobStatus.COMPLETED, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean fail(Long jobId, String nodeId, String errorMessage) {
+        return jobRepository.fail(jobId, nodeId, CalculationJobStatus.FAILED, errorMessage, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long jobId) {
+        resultRepository.deleteByJob(jobId);
+        jobRepository.deleteById(jobId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaxCalculationBatchItemDto> findResults(Long jobId, int from, int to) {
+        return resultRepository
+                .findByJobIdAndItemIndexGreaterThanEqualAndItemIndexLessThanOrderByItemIndex(jobId, from, to)
+                .stream()
+                .map(JpaCalculationJobStore::toDto)
+                .toList();
+    }
+
+    private static CalculationJobResult toEntity(Long jobId, TaxCalculationBatchItemDto item) {
+        CalculationJobResult result = new CalculationJobResult();
+        result.setJobId(jobId);
+        result.setItemIndex(item.indice());
+        result.setErrorMessage(item.erro());
+        if (item.resultado() != null) {
+            result.setTaxTypeName(item.resultado().tipoImposto());
+            result.setBaseValue(item.resultado().valorBase());
+            result.setRate(item.resultado().aliquota());
+            result.setTaxValue(item.resultado().valorImposto());
+        }
+        return result;
+    }
+
+    private static TaxCalculationBatchItemDto toDto(CalculationJobResult result) {
+        TaxCalculationResponseDto response = result.getErrorMessage() != null ? null
+                : new TaxCalculationResponseDto(result.getTaxTypeName(), result.getBaseValue(),
+                        result.getRate(), result.getTaxValue());
+        return new TaxCalculationBatchItemDto(result.getItemIndex(), response, result.getErrorMessage());
+    }
+}
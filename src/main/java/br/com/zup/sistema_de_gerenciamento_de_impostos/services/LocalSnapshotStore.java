@@ -0,0 +1,208 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.NcmRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxBenefitRulesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.NcmRateRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBenefitRuleRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBracketRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxRateVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateSource;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Cópia em disco das últimas tabelas carregadas do banco (tipos de imposto, ICMS, ISS, NCM, benefícios e tokens revogados),
+// um JSON por tabela. Permite subir e calcular com o banco fora do ar; é regravada a cada alteração, em segundo plano
+@Component
+public class LocalSnapshotStore {
+    public static final String TAX_TYPES = "tipos-imposto";
+    public static final String ICMS_RATES = "icms";
+    public static final String MUNICIPAL_ISS_RATES = "iss-municipal";
+    public static final String NCM_RATES = "ncm";
+    public static final String BENEFIT_RULES = "beneficios";
+    public static final String REVOKED_TOKENS = "tokens-revogados";
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSnapshotStore.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    // Leituras do banco e gravações feitas fora da thread da requisição, uma de cada vez
+    private final ExecutorService writer;
+    // Gravação pendente por tabela: alterações seguidas enquanto a anterior espera viram uma só leitura e gravação
+    private final Map<String, Supplier<?>> pending = new ConcurrentHashMap<>();
+
+    // Usados para regravar a cópia das tabelas que a memória atualiza por tipo de imposto (as demais recarregam inteiras)
+    @Autowired
+    private TaxTypeRepository taxTypeRepository;
+
+    @Autowired
+    private TaxRateVersionRepository taxRateVersionRepository;
+
+    @Autowired
+    private TaxBracketRepository taxBracketRepository;
+
+    @Autowired
+    private NcmRateRepository ncmRateRepository;
+
+    @Autowired
+    private TaxBenefitRuleRepository taxBenefitRuleRepository;
+
+    public LocalSnapshotStore(ObjectMapper objectMapper,
+                              @Value("${impostos.snapshot-local.diretorio:}") String directory) {
+        this.objectMapper = objectMapper;
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "copia-local");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (this.directory == null) {
+            logger.info("Cópia local das tabelas desabilitada (impostos.snapshot-local.diretorio vazio)");
+        } else if (this.directory.toAbsolutePath().normalize()
+                .startsWith(Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize())) {
+            logger.warn("Cópia local das tabelas em diretório temporário ({}): pode ser apagada e é compartilhada "
+                    + "pelas instâncias do host", this.directory);
+        }
+    }
+
+    // Aguarda as gravações pendentes, para que a cópia em disco reflita as últimas alterações
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            writer.shutdownNow();
+        }
+    }
+
+    // Lê a tabela do banco e grava a cópia (na subida, antes de seguir; nas recargas, em segundo plano).
+    // Se o banco falhar na carga inicial (coldStart), usa a cópia em disco; fora dela a falha é propagada,
+    // pois a tabela em memória é mais recente que o disco
+    public <T> List<T> loadList(String name, Class<T> elementType, Supplier<List<T>> database, boolean coldStart) {
+        try {
+            List<T> loaded = database.get();
+            if (coldStart) {
+                save(name, loaded);
+            } else {
+                saveInBackground(name, () -> loaded);
+            }
+            return loaded;
+        } catch (DataAccessException | TransactionException ex) {
+            JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+            Optional<List<T>> saved = coldStart ? load(name, type) : Optional.empty();
+            if (saved.isEmpty()) {
+                throw ex;
+            }
+            logger.warn("Banco indisponível; tabela {} carregada da cópia local com {} registros", name, saved.get().size(), ex);
+            return saved.get();
+        }
+    }
+
+    // Grava em arquivo temporário e troca com um move atômico: uma queda no meio não deixa o arquivo pela metade
+    public void save(String name, Object value) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, name, ".tmp");
+            try {
+                objectMapper.writeValue(temporary.toFile(), value);
+                Files.move(temporary, file(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException ex) {
+            logger.warn("Falha ao gravar a cópia local da tabela {} em {}", name, directory, ex);
+        }
+    }
+
+    // A leitura do banco (value) também roda em segundo plano; a última agendada para a tabela prevalece
+    public void saveInBackground(String name, Supplier<?> value) {
+        if (directory == null) {
+            return;
+        }
+        if (pending.put(name, value) != null) {
+            return;
+        }
+        try {
+            writer.execute(() -> saveQuietly(name, pending.remove(name)));
+        } catch (RejectedExecutionException ex) {
+            // Desligando: a cópia fica com a gravação anterior
+            pending.remove(name);
+        }
+    }
+
+    public <T> Optional<T> load(String name, Class<T> type) {
+        return load(name, objectMapper.getTypeFactory().constructType(type));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxTypeChanged(TaxTypeChangedEvent event) {
+        saveInBackground(TAX_TYPES, () -> new TaxRateSource(taxTypeRepository.findAll(),
+                taxRateVersionRepository.findAll(), taxBracketRepository.findAll()));
+        // A exclusão do tipo também remove as suas regras por NCM e de benefício
+        if (event.isDeleted()) {
+            saveInBackground(NCM_RATES, ncmRateRepository::findAll);
+            saveInBackground(BENEFIT_RULES, taxBenefitRuleRepository::findAll);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNcmRatesChanged(NcmRatesChangedEvent event) {
+        saveInBackground(NCM_RATES, ncmRateRepository::findAll);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxBenefitRulesChanged(TaxBenefitRulesChangedEvent event) {
+        saveInBackground(BENEFIT_RULES, taxBenefitRuleRepository::findAll);
+    }
+
+    private <T> Optional<T> load(String name, JavaType type) {
+        if (directory == null || !Files.exists(file(name))) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file(name).toFile(), type));
+        } catch (IOException ex) {
+            logger.warn("Cópia local da tabela {} ilegível", name, ex);
+            return Optional.empty();
+        }
+    }
+
+    // A alteração já foi gravada no banco; uma cópia local desatualizada só é registrada no log
+    private void saveQuietly(String name, Supplier<?> value) {
+        try {
+            save(name, value.get());
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao ler a tabela {} para a cópia local", name, ex);
+        }
+    }
+
+    private Path file(String name) {
+        return directory.resolve(name + ".json");
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.MunicipalIssImportResultDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.MunicipalIssRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.MunicipalIssRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class MunicipalIssRateService {
+    @Autowired
+    private MunicipalIssRateRepository municipalIssRateRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public MunicipalIssRate findByIbgeCode(Integer ibgeCode) {
+        return municipalIssRateRepository.findByIbgeCode(ibgeCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Município", "código IBGE", ibgeCode));
+    }
+
+    // CSV com uma linha por município: codigo_ibge;municipio;uf;aliquota (cabeçalho opcional).
+    // Aceita ';' ou ',' como separador e vírgula ou ponto como separador decimal quando o separador é ';'.
+    // Substitui a tabela inteira; o índice em memória é trocado após o commit
+    @Transactional
+    public MunicipalIssImportResultDto importCsv(InputStream input) throws IOException {
+        List<MunicipalIssRate> municipalRates = parse(input);
+        if (municipalRates.isEmpty()) {
+            throw new BadRequestException("O arquivo não contém municípios.");
+        }
+
+        municipalIssRateRepository.deleteAllInBatch();
+        municipalIssRateRepository.saveAll(municipalRates);
+        eventPublisher.publishEvent(new MunicipalIssRatesChangedEvent());
+        return new MunicipalIssImportResultDto(municipalRates.size());
+    }
+
+    private List<MunicipalIssRate> parse(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<MunicipalIssRate> municipalRates = new ArrayList<>();
+        Set<Integer> codes = new HashSet<>();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            // O BOM do UTF-8 (Excel) não é espaço para strip() e faria a primeira linha de dados parecer cabeçalho
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            line = line.strip();
+            // Linhas vazias e cabeçalho (primeira linha que não começa com dígito) são ignorados
+            if (line.isEmpty() || (lineNumber == 1 && !Character.isDigit(line.charAt(0)))) {
+                continue;
+            }
+
+            String[] fields = line.split(line.indexOf(';') >= 0 ? ";" : ",", -1);
+            if (fields.length != 4) {
+                throw invalidLine(lineNumber, "esperados 4 campos (codigo_ibge;municipio;uf;aliquota)");
+            }
+
+            MunicipalIssRate municipalRate = new MunicipalIssRate();
+            municipalRate.setIbgeCode(parseIbgeCode(fields[0].strip(), lineNumber));
+            municipalRate.setName(fields[1].strip());
+            municipalRate.setUf(parseUf(fields[2].strip(), lineNumber));
+            municipalRate.setRate(parseRate(fields[3].strip(), lineNumber));
+            if (municipalRate.getName().isEmpty()) {
+                throw invalidLine(lineNumber, "nome do município vazio");
+            }
+            if (!codes.add(municipalRate.getIbgeCode())) {
+                throw invalidLine(lineNumber, "município " + municipalRate.getIbgeCode() + " repetido");
+            }
+            municipalRates.add(municipalRate);
+        }
+        return municipalRates;
+    }
+
+    private static int parseIbgeCode(String value, int lineNumber) {
+        try {
+            int code = Integer.parseInt(value);
+            if (code >= 1_000_000 && code <= 9_999_999) {
+                return code;
+            }
+        } catch (NumberFormatException ignored) {
+            // Tratado abaixo
+        }
+        throw invalidLine(lineNumber, "código IBGE deve ter 7 dígitos");
+    }
+
+    private static Uf parseUf(String value, int lineNumber) {
+        try {
+            return Uf.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw invalidLine(lineNumber, "UF inválida '" + value + "'");
+        }
+    }
+
+    private static double parseRate(String value, int lineNumber) {
+        try {
+            double rate = Double.parseDouble(value.replace(',', '.'));
+            if (rate >= 0 && rate < 100) {
+                return rate;
+            }
+        } catch (NumberFormatException ignored) {
+            // Tratado abaixo
+        }
+        throw invalidLine(lineNumber, "alíquota inválida '" + value + "'");
+    }
+
+    private static BadRequestException invalidLine(int lineNumber, String message) {
+        return new BadRequestException("Linha " + lineNumber + ": " + message + ".");
+    }
+}
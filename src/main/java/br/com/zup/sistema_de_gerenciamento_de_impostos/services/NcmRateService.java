@@ -0,0 +1,92 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.NcmRateRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.NcmRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxCalculationType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.NcmRateRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTrie;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class NcmRateService {
+    @Autowired
+    private NcmRateRepository ncmRateRepository;
+
+    @Autowired
+    private TaxTypeRepository taxTypeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<NcmRate> findByTaxType(Long taxTypeId) {
+        findTaxType(taxTypeId);
+        return ncmRateRepository.findByTaxTypeIdOrderByNcmPrefix(taxTypeId);
+    }
+
+    // Substitui todas as regras do tipo (ex.: a TIPI inteira para o IPI); a trie do tipo é reconstruída após o commit
+    @Transactional
+    public List<NcmRate> replace(Long taxTypeId, List<NcmRateRequestDto> requestDtos) {
+        TaxType taxType = findTaxType(taxTypeId);
+        if (taxType.getCalculationType() == TaxCalculationType.BRACKETS
+                || taxType.getCalculationType() == TaxCalculationType.FORMULA) {
+            throw new BadRequestException("Regras por NCM se aplicam apenas a impostos de alíquota única.");
+        }
+        if (requestDtos == null || requestDtos.isEmpty()) {
+            throw new BadRequestException("Informe ao menos uma regra por NCM.");
+        }
+
+        Set<String> prefixes = new HashSet<>();
+        List<NcmRate> ncmRates = new ArrayList<>(requestDtos.size());
+        for (NcmRateRequestDto requestDto : requestDtos) {
+            if (requestDto == null || requestDto.aliquota() == null) {
+                throw new BadRequestException("Cada regra deve informar NCM e alíquota.");
+            }
+            String prefix = NcmRateTrie.normalize(requestDto.ncm());
+            if (prefix == null || prefix.length() < 2 || prefix.length() > NcmRateTrie.CODE_LENGTH) {
+                throw new BadRequestException("NCM inválido: " + requestDto.ncm() + ". Informe de 2 a 8 dígitos.");
+            }
+            // Alíquotas acima de 100% são válidas (IPI de cigarros, MVA do ICMS-ST)
+            if (requestDto.aliquota() < 0) {
+                throw new BadRequestException("A alíquota não pode ser negativa.");
+            }
+            if (!prefixes.add(prefix)) {
+                throw new BadRequestException("NCM " + prefix + " repetido.");
+            }
+            NcmRate ncmRate = new NcmRate();
+            ncmRate.setTaxTypeId(taxTypeId);
+            ncmRate.setNcmPrefix(prefix);
+            ncmRate.setRate(requestDto.aliquota());
+            ncmRates.add(ncmRate);
+        }
+
+        ncmRateRepository.deleteByTaxTypeId(taxTypeId);
+        List<NcmRate> saved = ncmRateRepository.saveAll(ncmRates);
+        eventPublisher.publishEvent(new NcmRatesChangedEvent(taxTypeId));
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long taxTypeId) {
+        findTaxType(taxTypeId);
+        ncmRateRepository.deleteByTaxTypeId(taxTypeId);
+        eventPublisher.publishEvent(new NcmRatesChangedEvent(taxTypeId));
+    }
+
+    private TaxType findTaxType(Long taxTypeId) {
+        return taxTypeRepository.findById(taxTypeId)
+                .orElseThrow(() -> new ResourceNotFoundException("TipoImposto", "id", taxTypeId));
+    }
+}
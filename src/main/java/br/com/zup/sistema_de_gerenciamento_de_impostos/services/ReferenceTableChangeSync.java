@@ -0,0 +1,136 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.IcmsRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.MunicipalIssRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.NcmRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.ReferenceTableChangeNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxBenefitRulesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IcmsRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MunicipalIssTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Mantém coerentes entre as réplicas as tabelas de referência em memória (regras por NCM, benefícios,
+// matriz de ICMS e ISS municipal), como o TaxTypeChangeListener faz com os tipos de imposto: a transação da
+// alteração incrementa a versão e emite o NOTIFY; os demais nós recarregam só a tabela (e o tipo) alterado
+@Component
+public class ReferenceTableChangeSync implements ClusterNotificationHandler {
+    public static final String SCOPE = "reference_tables";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceTableChangeSync.class);
+
+    private final TaxTypeChangeNotifier notifier;
+    private final ChangeVersionSequence versions;
+    private final NcmRateTable ncmRateTable;
+    private final TaxBenefitTable taxBenefitTable;
+    private final IcmsRateTable icmsRateTable;
+    private final MunicipalIssTable municipalIssTable;
+    private final String channel;
+
+    private final Counter received;
+    private final Counter fullReloads;
+
+    public ReferenceTableChangeSync(TaxTypeChangeNotifier notifier,
+                                    ChangeVersionRepository changeVersionRepository,
+                                    NcmRateTable ncmRateTable,
+                                    TaxBenefitTable taxBenefitTable,
+                                    IcmsRateTable icmsRateTable,
+                                    MunicipalIssTable municipalIssTable,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${impostos.cluster.notificacoes.canal-tabelas:impostos_tabelas}") String channel) {
+        this.notifier = notifier;
+        this.versions = new ChangeVersionSequence(SCOPE, changeVersionRepository, notifier);
+        this.ncmRateTable = ncmRateTable;
+        this.taxBenefitTable = taxBenefitTable;
+        this.icmsRateTable = icmsRateTable;
+        this.municipalIssTable = municipalIssTable;
+        this.channel = TaxTypeChangeNotifier.requireValidChannel(channel);
+
+        this.received = Counter.builder("impostos.cluster.tabelas.notificacoes")
+                .description("Alterações de tabelas de referência recebidas de outros nós")
+                .register(meterRegistry);
+        this.fullReloads = Counter.builder("impostos.cluster.tabelas.recargas")
+                .description("Recargas completas das tabelas de referência por notificação perdida ou polling")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onNcmRatesChanged(NcmRatesChangedEvent event) {
+        publish(LocalSnapshotStore.NCM_RATES, event.taxTypeId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTaxBenefitRulesChanged(TaxBenefitRulesChangedEvent event) {
+        publish(LocalSnapshotStore.BENEFIT_RULES, event.taxTypeId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onIcmsRatesChanged(IcmsRatesChangedEvent event) {
+        publish(LocalSnapshotStore.ICMS_RATES, null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onMunicipalIssRatesChanged(MunicipalIssRatesChangedEvent event) {
+        publish(LocalSnapshotStore.MUNICIPAL_ISS_RATES, null);
+    }
+
+    @Override
+    public String channel() {
+        return channel;
+    }
+
+    @Override
+    public void handle(String payload) {
+        ReferenceTableChangeNotification notification;
+        try {
+            notification = ReferenceTableChangeNotification.parse(payload);
+        } catch (IllegalArgumentException ex) {
+            logger.warn(ex.getMessage());
+            return;
+        }
+        versions.accept(notification.version(), notification.nodeId(), () -> {
+            received.increment();
+            apply(notification);
+        }, this::reloadAll);
+    }
+
+    @Override
+    public void resync() {
+        versions.resync(this::reloadAll);
+    }
+
+    private void publish(String table, Long taxTypeId) {
+        if (!notifier.isEnabled()) {
+            return;
+        }
+        long version = notifier.nextVersion(SCOPE);
+        notifier.notify(channel, new ReferenceTableChangeNotification(notifier.nodeId(), version, table, taxTypeId).format());
+    }
+
+    private void apply(ReferenceTableChangeNotification notification) {
+        switch (notification.table()) {
+            case LocalSnapshotStore.NCM_RATES -> ncmRateTable.reload(notification.taxTypeId());
+            case LocalSnapshotStore.BENEFIT_RULES -> taxBenefitTable.reload(notification.taxTypeId());
+            case LocalSnapshotStore.ICMS_RATES -> icmsRateTable.reload();
+            case LocalSnapshotStore.MUNICIPAL_ISS_RATES -> municipalIssTable.reload();
+            default -> logger.warn("Notificação de tabela desconhecida: {}", notification.table());
+        }
+    }
+
+    private void reloadAll() {
+        fullReloads.increment();
+        ncmRateTable.reload();
+        taxBenefitTable.reload();
+        icmsRateTable.reload();
+        municipalIssTable.reload();
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxBenefitRuleRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxBenefitRulesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBenefitRuleRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class TaxBenefitRuleService {
+    private static final String ICMS = "ICMS";
+
+    @Autowired
+    private TaxBenefitRuleRepository taxBenefitRuleRepository;
+
+    @Autowired
+    private TaxTypeRepository taxTypeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<TaxBenefitRule> findByTaxType(Long taxTypeId) {
+        findTaxType(taxTypeId);
+        return taxBenefitRuleRepository.findByTaxTypeIdOrderByPriorityDescIdAsc(taxTypeId);
+    }
+
+    // Substitui a tabela de decisão do tipo; a tabela é compilada aqui para validar e de novo, em memória, após o commit
+    @Transactional
+    public List<TaxBenefitRule> replace(Long taxTypeId, List<TaxBenefitRuleRequestDto> requestDtos) {
+        TaxType taxType = taxTypeRepository.findById(taxTypeId)
+                .orElseThrow(() -> new ResourceNotFoundException("TipoImposto", "id", taxTypeId));
+        if (requestDtos == null || requestDtos.isEmpty()) {
+            throw new BadRequestException("Informe ao menos uma regra de benefício.");
+        }
+
+        List<TaxBenefitRule> rules = new ArrayList<>(requestDtos.size());
+        for (TaxBenefitRuleRequestDto requestDto : requestDtos) {
+            if (requestDto == null || requestDto.tipo() == null) {
+                throw new BadRequestException("Cada regra deve informar o tipo de benefício.");
+            }
+            // ufOrigem no cálculo leva à matriz entre UFs, que só aceita o ICMS: nos demais tipos a regra nunca casaria
+            if (requestDto.uf() != null && !ICMS.equalsIgnoreCase(taxType.getName())) {
+                throw new BadRequestException("A condição por UF se aplica apenas às regras de benefício do ICMS.");
+            }
+            TaxBenefitRule rule = new TaxBenefitRule();
+            rule.setTaxTypeId(taxTypeId);
+            rule.setBenefitType(requestDto.tipo());
+            rule.setBaseReduction(requestDto.percentualReducao());
+            rule.setPriority(requestDto.prioridade() != null ? requestDto.prioridade() : 0);
+            rule.setDescription(requestDto.descricao() != null && !requestDto.descricao().isBlank()
+                    ? requestDto.descricao() : requestDto.tipo().name());
+            rule.setUf(requestDto.uf());
+            rule.setNcmPrefix(requestDto.ncm());
+            rule.setCfop(requestDto.cfop());
+            rule.setRegime(requestDto.regime());
+            rules.add(rule);
+        }
+        try {
+            TaxBenefitMatcher.of(rules);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+        // Grava o NCM sem pontos, como nas regras por NCM
+        rules.forEach(rule -> rule.setNcmPrefix(rule.getNcmPrefix() != null
+                ? rule.getNcmPrefix().replace(".", "") : null));
+
+        taxBenefitRuleRepository.deleteByTaxTypeId(taxTypeId);
+        List<TaxBenefitRule> saved = taxBenefitRuleRepository.saveAll(rules);
+        eventPublisher.publishEvent(new TaxBenefitRulesChangedEvent(taxTypeId));
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long taxTypeId) {
+        findTaxType(taxTypeId);
+        taxBenefitRuleRepository.deleteByTaxTypeId(taxTypeId);
+        eventPublisher.publishEvent(new TaxBenefitRulesChangedEvent(taxTypeId));
+    }
+
+    private void findTaxType(Long taxTypeId) {
+        if (!taxTypeRepository.existsById(taxTypeId)) {
+            throw new ResourceNotFoundException("TipoImposto", "id", taxTypeId);
+        }
+    }
+}
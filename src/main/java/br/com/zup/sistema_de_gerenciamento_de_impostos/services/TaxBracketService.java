@@ -0,0 +1,91 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxBracketRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBracket;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxCalculationType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBracketRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class TaxBracketService {
+    @Autowired
+    private TaxBracketRepository taxBracketRepository;
+
+    @Autowired
+    private TaxTypeRepository taxTypeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<TaxBracket> findByTaxType(Long taxTypeId) {
+        findTaxType(taxTypeId);
+        return taxBracketRepository.findByTaxTypeIdOrderByLowerBound(taxTypeId);
+    }
+
+    // Substitui a tabela inteira: as faixas só fazem sentido em conjunto
+    @Transactional
+    public List<TaxBracket> replace(Long taxTypeId, List<TaxBracketRequestDto> requestDtos) {
+        TaxType taxType = findTaxType(taxTypeId);
+        if (requestDtos == null || requestDtos.isEmpty()) {
+            throw new BadRequestException("A tabela deve conter ao menos uma faixa.");
+        }
+
+        Set<Double> lowerBounds = new HashSet<>();
+        List<TaxBracket> brackets = new ArrayList<>(requestDtos.size());
+        for (TaxBracketRequestDto requestDto : requestDtos) {
+            if (requestDto == null || requestDto.valorInicial() == null || requestDto.aliquota() == null) {
+                throw new BadRequestException("Cada faixa deve informar valor inicial e alíquota.");
+            }
+            if (requestDto.valorInicial() < 0 || requestDto.aliquota() < 0
+                    || (requestDto.deducao() != null && requestDto.deducao() < 0)) {
+                throw new BadRequestException("Valores da faixa não podem ser negativos.");
+            }
+            if (!lowerBounds.add(requestDto.valorInicial())) {
+                throw new BadRequestException("Faixas com o mesmo valor inicial: " + requestDto.valorInicial() + ".");
+            }
+            TaxBracket bracket = new TaxBracket();
+            bracket.setTaxTypeId(taxTypeId);
+            bracket.setLowerBound(requestDto.valorInicial());
+            bracket.setRate(requestDto.aliquota());
+            bracket.setDeduction(requestDto.deducao() != null ? requestDto.deducao() : 0.0);
+            brackets.add(bracket);
+        }
+
+        taxBracketRepository.deleteByTaxTypeId(taxTypeId);
+        List<TaxBracket> saved = taxBracketRepository.saveAll(brackets);
+        taxType.setCalculationType(TaxCalculationType.BRACKETS);
+        taxTypeRepository.save(taxType);
+
+        // Recompila o tipo no registro de estratégias após o commit
+        eventPublisher.publishEvent(TaxTypeChangedEvent.saved(taxType));
+        return saved;
+    }
+
+    // Remove a tabela e volta à fórmula do tipo, se houver, ou à alíquota única
+    @Transactional
+    public void delete(Long taxTypeId) {
+        TaxType taxType = findTaxType(taxTypeId);
+        taxBracketRepository.deleteByTaxTypeId(taxTypeId);
+        taxType.setCalculationType(taxType.getFormula() != null ? TaxCalculationType.FORMULA : TaxCalculationType.FLAT);
+        taxTypeRepository.save(taxType);
+        eventPublisher.publishEvent(TaxTypeChangedEvent.saved(taxType));
+    }
+
+    private TaxType findTaxType(Long taxTypeId) {
+        return taxTypeRepository.findById(taxTypeId)
+                .orElseThrow(() -> new ResourceNotFoundException("TipoImposto", "id", taxTypeId));
+    }
+}
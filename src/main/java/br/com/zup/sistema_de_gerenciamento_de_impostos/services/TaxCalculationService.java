@@ -1,41 +1,510 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationRequestDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
-import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
-import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.BracketTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.BulkCalculationMode;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.FlatRateTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.FormulaTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IcmsRateMatrix;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IcmsRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IssTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MonetaryMath;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MunicipalIssIndex;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MunicipalIssTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTrie;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.RegisteredTaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitMatcher;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitTable;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategy;
-import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyFactory;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateSnapshot;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
 @Service
 public class TaxCalculationService {
+    // Quantidade de linhas escritas entre flushes explícitos no modo streaming
+    private static final int STREAM_FLUSH_INTERVAL = 1024;
+
+    private static final String ICMS = "ICMS";
+
+    @Autowired
+    private TaxCalculationStrategyRegistry strategyRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BatchCalculationExecutor batchExecutor;
+
+    @Autowired
+    private CalculationHistoryRecorder historyRecorder;
+
+    @Autowired
+    private IcmsRateTable icmsRateTable;
+
+    @Autowired
+    private MunicipalIssTable municipalIssTable;
+
     @Autowired
-    private TaxTypeRepository taxTypeRepository;
-    
+    private NcmRateTable ncmRateTable;
+
+    @Autowired
+    private TaxBenefitTable taxBenefitTable;
+
     @Autowired
-    private TaxCalculationStrategyFactory strategyFactory;
-    
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Value("${impostos.calculo.arredondamento:HALF_EVEN}")
+    private RoundingMode roundingMode = RoundingMode.HALF_EVEN;
+
+    // Linhas maiores que o limite são descartadas sem ficar em memória e respondidas com erro
+    @Value("${impostos.calculo.stream.tamanho-maximo-linha:65536}")
+    private int maxStreamLineLength = 65536;
+
     public TaxCalculationResponseDto calculate(TaxCalculationRequestDto requestDto) {
-        // Validação do valor base
-        if (requestDto.valorBase() <= 0) {
+        validateBaseValue(requestDto);
+        return calculateAndRecord(requestDto, resolveTaxType(strategyRegistry.snapshot(), requestDto.tipoImpostoId()), null, 0);
+    }
+
+    // Lote em centavos sobre arrays primitivos: resolve o tipo uma vez e não aloca no laço do cálculo. O modo
+    // escolhe, por chamada, entre o laço escalar e o kernel SIMD, que produzem o mesmo resultado. Vale o mesmo
+    // que um calculate sem dataReferencia, UFs, município, NCM ou CFOP: a vigência de hoje e o histórico por item.
+    // Os arrays não trazem os atributos que selecionam benefícios e regras por NCM, então tipos com essas
+    // tabelas são recusados em vez de calculados sem elas
+    public void calculateCentavos(Long tipoImpostoId, long[] basesCentavos, long[] impostosCentavos,
+                                  BulkCalculationMode mode) {
+        if (impostosCentavos.length < basesCentavos.length) {
+            throw new BadRequestException("Array de saída menor que o de entrada.");
+        }
+        for (int i = 0; i < basesCentavos.length; i++) {
+            if (basesCentavos[i] <= 0) {
+                throw new BadRequestException("Item " + i + ": valor base deve ser maior que zero.");
+            }
+        }
+        RegisteredTaxType taxType = resolveTaxType(strategyRegistry.snapshot(), tipoImpostoId);
+        if (taxBenefitTable.current(taxType.id()).size() > 0 || ncmRateTable.current(taxType.id()).size() > 0) {
+            throw new BadRequestException(taxType.name()
+                    + " tem regras de benefício ou por NCM, que dependem de atributos do item; use o cálculo por item.");
+        }
+
+        TaxCalculationStrategy strategy = taxType.strategy();
+        double rate = taxType.rate();
+        int version = taxType.versionAt(null);
+        if (version >= 0) {
+            strategy = taxType.timeline().strategyAt(version);
+            rate = taxType.timeline().rateAt(version);
+        }
+        try {
+            strategy.calculateTaxCentavos(basesCentavos, impostosCentavos, roundingMode, mode);
+        } catch (ArithmeticException ex) {
+            throw new BadRequestException(strategy instanceof FormulaTaxStrategy
+                    ? "A fórmula de " + taxType.name() + " resultou em um valor inválido para esta base."
+                    : "Valor base excede o limite suportado.");
+        }
+
+        // Só depois do lote inteiro calculado, como na nota: um lote recusado não deixa histórico parcial
+        for (int i = 0; i < basesCentavos.length; i++) {
+            double base = MonetaryMath.toReais(basesCentavos[i]);
+            historyRecorder.record(taxType.id(), taxType.name(), base,
+                    strategy instanceof BracketTaxStrategy brackets ? brackets.rateFor(base) : rate,
+                    MonetaryMath.toReais(impostosCentavos[i]));
+        }
+    }
+
+    public TaxCalculationBatchResponseDto calculateBatch(List<TaxCalculationRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("O lote deve conter ao menos um item.");
+        }
+
+        // Abaixo do limite configurado o lote roda sequencialmente; acima, em blocos no pool dedicado.
+        // Todos os itens usam o mesmo snapshot de alíquotas, mesmo que uma recarga o troque no meio do lote
+        List<TaxCalculationRequestDto> input = requests instanceof RandomAccess ? requests : new ArrayList<>(requests);
+        TaxRateSnapshot snapshot = strategyRegistry.snapshot();
+        TaxCalculationBatchItemDto[] items = new TaxCalculationBatchItemDto[input.size()];
+        int errors = batchExecutor.execute(items, i -> calculateItem(i, input.get(i), snapshot, null), item -> item.erro() != null);
+
+        return new TaxCalculationBatchResponseDto(requests.size(), requests.size() - errors, errors, Arrays.asList(items));
+    }
+
+    public long calculateStream(InputStream input, OutputStream output) throws IOException {
+        ObjectReader requestReader = objectMapper.readerFor(TaxCalculationRequestDto.class);
+        ObjectWriter itemWriter = objectMapper.writerFor(TaxCalculationBatchItemDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        BoundedLineReader reader = new BoundedLineReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8), maxStreamLineLength);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        TaxRateSnapshot snapshot = strategyRegistry.snapshot();
+        long lines = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() && !reader.truncated()) {
+                continue;
+            }
+            if (lines == Integer.MAX_VALUE) {
+                throw new BadRequestException("O stream excede o limite de " + Integer.MAX_VALUE + " linhas.");
+            }
+
+            int index = (int) lines++;
+            TaxCalculationBatchItemDto item;
+            if (reader.truncated()) {
+                item = new TaxCalculationBatchItemDto(index, null,
+                        "Linha inválida: excede o limite de " + maxStreamLineLength + " caracteres.");
+            } else {
+                try {
+                    item = calculateItem(index, requestReader.readValue(line), snapshot, null);
+                } catch (JsonProcessingException ex) {
+                    item = new TaxCalculationBatchItemDto(index, null, "Linha inválida: " + ex.getOriginalMessage());
+                }
+            }
+
+            itemWriter.writeValue(generator, item);
+            generator.writeRaw('\n');
+            if (lines % STREAM_FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+
+        generator.flush();
+        return lines;
+    }
+
+    // Snapshot que responde pelos cálculos enquanto o banco está fora (circuito aberto ou carga do disco); null fora desse modo
+    public TaxRateSnapshot degradedSnapshot() {
+        TaxRateSnapshot snapshot = strategyRegistry.snapshot();
+        boolean degraded = databaseCircuitBreaker.isOpen()
+                || TaxCalculationStrategyRegistry.ORIGIN_LOCAL.equals(snapshot.origin());
+        return degraded ? snapshot : null;
+    }
+
+    // Item de um job: o histórico leva o job e a linha, e uma linha refeita na retomada não é gravada duas vezes
+    public TaxCalculationBatchItemDto calculateItem(int index, TaxCalculationRequestDto requestDto, Long jobId) {
+        return calculateItem(index, requestDto, strategyRegistry.snapshot(), jobId);
+    }
+
+    private TaxCalculationBatchItemDto calculateItem(int index, TaxCalculationRequestDto requestDto, TaxRateSnapshot snapshot,
+                                                     Long jobId) {
+        try {
+            if (requestDto == null) {
+                throw new BadRequestException("Item do lote não pode ser nulo.");
+            }
+            validateBaseValue(requestDto);
+            return new TaxCalculationBatchItemDto(index,
+                    calculateAndRecord(requestDto, resolveTaxType(snapshot, requestDto.tipoImpostoId()), jobId, index), null);
+        } catch (BadRequestException | ResourceNotFoundException | ServiceUnavailableException ex) {
+            return new TaxCalculationBatchItemDto(index, null, ex.getMessage());
+        }
+    }
+
+    private void validateBaseValue(TaxCalculationRequestDto requestDto) {
+        if (requestDto.valorBase() == null || requestDto.valorBase() <= 0) {
             throw new BadRequestException("Valor base deve ser maior que zero.");
         }
-        
-        TaxType taxType = taxTypeRepository.findById(requestDto.tipoImpostoId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoImposto", "id", requestDto.tipoImpostoId()));
-        
-        TaxCalculationStrategy strategy = strategyFactory.getStrategy(taxType.getName());
-        double valorImposto = strategy.calculateTax(requestDto.valorBase());
-        
+    }
+
+    // Leitura sem lock no snapshot; só um tipo ausente dele passa pelo registro (carga sob demanda)
+    private RegisteredTaxType resolveTaxType(TaxRateSnapshot snapshot, Long tipoImpostoId) {
+        RegisteredTaxType taxType = snapshot.find(tipoImpostoId);
+        if (taxType == null) {
+            taxType = strategyRegistry.find(tipoImpostoId);
+        }
+        if (taxType == null) {
+            throw new ResourceNotFoundException("TipoImposto", "id", tipoImpostoId);
+        }
+        return taxType;
+    }
+
+    // Todos os caminhos de cálculo passam por aqui; o histórico é gravado uma vez, a partir da resposta
+    private TaxCalculationResponseDto calculateAndRecord(TaxCalculationRequestDto requestDto, RegisteredTaxType taxType,
+                                                         Long jobId, int index) {
+        TaxCalculationResponseDto response = calculate(requestDto, taxType);
+        if (jobId == null) {
+            historyRecorder.record(taxType.id(), taxType.name(), requestDto.valorBase(), response.aliquota(),
+                    response.valorImposto());
+        } else {
+            historyRecorder.record(taxType.id(), taxType.name(), requestDto.valorBase(), response.aliquota(),
+                    response.valorImposto(), jobId, index);
+        }
+        return response;
+    }
+
+    private TaxCalculationResponseDto calculate(TaxCalculationRequestDto requestDto, RegisteredTaxType taxType) {
+        String ncm = normalizeNcm(requestDto.ncm());
+        if (requestDto.cfop() != null && !TaxBenefitMatcher.isValidCfop(requestDto.cfop())) {
+            throw new BadRequestException("CFOP deve ter 4 dígitos.");
+        }
+        long baseCentavos = MonetaryMath.toCentavos(requestDto.valorBase());
+
+        // Tabela de decisão de benefícios antes da estratégia: isenção encerra o cálculo, redução ajusta a base
+        TaxBenefitMatcher benefits = taxBenefitTable.current(taxType.id());
+        int benefit = benefits.match(requestDto.ufOrigem(), ncm, requestDto.cfop(), requestDto.regime());
+        if (benefit < 0) {
+            return calculate(requestDto, taxType, ncm, baseCentavos);
+        }
+        if (benefits.isExemption(benefit)) {
+            return new TaxCalculationResponseDto(taxType.name(), requestDto.valorBase(), 0.0, 0.0, null,
+                    benefits.descriptionAt(benefit));
+        }
+        long reducedBase = benefits.reduceBase(benefit, baseCentavos, roundingMode);
+        return calculate(requestDto, taxType, ncm, reducedBase).withBeneficio(benefits.descriptionAt(benefit));
+    }
+
+    private TaxCalculationResponseDto calculate(TaxCalculationRequestDto requestDto, RegisteredTaxType taxType,
+                                                String ncm, long baseCentavos) {
+        if (requestDto.ufOrigem() != null || requestDto.ufDestino() != null) {
+            return calculateIcmsByUf(requestDto, taxType, baseCentavos);
+        }
+        if (requestDto.codigoMunicipio() != null) {
+            return calculateMunicipalIss(requestDto, taxType, baseCentavos);
+        }
+        if (ncm != null) {
+            NcmRateTrie ncmRules = ncmRateTable.current(taxType.id());
+            int rule = ncmRules.longestMatch(ncm);
+            if (rule >= 0) {
+                return calculateByNcm(requestDto, taxType, ncmRules, rule, baseCentavos);
+            }
+            // Sem regra para o NCM vale o cálculo padrão do tipo
+        }
+
+        TaxCalculationStrategy strategy = taxType.strategy();
+        double rate = taxType.rate();
+
+        // A alíquota vem do índice de vigências em memória: a da data de referência ou, sem ela, a que cobre hoje
+        int version;
+        try {
+            version = taxType.versionAt(requestDto.dataReferencia());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+        if (version >= 0) {
+            strategy = taxType.timeline().strategyAt(version);
+            rate = taxType.timeline().rateAt(version);
+        }
+        if (strategy instanceof BracketTaxStrategy brackets) {
+            // Tabela progressiva: informa a alíquota nominal da faixa aplicada
+            rate = brackets.rateFor(MonetaryMath.toReais(baseCentavos));
+        }
+
+        // Conversão para centavos só na borda; o cálculo é feito em ponto fixo
+        long impostoCentavos;
+        try {
+            impostoCentavos = strategy.calculateTaxCentavos(baseCentavos, roundingMode);
+        } catch (ArithmeticException ex) {
+            throw new BadRequestException(strategy instanceof FormulaTaxStrategy
+                    ? "A fórmula de " + taxType.name() + " resultou em um valor inválido para esta base."
+                    : "Valor base excede o limite suportado.");
+        }
+        double valorImposto = MonetaryMath.toReais(impostoCentavos);
+
         return new TaxCalculationResponseDto(
-                taxType.getName(),
+                taxType.name(),
                 requestDto.valorBase(),
-                taxType.getRate(),
+                rate,
                 valorImposto
         );
     }
-}
\ No newline at end of file
+
+    private static String normalizeNcm(String value) {
+        if (value == null) {
+            return null;
+        }
+        String ncm = NcmRateTrie.normalize(value);
+        if (ncm == null || ncm.length() != NcmRateTrie.CODE_LENGTH) {
+            throw new BadRequestException("NCM deve ter 8 dígitos.");
+        }
+        return ncm;
+    }
+
+    // Alíquota da regra por NCM de prefixo mais longo, que prevalece sobre a alíquota do tipo
+    private TaxCalculationResponseDto calculateByNcm(TaxCalculationRequestDto requestDto, RegisteredTaxType taxType,
+                                                     NcmRateTrie ncmRules, int rule, long baseCentavos) {
+        if (!(taxType.strategy() instanceof FlatRateTaxStrategy)) {
+            throw new BadRequestException("Regras por NCM se aplicam apenas a impostos de alíquota única.");
+        }
+        // As regras por NCM não têm vigências; sem regra que case, o cálculo padrão respeita a data normalmente
+        if (requestDto.dataReferencia() != null) {
+            throw new BadRequestException("As regras por NCM não têm vigências; não informe dataReferencia para o NCM "
+                    + requestDto.ncm() + ".");
+        }
+
+        long impostoCentavos;
+        try {
+            impostoCentavos = ncmRules.calculateTaxCentavos(rule, baseCentavos, roundingMode);
+        } catch (ArithmeticException ex) {
+            throw new BadRequestException("Valor base excede o limite suportado.");
+        }
+
+        double rate = ncmRules.rateAt(rule);
+        double valorImposto = MonetaryMath.toReais(impostoCentavos);
+        return new TaxCalculationResponseDto(taxType.name(), requestDto.valorBase(), rate, valorImposto);
+    }
+
+    // ISS pela alíquota do município, resolvida por busca binária no índice em memória
+    private TaxCalculationResponseDto calculateMunicipalIss(TaxCalculationRequestDto requestDto, RegisteredTaxType taxType,
+                                                            long baseCentavos) {
+        if (!(taxType.strategy() instanceof IssTaxStrategy)) {
+            throw new BadRequestException("O código do município se aplica apenas ao ISS.");
+        }
+        // As alíquotas municipais não têm vigências
+        if (requestDto.dataReferencia() != null) {
+            throw new BadRequestException("A alíquota municipal de ISS não tem vigências; não informe dataReferencia com codigoMunicipio.");
+        }
+        MunicipalIssIndex municipalities = municipalIssTable.current();
+        int position = municipalities.indexOf(requestDto.codigoMunicipio());
+        if (position < 0) {
+            throw new BadRequestException("Município " + requestDto.codigoMunicipio() + " sem alíquota de ISS cadastrada.");
+        }
+
+        long impostoCentavos;
+        try {
+            impostoCentavos = municipalities.calculateTaxCentavos(position, baseCentavos, roundingMode);
+        } catch (ArithmeticException ex) {
+            throw new BadRequestException("Valor base excede o limite suportado.");
+        }
+
+        double rate = municipalities.rateAt(position);
+        double valorImposto = MonetaryMath.toReais(impostoCentavos);
+        return new TaxCalculationResponseDto(taxType.name(), requestDto.valorBase(), rate, valorImposto);
+    }
+
+    // ICMS pela matriz origem x destino; em operação interestadual informa também o DIFAL
+    // (alíquota interna do destino menos a interestadual), devido ao destino na venda a consumidor final
+    private TaxCalculationResponseDto calculateIcmsByUf(TaxCalculationRequestDto requestDto, RegisteredTaxType taxType,
+                                                        long baseCentavos) {
+        Uf origin = requestDto.ufOrigem();
+        Uf destination = requestDto.ufDestino();
+        if (origin == null || destination == null) {
+            throw new BadRequestException("Informe a UF de origem e a UF de destino.");
+        }
+        if (!ICMS.equalsIgnoreCase(taxType.name())) {
+            throw new BadRequestException("UF de origem e de destino se aplicam apenas ao ICMS.");
+        }
+        // A matriz entre UFs não tem vigências: calcular com a alíquota de hoje uma operação datada seria silencioso
+        if (requestDto.dataReferencia() != null) {
+            throw new BadRequestException("A alíquota entre UFs não tem vigências; não informe dataReferencia com ufOrigem e ufDestino.");
+        }
+
+        IcmsRateMatrix matrix = icmsRateTable.current();
+        long rateMicros = matrix.rateMicros(origin, destination);
+        if (rateMicros < 0) {
+            throw new BadRequestException("Alíquota de ICMS de " + origin + " para " + destination + " não cadastrada.");
+        }
+
+        long impostoCentavos;
+        Long difalCentavos = null;
+        try {
+            impostoCentavos = MonetaryMath.applyRate(baseCentavos, rateMicros, roundingMode);
+            long internalMicros = matrix.rateMicros(destination, destination);
+            if (origin != destination && internalMicros >= 0) {
+                difalCentavos = MonetaryMath.applyRate(baseCentavos, Math.max(0, internalMicros - rateMicros), roundingMode);
+            }
+        } catch (ArithmeticException ex) {
+            throw new BadRequestException("Valor base excede o limite suportado.");
+        }
+
+        double rate = matrix.rate(origin, destination);
+        double valorImposto = MonetaryMath.toReais(impostoCentavos);
+        return new TaxCalculationResponseDto(taxType.name(), requestDto.valorBase(), rate, valorImposto,
+                difalCentavos != null ? MonetaryMath.toReais(difalCentavos) : null);
+    }
+
+    // readLine com limite de tamanho: o excedente da linha é consumido e descartado até o fim dela
+    private static final class BoundedLineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] chunk = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean truncated;
+
+        BoundedLineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(chunk, 0, chunk.length);
+                    position = 0;
+                    if (limit < 0) {
+                        limit = 0;
+                        return read ? finish() : null;
+                    }
+                }
+                read = true;
+                int start = position;
+                while (position < limit && chunk[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    return finish();
+                }
+            }
+        }
+
+        boolean truncated() {
+            return truncated;
+        }
+
+        private void append(int start, int end) {
+            int room = maxLength + 1 - line.length();
+            int length = end - start;
+            if (length > room) {
+                truncated = true;
+                length = Math.max(room, 0);
+            }
+            line.append(chunk, start, length);
+        }
+
+        // O caractere extra guardado além do limite é o \r de um fim de linha CRLF
+        private String finish() {
+            int end = line.length();
+            if (end > 0 && line.charAt(end - 1) == '\r') {
+                line.setLength(--end);
+            }
+            if (end > maxLength) {
+                truncated = true;
+                line.setLength(maxLength);
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateSnapshot;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Recarga do snapshot de alíquotas em segundo plano, a partir do banco ou de um arquivo JSON.
+// A nova tabela é compilada fora de qualquer lock e publicada de uma vez; leitores seguem com a anterior até a troca
+@Component
+public class TaxRateSnapshotRefresher {
+    private static final Logger logger = LoggerFactory.getLogger(TaxRateSnapshotRefresher.class);
+
+    private final TaxCalculationStrategyRegistry registry;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final LocalSnapshotStore localSnapshotStore;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Path file;
+
+    private final Counter reloads;
+    private final Counter failures;
+
+    // Última origem publicada por esta recarga: conteúdo igual não recompila nada
+    private TaxRateSource lastSource;
+    private FileStamp lastFileStamp;
+
+    private volatile boolean running;
+    private Thread refresher;
+
+    public TaxRateSnapshotRefresher(TaxCalculationStrategyRegistry registry,
+                                    DatabaseCircuitBreaker databaseCircuitBreaker,
+                                    LocalSnapshotStore localSnapshotStore,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${impostos.aliquotas.atualizacao.habilitada:true}") boolean enabled,
+                                    @Value("${impostos.aliquotas.atualizacao.intervalo:PT30S}") Duration interval,
+                                    @Value("${impostos.aliquotas.arquivo:}") String file) {
+        this.registry = registry;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.localSnapshotStore = localSnapshotStore;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+
+        this.reloads = Counter.builder("impostos.aliquotas.recargas")
+                .description("Snapshots de alíquotas publicados pela recarga em segundo plano")
+                .register(meterRegistry);
+        this.failures = Counter.builder("impostos.aliquotas.falhas-recarga")
+                .description("Recargas de alíquotas descartadas por erro de leitura ou compilação")
+                .register(meterRegistry);
+        Gauge.builder("impostos.aliquotas.versao", registry, r -> r.snapshot().version())
+                .description("Versão do snapshot de alíquotas em uso")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        // Com arquivo configurado ele é a origem desde a subida, antes da primeira requisição
+        if (file != null) {
+            refreshNow();
+        }
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        refresher = new Thread(this::refreshLoop, "atualizacao-aliquotas");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (refresher == null) {
+            return;
+        }
+        running = false;
+        refresher.interrupt();
+        refresher.join(TimeUnit.SECONDS.toMillis(30));
+        refresher = null;
+    }
+
+    // true quando um novo snapshot foi publicado
+    public synchronized boolean refreshNow() {
+        long expectedVersion = registry.snapshot().version();
+        FileStamp stamp = null;
+        try {
+            TaxRateSource source;
+            String origin;
+            if (file != null) {
+                stamp = FileStamp.of(file);
+                if (stamp.equals(lastFileStamp)) {
+                    return false;
+                }
+                source = readFile();
+                origin = TaxCalculationStrategyRegistry.ORIGIN_FILE;
+            } else if (databaseCircuitBreaker.isOpen()) {
+                // A sonda do disjuntor detecta a volta do banco; até lá o snapshot atual é mantido
+                return false;
+            } else {
+                source = databaseCircuitBreaker.call(registry::loadSource);
+                origin = TaxCalculationStrategyRegistry.ORIGIN_DATABASE;
+            }
+            if (source.equals(lastSource)) {
+                lastFileStamp = stamp;
+                return false;
+            }
+
+            // Um cadastro publicado durante a leitura tem precedência; a próxima rodada recarrega por inteiro
+            if (!registry.installIfCurrent(source, origin, expectedVersion)) {
+                return false;
+            }
+            lastSource = source;
+            lastFileStamp = stamp;
+            reloads.increment();
+            if (file == null) {
+                localSnapshotStore.save(LocalSnapshotStore.TAX_TYPES, source);
+            }
+            TaxRateSnapshot snapshot = registry.snapshot();
+            logger.info("Snapshot de alíquotas {} publicado a partir de {} com {} tipos de imposto",
+                    snapshot.version(), origin, snapshot.size());
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            // Arquivo inválido não é relido até ser alterado de novo
+            if (stamp != null) {
+                lastFileStamp = stamp;
+            }
+            failures.increment();
+            logger.warn("Recarga de alíquotas descartada; o snapshot {} continua em uso", expectedVersion, ex);
+            return false;
+        }
+    }
+
+    private void refreshLoop() {
+        while (running) {
+            try {
+                Thread.sleep(interval.toMillis());
+            } catch (InterruptedException ex) {
+                running = false;
+                return;
+            }
+            refreshNow();
+        }
+    }
+
+    private TaxRateSource readFile() throws IOException {
+        TaxRateSource source = objectMapper.readValue(file.toFile(), TaxRateSource.class);
+        for (TaxType taxType : source.taxTypes()) {
+            if (taxType.getId() == null || taxType.getName() == null) {
+                throw new IllegalArgumentException("Tipo de imposto sem id ou nome no arquivo " + file + ".");
+            }
+        }
+        return source;
+    }
+
+    private record FileStamp(FileTime lastModified, long size) {
+        static FileStamp of(Path path) throws IOException {
+            return new FileStamp(Files.getLastModifiedTime(path), Files.size(path));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxRateVersionRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.DuplicateResourceException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxRateVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class TaxRateVersionService {
+    @Autowired
+    private TaxRateVersionRepository taxRateVersionRepository;
+
+    @Autowired
+    private TaxTypeRepository taxTypeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<TaxRateVersion> findByTaxType(Long taxTypeId) {
+        findTaxType(taxTypeId);
+        return taxRateVersionRepository.findByTaxTypeIdOrderByValidFrom(taxTypeId);
+    }
+
+    @Transactional
+    public TaxRateVersion save(Long taxTypeId, TaxRateVersionRequestDto requestDto) {
+        // A linha do tipo fica travada até o commit: duas gravações concorrentes não leem a mesma lista de
+        // vigências e inserem períodos sobrepostos
+        TaxType taxType = taxTypeRepository.findByIdForUpdate(taxTypeId)
+                .orElseThrow(() -> new ResourceNotFoundException("TipoImposto", "id", taxTypeId));
+        if (requestDto.vigenciaFim() != null && requestDto.vigenciaFim().isBefore(requestDto.vigenciaInicio())) {
+            throw new BadRequestException("O fim da vigência deve ser igual ou posterior ao início.");
+        }
+
+        // As vigências de um mesmo tipo não podem se sobrepor: cada data resolve para uma única alíquota
+        for (TaxRateVersion existing : taxRateVersionRepository.findByTaxTypeIdOrderByValidFrom(taxTypeId)) {
+            if (overlaps(existing, requestDto.vigenciaInicio(), requestDto.vigenciaFim())) {
+                throw new DuplicateResourceException(String.format(
+                        "Vigência sobreposta à alíquota %s de %s a %s", existing.getRate(), existing.getValidFrom(),
+                        existing.getValidTo() != null ? existing.getValidTo() : "sem término"));
+            }
+        }
+
+        TaxRateVersion version = new TaxRateVersion();
+        version.setTaxTypeId(taxTypeId);
+        version.setRate(requestDto.aliquota());
+        version.setValidFrom(requestDto.vigenciaInicio());
+        version.setValidTo(requestDto.vigenciaFim());
+        TaxRateVersion saved = taxRateVersionRepository.save(version);
+
+        // Recompila o tipo no registro de estratégias após o commit
+        eventPublisher.publishEvent(TaxTypeChangedEvent.saved(taxType));
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long taxTypeId, Long versionId) {
+        TaxType taxType = findTaxType(taxTypeId);
+        TaxRateVersion version = taxRateVersionRepository.findByIdAndTaxTypeId(versionId, taxTypeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Vigência", "id", versionId));
+        taxRateVersionRepository.delete(version);
+        eventPublisher.publishEvent(TaxTypeChangedEvent.saved(taxType));
+    }
+
+    private TaxType findTaxType(Long taxTypeId) {
+        return taxTypeRepository.findById(taxTypeId)
+                .orElseThrow(() -> new ResourceNotFoundException("TipoImposto", "id", taxTypeId));
+    }
+
+    private static boolean overlaps(TaxRateVersion existing, LocalDate from, LocalDate to) {
+        boolean startsBeforeExistingEnds = existing.getValidTo() == null || !from.isAfter(existing.getValidTo());
+        boolean endsAfterExistingStarts = to == null || !to.isBefore(existing.getValidFrom());
+        return startsBeforeExistingEnds && endsAfterExistingStarts;
+    }
+}
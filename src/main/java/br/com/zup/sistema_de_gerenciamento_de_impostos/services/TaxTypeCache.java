@@ -0,0 +1,159 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+public class TaxTypeCache {
+    private final TaxTypeRepository taxTypeRepository;
+
+    // Resultados vazios também ficam em cache para que ids inexistentes não consultem o banco a cada chamada
+    private final Cache<Long, Optional<TaxType>> byId;
+    private final Cache<String, Optional<TaxType>> byName;
+
+    private volatile List<TaxType> all;
+    private long generation;
+
+    public TaxTypeCache(TaxTypeRepository taxTypeRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${impostos.cache.tipos.tamanho-maximo:1000}") long maximumSize,
+                        @Value("${impostos.cache.tipos.expiracao:PT10M}") Duration expireAfterWrite) {
+        this.taxTypeRepository = taxTypeRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.byName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "taxTypesById");
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, "taxTypesByName");
+    }
+
+    public Optional<TaxType> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return byId.get(id, taxTypeRepository::findById);
+    }
+
+    public Optional<TaxType> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return byName.get(name, taxTypeRepository::findByName);
+    }
+
+    public List<TaxType> findAll() {
+        List<TaxType> cached = all;
+        if (cached == null) {
+            long loadedGeneration;
+            synchronized (this) {
+                loadedGeneration = generation;
+            }
+            cached = List.copyOf(taxTypeRepository.findAll());
+            synchronized (this) {
+                // Descarta a lista se houve invalidação durante a carga
+                if (loadedGeneration == generation) {
+                    cached.forEach(this::store);
+                    all = cached;
+                }
+            }
+        }
+        return cached;
+    }
+
+    // Ids ausentes do cache são carregados juntos, com uma única consulta
+    public Map<Long, TaxType> findAllById(Collection<Long> ids) {
+        Map<Long, TaxType> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long id : ids) {
+            Optional<TaxType> cached = byId.getIfPresent(id);
+            if (cached == null) {
+                missing.add(id);
+            } else {
+                cached.ifPresent(taxType -> result.put(id, taxType));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (TaxType taxType : taxTypeRepository.findAllById(missing)) {
+                store(taxType);
+                result.put(taxType.getId(), taxType);
+            }
+            for (Long id : missing) {
+                if (!result.containsKey(id)) {
+                    byId.put(id, Optional.empty());
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized void put(TaxType taxType) {
+        store(taxType);
+        resetAll();
+    }
+
+    public synchronized void evict(Long id) {
+        Optional<TaxType> cached = byId.getIfPresent(id);
+        byId.invalidate(id);
+        if (cached != null && cached.isPresent()) {
+            byName.invalidate(cached.get().getName());
+        } else {
+            byName.invalidateAll();
+        }
+        resetAll();
+    }
+
+    // Alterações só são refletidas no cache depois do commit, para que leitores nunca vejam dados revertidos.
+    // Executa antes dos demais ouvintes, que podem recorrer ao cache para reconstruir o seu estado.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxTypeChanged(TaxTypeChangedEvent event) {
+        if (event.isDeleted()) {
+            evict(event.taxTypeId());
+        } else {
+            put(event.taxType());
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        byId.invalidateAll();
+        byName.invalidateAll();
+        resetAll();
+    }
+
+    private void resetAll() {
+        generation++;
+        all = null;
+    }
+
+    private void store(TaxType taxType) {
+        byId.put(taxType.getId(), Optional.of(taxType));
+        byName.put(taxType.getName(), Optional.of(taxType));
+    }
+}
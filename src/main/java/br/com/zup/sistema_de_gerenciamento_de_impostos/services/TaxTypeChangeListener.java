@@ -0,0 +1,249 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangeNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+// Mantém os tipos de imposto em memória coerentes entre as réplicas. Uma conexão dedicada, fora do pool,
+// fica em LISTEN e aplica cada alteração assim que o NOTIFY chega; sem ela, a versão é consultada periodicamente.
+// A mesma conexão escuta os canais dos ClusterNotificationHandler (por exemplo, a revogação de tokens)
+@Component
+public class TaxTypeChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(TaxTypeChangeListener.class);
+
+    // Espera máxima por notificações em cada volta; limita o tempo de resposta ao desligamento
+    private static final int RECEIVE_TIMEOUT_MILLIS = 500;
+
+    // Resposta máxima ao keepalive antes de considerar a conexão perdida
+    private static final int KEEPALIVE_TIMEOUT_SECONDS = 5;
+
+    private final TaxTypeChangeNotifier notifier;
+    private final ChangeVersionSequence versions;
+    private final TaxTypeCache taxTypeCache;
+    private final TaxCalculationStrategyRegistry registry;
+    private final List<ClusterNotificationHandler> handlers;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration pollInterval;
+    private final Duration keepaliveInterval;
+
+    private final Counter received;
+    private final Counter fullReloads;
+
+    private volatile boolean connected;
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    public TaxTypeChangeListener(TaxTypeChangeNotifier notifier,
+                                 ChangeVersionRepository changeVersionRepository,
+                                 TaxTypeCache taxTypeCache,
+                                 TaxCalculationStrategyRegistry registry,
+                                 List<ClusterNotificationHandler> handlers,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.datasource.url}") String url,
+                                 @Value("${spring.datasource.username:}") String username,
+                                 @Value("${spring.datasource.password:}") String password,
+                                 @Value("${impostos.cluster.notificacoes.intervalo-polling:PT5S}") Duration pollInterval,
+                                 @Value("${impostos.cluster.notificacoes.intervalo-keepalive:PT30S}") Duration keepaliveInterval) {
+        this.notifier = notifier;
+        this.versions = new ChangeVersionSequence(TaxTypeChangeNotifier.SCOPE, changeVersionRepository, notifier);
+        this.taxTypeCache = taxTypeCache;
+        this.registry = registry;
+        this.handlers = List.copyOf(handlers);
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollInterval = pollInterval;
+        this.keepaliveInterval = keepaliveInterval;
+
+        this.received = Counter.builder("impostos.cluster.notificacoes")
+                .description("Alterações de tipos de imposto recebidas de outros nós")
+                .register(meterRegistry);
+        this.fullReloads = Counter.builder("impostos.cluster.recargas")
+                .description("Recargas completas dos tipos de imposto por notificação perdida ou polling")
+                .register(meterRegistry);
+        Gauge.builder("impostos.cluster.escuta.conectada", this, l -> l.connected ? 1 : 0)
+                .description("1 quando a conexão de LISTEN está ativa; 0 em modo de polling")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!notifier.isEnabled()) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "escuta-alteracoes");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (listener == null) {
+            return;
+        }
+        running = false;
+        listener.interrupt();
+        closeConnection();
+        listener.join(TimeUnit.SECONDS.toMillis(30));
+        listener = null;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try {
+                listen();
+            } catch (SQLException | RuntimeException ex) {
+                if (running) {
+                    logger.warn("Conexão de escuta de alterações indisponível; consultando a versão a cada {}", pollInterval, ex);
+                }
+            } finally {
+                connected = false;
+                closeConnection();
+            }
+
+            // Polling até a próxima tentativa de reconexão
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (running) {
+                pollVersion();
+                resyncHandlers();
+            }
+        }
+    }
+
+    private void listen() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        properties.setProperty("tcpKeepAlive", "true");
+        connection = DriverManager.getConnection(url, properties);
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + notifier.channel());
+            for (ClusterNotificationHandler handler : handlers) {
+                statement.execute("LISTEN " + handler.channel());
+            }
+        }
+        connected = true;
+        // O LISTEN vem antes da leitura: uma alteração neste intervalo chega como notificação
+        pollVersion();
+        resyncHandlers();
+        logger.info("Escutando alterações de tipos de imposto no canal {}", notifier.channel());
+
+        long nextKeepalive = System.nanoTime() + keepaliveInterval.toNanos();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(RECEIVE_TIMEOUT_MILLIS);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    dispatch(notification.getName(), notification.getParameter());
+                }
+            }
+            // Uma conexão meio aberta (queda de rede, failover) não gera erro em getNotifications: só devolve vazio
+            if (System.nanoTime() - nextKeepalive >= 0) {
+                if (!connection.isValid(KEEPALIVE_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Conexão de escuta sem resposta ao keepalive");
+                }
+                nextKeepalive = System.nanoTime() + keepaliveInterval.toNanos();
+            }
+        }
+    }
+
+    void dispatch(String channel, String payload) {
+        if (channel.equals(notifier.channel())) {
+            handle(payload);
+            return;
+        }
+        for (ClusterNotificationHandler handler : handlers) {
+            if (channel.equals(handler.channel())) {
+                handler.handle(payload);
+            }
+        }
+    }
+
+    void handle(String payload) {
+        TaxTypeChangeNotification notification;
+        try {
+            notification = TaxTypeChangeNotification.parse(payload);
+        } catch (IllegalArgumentException ex) {
+            logger.warn(ex.getMessage());
+            return;
+        }
+        versions.accept(notification.version(), notification.nodeId(), () -> {
+            received.increment();
+            apply(notification);
+        }, this::reloadAll);
+    }
+
+    void pollVersion() {
+        versions.resync(this::reloadAll);
+    }
+
+    void resyncHandlers() {
+        for (ClusterNotificationHandler handler : handlers) {
+            try {
+                handler.resync();
+            } catch (RuntimeException ex) {
+                logger.warn("Falha ao sincronizar o canal {}", handler.channel(), ex);
+            }
+        }
+    }
+
+    private void apply(TaxTypeChangeNotification notification) {
+        Long taxTypeId = notification.taxTypeId();
+        taxTypeCache.evict(taxTypeId);
+        if (notification.deleted()) {
+            registry.unregister(taxTypeId);
+        } else {
+            taxTypeCache.findById(taxTypeId).ifPresentOrElse(registry::register, () -> registry.unregister(taxTypeId));
+        }
+    }
+
+    private void reloadAll() {
+        fullReloads.increment();
+        taxTypeCache.invalidateAll();
+        registry.refresh();
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException ex) {
+                logger.debug("Falha ao fechar a conexão de escuta", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangeNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+// Avisa os demais nós de que um tipo de imposto mudou. O NOTIFY e o incremento da versão rodam na
+// transação da alteração: o PostgreSQL só entrega a notificação após o commit e a descarta no rollback
+@Component
+public class TaxTypeChangeNotifier {
+    public static final String SCOPE = "tax_types";
+
+    private static final String INCREMENT_VERSION = "INSERT INTO change_versions (scope, version) VALUES (?, 1) "
+            + "ON CONFLICT (scope) DO UPDATE SET version = change_versions.version + 1 RETURNING version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String channel;
+    // Identifica as notificações emitidas por este processo, que o ouvinte ignora
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public TaxTypeChangeNotifier(JdbcTemplate jdbcTemplate,
+                                 @Value("${impostos.cluster.notificacoes.habilitado:true}") boolean enabled,
+                                 @Value("${impostos.cluster.notificacoes.canal:impostos_alteracoes}") String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.channel = requireValidChannel(channel);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTaxTypeChanged(TaxTypeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        TaxTypeChangeNotification notification =
+                new TaxTypeChangeNotification(nodeId, nextVersion(SCOPE), event.taxTypeId(), event.isDeleted());
+        notify(channel, notification.format());
+    }
+
+    // Também usados por outros escopos (ClusterNotificationHandler); devem rodar na transação da alteração
+    public long nextVersion(String scope) {
+        return jdbcTemplate.queryForObject(INCREMENT_VERSION, Long.class, scope);
+    }
+
+    public void notify(String channel, String payload) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+    }
+
+    public static String requireValidChannel(String channel) {
+        // O canal entra como identificador no LISTEN, que não aceita parâmetros
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Canal de notificações inválido: " + channel);
+        }
+        return channel;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public String channel() {
+        return channel;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
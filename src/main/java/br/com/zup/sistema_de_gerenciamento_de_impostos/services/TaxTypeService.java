@@ -1,13 +1,23 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.DuplicateResourceException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxCalculationType;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.NcmRateRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBenefitRuleRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBracketRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxRateVersionRepository;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxFormula;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,12 +26,30 @@ public class TaxTypeService {
     @Autowired
     private TaxTypeRepository taxTypeRepository;
     
+    @Autowired
+    private TaxRateVersionRepository taxRateVersionRepository;
+    
+    @Autowired
+    private TaxBracketRepository taxBracketRepository;
+    
+    @Autowired
+    private NcmRateRepository ncmRateRepository;
+    
+    @Autowired
+    private TaxBenefitRuleRepository taxBenefitRuleRepository;
+    
+    @Autowired
+    private TaxTypeCache taxTypeCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<TaxType> findAll() {
-        return taxTypeRepository.findAll();
+        return taxTypeCache.findAll();
     }
     
     public Optional<TaxType> findById(Long id) {
-        return taxTypeRepository.findById(id);
+        return taxTypeCache.findById(id);
     }
     
     @Transactional
@@ -29,7 +57,11 @@ public class TaxTypeService {
         if (taxTypeRepository.findByName(taxType.getName()).isPresent()) {
             throw new DuplicateResourceException("TipoImposto", "nome", taxType.getName());
         }
-        return taxTypeRepository.save(taxType);
+        validateFormula(taxType);
+        validateBaseComposition(taxType);
+        TaxType savedTaxType = taxTypeRepository.save(taxType);
+        eventPublisher.publishEvent(TaxTypeChangedEvent.saved(savedTaxType));
+        return savedTaxType;
     }
     
     @Transactional
@@ -37,12 +69,47 @@ public class TaxTypeService {
         if (!taxTypeRepository.existsById(id)) {
             throw new ResourceNotFoundException("TipoImposto", "id", id);
         }
+        taxRateVersionRepository.deleteByTaxTypeId(id);
+        taxBracketRepository.deleteByTaxTypeId(id);
+        ncmRateRepository.deleteByTaxTypeId(id);
+        taxBenefitRuleRepository.deleteByTaxTypeId(id);
         taxTypeRepository.deleteById(id);
+        eventPublisher.publishEvent(TaxTypeChangedEvent.deleted(id));
+    }
+    
+    // A fórmula é validada uma única vez aqui; o registro a compila ao carregar o tipo
+    private void validateFormula(TaxType taxType) {
+        if (taxType.getFormula() == null || taxType.getFormula().isBlank()) {
+            taxType.setFormula(null);
+            return;
+        }
+        try {
+            taxType.setFormula(TaxFormula.compile(taxType.getFormula()).getSource());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+        taxType.setCalculationType(TaxCalculationType.FORMULA);
+    }
+    
+    // Só tipos já cadastrados podem compor a base; como tipos não são alterados, não há como fechar um ciclo
+    private void validateBaseComposition(TaxType taxType) {
+        if (Boolean.TRUE.equals(taxType.getInclusiveBase()) && taxType.getRate() != null && taxType.getRate() >= 100) {
+            throw new BadRequestException("A alíquota de um imposto por dentro deve ser menor que 100.");
+        }
+        if (taxType.getBaseIncludes() == null) {
+            taxType.setBaseIncludes(new HashSet<>());
+            return;
+        }
+        for (Long included : taxType.getBaseIncludes()) {
+            if (included == null || !taxTypeRepository.existsById(included)) {
+                throw new BadRequestException("Tipo de imposto " + included + " informado na base não existe.");
+            }
+        }
     }
     
     // Método auxiliar que pode ser útil
     public TaxType findByIdOrThrow(Long id) {
-        return taxTypeRepository.findById(id)
+        return taxTypeCache.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("TipoImposto", "id", id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TokenRevocationNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.UserChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.TokenRevocationList;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.VerifiedToken;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IssuedToken;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.IssuedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Revogação de tokens JWT pelo jti. O banco guarda os tokens emitidos; a memória guarda só os revogados e
+// ainda válidos, consultados a cada requisição sem acesso ao banco. Alterar ou excluir um usuário revoga os
+// tokens dele, e os demais nós são avisados por NOTIFY, como nas alterações de tipos de imposto
+@Component
+public class TokenRevocationService implements ClusterNotificationHandler {
+    public static final String SCOPE = "revoked_tokens";
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final IssuedTokenRepository issuedTokenRepository;
+    private final ChangeVersionSequence versions;
+    private final TaxTypeChangeNotifier notifier;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final LocalSnapshotStore localSnapshotStore;
+    private final int capacity;
+    private final double falsePositiveRate;
+    private final String channel;
+    private final Duration cleanupInterval;
+
+    private final Counter rejections;
+    private final Counter falsePositives;
+
+    private volatile TokenRevocationList revocations;
+    private boolean loaded;
+    private volatile boolean running;
+    private Thread cleaner;
+    // Aplica em memória as revogações feitas neste nó, fora da thread da requisição que alterou o usuário
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "revogacao-tokens");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TokenRevocationService(IssuedTokenRepository issuedTokenRepository,
+                                  ChangeVersionRepository changeVersionRepository,
+                                  TaxTypeChangeNotifier notifier,
+                                  DatabaseCircuitBreaker databaseCircuitBreaker,
+                                  LocalSnapshotStore localSnapshotStore,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${impostos.jwt.revogacao.capacidade:100000}") int capacity,
+                                  @Value("${impostos.jwt.revogacao.falso-positivo:0.01}") double falsePositiveRate,
+                                  @Value("${impostos.jwt.revogacao.canal:impostos_revogacoes}") String channel,
+                                  @Value("${impostos.jwt.revogacao.intervalo-limpeza:PT1H}") Duration cleanupInterval) {
+        this.issuedTokenRepository = issuedTokenRepository;
+        this.versions = new ChangeVersionSequence(SCOPE, changeVersionRepository, notifier);
+        this.notifier = notifier;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.localSnapshotStore = localSnapshotStore;
+        this.capacity = capacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.channel = TaxTypeChangeNotifier.requireValidChannel(channel);
+        this.cleanupInterval = cleanupInterval;
+        this.revocations = TokenRevocationList.of(Map.of(), capacity, falsePositiveRate);
+
+        this.rejections = Counter.builder("impostos.jwt.revogacao.rejeicoes")
+                .description("Requisições recusadas por token revogado")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("impostos.jwt.revogacao.falsos-positivos")
+                .description("Tokens válidos que passaram pelo filtro de Bloom e precisaram do conjunto exato")
+                .register(meterRegistry);
+        Gauge.builder("impostos.jwt.revogacao.tamanho", this, s -> s.revocations.size())
+                .description("Tokens revogados e ainda não vencidos em memória")
+                .register(meterRegistry);
+        Gauge.builder("impostos.jwt.revogacao.filtro.bytes", this, s -> s.revocations.filterBytes())
+                .description("Memória do filtro de Bloom da lista de revogação")
+                .register(meterRegistry);
+    }
+
+    // Na subida sem banco usa a cópia local; sem ela, a subida falha em vez de aceitar tokens revogados
+    @PostConstruct
+    public void start() {
+        reload();
+        running = true;
+        cleaner = new Thread(this::cleanupLoop, "limpeza-tokens");
+        cleaner.setDaemon(true);
+        cleaner.start();
+    }
+
+    public synchronized void reload() {
+        Instant now = Instant.now();
+        List<IssuedToken> revoked = localSnapshotStore.loadList(LocalSnapshotStore.REVOKED_TOKENS, IssuedToken.class,
+                () -> issuedTokenRepository.findByRevokedAtIsNotNullAndExpiresAtAfter(now), !loaded);
+        revocations = TokenRevocationList.of(byJti(revoked), capacity, falsePositiveRate);
+        loaded = true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        applier.shutdown();
+        applier.awaitTermination(10, TimeUnit.SECONDS);
+        if (cleaner == null) {
+            return;
+        }
+        running = false;
+        cleaner.interrupt();
+        cleaner.join(TimeUnit.SECONDS.toMillis(30));
+        cleaner = null;
+    }
+
+    // Caminho de cada requisição: só memória. Tokens anteriores ao jti não têm como ser revogados
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        TokenRevocationList current = revocations;
+        if (!current.mightBeRevoked(jti)) {
+            return false;
+        }
+        if (current.isRevoked(jti)) {
+            rejections.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    public void recordIssued(VerifiedToken token) {
+        if (token.jti() == null) {
+            return;
+        }
+        IssuedToken issued = new IssuedToken();
+        issued.setJti(token.jti());
+        issued.setUsername(token.username());
+        issued.setExpiresAt(Instant.ofEpochMilli(token.expiresAtMillis()));
+        databaseCircuitBreaker.call(() -> issuedTokenRepository.save(issued));
+    }
+
+    // Na transação da alteração do usuário: marca os tokens e avisa os demais nós, que só recebem o NOTIFY após o commit
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Instant now = Instant.now();
+        List<IssuedToken> active = issuedTokenRepository.findByUsernameAndRevokedAtIsNullAndExpiresAtAfter(event.username(), now);
+        if (!active.isEmpty()) {
+            active.forEach(token -> token.setRevokedAt(now));
+            issuedTokenRepository.saveAll(active);
+        }
+        // Avisa mesmo sem tokens ativos: o NOTIFY também invalida o cache de usuários dos demais nós
+        if (notifier.isEnabled()) {
+            long version = notifier.nextVersion(SCOPE);
+            notifier.notify(channel, new TokenRevocationNotification(notifier.nodeId(), version, event.username()).format());
+        }
+    }
+
+    // A consulta e a gravação da cópia local saem da requisição; até aplicar (milissegundos), este nó ainda
+    // aceita os tokens do usuário, como os demais nós até o NOTIFY chegar
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChangeCommitted(UserChangedEvent event) {
+        try {
+            applier.execute(() -> {
+                try {
+                    applyUser(event.username());
+                } catch (RuntimeException ex) {
+                    logger.warn("Falha ao aplicar a revogação de tokens de {}", event.username(), ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Desligando; revogação de tokens de {} não aplicada em memória", event.username());
+        }
+    }
+
+    @Override
+    public String channel() {
+        return channel;
+    }
+
+    @Override
+    public void handle(String payload) {
+        TokenRevocationNotification notification;
+        try {
+            notification = TokenRevocationNotification.parse(payload);
+        } catch (IllegalArgumentException ex) {
+            logger.warn(ex.getMessage());
+            return;
+        }
+        versions.accept(notification.version(), notification.nodeId(), () -> applyUser(notification.username()), this::reload);
+    }
+
+    @Override
+    public void resync() {
+        versions.resync(this::reload);
+    }
+
+    TokenRevocationList revocations() {
+        return revocations;
+    }
+
+    private synchronized void applyUser(String username) {
+        List<IssuedToken> revoked = issuedTokenRepository.findByUsernameAndRevokedAtIsNotNullAndExpiresAtAfter(username, Instant.now());
+        if (revoked.isEmpty()) {
+            return;
+        }
+        revocations = revocations.with(byJti(revoked), System.currentTimeMillis(), capacity, falsePositiveRate);
+        localSnapshotStore.save(LocalSnapshotStore.REVOKED_TOKENS, revokedTokens());
+    }
+
+    // Remove do banco os tokens vencidos e da memória as revogações que já não importam
+    synchronized void cleanup() {
+        revocations = revocations.with(Map.of(), System.currentTimeMillis(), capacity, falsePositiveRate);
+        int deleted = databaseCircuitBreaker.call(() -> issuedTokenRepository.deleteExpired(Instant.now()));
+        if (deleted > 0) {
+            logger.info("{} tokens vencidos removidos", deleted);
+        }
+    }
+
+    private void cleanupLoop() {
+        while (running) {
+            try {
+                Thread.sleep(cleanupInterval.toMillis());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            try {
+                cleanup();
+            } catch (RuntimeException ex) {
+                logger.warn("Falha na limpeza dos tokens vencidos", ex);
+            }
+        }
+    }
+
+    private List<IssuedToken> revokedTokens() {
+        return revocations.entries().entrySet().stream()
+                .map(entry -> {
+                    IssuedToken token = new IssuedToken();
+                    token.setJti(entry.getKey());
+                    token.setExpiresAt(Instant.ofEpochMilli(entry.getValue()));
+                    return token;
+                })
+                .toList();
+    }
+
+    private static Map<String, Long> byJti(List<IssuedToken> tokens) {
+        return tokens.stream().collect(Collectors.toMap(IssuedToken::getJti, token -> token.getExpiresAt().toEpochMilli(), (a, b) -> a));
+    }
+}
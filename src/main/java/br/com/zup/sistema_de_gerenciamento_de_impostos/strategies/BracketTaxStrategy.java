@@ -0,0 +1,111 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import java.math.RoundingMode;
+
+// Tabela progressiva (IRPF, INSS, anexos do Simples Nacional): imposto = base * alíquota da faixa - parcela a deduzir.
+// As faixas ficam em arrays primitivos ordenados pelo limite inferior; a faixa é achada por busca binária
+public class BracketTaxStrategy implements TaxCalculationStrategy {
+    private final double[] lowerBounds;
+    private final double[] rates;
+    private final double[] factors;
+    private final double[] deductions;
+
+    // Mesma tabela em ponto fixo para o caminho em centavos
+    private final long[] lowerBoundsCentavos;
+    private final long[] ratesMicros;
+    private final long[] deductionsCentavos;
+
+    public BracketTaxStrategy(double[] lowerBounds, double[] rates, double[] deductions) {
+        if (lowerBounds.length == 0 || lowerBounds.length != rates.length || lowerBounds.length != deductions.length) {
+            throw new IllegalArgumentException("A tabela de faixas deve ter limites, alíquotas e deduções de mesmo tamanho.");
+        }
+        for (int i = 1; i < lowerBounds.length; i++) {
+            if (lowerBounds[i] <= lowerBounds[i - 1]) {
+                throw new IllegalArgumentException("Os limites das faixas devem ser estritamente crescentes.");
+            }
+        }
+
+        int size = lowerBounds.length;
+        this.lowerBounds = lowerBounds.clone();
+        this.rates = rates.clone();
+        this.deductions = deductions.clone();
+        this.factors = new double[size];
+        this.lowerBoundsCentavos = new long[size];
+        this.ratesMicros = new long[size];
+        this.deductionsCentavos = new long[size];
+        for (int i = 0; i < size; i++) {
+            factors[i] = rates[i] / 100;
+            lowerBoundsCentavos[i] = MonetaryMath.toCentavos(lowerBounds[i]);
+            ratesMicros[i] = MonetaryMath.toRateMicros(rates[i]);
+            deductionsCentavos[i] = MonetaryMath.toCentavos(deductions[i]);
+        }
+    }
+
+    public int size() {
+        return lowerBounds.length;
+    }
+
+    // Alíquota nominal da faixa em que a base se enquadra (0 abaixo da primeira faixa)
+    public double rateFor(double value) {
+        int bracket = bracketIndex(lowerBounds, value);
+        return bracket < 0 ? 0 : rates[bracket];
+    }
+
+    @Override
+    public double calculateTax(double value) {
+        int bracket = bracketIndex(lowerBounds, value);
+        if (bracket < 0) {
+            return 0;
+        }
+        return Math.max(0, value * factors[bracket] - deductions[bracket]);
+    }
+
+    @Override
+    public long calculateTaxCentavos(long baseCentavos, RoundingMode roundingMode) {
+        int bracket = bracketIndex(lowerBoundsCentavos, baseCentavos);
+        if (bracket < 0) {
+            return 0;
+        }
+        long tax = MonetaryMath.applyRate(baseCentavos, ratesMicros[bracket], roundingMode) - deductionsCentavos[bracket];
+        return Math.max(0, tax);
+    }
+
+    @Override
+    public void calculateTaxCentavos(long[] baseCentavos, long[] taxCentavos, RoundingMode roundingMode) {
+        if (taxCentavos.length < baseCentavos.length) {
+            throw new IllegalArgumentException("Array de saída menor que o de entrada.");
+        }
+        for (int i = 0; i < baseCentavos.length; i++) {
+            taxCentavos[i] = calculateTaxCentavos(baseCentavos[i], roundingMode);
+        }
+    }
+
+    // Índice da última faixa com limite inferior <= valor, ou -1
+    private static int bracketIndex(double[] bounds, double value) {
+        int low = 0;
+        int high = bounds.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (bounds[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private static int bracketIndex(long[] bounds, long value) {
+        int low = 0;
+        int high = bounds.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (bounds[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+}
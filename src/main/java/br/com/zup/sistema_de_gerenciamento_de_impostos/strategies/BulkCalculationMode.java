@@ -0,0 +1,8 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+// Modo de execução de um cálculo em lote sobre arrays de centavos
+public enum BulkCalculationMode {
+    SCALAR,
+    // Usa SIMD (jdk.incubator.vector) quando disponível, com fallback escalar; o resultado é o mesmo do SCALAR
+    VECTOR
+}
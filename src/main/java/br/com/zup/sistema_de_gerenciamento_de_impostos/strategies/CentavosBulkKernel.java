@@ -0,0 +1,27 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import java.math.RoundingMode;
+
+// Aplica uma alíquota fixa a uma coluna de bases em centavos, pelo laço escalar ou pelo kernel SIMD
+final class CentavosBulkKernel {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    // A JVM precisa ser iniciada com --add-modules jdk.incubator.vector; sem o módulo, CentavosVectorKernel
+    // nunca é carregado e o modo VECTOR usa o laço escalar
+    static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+
+    private CentavosBulkKernel() {
+    }
+
+    static void applyRate(long[] baseCentavos, long[] taxCentavos, long rateMicros, RoundingMode roundingMode,
+                          BulkCalculationMode mode) {
+        int from = 0;
+        if (mode == BulkCalculationMode.VECTOR && VECTOR_AVAILABLE && CentavosVectorKernel.supports(rateMicros, roundingMode)) {
+            from = CentavosVectorKernel.applyRate(baseCentavos, taxCentavos, rateMicros, roundingMode);
+        }
+        // Cauda que não completa um vetor e, a partir do bloco com estouro, o mesmo ArithmeticException do escalar
+        for (int i = from; i < baseCentavos.length; i++) {
+            taxCentavos[i] = MonetaryMath.applyRate(baseCentavos[i], rateMicros, roundingMode);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.math.RoundingMode;
+
+// MonetaryMath.applyRate em lanes SIMD, bit a bit igual ao escalar. Não há divisão inteira vetorial: o quociente
+// por RATE_SCALE é estimado em double e corrigido pelo resto, o que o torna exato (ver floorQuotient)
+final class CentavosVectorKernel {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    private static final long SCALE = MonetaryMath.RATE_SCALE;
+    private static final double SCALE_DOUBLE = MonetaryMath.RATE_SCALE;
+    private static final long HALF_SCALE = MonetaryMath.RATE_SCALE / 2;
+
+    private CentavosVectorKernel() {
+    }
+
+    // Alíquota zero ou negativa e UNNECESSARY (que lança na primeira divisão inexata) ficam no escalar
+    static boolean supports(long rateMicros, RoundingMode roundingMode) {
+        return rateMicros > 0 && roundingMode != RoundingMode.UNNECESSARY;
+    }
+
+    // Devolve o índice a partir do qual o chamador continua no laço escalar: o fim da parte múltipla do
+    // tamanho do vetor ou o primeiro bloco em que base * alíquota estoura um long
+    static int applyRate(long[] baseCentavos, long[] taxCentavos, long rateMicros, RoundingMode roundingMode) {
+        // Math.multiplyExact(base, rate) estoura exatamente quando base sai de [MIN / rate, MAX / rate]
+        long upper = Long.MAX_VALUE / rateMicros;
+        long lower = Long.MIN_VALUE / rateMicros;
+        int bound = LONGS.loopBound(baseCentavos.length);
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            LongVector base = LongVector.fromArray(LONGS, baseCentavos, i);
+            if (base.compare(VectorOperators.GT, upper).or(base.compare(VectorOperators.LT, lower)).anyTrue()) {
+                return i;
+            }
+            LongVector product = base.mul(rateMicros);
+            LongVector quotient = floorQuotient(product);
+            LongVector remainder = product.sub(quotient.mul(SCALE));
+            quotient.add(1, increment(product, quotient, remainder, roundingMode)).intoArray(taxCentavos, i);
+        }
+        return i;
+    }
+
+    // floor(product / SCALE). Com |product| < 2^63 o quociente cabe em 2^53 e a estimativa em double erra menos de
+    // 0,01; após o truncamento do D2L ela fica entre floor - 1 e floor + 2, e cada passo abaixo corrige uma unidade
+    private static LongVector floorQuotient(LongVector product) {
+        DoubleVector estimate = ((DoubleVector) product.convert(VectorOperators.L2D, 0)).div(SCALE_DOUBLE);
+        LongVector quotient = (LongVector) estimate.convert(VectorOperators.D2L, 0);
+        for (int step = 0; step < 2; step++) {
+            VectorMask<Long> below = product.sub(quotient.mul(SCALE)).compare(VectorOperators.LT, 0);
+            quotient = quotient.sub(1, below);
+        }
+        VectorMask<Long> above = product.sub(quotient.mul(SCALE)).compare(VectorOperators.GE, SCALE);
+        return quotient.add(1, above);
+    }
+
+    // Lanes em que o resultado é floor + 1, com o resto em [0, SCALE); as mesmas regras de MonetaryMath.divide
+    // expressas a partir do piso em vez do truncamento
+    private static VectorMask<Long> increment(LongVector product, LongVector quotient, LongVector remainder,
+                                              RoundingMode roundingMode) {
+        VectorMask<Long> inexact = remainder.compare(VectorOperators.NE, 0);
+        VectorMask<Long> negative = product.compare(VectorOperators.LT, 0);
+        VectorMask<Long> aboveHalf = remainder.compare(VectorOperators.GT, HALF_SCALE);
+        VectorMask<Long> tie = remainder.compare(VectorOperators.EQ, HALF_SCALE);
+        return switch (roundingMode) {
+            case FLOOR -> LONGS.maskAll(false);
+            case CEILING -> inexact;
+            case DOWN -> inexact.and(negative);
+            case UP -> inexact.andNot(negative);
+            case HALF_UP -> aboveHalf.or(tie.andNot(negative));
+            case HALF_DOWN -> aboveHalf.or(tie.and(negative));
+            case HALF_EVEN -> aboveHalf.or(tie.and(quotient.and(1L).compare(VectorOperators.NE, 0)));
+            case UNNECESSARY -> throw new IllegalArgumentException("UNNECESSARY não é suportado no kernel vetorial.");
+        };
+    }
+}
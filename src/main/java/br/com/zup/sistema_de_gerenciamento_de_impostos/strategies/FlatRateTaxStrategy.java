@@ -0,0 +1,50 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import java.math.RoundingMode;
+
+public class FlatRateTaxStrategy implements TaxCalculationStrategy {
+    // Alíquota em percentual (ex.: 18.0 para 18%), a mesma unidade de TaxType.rate
+    private final double rate;
+    private final double factor;
+
+    // Mesma alíquota em milionésimos, usada no cálculo em centavos
+    private final long rateMicros;
+
+    public FlatRateTaxStrategy(double rate) {
+        this.rate = rate;
+        this.factor = rate / 100;
+        this.rateMicros = MonetaryMath.toRateMicros(rate);
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public long getRateMicros() {
+        return rateMicros;
+    }
+
+    @Override
+    public double calculateTax(double value) {
+        return value * factor;
+    }
+
+    @Override
+    public long calculateTaxCentavos(long baseCentavos, RoundingMode roundingMode) {
+        return MonetaryMath.applyRate(baseCentavos, rateMicros, roundingMode);
+    }
+
+    @Override
+    public void calculateTaxCentavos(long[] baseCentavos, long[] taxCentavos, RoundingMode roundingMode) {
+        calculateTaxCentavos(baseCentavos, taxCentavos, roundingMode, BulkCalculationMode.SCALAR);
+    }
+
+    @Override
+    public void calculateTaxCentavos(long[] baseCentavos, long[] taxCentavos, RoundingMode roundingMode,
+                                     BulkCalculationMode mode) {
+        if (taxCentavos.length < baseCentavos.length) {
+            throw new IllegalArgumentException("Array de saída menor que o de entrada.");
+        }
+        CentavosBulkKernel.applyRate(baseCentavos, taxCentavos, rateMicros, roundingMode, mode);
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+// Estratégia para tipos de imposto cadastrados com fórmula; a fórmula já chega compilada
+public class FormulaTaxStrategy implements TaxCalculationStrategy {
+    private final TaxFormula formula;
+    private final double rate;
+
+    public FormulaTaxStrategy(TaxFormula formula, double rate) {
+        this.formula = formula;
+        this.rate = rate;
+    }
+
+    public TaxFormula getFormula() {
+        return formula;
+    }
+
+    @Override
+    public double calculateTax(double value) {
+        double tax = formula.evaluate(value, rate);
+        if (!Double.isFinite(tax)) {
+            throw new ArithmeticException("A fórmula resultou em um valor inválido para a base " + value);
+        }
+        // Imposto nunca negativo
+        return Math.max(0, tax);
+    }
+}
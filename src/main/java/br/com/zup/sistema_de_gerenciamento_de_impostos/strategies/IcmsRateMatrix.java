@@ -0,0 +1,68 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IcmsRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Matriz origem x destino de alíquotas de ICMS em arrays planos indexados pelo ordinal da UF.
+// Imutável: uma recarga constrói outra instância
+public final class IcmsRateMatrix {
+    private static final int UFS = Uf.values().length;
+
+    public static final IcmsRateMatrix EMPTY = new IcmsRateMatrix(new double[UFS * UFS], unregistered(), 0);
+
+    // Percentual (18.0 = 18%) e milionésimos; -1 em rateMicros marca par não cadastrado
+    private final double[] rates;
+    private final long[] rateMicros;
+    private final int size;
+
+    private IcmsRateMatrix(double[] rates, long[] rateMicros, int size) {
+        this.rates = rates;
+        this.rateMicros = rateMicros;
+        this.size = size;
+    }
+
+    public static IcmsRateMatrix of(List<IcmsRate> icmsRates) {
+        if (icmsRates.isEmpty()) {
+            return EMPTY;
+        }
+        double[] rates = new double[UFS * UFS];
+        long[] rateMicros = unregistered();
+        for (IcmsRate icmsRate : icmsRates) {
+            int cell = cell(icmsRate.getOriginUf(), icmsRate.getDestinationUf());
+            rates[cell] = icmsRate.getRate();
+            rateMicros[cell] = MonetaryMath.toRateMicros(icmsRate.getRate());
+        }
+        return new IcmsRateMatrix(rates, rateMicros, icmsRates.size());
+    }
+
+    private static long[] unregistered() {
+        long[] rateMicros = new long[UFS * UFS];
+        Arrays.fill(rateMicros, -1);
+        return rateMicros;
+    }
+
+    public static int cell(Uf origin, Uf destination) {
+        return origin.ordinal() * UFS + destination.ordinal();
+    }
+
+    // Quantidade de pares cadastrados
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(Uf origin, Uf destination) {
+        return rateMicros[cell(origin, destination)] >= 0;
+    }
+
+    public double rate(Uf origin, Uf destination) {
+        return rates[cell(origin, destination)];
+    }
+
+    // -1 quando o par não estiver cadastrado
+    public long rateMicros(Uf origin, Uf destination) {
+        return rateMicros[cell(origin, destination)];
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.IcmsRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IcmsRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.IcmsRateRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.LocalSnapshotStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class IcmsRateTable {
+    @Autowired
+    private IcmsRateRepository icmsRateRepository;
+
+    @Autowired
+    private LocalSnapshotStore localSnapshotStore;
+
+    // A recarga monta a matriz nova por fora e troca a referência: leitores nunca bloqueiam nem veem matriz parcial
+    private volatile IcmsRateMatrix matrix = IcmsRateMatrix.EMPTY;
+
+    public IcmsRateMatrix current() {
+        return matrix;
+    }
+
+    // synchronized: a recarga local e a notificada por outro nó não instalam uma leitura mais antiga por último
+    @PostConstruct
+    public synchronized void reload() {
+        matrix = IcmsRateMatrix.of(localSnapshotStore.loadList(LocalSnapshotStore.ICMS_RATES, IcmsRate.class,
+                icmsRateRepository::findAll, matrix == IcmsRateMatrix.EMPTY));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIcmsRatesChanged(IcmsRatesChangedEvent event) {
+        reload();
+    }
+}
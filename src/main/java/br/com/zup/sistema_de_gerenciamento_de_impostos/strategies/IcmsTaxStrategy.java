@@ -1,11 +1,14 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
 
-import org.springframework.stereotype.Component;
+public class IcmsTaxStrategy extends FlatRateTaxStrategy {
+    // Alíquota usada quando o tipo de imposto não informa a sua própria
+    public static final double DEFAULT_RATE = 18.0; // 18% para ICMS
 
-@Component
-public class IcmsTaxStrategy implements TaxCalculationStrategy {
-    @Override
-    public double calculateTax(double value) {
-        return 0.18 * value; // 18% para ICMS
+    public IcmsTaxStrategy() {
+        this(DEFAULT_RATE);
     }
-}
\ No newline at end of file
+
+    public IcmsTaxStrategy(double rate) {
+        super(rate);
+    }
+}
@@ -0,0 +1,231 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Plano de execução de uma combinação de impostos em nota fiscal: o grafo de dependências da base
+// é ordenado topologicamente uma única vez e reduzido a arrays; executar uma linha é só aritmética
+public final class InvoicePlan {
+    private final RegisteredTaxType[] taxes;
+    private final TaxCalculationStrategy[] strategies;
+    // Alíquota de cada posição (a da vigência, quando há uma)
+    private final double[] rates;
+    // dependencies[i]: posições, no plano, dos impostos somados à base do imposto i
+    private final int[][] dependencies;
+    // Alíquota em milionésimos dos impostos "por dentro"; 0 para os demais
+    private final long[] inclusiveRateMicros;
+    private final Map<Long, Integer> positions;
+
+    private InvoicePlan(RegisteredTaxType[] taxes, TaxCalculationStrategy[] strategies, double[] rates, int[][] dependencies) {
+        this.taxes = taxes;
+        this.dependencies = dependencies;
+        this.strategies = strategies;
+        this.rates = rates;
+        this.inclusiveRateMicros = new long[taxes.length];
+        this.positions = new HashMap<>();
+        for (int i = 0; i < taxes.length; i++) {
+            inclusiveRateMicros[i] = taxes[i].inclusiveBase() ? MonetaryMath.toRateMicros(rates[i]) : 0;
+            positions.put(taxes[i].id(), i);
+        }
+    }
+
+    public static InvoicePlan compile(List<RegisteredTaxType> taxTypes) {
+        return compile(taxTypes, null);
+    }
+
+    public static InvoicePlan compile(List<RegisteredTaxType> taxTypes, LocalDate referenceDate) {
+        return compile(taxTypes, referenceDate, LocalDate.now());
+    }
+
+    // Só as dependências entre os impostos da combinação entram no grafo: imposto fora da nota não compõe base.
+    // Cada imposto usa a estratégia e a alíquota da vigência da data de referência ou, sem ela, da que cobre today
+    // (RegisteredTaxType.versionAt). Lança IllegalArgumentException em caso de ciclo, de alíquota "por dentro"
+    // inválida ou de data de referência que o tipo não resolve
+    public static InvoicePlan compile(List<RegisteredTaxType> taxTypes, LocalDate referenceDate, LocalDate today) {
+        int size = taxTypes.size();
+        Map<Long, Integer> inputIndex = new HashMap<>();
+        TaxCalculationStrategy[] inputStrategies = new TaxCalculationStrategy[size];
+        double[] inputRates = new double[size];
+        for (int i = 0; i < size; i++) {
+            RegisteredTaxType taxType = taxTypes.get(i);
+            if (inputIndex.put(taxType.id(), i) != null) {
+                throw new IllegalArgumentException("Tipo de imposto repetido na nota: " + taxType.name() + ".");
+            }
+            inputStrategies[i] = taxType.strategy();
+            inputRates[i] = taxType.rate();
+            int version = taxType.versionAt(referenceDate, today);
+            if (version >= 0) {
+                inputStrategies[i] = taxType.timeline().strategyAt(version);
+                inputRates[i] = taxType.timeline().rateAt(version);
+            }
+            if (taxType.inclusiveBase() && (inputRates[i] <= 0 || inputRates[i] >= 100)) {
+                throw new IllegalArgumentException("Alíquota por dentro de " + taxType.name() + " deve estar entre 0 e 100.");
+            }
+        }
+
+        // Kahn: arestas da dependência para o dependente
+        List<List<Integer>> dependents = new ArrayList<>(size);
+        int[] pending = new int[size];
+        for (int i = 0; i < size; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            for (Long included : taxTypes.get(i).baseIncludes()) {
+                Integer dependency = inputIndex.get(included);
+                if (dependency != null) {
+                    dependents.get(dependency).add(i);
+                    pending[i]++;
+                }
+            }
+        }
+
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            if (pending[i] == 0) {
+                ready.add(i);
+            }
+        }
+        int[] order = new int[size];
+        int ordered = 0;
+        while (!ready.isEmpty()) {
+            int current = ready.poll();
+            order[ordered++] = current;
+            for (int dependent : dependents.get(current)) {
+                if (--pending[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (ordered < size) {
+            List<String> cycle = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (pending[i] > 0) {
+                    cycle.add(taxTypes.get(i).name());
+                }
+            }
+            throw new IllegalArgumentException("Dependência circular entre as bases de " + String.join(", ", cycle) + ".");
+        }
+
+        int[] positionOf = new int[size];
+        RegisteredTaxType[] taxes = new RegisteredTaxType[size];
+        TaxCalculationStrategy[] strategies = new TaxCalculationStrategy[size];
+        double[] rates = new double[size];
+        for (int position = 0; position < size; position++) {
+            positionOf[order[position]] = position;
+            taxes[position] = taxTypes.get(order[position]);
+            strategies[position] = inputStrategies[order[position]];
+            rates[position] = inputRates[order[position]];
+        }
+        int[][] dependencies = new int[size][];
+        for (int position = 0; position < size; position++) {
+            dependencies[position] = taxes[position].baseIncludes().stream()
+                    .map(inputIndex::get)
+                    .filter(index -> index != null)
+                    .mapToInt(index -> positionOf[index])
+                    .sorted()
+                    .toArray();
+        }
+        return new InvoicePlan(taxes, strategies, rates, dependencies);
+    }
+
+    public int size() {
+        return taxes.length;
+    }
+
+    // Imposto na posição do plano (ordem topológica)
+    public RegisteredTaxType taxAt(int position) {
+        return taxes[position];
+    }
+
+    public int positionOf(Long taxTypeId) {
+        Integer position = positions.get(taxTypeId);
+        return position != null ? position : -1;
+    }
+
+    // O plano guarda as estratégias (as da vigência, quando datado); continua válido enquanto o registro
+    // devolver as mesmas instâncias
+    public boolean isCurrent(TaxCalculationStrategyRegistry registry) {
+        for (RegisteredTaxType taxType : taxes) {
+            if (registry.find(taxType.id()) != taxType) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void execute(long[] basesCentavos, long[] taxCentavos, RoundingMode roundingMode) {
+        execute(basesCentavos, taxCentavos, roundingMode, null);
+    }
+
+    public void execute(long[] basesCentavos, long[] taxCentavos, RoundingMode roundingMode, ItemRules itemRules) {
+        execute(basesCentavos, taxCentavos, roundingMode, itemRules, null);
+    }
+
+    // Linhas em sequência: taxCentavos[linha * size() + posição] recebe o imposto da linha.
+    // itemRules, quando informado, aplica por item o benefício e a regra por NCM, como no cálculo avulso.
+    // appliedRates, quando informado, recebe na mesma célula a alíquota aplicada, como a do cálculo avulso:
+    // zero na isenção, a da regra por NCM ou a nominal da faixa da tabela progressiva
+    public void execute(long[] basesCentavos, long[] taxCentavos, RoundingMode roundingMode, ItemRules itemRules,
+                        double[] appliedRates) {
+        int size = taxes.length;
+        if (taxCentavos.length < (long) basesCentavos.length * size
+                || appliedRates != null && appliedRates.length < (long) basesCentavos.length * size) {
+            throw new IllegalArgumentException("Array de saída menor que linhas x impostos.");
+        }
+        for (int line = 0, offset = 0; line < basesCentavos.length; line++, offset += size) {
+            long lineBase = basesCentavos[line];
+            for (int position = 0; position < size; position++) {
+                long base = lineBase;
+                for (int dependency : dependencies[position]) {
+                    base = Math.addExact(base, taxCentavos[offset + dependency]);
+                }
+                long rateMicros = inclusiveRateMicros[position];
+                if (rateMicros != 0) {
+                    // Base "por dentro": base / (1 - alíquota)
+                    base = MonetaryMath.divide(Math.multiplyExact(base, MonetaryMath.RATE_SCALE),
+                            MonetaryMath.RATE_SCALE - rateMicros, roundingMode);
+                }
+                int cell = offset + position;
+                if (itemRules != null) {
+                    // Isenção zera o imposto; redução ajusta a base antes da alíquota
+                    int benefit = itemRules.benefitRules()[cell];
+                    if (benefit >= 0) {
+                        TaxBenefitMatcher benefits = itemRules.benefits()[position];
+                        if (benefits.isExemption(benefit)) {
+                            taxCentavos[cell] = 0;
+                            if (appliedRates != null) {
+                                appliedRates[cell] = 0.0;
+                            }
+                            continue;
+                        }
+                        base = benefits.reduceBase(benefit, base, roundingMode);
+                    }
+                    int ncmRule = itemRules.ncmRules()[cell];
+                    if (ncmRule >= 0) {
+                        taxCentavos[cell] = itemRules.ncmRates()[position].calculateTaxCentavos(ncmRule, base, roundingMode);
+                        if (appliedRates != null) {
+                            appliedRates[cell] = itemRules.ncmRates()[position].rateAt(ncmRule);
+                        }
+                        continue;
+                    }
+                }
+                taxCentavos[cell] = strategies[position].calculateTaxCentavos(base, roundingMode);
+                if (appliedRates != null) {
+                    appliedRates[cell] = strategies[position] instanceof BracketTaxStrategy brackets
+                            ? brackets.rateFor(MonetaryMath.toReais(base))
+                            : rates[position];
+                }
+            }
+        }
+    }
+
+    // Regras que variam por item, resolvidas a cada nota sobre as tabelas atuais: por posição do plano, a tabela
+    // de benefícios e as regras por NCM; por célula (linha * size() + posição), a regra que casou ou -1
+    public record ItemRules(TaxBenefitMatcher[] benefits, int[] benefitRules, NcmRateTrie[] ncmRates, int[] ncmRules) {}
+}
@@ -1,11 +1,14 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
 
-import org.springframework.stereotype.Component;
+public class IssTaxStrategy extends FlatRateTaxStrategy {
+    // Alíquota usada quando o tipo de imposto não informa a sua própria
+    public static final double DEFAULT_RATE = 5.0; // 5% para ISS
 
-@Component
-public class IssTaxStrategy implements TaxCalculationStrategy {
-    @Override
-    public double calculateTax(double value) {
-        return 0.05 * value; // 5% para ISS
+    public IssTaxStrategy() {
+        this(DEFAULT_RATE);
     }
-}
\ No newline at end of file
+
+    public IssTaxStrategy(double rate) {
+        super(rate);
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import java.math.RoundingMode;
+
+// Aritmética em ponto fixo: valores monetários em centavos (long) e alíquotas em milionésimos (1e-6)
+public final class MonetaryMath {
+    public static final long CENTAVOS_PER_REAL = 100;
+
+    // 18% = 0,18 = 180_000 milionésimos
+    public static final long RATE_SCALE = 1_000_000;
+
+    private MonetaryMath() {
+    }
+
+    public static long toCentavos(double reais) {
+        return Math.round(reais * CENTAVOS_PER_REAL);
+    }
+
+    public static double toReais(long centavos) {
+        return (double) centavos / CENTAVOS_PER_REAL;
+    }
+
+    // Converte uma alíquota percentual (18.0 = 18%) para milionésimos
+    public static long toRateMicros(double ratePercent) {
+        return Math.round(ratePercent * (RATE_SCALE / 100));
+    }
+
+    public static long applyRate(long centavos, long rateMicros, RoundingMode roundingMode) {
+        return divide(Math.multiplyExact(centavos, rateMicros), RATE_SCALE, roundingMode);
+    }
+
+    // Divisão inteira com arredondamento explícito, sem BigDecimal
+    public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend - quotient * divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        // Sinal do quociente exato (+1 ou -1)
+        int signum = 1 | (int) ((dividend ^ divisor) >> (Long.SIZE - 1));
+        boolean increment;
+        switch (roundingMode) {
+            case UNNECESSARY:
+                throw new ArithmeticException("Arredondamento necessário para " + dividend + "/" + divisor);
+            case DOWN:
+                increment = false;
+                break;
+            case UP:
+                increment = true;
+                break;
+            case FLOOR:
+                increment = signum < 0;
+                break;
+            case CEILING:
+                increment = signum > 0;
+                break;
+            default:
+                long absRemainder = Math.abs(remainder);
+                int comparison = Long.compare(absRemainder, Math.abs(divisor) - absRemainder);
+                if (comparison == 0) {
+                    increment = roundingMode == RoundingMode.HALF_UP
+                            || (roundingMode == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+                } else {
+                    increment = comparison > 0;
+                }
+        }
+        return increment ? quotient + signum : quotient;
+    }
+}
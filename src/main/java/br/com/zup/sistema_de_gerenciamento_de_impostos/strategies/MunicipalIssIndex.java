@@ -0,0 +1,71 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Índice imutável das alíquotas municipais de ISS: códigos IBGE ordenados em int[] e alíquotas em arrays paralelos.
+// Busca binária sobre primitivos, sem boxing; os ~5.570 municípios ocupam cerca de 110 KB
+public final class MunicipalIssIndex {
+    public static final MunicipalIssIndex EMPTY = new MunicipalIssIndex(new int[0], new double[0], new long[0]);
+
+    private final int[] codes;
+    private final double[] rates;
+    private final long[] rateMicros;
+
+    private MunicipalIssIndex(int[] codes, double[] rates, long[] rateMicros) {
+        this.codes = codes;
+        this.rates = rates;
+        this.rateMicros = rateMicros;
+    }
+
+    // Lança IllegalArgumentException se houver código repetido
+    public static MunicipalIssIndex of(List<MunicipalIssRate> municipalRates) {
+        if (municipalRates.isEmpty()) {
+            return EMPTY;
+        }
+        List<MunicipalIssRate> sorted = municipalRates.stream()
+                .sorted(Comparator.comparing(MunicipalIssRate::getIbgeCode))
+                .toList();
+        int size = sorted.size();
+        int[] codes = new int[size];
+        double[] rates = new double[size];
+        long[] rateMicros = new long[size];
+        for (int i = 0; i < size; i++) {
+            MunicipalIssRate municipalRate = sorted.get(i);
+            codes[i] = municipalRate.getIbgeCode();
+            if (i > 0 && codes[i] == codes[i - 1]) {
+                throw new IllegalArgumentException("Município " + codes[i] + " repetido.");
+            }
+            rates[i] = municipalRate.getRate();
+            rateMicros[i] = MonetaryMath.toRateMicros(municipalRate.getRate());
+        }
+        return new MunicipalIssIndex(codes, rates, rateMicros);
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    // Posição do município no índice, ou -1
+    public int indexOf(int ibgeCode) {
+        int position = Arrays.binarySearch(codes, ibgeCode);
+        return position >= 0 ? position : -1;
+    }
+
+    public double rateAt(int position) {
+        return rates[position];
+    }
+
+    public long rateMicrosAt(int position) {
+        return rateMicros[position];
+    }
+
+    // ISS do município na posição devolvida por indexOf
+    public long calculateTaxCentavos(int position, long baseCentavos, RoundingMode roundingMode) {
+        return MonetaryMath.applyRate(baseCentavos, rateMicros[position], roundingMode);
+    }
+}
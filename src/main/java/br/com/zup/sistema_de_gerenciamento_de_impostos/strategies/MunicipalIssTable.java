@@ -0,0 +1,37 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.MunicipalIssRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.MunicipalIssRateRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.LocalSnapshotStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class MunicipalIssTable {
+    @Autowired
+    private MunicipalIssRateRepository municipalIssRateRepository;
+
+    @Autowired
+    private LocalSnapshotStore localSnapshotStore;
+
+    // Uma reimportação constrói o índice inteiro por fora e troca a referência de uma vez
+    private volatile MunicipalIssIndex index = MunicipalIssIndex.EMPTY;
+
+    public MunicipalIssIndex current() {
+        return index;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        index = MunicipalIssIndex.of(localSnapshotStore.loadList(LocalSnapshotStore.MUNICIPAL_ISS_RATES, MunicipalIssRate.class,
+                municipalIssRateRepository::findAll, index == MunicipalIssIndex.EMPTY));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMunicipalIssRatesChanged(MunicipalIssRatesChangedEvent event) {
+        reload();
+    }
+}
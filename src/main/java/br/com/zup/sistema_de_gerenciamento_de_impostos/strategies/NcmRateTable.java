@@ -0,0 +1,71 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.NcmRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.NcmRateRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.LocalSnapshotStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class NcmRateTable {
+    @Autowired
+    private NcmRateRepository ncmRateRepository;
+
+    @Autowired
+    private LocalSnapshotStore localSnapshotStore;
+
+    // Uma trie por tipo de imposto. Alterações reconstroem só a trie do tipo e trocam o mapa inteiro (copy-on-write)
+    private volatile Map<Long, NcmRateTrie> tries = Map.of();
+
+    public NcmRateTrie current(Long taxTypeId) {
+        return tries.getOrDefault(taxTypeId, NcmRateTrie.EMPTY);
+    }
+
+    // Leitura e troca sob o mesmo lock em todas as cargas: uma consulta mais antiga não é instalada por último
+    @PostConstruct
+    public synchronized void reload() {
+        List<NcmRate> loadedRates = localSnapshotStore.loadList(LocalSnapshotStore.NCM_RATES, NcmRate.class,
+                ncmRateRepository::findAll, tries.isEmpty());
+        Map<Long, List<NcmRate>> byTaxType = loadedRates.stream()
+                .collect(Collectors.groupingBy(NcmRate::getTaxTypeId));
+        Map<Long, NcmRateTrie> loaded = new HashMap<>();
+        byTaxType.forEach((taxTypeId, ncmRates) -> loaded.put(taxTypeId, NcmRateTrie.of(ncmRates)));
+        tries = Map.copyOf(loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNcmRatesChanged(NcmRatesChangedEvent event) {
+        reload(event.taxTypeId());
+    }
+
+    // Também chamado pelas notificações de outros nós
+    public synchronized void reload(Long taxTypeId) {
+        replace(taxTypeId, NcmRateTrie.of(ncmRateRepository.findByTaxTypeIdOrderByNcmPrefix(taxTypeId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxTypeChanged(TaxTypeChangedEvent event) {
+        if (event.isDeleted()) {
+            replace(event.taxTypeId(), NcmRateTrie.EMPTY);
+        }
+    }
+
+    private synchronized void replace(Long taxTypeId, NcmRateTrie trie) {
+        Map<Long, NcmRateTrie> updated = new HashMap<>(tries);
+        if (trie.size() == 0) {
+            updated.remove(taxTypeId);
+        } else {
+            updated.put(taxTypeId, trie);
+        }
+        tries = Map.copyOf(updated);
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+// Trie de dígitos imutável com as regras por NCM de um tipo de imposto, empacotada em arrays primitivos.
+// A busca do prefixo mais longo percorre no máximo 8 nós, qualquer que seja o tamanho da tabela
+public final class NcmRateTrie {
+    public static final int CODE_LENGTH = 8;
+
+    private static final int RADIX = 10;
+
+    public static final NcmRateTrie EMPTY = new NcmRateTrie(new int[RADIX], new double[1], new long[] {-1}, 0);
+
+    // children[nó * 10 + dígito]: nó filho, ou 0 quando não existe (a raiz, nó 0, nunca é filha)
+    private final int[] children;
+    private final double[] rates;
+    // Alíquota do nó em milionésimos; -1 quando nenhuma regra termina no nó
+    private final long[] rateMicros;
+    private final int size;
+
+    private NcmRateTrie(int[] children, double[] rates, long[] rateMicros, int size) {
+        this.children = children;
+        this.rates = rates;
+        this.rateMicros = rateMicros;
+        this.size = size;
+    }
+
+    // Lança IllegalArgumentException para prefixo inválido ou repetido
+    public static NcmRateTrie of(List<NcmRate> ncmRates) {
+        if (ncmRates.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Limite superior de nós: um por dígito de cada prefixo, mais a raiz; o excedente é cortado no fim
+        int capacity = 1;
+        for (NcmRate ncmRate : ncmRates) {
+            capacity += ncmRate.getNcmPrefix().length();
+        }
+        int[] children = new int[capacity * RADIX];
+        double[] rates = new double[capacity];
+        long[] rateMicros = new long[capacity];
+        Arrays.fill(rateMicros, -1);
+
+        int nodes = 1;
+        for (NcmRate ncmRate : ncmRates) {
+            String prefix = normalize(ncmRate.getNcmPrefix());
+            if (prefix == null || prefix.length() < 2 || prefix.length() > CODE_LENGTH) {
+                throw new IllegalArgumentException("Prefixo NCM inválido: " + ncmRate.getNcmPrefix() + ".");
+            }
+            int node = 0;
+            for (int i = 0; i < prefix.length(); i++) {
+                int slot = node * RADIX + (prefix.charAt(i) - '0');
+                if (children[slot] == 0) {
+                    children[slot] = nodes++;
+                }
+                node = children[slot];
+            }
+            if (rateMicros[node] >= 0) {
+                throw new IllegalArgumentException("Prefixo NCM " + prefix + " repetido.");
+            }
+            rates[node] = ncmRate.getRate();
+            rateMicros[node] = MonetaryMath.toRateMicros(ncmRate.getRate());
+        }
+        return new NcmRateTrie(Arrays.copyOf(children, nodes * RADIX), Arrays.copyOf(rates, nodes),
+                Arrays.copyOf(rateMicros, nodes), ncmRates.size());
+    }
+
+    // Remove os pontos da formatação usual (8471.30.12); null se sobrar algo que não seja dígito
+    public static String normalize(String ncm) {
+        if (ncm == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(CODE_LENGTH);
+        for (int i = 0; i < ncm.length(); i++) {
+            char c = ncm.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c != '.') {
+                return null;
+            }
+        }
+        return digits.toString();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Nó da regra de prefixo mais longo que casa com o código (só dígitos), ou -1 se nenhuma casar
+    public int longestMatch(String ncm) {
+        int node = 0;
+        int match = -1;
+        for (int i = 0; i < ncm.length(); i++) {
+            node = children[node * RADIX + (ncm.charAt(i) - '0')];
+            if (node == 0) {
+                break;
+            }
+            if (rateMicros[node] >= 0) {
+                match = node;
+            }
+        }
+        return match;
+    }
+
+    public double rateAt(int node) {
+        return rates[node];
+    }
+
+    public long rateMicrosAt(int node) {
+        return rateMicros[node];
+    }
+
+    // Imposto com a alíquota da regra no nó devolvido por longestMatch, no lugar da alíquota do tipo
+    public long calculateTaxCentavos(int node, long baseCentavos, RoundingMode roundingMode) {
+        return MonetaryMath.applyRate(baseCentavos, rateMicros[node], roundingMode);
+    }
+}
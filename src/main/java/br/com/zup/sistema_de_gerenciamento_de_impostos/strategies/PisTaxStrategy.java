@@ -1,11 +1,14 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
 
-import org.springframework.stereotype.Component;
+public class PisTaxStrategy extends FlatRateTaxStrategy {
+    // Alíquota usada quando o tipo de imposto não informa a sua própria
+    public static final double DEFAULT_RATE = 1.65; // 1.65% para PIS
 
-@Component
-public class PisTaxStrategy implements TaxCalculationStrategy {
-    @Override
-    public double calculateTax(double value) {
-        return 0.0165 * value; // 1.65% para PIS
+    public PisTaxStrategy() {
+        this(DEFAULT_RATE);
     }
-}
\ No newline at end of file
+
+    public PisTaxStrategy(double rate) {
+        super(rate);
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Visão imutável de um tipo de imposto com a sua estratégia já construída,
+// o índice das alíquotas por vigência (quando houver) e a composição da base em notas fiscais
+public record RegisteredTaxType(
+        Long id,
+        String name,
+        double rate,
+        TaxCalculationStrategy strategy,
+        TaxRateTimeline timeline,
+        boolean inclusiveBase,
+        Set<Long> baseIncludes
+) {
+    public RegisteredTaxType(Long id, String name, double rate, TaxCalculationStrategy strategy) {
+        this(id, name, rate, strategy, TaxRateTimeline.EMPTY);
+    }
+
+    public RegisteredTaxType(Long id, String name, double rate, TaxCalculationStrategy strategy, TaxRateTimeline timeline) {
+        this(id, name, rate, strategy, timeline, false, Set.of());
+    }
+
+    public int versionAt(LocalDate referenceDate) {
+        return versionAt(referenceDate, null);
+    }
+
+    // Vigência aplicada ao cálculo, ou -1 para a alíquota do cadastro. Sem data vale a vigência que cobre hoje;
+    // o cadastro só responde quando o tipo não tem vigências ou nenhuma cobre hoje. Com data, a vigência daquela
+    // data é obrigatória: lança IllegalArgumentException para data sem vigência, tipo sem vigências ou tabela
+    // progressiva. today evita ler o relógio a cada tipo de uma nota; nulo, é lido só se houver vigências
+    public int versionAt(LocalDate referenceDate, LocalDate today) {
+        if (referenceDate == null) {
+            return timeline.isEmpty() ? -1 : timeline.indexOf(today != null ? today : LocalDate.now());
+        }
+        // As faixas da tabela progressiva não têm vigências: calcular uma data passada pelas faixas de hoje seria silencioso
+        if (strategy instanceof BracketTaxStrategy) {
+            throw new IllegalArgumentException("A tabela progressiva de " + name + " não tem vigências; não informe dataReferencia.");
+        }
+        if (timeline.isEmpty()) {
+            throw new IllegalArgumentException(name + " não tem vigências cadastradas; não informe dataReferencia.");
+        }
+        int version = timeline.indexOf(referenceDate);
+        if (version < 0) {
+            throw new IllegalArgumentException("Nenhuma alíquota de " + name + " vigente em " + referenceDate + ".");
+        }
+        return version;
+    }
+
+    public RegisteredTaxType withBaseComposition(boolean inclusiveBase, Set<Long> baseIncludes) {
+        return new RegisteredTaxType(id, name, rate, strategy, timeline, inclusiveBase, Set.copyOf(baseIncludes));
+    }
+}
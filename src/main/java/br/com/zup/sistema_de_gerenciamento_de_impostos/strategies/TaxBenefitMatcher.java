@@ -0,0 +1,271 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Tabela de decisão de benefícios de um tipo de imposto compilada em bitsets por atributo.
+// A regra i ocupa o bit i, em ordem de prioridade: a primeira palavra não nula da interseção dá a regra vencedora,
+// sem avaliar as regras uma a uma. A varredura só visita palavras com regras candidatas pelo NCM,
+// o atributo mais seletivo, então o custo acompanha as regras do produto e não o tamanho da tabela
+public final class TaxBenefitMatcher {
+    private static final int UF_COUNT = Uf.values().length;
+    private static final int REGIME_COUNT = TaxRegime.values().length;
+    private static final int[] NO_RULES = new int[0];
+    private static final int[][] NO_LISTS = new int[0][];
+
+    public static final TaxBenefitMatcher EMPTY = compile(List.of());
+
+    private final int size;
+    private final int words;
+    private final boolean[] exemptions;
+    private final long[] reductionMicros;
+    private final String[] descriptions;
+
+    // UF e regime têm poucos valores: um bitset por valor, já unido ao das regras sem a condição.
+    // A última linha tem só essas regras e é usada quando o atributo não é informado
+    private final long[][] ufBits;
+    private final long[][] regimeBits;
+
+    // CFOP e NCM têm muitos valores: as regras sem a condição ficam em bitset denso e,
+    // por valor, as posições das regras em ordem crescente, convertidas em palavras durante a varredura
+    private final long[] anyCfop;
+    private final Map<String, int[]> cfopRules;
+    private final long[] anyNcm;
+    private final Map<String, int[]> ncmRules;
+    // Palavras não nulas de anyNcm, em ordem crescente
+    private final int[] anyNcmWords;
+
+    private TaxBenefitMatcher(int size, boolean[] exemptions, long[] reductionMicros, String[] descriptions,
+                              long[][] ufBits, long[][] regimeBits, long[] anyCfop, Map<String, int[]> cfopRules,
+                              long[] anyNcm, Map<String, int[]> ncmRules) {
+        this.size = size;
+        this.words = (size + Long.SIZE - 1) / Long.SIZE;
+        this.exemptions = exemptions;
+        this.reductionMicros = reductionMicros;
+        this.descriptions = descriptions;
+        this.ufBits = ufBits;
+        this.regimeBits = regimeBits;
+        this.anyCfop = anyCfop;
+        this.cfopRules = cfopRules;
+        this.anyNcm = anyNcm;
+        this.ncmRules = ncmRules;
+        this.anyNcmWords = IntStream.range(0, words).filter(word -> anyNcm[word] != 0).toArray();
+    }
+
+    // Lança IllegalArgumentException para regra sem tipo de benefício, redução fora de (0, 100), NCM ou CFOP inválidos
+    public static TaxBenefitMatcher of(List<TaxBenefitRule> benefitRules) {
+        return benefitRules.isEmpty() ? EMPTY : compile(benefitRules);
+    }
+
+    private static TaxBenefitMatcher compile(List<TaxBenefitRule> benefitRules) {
+        List<TaxBenefitRule> sorted = benefitRules.stream()
+                .sorted(Comparator.comparing((TaxBenefitRule rule) -> rule.getPriority() != null ? rule.getPriority() : 0)
+                        .reversed()
+                        .thenComparing(TaxBenefitRule::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        int size = sorted.size();
+        int words = (size + Long.SIZE - 1) / Long.SIZE;
+
+        boolean[] exemptions = new boolean[size];
+        long[] reductionMicros = new long[size];
+        String[] descriptions = new String[size];
+        long[][] ufBits = new long[UF_COUNT + 1][words];
+        long[][] regimeBits = new long[REGIME_COUNT + 1][words];
+        long[] anyCfop = new long[words];
+        long[] anyNcm = new long[words];
+        Map<String, List<Integer>> cfopPositions = new HashMap<>();
+        Map<String, List<Integer>> ncmPositions = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            TaxBenefitRule rule = sorted.get(i);
+            int word = i / Long.SIZE;
+            long bit = 1L << i;
+
+            if (rule.getBenefitType() == TaxBenefitType.EXEMPTION) {
+                exemptions[i] = true;
+            } else if (rule.getBenefitType() == TaxBenefitType.BASE_REDUCTION) {
+                Double reduction = rule.getBaseReduction();
+                if (reduction == null || reduction <= 0 || reduction >= 100) {
+                    throw new IllegalArgumentException("Redução de base deve estar entre 0 e 100: " + rule.getDescription() + ".");
+                }
+                reductionMicros[i] = MonetaryMath.toRateMicros(reduction);
+            } else {
+                throw new IllegalArgumentException("Regra sem tipo de benefício: " + rule.getDescription() + ".");
+            }
+            descriptions[i] = rule.getDescription();
+
+            if (rule.getUf() == null) {
+                for (long[] row : ufBits) {
+                    row[word] |= bit;
+                }
+            } else {
+                ufBits[rule.getUf().ordinal()][word] |= bit;
+            }
+            if (rule.getRegime() == null) {
+                for (long[] row : regimeBits) {
+                    row[word] |= bit;
+                }
+            } else {
+                regimeBits[rule.getRegime().ordinal()][word] |= bit;
+            }
+
+            if (rule.getCfop() == null) {
+                anyCfop[word] |= bit;
+            } else {
+                if (!isValidCfop(rule.getCfop())) {
+                    throw new IllegalArgumentException("CFOP inválido: " + rule.getCfop() + ".");
+                }
+                cfopPositions.computeIfAbsent(rule.getCfop(), key -> new ArrayList<>()).add(i);
+            }
+            if (rule.getNcmPrefix() == null) {
+                anyNcm[word] |= bit;
+            } else {
+                String prefix = NcmRateTrie.normalize(rule.getNcmPrefix());
+                if (prefix == null || prefix.length() < 2 || prefix.length() > NcmRateTrie.CODE_LENGTH) {
+                    throw new IllegalArgumentException("Prefixo NCM inválido: " + rule.getNcmPrefix() + ".");
+                }
+                ncmPositions.computeIfAbsent(prefix, key -> new ArrayList<>()).add(i);
+            }
+        }
+        return new TaxBenefitMatcher(size, exemptions, reductionMicros, descriptions, ufBits, regimeBits,
+                anyCfop, toArrays(cfopPositions), anyNcm, toArrays(ncmPositions));
+    }
+
+    public static boolean isValidCfop(String cfop) {
+        if (cfop.length() != 4) {
+            return false;
+        }
+        for (int i = 0; i < cfop.length(); i++) {
+            if (cfop.charAt(i) < '0' || cfop.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Posição da regra de maior prioridade que casa com a operação, ou -1. ncm já normalizado (8 dígitos) ou nulo
+    public int match(Uf uf, String ncm, String cfop, TaxRegime regime) {
+        if (size == 0) {
+            return -1;
+        }
+        long[] ufCandidates = ufBits[uf == null ? UF_COUNT : uf.ordinal()];
+        long[] regimeCandidates = regimeBits[regime == null ? REGIME_COUNT : regime.ordinal()];
+        int[] cfopCandidates = cfop == null ? NO_RULES : cfopRules.getOrDefault(cfop, NO_RULES);
+        int[][] ncmCandidates = ncmCandidates(ncm);
+        // cursors[0]: CFOP; cursors[1..]: um por prefixo do NCM com regras. Só avançam
+        int[] cursors = new int[1 + ncmCandidates.length];
+        int anyNcmCursor = 0;
+
+        int word = 0;
+        while (true) {
+            // Próxima palavra com alguma regra candidata pelo NCM: sem a condição ou com um prefixo do código
+            int candidateWord = Integer.MAX_VALUE;
+            anyNcmCursor = lowerBound(anyNcmWords, anyNcmCursor, word);
+            if (anyNcmCursor < anyNcmWords.length) {
+                candidateWord = anyNcmWords[anyNcmCursor];
+            }
+            for (int j = 0; j < ncmCandidates.length; j++) {
+                int[] positions = ncmCandidates[j];
+                int index = lowerBound(positions, cursors[j + 1], word * Long.SIZE);
+                cursors[j + 1] = index;
+                if (index < positions.length) {
+                    candidateWord = Math.min(candidateWord, positions[index] / Long.SIZE);
+                }
+            }
+            if (candidateWord == Integer.MAX_VALUE) {
+                return -1;
+            }
+            word = candidateWord;
+
+            long bits = ufCandidates[word] & regimeCandidates[word];
+            if (bits != 0) {
+                bits &= anyCfop[word] | positionsInWord(cfopCandidates, cursors, 0, word);
+            }
+            if (bits != 0) {
+                long ncmBits = anyNcm[word];
+                for (int j = 0; j < ncmCandidates.length; j++) {
+                    ncmBits |= positionsInWord(ncmCandidates[j], cursors, j + 1, word);
+                }
+                bits &= ncmBits;
+                if (bits != 0) {
+                    return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                }
+            }
+            word++;
+        }
+    }
+
+    public boolean isExemption(int rule) {
+        return exemptions[rule];
+    }
+
+    public String descriptionAt(int rule) {
+        return descriptions[rule];
+    }
+
+    // Base reduzida pela regra: base * (1 - redução)
+    public long reduceBase(int rule, long baseCentavos, RoundingMode roundingMode) {
+        return MonetaryMath.applyRate(baseCentavos, MonetaryMath.RATE_SCALE - reductionMicros[rule], roundingMode);
+    }
+
+    // Listas de regras de cada prefixo do NCM (2 a 8 dígitos) que tenha regras
+    private int[][] ncmCandidates(String ncm) {
+        if (ncm == null || ncmRules.isEmpty()) {
+            return NO_LISTS;
+        }
+        int[][] candidates = new int[NcmRateTrie.CODE_LENGTH - 1][];
+        int count = 0;
+        for (int length = 2; length <= ncm.length(); length++) {
+            int[] positions = ncmRules.get(ncm.substring(0, length));
+            if (positions != null) {
+                candidates[count++] = positions;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    // Bits da palavra a partir de uma lista ordenada de posições. O cursor só avança, e salta por busca binária
+    // as palavras descartadas pelos outros atributos
+    private static long positionsInWord(int[] positions, int[] cursors, int cursor, int word) {
+        int first = word * Long.SIZE;
+        int index = lowerBound(positions, cursors[cursor], first);
+        long bits = 0;
+        int end = first + Long.SIZE;
+        while (index < positions.length && positions[index] < end) {
+            bits |= 1L << positions[index];
+            index++;
+        }
+        cursors[cursor] = index;
+        return bits;
+    }
+
+    // Primeiro índice a partir de from com valor >= key
+    private static int lowerBound(int[] values, int from, int key) {
+        if (from >= values.length || values[from] >= key) {
+            return from;
+        }
+        int index = Arrays.binarySearch(values, from, values.length, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> positions) {
+        Map<String, int[]> arrays = new HashMap<>(positions.size() * 2);
+        positions.forEach((key, list) -> arrays.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        return arrays;
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxBenefitRulesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBenefitRuleRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.LocalSnapshotStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class TaxBenefitTable {
+    @Autowired
+    private TaxBenefitRuleRepository taxBenefitRuleRepository;
+
+    @Autowired
+    private LocalSnapshotStore localSnapshotStore;
+
+    // Uma tabela compilada por tipo de imposto, trocada por copy-on-write como as regras por NCM
+    private volatile Map<Long, TaxBenefitMatcher> matchers = Map.of();
+
+    public TaxBenefitMatcher current(Long taxTypeId) {
+        return matchers.getOrDefault(taxTypeId, TaxBenefitMatcher.EMPTY);
+    }
+
+    // Leitura e troca sob o mesmo lock em todas as cargas, como nas regras por NCM
+    @PostConstruct
+    public synchronized void reload() {
+        List<TaxBenefitRule> loadedRules = localSnapshotStore.loadList(LocalSnapshotStore.BENEFIT_RULES, TaxBenefitRule.class,
+                taxBenefitRuleRepository::findAll, matchers.isEmpty());
+        Map<Long, List<TaxBenefitRule>> byTaxType = loadedRules.stream()
+                .collect(Collectors.groupingBy(TaxBenefitRule::getTaxTypeId));
+        Map<Long, TaxBenefitMatcher> loaded = new HashMap<>();
+        byTaxType.forEach((taxTypeId, rules) -> loaded.put(taxTypeId, TaxBenefitMatcher.of(rules)));
+        matchers = Map.copyOf(loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxBenefitRulesChanged(TaxBenefitRulesChangedEvent event) {
+        reload(event.taxTypeId());
+    }
+
+    // Também chamado pelas notificações de outros nós
+    public synchronized void reload(Long taxTypeId) {
+        replace(taxTypeId, TaxBenefitMatcher.of(taxBenefitRuleRepository.findByTaxTypeIdOrderByPriorityDescIdAsc(taxTypeId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxTypeChanged(TaxTypeChangedEvent event) {
+        if (event.isDeleted()) {
+            replace(event.taxTypeId(), TaxBenefitMatcher.EMPTY);
+        }
+    }
+
+    private synchronized void replace(Long taxTypeId, TaxBenefitMatcher matcher) {
+        Map<Long, TaxBenefitMatcher> updated = new HashMap<>(matchers);
+        if (matcher.size() == 0) {
+            updated.remove(taxTypeId);
+        } else {
+            updated.put(taxTypeId, matcher);
+        }
+        matchers = Map.copyOf(updated);
+    }
+}
@@ -1,5 +1,27 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 public interface TaxCalculationStrategy {
     double calculateTax(double value);
-}
\ No newline at end of file
+
+    // Caminho em ponto fixo (centavos). Estratégias de alíquota fixa sobrescrevem com aritmética inteira exata
+    default long calculateTaxCentavos(long baseCentavos, RoundingMode roundingMode) {
+        double tax = calculateTax(MonetaryMath.toReais(baseCentavos));
+        return BigDecimal.valueOf(tax).setScale(2, roundingMode).unscaledValue().longValueExact();
+    }
+
+    // Lote sobre arrays primitivos: taxCentavos[i] recebe o imposto de baseCentavos[i]
+    default void calculateTaxCentavos(long[] baseCentavos, long[] taxCentavos, RoundingMode roundingMode) {
+        for (int i = 0; i < baseCentavos.length; i++) {
+            taxCentavos[i] = calculateTaxCentavos(baseCentavos[i], roundingMode);
+        }
+    }
+
+    // Lote com o modo escolhido pelo chamador; só a alíquota fixa tem kernel SIMD, as demais usam o laço escalar
+    default void calculateTaxCentavos(long[] baseCentavos, long[] taxCentavos, RoundingMode roundingMode,
+                                      BulkCalculationMode mode) {
+        calculateTaxCentavos(baseCentavos, taxCentavos, roundingMode);
+    }
+}
@@ -1,21 +1,72 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBracket;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
+import java.util.List;
+
 @Component
 public class TaxCalculationStrategyFactory {
-    
+    // Alíquota padrão (10%) para impostos sem estratégia própria
+    private static final double DEFAULT_RATE = 10.0;
+
     public TaxCalculationStrategy getStrategy(String taxTypeName) {
         switch (taxTypeName.toUpperCase()) {
             case "ICMS":
                 return new IcmsTaxStrategy();
             case "ISS":
                 return new IssTaxStrategy();
-        case "PIS":
-            return new PisTaxStrategy();
+            case "PIS":
+                return new PisTaxStrategy();
             default:
                 // Estratégia padrão para novos impostos
-                return value -> value * 0.1;
+                return new FlatRateTaxStrategy(DEFAULT_RATE);
+        }
+    }
+
+    // Constrói a estratégia com a alíquota cadastrada no tipo de imposto
+    public TaxCalculationStrategy getStrategy(TaxType taxType) {
+        if (taxType.getRate() == null) {
+            return getStrategy(taxType.getName());
+        }
+
+        return getStrategy(taxType.getName(), taxType.getRate());
+    }
+
+    // Usada também para as alíquotas de cada vigência do tipo de imposto
+    public TaxCalculationStrategy getStrategy(String taxTypeName, double rate) {
+        switch (taxTypeName.toUpperCase()) {
+            case "ICMS":
+                return new IcmsTaxStrategy(rate);
+            case "ISS":
+                return new IssTaxStrategy(rate);
+            case "PIS":
+                return new PisTaxStrategy(rate);
+            default:
+                return new FlatRateTaxStrategy(rate);
+        }
+    }
+
+    // Tipos cadastrados com fórmula dispensam código novo e redeploy
+    public TaxCalculationStrategy getFormulaStrategy(TaxFormula formula, double rate) {
+        return new FormulaTaxStrategy(formula, rate);
+    }
+
+    // Tabela progressiva carregada de tax_brackets, ordenada pelo limite inferior
+    public BracketTaxStrategy getBracketStrategy(List<TaxBracket> brackets) {
+        List<TaxBracket> sorted = brackets.stream()
+                .sorted(Comparator.comparing(TaxBracket::getLowerBound))
+                .toList();
+        double[] lowerBounds = new double[sorted.size()];
+        double[] rates = new double[sorted.size()];
+        double[] deductions = new double[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            lowerBounds[i] = sorted.get(i).getLowerBound();
+            rates[i] = sorted.get(i).getRate();
+            deductions[i] = sorted.get(i).getDeduction();
         }
+        return new BracketTaxStrategy(lowerBounds, rates, deductions);
     }
-}
\ No newline at end of file
+}
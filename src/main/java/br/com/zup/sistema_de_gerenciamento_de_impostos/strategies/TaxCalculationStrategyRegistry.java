@@ -0,0 +1,236 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBracket;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxCalculationType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBracketRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxRateVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TaxTypeCache;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.DatabaseCircuitBreaker;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.LocalSnapshotStore;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class TaxCalculationStrategyRegistry {
+    public static final String ORIGIN_DATABASE = "banco";
+    public static final String ORIGIN_FILE = "arquivo";
+    // Cópia local da última carga do banco, usada quando a aplicação sobe sem banco
+    public static final String ORIGIN_LOCAL = "disco";
+
+    private static final Logger logger = LoggerFactory.getLogger(TaxCalculationStrategyRegistry.class);
+
+    @Autowired
+    private TaxTypeRepository taxTypeRepository;
+
+    @Autowired
+    private TaxTypeCache taxTypeCache;
+
+    @Autowired
+    private TaxRateVersionRepository taxRateVersionRepository;
+
+    @Autowired
+    private TaxBracketRepository taxBracketRepository;
+
+    @Autowired
+    private TaxCalculationStrategyFactory strategyFactory;
+
+    @Autowired
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Autowired
+    private LocalSnapshotStore localSnapshotStore;
+
+    // Snapshot imutável substituído por inteiro a cada alteração: leitores nunca bloqueiam nem veem estado parcial
+    private volatile TaxRateSnapshot snapshot = TaxRateSnapshot.EMPTY;
+
+    @PostConstruct
+    public void refresh() {
+        TaxRateSource source;
+        try {
+            source = loadSource();
+        } catch (DataAccessException | TransactionException ex) {
+            // Só na subida: com uma tabela já em memória, ela vale mais que a cópia em disco
+            TaxRateSource saved = snapshot == TaxRateSnapshot.EMPTY ? localSnapshotStore.load(LocalSnapshotStore.TAX_TYPES, TaxRateSource.class).orElse(null) : null;
+            if (saved == null) {
+                throw ex;
+            }
+            databaseCircuitBreaker.recordFailure(ex);
+            install(saved, ORIGIN_LOCAL);
+            logger.warn("Banco indisponível; {} tipos de imposto carregados do snapshot local", saved.taxTypes().size(), ex);
+            return;
+        }
+        install(source, ORIGIN_DATABASE);
+        localSnapshotStore.save(LocalSnapshotStore.TAX_TYPES, source);
+    }
+
+    // Uma leitura volatile: quem precisa de vários tipos consistentes entre si guarda esta referência
+    public TaxRateSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public RegisteredTaxType find(Long taxTypeId) {
+        if (taxTypeId == null) {
+            return null;
+        }
+        RegisteredTaxType registered = snapshot.find(taxTypeId);
+        if (registered == null) {
+            // Tipo criado depois da última carga (por exemplo, em outra instância); com o circuito aberto falha na hora
+            TaxType taxType = databaseCircuitBreaker.call(() -> taxTypeCache.findById(taxTypeId)).orElse(null);
+            if (taxType != null) {
+                registered = register(taxType);
+            }
+        }
+        return registered;
+    }
+
+    // Todas as vigências em uma única consulta; faixas só quando algum tipo é progressivo
+    public TaxRateSource loadSource() {
+        List<TaxType> taxTypes = taxTypeRepository.findAll();
+        List<TaxBracket> brackets = taxTypes.stream().anyMatch(TaxCalculationStrategyRegistry::usesBrackets)
+                ? taxBracketRepository.findAll()
+                : List.of();
+        return new TaxRateSource(taxTypes, taxRateVersionRepository.findAll(), brackets);
+    }
+
+    public void replaceAll(List<TaxType> taxTypes) {
+        List<TaxBracket> brackets = taxTypes.stream().anyMatch(TaxCalculationStrategyRegistry::usesBrackets)
+                ? taxBracketRepository.findAll()
+                : List.of();
+        install(new TaxRateSource(taxTypes, taxRateVersionRepository.findAll(), brackets), ORIGIN_DATABASE);
+    }
+
+    // Compila fora do lock e publica com uma única escrita; um tipo que não compila fica fora do snapshot
+    public TaxRateSnapshot install(TaxRateSource source, String origin) {
+        Map<Long, RegisteredTaxType> compiled = compileAll(source);
+        synchronized (this) {
+            snapshot = TaxRateSnapshot.of(compiled, snapshot.version() + 1, origin);
+            return snapshot;
+        }
+    }
+
+    // Só publica se nada mudou desde expectedVersion: uma recarga lenta não sobrescreve um cadastro mais novo
+    public boolean installIfCurrent(TaxRateSource source, String origin, long expectedVersion) {
+        Map<Long, RegisteredTaxType> compiled = compileAll(source);
+        synchronized (this) {
+            if (snapshot.version() != expectedVersion) {
+                return false;
+            }
+            snapshot = TaxRateSnapshot.of(compiled, expectedVersion + 1, origin);
+            return true;
+        }
+    }
+
+    // Um tipo que deixou de compilar sai do snapshot em vez de seguir calculando com a definição anterior
+    public synchronized RegisteredTaxType register(TaxType taxType) {
+        RegisteredTaxType registered = compileOrSkip(taxType,
+                taxRateVersionRepository.findByTaxTypeIdOrderByValidFrom(taxType.getId()),
+                usesBrackets(taxType) ? taxBracketRepository.findByTaxTypeIdOrderByLowerBound(taxType.getId()) : List.of());
+        snapshot = registered != null ? snapshot.with(registered) : snapshot.without(taxType.getId());
+        return registered;
+    }
+
+    public synchronized void unregister(Long taxTypeId) {
+        if (snapshot.contains(taxTypeId)) {
+            snapshot = snapshot.without(taxTypeId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxTypeChanged(TaxTypeChangedEvent event) {
+        if (event.isDeleted()) {
+            unregister(event.taxTypeId());
+        } else {
+            register(event.taxType());
+        }
+    }
+
+    private Map<Long, RegisteredTaxType> compileAll(TaxRateSource source) {
+        Map<Long, List<TaxRateVersion>> versionsByType = source.versions().stream()
+                .collect(Collectors.groupingBy(TaxRateVersion::getTaxTypeId));
+        Map<Long, List<TaxBracket>> bracketsByType = source.brackets().stream()
+                .collect(Collectors.groupingBy(TaxBracket::getTaxTypeId));
+
+        Map<Long, RegisteredTaxType> compiled = new HashMap<>();
+        for (TaxType taxType : source.taxTypes()) {
+            RegisteredTaxType registered = compileOrSkip(taxType,
+                    versionsByType.getOrDefault(taxType.getId(), List.of()),
+                    bracketsByType.getOrDefault(taxType.getId(), List.of()));
+            if (registered != null) {
+                compiled.put(taxType.getId(), registered);
+            }
+        }
+        return compiled;
+    }
+
+    // Ex.: fórmula gravada antes de a gramática ficar mais restrita. Só esse tipo deixa de ser calculado;
+    // a subida e as recargas completas seguem com os demais
+    private RegisteredTaxType compileOrSkip(TaxType taxType, List<TaxRateVersion> versions, List<TaxBracket> brackets) {
+        try {
+            return compile(taxType, versions, brackets);
+        } catch (RuntimeException ex) {
+            logger.error("Tipo de imposto {} ({}) não compilou e ficou fora do registro: {}",
+                    taxType.getId(), taxType.getName(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private RegisteredTaxType compile(TaxType taxType, List<TaxRateVersion> versions, List<TaxBracket> brackets) {
+        return compileStrategy(taxType, versions, brackets).withBaseComposition(
+                Boolean.TRUE.equals(taxType.getInclusiveBase()),
+                taxType.getBaseIncludes() != null ? taxType.getBaseIncludes() : Set.of());
+    }
+
+    private RegisteredTaxType compileStrategy(TaxType taxType, List<TaxRateVersion> versions, List<TaxBracket> brackets) {
+        // Tabela progressiva: as vigências de alíquota única não se aplicam
+        if (usesBrackets(taxType) && !brackets.isEmpty()) {
+            BracketTaxStrategy strategy = strategyFactory.getBracketStrategy(brackets);
+            double rate = taxType.getRate() != null ? taxType.getRate() : 0;
+            return new RegisteredTaxType(taxType.getId(), taxType.getName(), rate, strategy);
+        }
+
+        if (usesFormula(taxType)) {
+            return compileFormula(taxType, versions);
+        }
+
+        TaxCalculationStrategy strategy = strategyFactory.getStrategy(taxType);
+        double rate = taxType.getRate() != null ? taxType.getRate()
+                : strategy instanceof FlatRateTaxStrategy flat ? flat.getRate() : 0;
+        TaxRateTimeline timeline = TaxRateTimeline.of(versions,
+                versionRate -> strategyFactory.getStrategy(taxType.getName(), versionRate));
+        return new RegisteredTaxType(taxType.getId(), taxType.getName(), rate, strategy, timeline);
+    }
+
+    // Compila o texto uma vez; cada vigência só troca a alíquota ligada à mesma árvore
+    private RegisteredTaxType compileFormula(TaxType taxType, List<TaxRateVersion> versions) {
+        TaxFormula formula = TaxFormula.compile(taxType.getFormula());
+        double rate = taxType.getRate() != null ? taxType.getRate() : 0;
+        TaxRateTimeline timeline = TaxRateTimeline.of(versions,
+                versionRate -> strategyFactory.getFormulaStrategy(formula, versionRate));
+        return new RegisteredTaxType(taxType.getId(), taxType.getName(), rate,
+                strategyFactory.getFormulaStrategy(formula, rate), timeline);
+    }
+
+    private static boolean usesFormula(TaxType taxType) {
+        return taxType.getCalculationType() == TaxCalculationType.FORMULA && taxType.getFormula() != null;
+    }
+
+    private static boolean usesBrackets(TaxType taxType) {
+        return taxType.getCalculationType() == TaxCalculationType.BRACKETS;
+    }
+}
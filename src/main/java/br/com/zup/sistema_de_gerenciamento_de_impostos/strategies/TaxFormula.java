@@ -0,0 +1,310 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Fórmula de cálculo cadastrada no tipo de imposto, compilada uma única vez em uma árvore de closures.
+// Variáveis: base (valor base) e aliquota (percentual cadastrado, 18 = 18%).
+// Operadores: + - * / < <= > >= == != && || ! e parênteses; funções: min, max, abs e se(condição, então, senão).
+// Condições valem 1 (verdadeiro) ou 0 (falso). Ex.: se(base > 1000, max(base * aliquota / 100 - 50, 0), 0)
+public final class TaxFormula {
+    public static final int MAX_LENGTH = 500;
+
+    private final String source;
+    private final Node root;
+
+    private TaxFormula(String source, Node root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    // Lança IllegalArgumentException com a posição do erro quando a fórmula é inválida
+    public static TaxFormula compile(String source) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("A fórmula não pode ser vazia.");
+        }
+        if (source.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("A fórmula deve ter no máximo " + MAX_LENGTH + " caracteres.");
+        }
+        String trimmed = source.strip();
+        return new TaxFormula(trimmed, new Parser(trimmed).parse());
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public double evaluate(double base, double rate) {
+        return root.evaluate(base, rate);
+    }
+
+    @FunctionalInterface
+    private interface Node {
+        double evaluate(double base, double rate);
+    }
+
+    // Subárvores sem variáveis são avaliadas na compilação
+    private record Constant(double value) implements Node {
+        @Override
+        public double evaluate(double base, double rate) {
+            return value;
+        }
+    }
+
+    private static double bool(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    private static boolean truthy(double value) {
+        return value != 0;
+    }
+
+    // Analisador descendente recursivo; gera os nós diretamente, sem AST intermediária
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node parse() {
+            Node node = parseOr();
+            skipWhitespace();
+            if (position < text.length()) {
+                throw error("símbolo inesperado '" + text.charAt(position) + "'");
+            }
+            return node;
+        }
+
+        private Node parseOr() {
+            Node node = parseAnd();
+            while (accept("||")) {
+                Node left = node;
+                Node right = parseAnd();
+                node = fold(left, right, (base, rate) ->
+                        bool(truthy(left.evaluate(base, rate)) || truthy(right.evaluate(base, rate))));
+            }
+            return node;
+        }
+
+        private Node parseAnd() {
+            Node node = parseComparison();
+            while (accept("&&")) {
+                Node left = node;
+                Node right = parseComparison();
+                node = fold(left, right, (base, rate) ->
+                        bool(truthy(left.evaluate(base, rate)) && truthy(right.evaluate(base, rate))));
+            }
+            return node;
+        }
+
+        private Node parseComparison() {
+            Node left = parseAdditive();
+            // Operadores de dois caracteres antes dos de um
+            String operator = accept("<=") ? "<=" : accept(">=") ? ">=" : accept("==") ? "==" : accept("!=") ? "!="
+                    : accept("<") ? "<" : accept(">") ? ">" : null;
+            if (operator == null) {
+                return left;
+            }
+            Node right = parseAdditive();
+            return switch (operator) {
+                case "<=" -> fold(left, right, (base, rate) -> bool(left.evaluate(base, rate) <= right.evaluate(base, rate)));
+                case ">=" -> fold(left, right, (base, rate) -> bool(left.evaluate(base, rate) >= right.evaluate(base, rate)));
+                case "==" -> fold(left, right, (base, rate) -> bool(left.evaluate(base, rate) == right.evaluate(base, rate)));
+                case "!=" -> fold(left, right, (base, rate) -> bool(left.evaluate(base, rate) != right.evaluate(base, rate)));
+                case "<" -> fold(left, right, (base, rate) -> bool(left.evaluate(base, rate) < right.evaluate(base, rate)));
+                default -> fold(left, right, (base, rate) -> bool(left.evaluate(base, rate) > right.evaluate(base, rate)));
+            };
+        }
+
+        private Node parseAdditive() {
+            Node node = parseMultiplicative();
+            while (true) {
+                Node left = node;
+                if (accept("+")) {
+                    Node right = parseMultiplicative();
+                    node = fold(left, right, (base, rate) -> left.evaluate(base, rate) + right.evaluate(base, rate));
+                } else if (accept("-")) {
+                    Node right = parseMultiplicative();
+                    node = fold(left, right, (base, rate) -> left.evaluate(base, rate) - right.evaluate(base, rate));
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node parseMultiplicative() {
+            Node node = parseUnary();
+            while (true) {
+                Node left = node;
+                if (accept("*")) {
+                    Node right = parseUnary();
+                    node = fold(left, right, (base, rate) -> left.evaluate(base, rate) * right.evaluate(base, rate));
+                } else if (accept("/")) {
+                    Node right = parseUnary();
+                    if (right instanceof Constant constant && constant.value() == 0) {
+                        throw error("divisão por zero");
+                    }
+                    node = fold(left, right, (base, rate) -> left.evaluate(base, rate) / right.evaluate(base, rate));
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node parseUnary() {
+            if (accept("-")) {
+                Node operand = parseUnary();
+                return fold(operand, operand, (base, rate) -> -operand.evaluate(base, rate));
+            }
+            // "!=" não é prefixo válido aqui, então "!" é sempre negação
+            if (accept("!")) {
+                Node operand = parseUnary();
+                return fold(operand, operand, (base, rate) -> bool(!truthy(operand.evaluate(base, rate))));
+            }
+            return parsePrimary();
+        }
+
+        private Node parsePrimary() {
+            skipWhitespace();
+            if (position >= text.length()) {
+                throw error("fim inesperado da fórmula");
+            }
+
+            char current = text.charAt(position);
+            if (accept("(")) {
+                Node node = parseOr();
+                expect(")");
+                return node;
+            }
+            if (Character.isDigit(current) || current == '.') {
+                return parseNumber();
+            }
+            if (Character.isLetter(current)) {
+                int start = position;
+                String name = parseIdentifier();
+                skipWhitespace();
+                if (position < text.length() && text.charAt(position) == '(') {
+                    return parseFunction(name, start);
+                }
+                return switch (name) {
+                    case "base" -> (base, rate) -> base;
+                    case "aliquota" -> (base, rate) -> rate;
+                    default -> throw error(start, "variável desconhecida '" + name + "'");
+                };
+            }
+            throw error("símbolo inesperado '" + current + "'");
+        }
+
+        private Node parseFunction(String name, int start) {
+            expect("(");
+            List<Node> arguments = new ArrayList<>();
+            if (!accept(")")) {
+                do {
+                    arguments.add(parseOr());
+                } while (accept(","));
+                expect(")");
+            }
+
+            switch (name) {
+                case "min", "max" -> {
+                    requireArguments(name, arguments, 2, start);
+                    Node first = arguments.get(0);
+                    Node second = arguments.get(1);
+                    return name.equals("min")
+                            ? fold(first, second, (base, rate) -> Math.min(first.evaluate(base, rate), second.evaluate(base, rate)))
+                            : fold(first, second, (base, rate) -> Math.max(first.evaluate(base, rate), second.evaluate(base, rate)));
+                }
+                case "abs" -> {
+                    requireArguments(name, arguments, 1, start);
+                    Node operand = arguments.get(0);
+                    return fold(operand, operand, (base, rate) -> Math.abs(operand.evaluate(base, rate)));
+                }
+                case "se" -> {
+                    requireArguments(name, arguments, 3, start);
+                    Node condition = arguments.get(0);
+                    Node then = arguments.get(1);
+                    Node otherwise = arguments.get(2);
+                    if (condition instanceof Constant constant) {
+                        return truthy(constant.value()) ? then : otherwise;
+                    }
+                    // Só o ramo escolhido é avaliado
+                    return (base, rate) -> truthy(condition.evaluate(base, rate))
+                            ? then.evaluate(base, rate)
+                            : otherwise.evaluate(base, rate);
+                }
+                default -> throw error(start, "função desconhecida '" + name + "'");
+            }
+        }
+
+        private void requireArguments(String name, List<Node> arguments, int expected, int start) {
+            if (arguments.size() != expected) {
+                throw error(start, "a função " + name + " espera " + expected + " argumento(s)");
+            }
+        }
+
+        private Node parseNumber() {
+            int start = position;
+            while (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                position++;
+            }
+            try {
+                return new Constant(Double.parseDouble(text.substring(start, position)));
+            } catch (NumberFormatException ex) {
+                throw error(start, "número inválido '" + text.substring(start, position) + "'");
+            }
+        }
+
+        private String parseIdentifier() {
+            int start = position;
+            while (position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+                position++;
+            }
+            return text.substring(start, position).toLowerCase(Locale.ROOT);
+        }
+
+        // Dobra constantes: se todos os operandos forem constantes, avalia agora
+        private static Node fold(Node left, Node right, Node node) {
+            if (left instanceof Constant && right instanceof Constant) {
+                return new Constant(node.evaluate(0, 0));
+            }
+            return node;
+        }
+
+        private boolean accept(String token) {
+            skipWhitespace();
+            if (text.startsWith(token, position)) {
+                // "<" não deve consumir o início de "<=", nem "!" o de "!="
+                if (token.length() == 1 && "<>!".indexOf(token.charAt(0)) >= 0
+                        && text.startsWith("=", position + 1)) {
+                    return false;
+                }
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error("esperado '" + token + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return error(position, message);
+        }
+
+        private IllegalArgumentException error(int at, String message) {
+            return new IllegalArgumentException("Fórmula inválida na posição " + (at + 1) + ": " + message + ".");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+// Tabela completa de tipos de imposto compilados, imutável: publicada por uma única escrita volatile
+// e lida sem lock. Quem guarda a referência durante um cálculo (ou um lote) nunca vê uma tabela pela metade
+public final class TaxRateSnapshot {
+    public static final TaxRateSnapshot EMPTY = new TaxRateSnapshot(Map.of(), 0, Instant.EPOCH, "vazio");
+
+    private final Map<Long, RegisteredTaxType> taxTypes;
+    // Cresce a cada publicação; permite detectar que a tabela mudou entre a leitura e a troca
+    private final long version;
+    private final Instant loadedAt;
+    private final String origin;
+
+    private TaxRateSnapshot(Map<Long, RegisteredTaxType> taxTypes, long version, Instant loadedAt, String origin) {
+        this.taxTypes = taxTypes;
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.origin = origin;
+    }
+
+    public static TaxRateSnapshot of(Map<Long, RegisteredTaxType> taxTypes, long version, String origin) {
+        return new TaxRateSnapshot(Map.copyOf(taxTypes), version, Instant.now(), origin);
+    }
+
+    public RegisteredTaxType find(Long taxTypeId) {
+        return taxTypeId != null ? taxTypes.get(taxTypeId) : null;
+    }
+
+    public TaxRateSnapshot with(RegisteredTaxType taxType) {
+        Map<Long, RegisteredTaxType> updated = new HashMap<>(taxTypes);
+        updated.put(taxType.id(), taxType);
+        return new TaxRateSnapshot(Map.copyOf(updated), version + 1, Instant.now(), origin);
+    }
+
+    public TaxRateSnapshot without(Long taxTypeId) {
+        Map<Long, RegisteredTaxType> updated = new HashMap<>(taxTypes);
+        updated.remove(taxTypeId);
+        return new TaxRateSnapshot(Map.copyOf(updated), version + 1, Instant.now(), origin);
+    }
+
+    public boolean contains(Long taxTypeId) {
+        return taxTypes.containsKey(taxTypeId);
+    }
+
+    public int size() {
+        return taxTypes.size();
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    // "banco" ou "arquivo"
+    public String origin() {
+        return origin;
+    }
+}
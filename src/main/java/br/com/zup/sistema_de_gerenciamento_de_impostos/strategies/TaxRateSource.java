@@ -0,0 +1,26 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBracket;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Dados brutos de que o snapshot de alíquotas é compilado; vem do banco ou do arquivo JSON configurado.
+// Ordenados por id, dois carregamentos com o mesmo conteúdo são iguais (equals) e não disparam recompilação
+public record TaxRateSource(
+        List<TaxType> taxTypes,
+        List<TaxRateVersion> versions,
+        List<TaxBracket> brackets
+) {
+    public TaxRateSource {
+        taxTypes = sorted(taxTypes, Comparator.comparing(TaxType::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        versions = sorted(versions, Comparator.comparing(TaxRateVersion::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        brackets = sorted(brackets, Comparator.comparing(TaxBracket::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+    }
+
+    private static <T> List<T> sorted(List<T> values, Comparator<T> order) {
+        return values == null ? List.of() : values.stream().sorted(order).toList();
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.DoubleFunction;
+
+// Índice imutável de vigências de um tipo de imposto: arrays ordenados pelo início, busca binária por data
+public final class TaxRateTimeline {
+    public static final TaxRateTimeline EMPTY =
+            new TaxRateTimeline(new long[0], new long[0], new double[0], new TaxCalculationStrategy[0]);
+
+    // Datas em epoch days; fim inclusivo, Long.MAX_VALUE quando a vigência não tem término
+    private final long[] validFrom;
+    private final long[] validTo;
+    private final double[] rates;
+    private final TaxCalculationStrategy[] strategies;
+
+    private TaxRateTimeline(long[] validFrom, long[] validTo, double[] rates, TaxCalculationStrategy[] strategies) {
+        this.validFrom = validFrom;
+        this.validTo = validTo;
+        this.rates = rates;
+        this.strategies = strategies;
+    }
+
+    public static TaxRateTimeline of(List<TaxRateVersion> versions, DoubleFunction<TaxCalculationStrategy> strategyForRate) {
+        if (versions.isEmpty()) {
+            return EMPTY;
+        }
+        List<TaxRateVersion> sorted = versions.stream()
+                .sorted(Comparator.comparing(TaxRateVersion::getValidFrom))
+                .toList();
+
+        int size = sorted.size();
+        long[] validFrom = new long[size];
+        long[] validTo = new long[size];
+        double[] rates = new double[size];
+        TaxCalculationStrategy[] strategies = new TaxCalculationStrategy[size];
+        for (int i = 0; i < size; i++) {
+            TaxRateVersion version = sorted.get(i);
+            validFrom[i] = version.getValidFrom().toEpochDay();
+            validTo[i] = version.getValidTo() != null ? version.getValidTo().toEpochDay() : Long.MAX_VALUE;
+            rates[i] = version.getRate();
+            strategies[i] = strategyForRate.apply(version.getRate());
+        }
+        return new TaxRateTimeline(validFrom, validTo, rates, strategies);
+    }
+
+    public boolean isEmpty() {
+        return validFrom.length == 0;
+    }
+
+    public int size() {
+        return validFrom.length;
+    }
+
+    // Índice da vigência que contém a data, ou -1: O(log n), sem alocação
+    public int indexOf(LocalDate date) {
+        long day = date.toEpochDay();
+        int low = 0;
+        int high = validFrom.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (validFrom[middle] <= day) {
+                candidate = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return candidate >= 0 && day <= validTo[candidate] ? candidate : -1;
+    }
+
+    public double rateAt(int index) {
+        return rates[index];
+    }
+
+    public TaxCalculationStrategy strategyAt(int index) {
+        return strategies[index];
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.BracketTaxStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Custo por chamada da busca de faixa em tabelas progressivas de tamanhos diferentes
+// mvn -Pbenchmark test -Dbenchmark=BracketTaxStrategyBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BracketTaxStrategyBenchmark {
+
+    @Param({"5", "500"})
+    private int brackets;
+
+    private BracketTaxStrategy strategy;
+
+    private long[] basesCentavos;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        double[] bounds = new double[brackets];
+        double[] rates = new double[brackets];
+        double[] deductions = new double[brackets];
+        for (int i = 0; i < brackets; i++) {
+            bounds[i] = i * 1000.0;
+            rates[i] = Math.min(27.5, i * 0.5);
+            deductions[i] = i * 10.0;
+        }
+        strategy = new BracketTaxStrategy(bounds, rates, deductions);
+
+        // Bases aleatórias para que o preditor de desvios não memorize o caminho da busca
+        SplittableRandom random = new SplittableRandom(42);
+        basesCentavos = new long[1024];
+        for (int i = 0; i < basesCentavos.length; i++) {
+            basesCentavos[i] = random.nextLong(brackets * 100_000L);
+        }
+    }
+
+    @Benchmark
+    public long calculateCentavos() {
+        long base = basesCentavos[next++ & (basesCentavos.length - 1)];
+        return strategy.calculateTaxCentavos(base, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.BulkCalculationMode;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.FlatRateTaxStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Coluna de bases em centavos de um mesmo imposto: laço escalar x kernel SIMD (mesmo resultado, bit a bit)
+// mvn -Pbenchmark test -Dbenchmark=CentavosBulkKernelBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CentavosBulkKernelBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    private int size;
+
+    private final FlatRateTaxStrategy strategy = new FlatRateTaxStrategy(18.0);
+
+    private long[] bases;
+
+    private long[] taxes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        bases = new long[size];
+        for (int i = 0; i < size; i++) {
+            bases[i] = random.nextLong(1, 100_000_000);
+        }
+        taxes = new long[size];
+    }
+
+    @Benchmark
+    public long[] scalar() {
+        strategy.calculateTaxCentavos(bases, taxes, RoundingMode.HALF_EVEN, BulkCalculationMode.SCALAR);
+        return taxes;
+    }
+
+    @Benchmark
+    public long[] vector() {
+        strategy.calculateTaxCentavos(bases, taxes, RoundingMode.HALF_EVEN, BulkCalculationMode.VECTOR);
+        return taxes;
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.FlatRateTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.InvoicePlan;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MonetaryMath;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.RegisteredTaxType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Nota de 1.000 linhas com IPI, ICMS (IPI na base), PIS e COFINS: plano em cache x plano compilado a cada nota
+// x laço escrito à mão com as mesmas contas (referência de aritmética pura)
+// mvn -Pbenchmark test -Dbenchmark=InvoicePlanBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InvoicePlanBenchmark {
+    private static final int LINES = 1_000;
+
+    private List<RegisteredTaxType> taxTypes;
+
+    private InvoicePlan plan;
+
+    private long[] bases;
+
+    private long[] taxes;
+
+    private final long ipiMicros = MonetaryMath.toRateMicros(10.0);
+    private final long icmsMicros = MonetaryMath.toRateMicros(18.0);
+    private final long pisMicros = MonetaryMath.toRateMicros(1.65);
+    private final long cofinsMicros = MonetaryMath.toRateMicros(7.6);
+
+    @Setup
+    public void setUp() {
+        taxTypes = List.of(
+                tax(2L, "ICMS", 18.0, Set.of(1L)),
+                tax(1L, "IPI", 10.0, Set.of()),
+                tax(3L, "PIS", 1.65, Set.of()),
+                tax(4L, "COFINS", 7.6, Set.of()));
+        plan = InvoicePlan.compile(taxTypes);
+        bases = new long[LINES];
+        for (int i = 0; i < LINES; i++) {
+            bases[i] = 1_000 + i * 137L;
+        }
+        taxes = new long[LINES * taxTypes.size()];
+    }
+
+    @Benchmark
+    public long[] cachedPlan() {
+        plan.execute(bases, taxes, RoundingMode.HALF_EVEN);
+        return taxes;
+    }
+
+    @Benchmark
+    public long[] planPerInvoice() {
+        InvoicePlan.compile(taxTypes).execute(bases, taxes, RoundingMode.HALF_EVEN);
+        return taxes;
+    }
+
+    @Benchmark
+    public long[] handWritten() {
+        for (int line = 0, offset = 0; line < LINES; line++, offset += 4) {
+            long base = bases[line];
+            long ipi = MonetaryMath.applyRate(base, ipiMicros, RoundingMode.HALF_EVEN);
+            taxes[offset] = ipi;
+            taxes[offset + 1] = MonetaryMath.applyRate(base + ipi, icmsMicros, RoundingMode.HALF_EVEN);
+            taxes[offset + 2] = MonetaryMath.applyRate(base, pisMicros, RoundingMode.HALF_EVEN);
+            taxes[offset + 3] = MonetaryMath.applyRate(base, cofinsMicros, RoundingMode.HALF_EVEN);
+        }
+        return taxes;
+    }
+
+    private static RegisteredTaxType tax(Long id, String name, double rate, Set<Long> includes) {
+        return new RegisteredTaxType(id, name, rate, new FlatRateTaxStrategy(rate)).withBaseComposition(false, includes);
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.JwtAuthenticationFilter;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.JwtTokenProvider;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.VerifiedToken;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Caminho do filtro JWT por requisição autenticada, sem banco (UserDetailsService em memória):
+// before: chave e parse refeitos em validateToken, getUsername e getAuthentication; singleParse: uma verificação
+// por requisição, sem cache; after: o filtro atual, com o token repetido servido pelo VerifiedTokenCache
+// mvn -Pbenchmark test -Dbenchmark=JwtAuthenticationFilterBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthenticationFilterBenchmark {
+    private static final String SECRET = "af60addca9ea3e3c099551e1b6576c9966dce0a33de879dd7e160f86dbd872ca";
+
+    private final UserDetails user = new User("admin", "senha",
+            Set.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    private final UserDetailsService userDetailsService = username -> user;
+
+    private JwtTokenProvider provider;
+
+    private JwtAuthenticationFilter filter;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider(SECRET, 3_600_000);
+        filter = new JwtAuthenticationFilter(
+                new VerifiedTokenCache(provider, new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10)),
+                userDetailsService,
+                new TokenRevocationService(null, null, null, null, null, new SimpleMeterRegistry(),
+                        100_000, 0.01, "impostos_revogacoes", Duration.ofHours(1)));
+        token = provider.generateToken(new UsernamePasswordAuthenticationToken("admin", null, user.getAuthorities()));
+    }
+
+    @Benchmark
+    public Object before() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Jwts.parser().verifyWith(key).build().parse(token);
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        String username = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+        userDetailsService.loadUserByUsername(username);
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        List<SimpleGrantedAuthority> authorities = List.of(claims.get("roles", String.class).split(",")).stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return new UsernamePasswordAuthenticationToken(claims.getSubject(), null, authorities);
+    }
+
+    @Benchmark
+    public Object singleParse() {
+        VerifiedToken verified = provider.verify(token);
+        userDetailsService.loadUserByUsername(verified.username());
+        return verified.toAuthentication();
+    }
+
+    @Benchmark
+    public Object after() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tax/types");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MunicipalIssIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Custo por chamada do ISS municipal: busca do código IBGE no índice com os ~5.570 municípios + cálculo
+// mvn -Pbenchmark test -Dbenchmark=MunicipalIssIndexBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MunicipalIssIndexBenchmark {
+    private static final int MUNICIPALITIES = 5_570;
+
+    private MunicipalIssIndex index;
+
+    private int[] codes;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<MunicipalIssRate> municipalRates = new ArrayList<>(MUNICIPALITIES);
+        codes = new int[1024];
+        for (int i = 0; i < MUNICIPALITIES; i++) {
+            MunicipalIssRate municipalRate = new MunicipalIssRate();
+            municipalRate.setIbgeCode(1_100_000 + i * 761);
+            municipalRate.setName("Município " + i);
+            municipalRate.setUf(Uf.SP);
+            municipalRate.setRate(2.0 + random.nextInt(31) / 10.0);
+            municipalRates.add(municipalRate);
+        }
+        index = MunicipalIssIndex.of(municipalRates);
+
+        // Códigos aleatórios para que o preditor de desvios não memorize o caminho da busca
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = municipalRates.get(random.nextInt(MUNICIPALITIES)).getIbgeCode();
+        }
+    }
+
+    @Benchmark
+    public long calculateCentavos() {
+        int position = index.indexOf(codes[next++ & (codes.length - 1)]);
+        return index.calculateTaxCentavos(position, 100_000, RoundingMode.HALF_EVEN);
+    }
+}
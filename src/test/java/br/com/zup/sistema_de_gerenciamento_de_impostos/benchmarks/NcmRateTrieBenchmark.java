@@ -0,0 +1,86 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Tabela no tamanho da TIPI (~10 mil códigos de 8 dígitos, mais regras por capítulo e posição):
+// tempo de montagem da trie e custo por busca do prefixo mais longo
+// mvn -Pbenchmark test -Dbenchmark=NcmRateTrieBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NcmRateTrieBenchmark {
+    private static final int CODES = 10_000;
+
+    private List<NcmRate> rules;
+
+    private NcmRateTrie trie;
+
+    private String[] codes;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Set<String> prefixes = new LinkedHashSet<>();
+        while (prefixes.size() < CODES) {
+            prefixes.add(String.format("%08d", 1_000_000 + random.nextInt(96_000_000)));
+        }
+        for (int chapter = 1; chapter <= 97; chapter++) {
+            prefixes.add(String.format("%02d", chapter));
+        }
+        List<String> codeList = new ArrayList<>(prefixes);
+        for (int i = 0; i < 1_200; i++) {
+            prefixes.add(codeList.get(random.nextInt(CODES)).substring(0, 4));
+        }
+
+        rules = new ArrayList<>(prefixes.size());
+        for (String prefix : prefixes) {
+            NcmRate rule = new NcmRate();
+            rule.setNcmPrefix(prefix);
+            rule.setRate(random.nextInt(0, 30) * 1.0);
+            rules.add(rule);
+        }
+        trie = NcmRateTrie.of(rules);
+
+        // Metade dos códigos consultados existe na tabela; a outra metade cai em regras de capítulo ou posição
+        codes = new String[1024];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = i % 2 == 0
+                    ? codeList.get(random.nextInt(CODES))
+                    : String.format("%08d", 1_000_000 + random.nextInt(96_000_000));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public NcmRateTrie build() {
+        return NcmRateTrie.of(rules);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int longestMatch() {
+        return trie.longestMatch(codes[next++ & (codes.length - 1)]);
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Tabela de decisão compilada em bitsets contra a avaliação regra a regra (cadeia de ifs em ordem de prioridade).
+// Como nas tabelas reais, toda regra é restrita a um NCM ou prefixo (4 a 8 dígitos), com UF, CFOP e regime opcionais;
+// as operações são sorteadas do mesmo universo, e a maioria não casa com nenhuma regra (pior caso da cadeia de ifs)
+// mvn -Pbenchmark test -Dbenchmark=TaxBenefitMatcherBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaxBenefitMatcherBenchmark {
+    private static final Uf[] UFS = Uf.values();
+    private static final TaxRegime[] REGIMES = TaxRegime.values();
+
+    @Param({"1000", "10000", "100000"})
+    private int rules;
+
+    private TaxBenefitMatcher matcher;
+
+    private TaxBenefitRule[] byPriority;
+
+    private Uf[] ufs;
+    private String[] ncms;
+    private String[] cfops;
+    private TaxRegime[] regimes;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<TaxBenefitRule> benefitRules = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            TaxBenefitRule rule = new TaxBenefitRule();
+            rule.setId((long) i);
+            rule.setBenefitType(TaxBenefitType.EXEMPTION);
+            rule.setPriority(random.nextInt(100));
+            rule.setDescription("Regra " + i);
+            rule.setNcmPrefix(ncm(random).substring(0, 4 + random.nextInt(5)));
+            rule.setUf(random.nextInt(10) < 5 ? UFS[random.nextInt(UFS.length)] : null);
+            rule.setCfop(random.nextInt(10) < 3 ? cfop(random) : null);
+            rule.setRegime(random.nextInt(10) < 2 ? REGIMES[random.nextInt(REGIMES.length)] : null);
+            benefitRules.add(rule);
+        }
+        matcher = TaxBenefitMatcher.of(benefitRules);
+        byPriority = benefitRules.stream()
+                .sorted(Comparator.comparing(TaxBenefitRule::getPriority).reversed().thenComparing(TaxBenefitRule::getId))
+                .toArray(TaxBenefitRule[]::new);
+
+        ufs = new Uf[1024];
+        ncms = new String[1024];
+        cfops = new String[1024];
+        regimes = new TaxRegime[1024];
+        for (int i = 0; i < 1024; i++) {
+            ufs[i] = UFS[random.nextInt(UFS.length)];
+            ncms[i] = ncm(random);
+            cfops[i] = cfop(random);
+            regimes[i] = REGIMES[random.nextInt(REGIMES.length)];
+        }
+    }
+
+    @Benchmark
+    public int compiledMatcher() {
+        int i = next++ & 1023;
+        return matcher.match(ufs[i], ncms[i], cfops[i], regimes[i]);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int i = next++ & 1023;
+        Uf uf = ufs[i];
+        String ncm = ncms[i];
+        String cfop = cfops[i];
+        TaxRegime regime = regimes[i];
+        for (int rule = 0; rule < byPriority.length; rule++) {
+            TaxBenefitRule candidate = byPriority[rule];
+            if ((candidate.getUf() == null || candidate.getUf() == uf)
+                    && (candidate.getRegime() == null || candidate.getRegime() == regime)
+                    && (candidate.getCfop() == null || candidate.getCfop().equals(cfop))
+                    && (candidate.getNcmPrefix() == null || ncm.startsWith(candidate.getNcmPrefix()))) {
+                return rule;
+            }
+        }
+        return -1;
+    }
+
+    private static String ncm(SplittableRandom random) {
+        return String.format("%08d", 1_000_000 + random.nextInt(96_000_000));
+    }
+
+    private static String cfop(SplittableRandom random) {
+        return String.valueOf((random.nextBoolean() ? 5100 : 6100) + random.nextInt(60));
+    }
+}
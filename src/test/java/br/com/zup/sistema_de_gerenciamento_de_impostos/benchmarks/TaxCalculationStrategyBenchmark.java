@@ -0,0 +1,95 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxRateVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.FlatRateTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.FormulaTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyFactory;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxFormula;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Custo por chamada da resolução de estratégia: fábrica (antes) x registro pré-compilado (depois),
+// e da fórmula compilada em relação à estratégia escrita à mão equivalente
+// mvn -Pbenchmark test -Dbenchmark=TaxCalculationStrategyBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaxCalculationStrategyBenchmark {
+
+    private TaxCalculationStrategyFactory factory;
+
+    private TaxCalculationStrategyRegistry registry;
+
+    private String taxTypeName = "ICMS";
+
+    private Long taxTypeId = 1L;
+
+    private double baseValue = 1234.56;
+
+    private TaxCalculationStrategy handWritten;
+
+    private TaxCalculationStrategy formula;
+
+    @Setup
+    public void setUp() {
+        factory = new TaxCalculationStrategyFactory();
+        registry = new TaxCalculationStrategyRegistry();
+        ReflectionTestUtils.setField(registry, "strategyFactory", factory);
+        // Sem vigências: o mock devolve lista vazia
+        ReflectionTestUtils.setField(registry, "taxRateVersionRepository", Mockito.mock(TaxRateVersionRepository.class));
+        registry.replaceAll(List.of(
+                taxType(1L, "ICMS", 18.0),
+                taxType(2L, "ISS", 5.0),
+                taxType(3L, "PIS", 1.65)));
+        handWritten = new FlatRateTaxStrategy(18.0);
+        formula = new FormulaTaxStrategy(TaxFormula.compile("base * aliquota / 100"), 18.0);
+    }
+
+    @Benchmark
+    public double factoryPerCall() {
+        return factory.getStrategy(taxTypeName).calculateTax(baseValue);
+    }
+
+    @Benchmark
+    public double registryLookup() {
+        return registry.find(taxTypeId).strategy().calculateTax(baseValue);
+    }
+
+    @Benchmark
+    public double handWrittenStrategy() {
+        return handWritten.calculateTax(baseValue);
+    }
+
+    @Benchmark
+    public double compiledFormula() {
+        return formula.calculateTax(baseValue);
+    }
+
+    private static TaxType taxType(Long id, String name, Double rate) {
+        TaxType taxType = new TaxType();
+        taxType.setId(id);
+        taxType.setName(name);
+        taxType.setDescription(name);
+        taxType.setRate(rate);
+        return taxType;
+    }
+}
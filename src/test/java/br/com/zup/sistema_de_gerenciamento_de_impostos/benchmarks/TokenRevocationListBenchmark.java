@@ -0,0 +1,68 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.benchmarks;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.TokenRevocationList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Consulta por requisição à lista de revogação: tokens válidos (o caso comum) param no filtro de Bloom
+// mvn -Pbenchmark test -Dbenchmark=TokenRevocationListBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TokenRevocationListBenchmark {
+    @Param({"10000", "1000000"})
+    private int revoked;
+
+    private TokenRevocationList list;
+
+    private String[] valid;
+
+    private String[] revokedJtis;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, Long> entries = new HashMap<>();
+        revokedJtis = new String[1024];
+        for (int i = 0; i < revoked; i++) {
+            String jti = UUID.randomUUID().toString();
+            entries.put(jti, Long.MAX_VALUE);
+            if (i < revokedJtis.length) {
+                revokedJtis[i] = jti;
+            }
+        }
+        list = TokenRevocationList.of(entries, revoked, 0.01);
+        valid = new String[1024];
+        for (int i = 0; i < valid.length; i++) {
+            valid[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    public boolean validToken() {
+        return list.isRevoked(valid[next++ & (valid.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return list.isRevoked(revokedJtis[next++ & (revokedJtis.length - 1)]);
+    }
+}
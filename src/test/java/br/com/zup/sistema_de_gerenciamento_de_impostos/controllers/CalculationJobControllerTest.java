@@ -0,0 +1,62 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.CalculationJobDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.CalculationJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalculationJobControllerTest {
+    @Mock
+    private CalculationJobService calculationJobService;
+
+    @InjectMocks
+    private CalculationJobController calculationJobController;
+
+    @Test
+    @DisplayName("Deve aceitar o job e retornar 202 com a localização para consulta do progresso")
+    void shouldAcceptJobAndReturnLocation() {
+        // Arrange
+        List<TaxCalculationRequestDto> requests = List.of(new TaxCalculationRequestDto(1L, 1000.0));
+        CalculationJobDto job = new CalculationJobDto(7L, "PENDING", 1, 0, 0, null,
+                LocalDateTime.now(), LocalDateTime.now());
+        when(calculationJobService.submit(requests)).thenReturn(job);
+
+        // Act
+        ResponseEntity<CalculationJobDto> response = calculationJobController.submit(requests);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/calculo/jobs/7", response.getHeaders().getLocation().toString());
+        assertEquals(job, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Deve validar o job antes de iniciar o download em streaming")
+    void shouldValidateJobBeforeStreaming() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(calculationJobService.findById(99L)).thenThrow(new ResourceNotFoundException("Job", "id", 99L));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> calculationJobController.streamResults(99L, response));
+        verify(calculationJobService, never()).streamResults(any(), any());
+        assertNull(response.getContentType());
+    }
+}
@@ -1,5 +1,7 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.controllers;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationRequestDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
@@ -13,9 +15,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -82,4 +89,46 @@ class TaxCalculationControllerTest {
             taxCalculationController.calculate(requestDto);
         }, "Deve lançar ResourceNotFoundException quando o tipo de imposto não existir");
     }
+    
+    @Test
+    @DisplayName("Deve calcular um lote e retornar resultados por item com status 200")
+    void shouldCalculateBatchAndReturnPerItemResults() {
+        // Arrange
+        List<TaxCalculationRequestDto> requests = List.of(
+                new TaxCalculationRequestDto(1L, 1000.0),
+                new TaxCalculationRequestDto(999L, 1000.0)
+        );
+        TaxCalculationBatchResponseDto batchResponse = new TaxCalculationBatchResponseDto(2, 1, 1, List.of(
+                new TaxCalculationBatchItemDto(0, new TaxCalculationResponseDto("ICMS", 1000.0, 18.0, 180.0), null),
+                new TaxCalculationBatchItemDto(1, null, "TipoImposto não encontrado com id: 999")
+        ));
+        when(taxCalculationService.calculateBatch(requests)).thenReturn(batchResponse);
+        
+        // Act
+        ResponseEntity<TaxCalculationBatchResponseDto> response = taxCalculationController.calculateBatch(requests);
+        
+        // Assert
+        assertAll(
+                () -> assertEquals(HttpStatus.OK, response.getStatusCode(), "Status HTTP deve ser 200 OK"),
+                () -> assertEquals(2, response.getBody().totalItens(), "Deve conter 2 itens"),
+                () -> assertEquals(1, response.getBody().totalErros(), "Deve conter 1 erro"),
+                () -> assertEquals(180.0, response.getBody().itens().get(0).resultado().valorImposto())
+        );
+    }
+    
+    @Test
+    @DisplayName("Deve delegar o cálculo em streaming e responder como NDJSON")
+    void shouldDelegateStreamCalculationAndRespondAsNdjson() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("{\"tipoImpostoId\":1,\"valorBase\":1000.0}\n".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        // Act
+        taxCalculationController.calculateStream(request, response);
+        
+        // Assert
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        verify(taxCalculationService).calculateStream(any(), any());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve gerar e conferir hashes no pool dedicado, registrando o tempo de cada operação")
+    void shouldEncodeAndMatchOnDedicatedPool() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(meterRegistry, 4, 1, 4, Duration.ofSeconds(5));
+
+        // Act
+        String hash = encoder.encode("senha123");
+
+        // Assert
+        assertTrue(encoder.matches("senha123", hash));
+        assertFalse(encoder.matches("outra", hash));
+        assertEquals(1, meterRegistry.get("impostos.senhas.hash").tag("operacao", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("impostos.senhas.hash").tag("operacao", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve recusar na hora com a fila cheia")
+    void shouldRejectWhenSaturated() throws Exception {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(meterRegistry, 4, 1, 1, Duration.ofSeconds(5));
+        Timer timer = meterRegistry.timer("teste");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.submit(timer, () -> {
+            started.countDown();
+            await(release);
+            return true;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.submit(timer, () -> true));
+        waitForQueue(1);
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("senha123"));
+        assertEquals(1.0, meterRegistry.get("impostos.senhas.rejeicoes").counter().count());
+        assertEquals(1.0, meterRegistry.get("impostos.senhas.fila").gauge().value());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve recusar quando a espera passar do limite")
+    void shouldRejectAfterMaximumWait() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(meterRegistry, 4, 1, 4, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> encoder.submit(meterRegistry.timer("teste"), () -> {
+            await(release);
+            return true;
+        }));
+        assertEquals(1.0, meterRegistry.get("impostos.senhas.rejeicoes").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve apontar para regravação os hashes com custo menor que o configurado")
+    void shouldUpgradeWeakerHashes() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(meterRegistry, 5, 1, 4, Duration.ofSeconds(5));
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("senha123")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("senha123")));
+    }
+
+    private void waitForQueue(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("impostos.senhas.fila").gauge().value() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
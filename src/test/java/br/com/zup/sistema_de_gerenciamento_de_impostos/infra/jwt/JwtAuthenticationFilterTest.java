@@ -0,0 +1,193 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TokenRevocationService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    private static final String SECRET = "af60addca9ea3e3c099551e1b6576c9966dce0a33de879dd7e160f86dbd872ca";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        jwtTokenProvider = spy(new JwtTokenProvider(SECRET, 3_600_000));
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtTokenProvider, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10)),
+                userDetailsService, tokenRevocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deve verificar o token uma única vez mesmo em requisições repetidas")
+    void shouldAuthenticateWithSingleParse() throws Exception {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        when(userDetailsService.loadUserByUsername("admin"))
+                .thenReturn(new User("admin", "hash", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tax/types");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("admin", authentication.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), List.copyOf(authentication.getAuthorities()));
+        assertNotNull(chain.getRequest());
+        verify(jwtTokenProvider, times(1)).parseClaims(token);
+        verify(jwtTokenProvider, never()).validateToken(any());
+        verify(userDetailsService, times(2)).loadUserByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("Deve usar as permissões do perfil atual do usuário, não as gravadas no token")
+    void shouldUseCurrentUserAuthorities() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = requestWithToken("ROLE_ADMIN");
+        when(userDetailsService.loadUserByUsername("admin"))
+                .thenReturn(new User("admin", "hash", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(authentication.getAuthorities()));
+    }
+
+    @Test
+    @DisplayName("Deve seguir sem autenticação quando o usuário do token tiver sido excluído")
+    void shouldNotAuthenticateDeletedUser() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = requestWithToken("ROLE_ADMIN");
+        when(userDetailsService.loadUserByUsername("admin")).thenThrow(new UsernameNotFoundException("admin"));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Deve seguir sem autenticação quando o usuário do token estiver desabilitado")
+    void shouldNotAuthenticateDisabledUser() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = requestWithToken("ROLE_ADMIN");
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(new User("admin", "hash", false, true, true, true,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token assinado com outra chave")
+    void shouldRejectTokenSignedWithAnotherKey() {
+        // Arrange
+        JwtTokenProvider other = new JwtTokenProvider(SECRET.replace('a', 'b'), 3_600_000);
+        String token = other.generateToken(new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tax/types");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        // Act & Assert
+        assertThrows(JwtException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain()));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Deve seguir sem autenticação quando o token estiver revogado")
+    void shouldNotAuthenticateRevokedToken() throws Exception {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        String jti = jwtTokenProvider.verify(token).jti();
+        when(tokenRevocationService.isRevoked(jti)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tax/types");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Deve seguir sem autenticação quando não houver token")
+    void shouldPassThroughWithoutToken() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/tax/types"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verify(jwtTokenProvider, never()).parseClaims(any());
+    }
+
+    private MockHttpServletRequest requestWithToken(String role) {
+        String token = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority(role))));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tax/types");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+    private static final String SECRET = "af60addca9ea3e3c099551e1b6576c9966dce0a33de879dd7e160f86dbd872ca";
+
+    private final JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000);
+
+    @Test
+    @DisplayName("Deve devolver na emissão os mesmos valores que a verificação do token lê")
+    void shouldSignWithSameValuesAsVerification() {
+        // Act
+        SignedToken signed = jwtTokenProvider.sign(new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"))));
+
+        // Assert
+        assertEquals(jwtTokenProvider.verify(signed.value()), signed.verified());
+        assertNotNull(signed.verified().jti());
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    @Test
+    @DisplayName("Deve reconhecer todos os tokens revogados e nenhum token válido")
+    void shouldRecognizeRevokedTokens() {
+        // Arrange
+        Map<String, Long> revoked = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            revoked.put(UUID.randomUUID().toString(), Long.MAX_VALUE);
+        }
+
+        // Act
+        TokenRevocationList list = TokenRevocationList.of(revoked, 10_000, 0.01);
+
+        // Assert
+        revoked.keySet().forEach(jti -> assertTrue(list.isRevoked(jti)));
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(list.isRevoked(UUID.randomUUID().toString()));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter a taxa de falso positivo do filtro perto da configurada")
+    void shouldKeepFalsePositiveRateNearConfigured() {
+        // Arrange
+        Map<String, Long> revoked = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            revoked.put(UUID.randomUUID().toString(), Long.MAX_VALUE);
+        }
+        TokenRevocationList list = TokenRevocationList.of(revoked, 100_000, 0.01);
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (list.mightBeRevoked(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives < 2_000, "falsos positivos: " + falsePositives);
+        // ~10 bits por revogação, arredondado para potência de dois
+        assertTrue(list.filterBytes() <= 256 * 1024, "bytes: " + list.filterBytes());
+    }
+
+    @Test
+    @DisplayName("Deve somar revogações e descartar as vencidas sem alterar a lista original")
+    void shouldAddAndDropExpired() {
+        // Arrange
+        TokenRevocationList list = TokenRevocationList.of(Map.of("vencido", 1_000L, "valido", 5_000L), 100, 0.01);
+
+        // Act
+        TokenRevocationList updated = list.with(Map.of("novo", 9_000L), 2_000L, 100, 0.01);
+
+        // Assert
+        assertTrue(updated.isRevoked("valido"));
+        assertTrue(updated.isRevoked("novo"));
+        assertFalse(updated.isRevoked("vencido"));
+        assertEquals(2, updated.size());
+        assertTrue(list.isRevoked("vencido"));
+        assertFalse(list.isRevoked("novo"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar parâmetros inválidos")
+    void shouldRejectInvalidParameters() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> TokenRevocationList.of(Map.of(), 0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> TokenRevocationList.of(Map.of(), 100, 1.0));
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+    private static final String SECRET = "af60addca9ea3e3c099551e1b6576c9966dce0a33de879dd7e160f86dbd872ca";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtTokenProvider = spy(new JwtTokenProvider(SECRET, 3_600_000));
+        cache = new VerifiedTokenCache(jwtTokenProvider, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Deve verificar a assinatura só na primeira vez que o token aparece")
+    void shouldVerifyOnlyOnFirstUse() {
+        // Arrange
+        String token = token(jwtTokenProvider, "admin");
+
+        // Act
+        VerifiedToken first = cache.verify(token);
+        VerifiedToken second = cache.verify(token);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("admin", second.username());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), second.authorities());
+        verify(jwtTokenProvider, times(1)).verify(token);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "verifiedTokens").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "verifiedTokens").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Deve devolver uma autenticação nova a cada requisição")
+    void shouldBuildFreshAuthentication() {
+        // Arrange
+        VerifiedToken verified = cache.verify(token(jwtTokenProvider, "admin"));
+
+        // Act
+        UsernamePasswordAuthenticationToken first = verified.toAuthentication();
+        UsernamePasswordAuthenticationToken second = verified.toAuthentication();
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("admin", second.getName());
+    }
+
+    @Test
+    @DisplayName("Não deve manter em cache token expirado")
+    void shouldNotCacheExpiredToken() {
+        // Arrange
+        JwtTokenProvider expiredProvider = new JwtTokenProvider(SECRET, -60_000);
+        String token = token(expiredProvider, "admin");
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> cache.verify(token));
+        assertThrows(ExpiredJwtException.class, () -> cache.verify(token));
+        verify(jwtTokenProvider, times(2)).verify(token);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a entrada quando o token expira")
+    void shouldExpireEntryAtTokenExpiration() throws InterruptedException {
+        // Arrange
+        JwtTokenProvider shortLivedProvider = spy(new JwtTokenProvider(SECRET, 1_500));
+        // Registro próprio: o gauge cache.size{cache=verifiedTokens} é um por registro, como em produção
+        VerifiedTokenCache shortLivedCache = new VerifiedTokenCache(shortLivedProvider, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(10));
+        String token = token(shortLivedProvider, "admin");
+        shortLivedCache.verify(token);
+
+        // Act
+        Thread.sleep(2_000);
+
+        // Assert
+        assertEquals(0, shortLivedCache.size());
+        assertThrows(ExpiredJwtException.class, () -> shortLivedCache.verify(token));
+    }
+
+    @Test
+    @DisplayName("Deve gerar resumos diferentes para tokens que só diferem em caracteres fora do ASCII")
+    void shouldNotCollideOnNonAsciiCharacters() {
+        assertNotEquals(VerifiedTokenCache.TokenDigest.of("abc\u00e9"), VerifiedTokenCache.TokenDigest.of("abc\u00e8"));
+    }
+
+    private String token(JwtTokenProvider provider, String username) {
+        return provider.generateToken(new UsernamePasswordAuthenticationToken(username, null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+}
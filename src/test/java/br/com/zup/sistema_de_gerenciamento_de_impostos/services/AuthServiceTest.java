@@ -4,7 +4,10 @@ import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.AuthResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.LoginDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.RegisterUserDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.DuplicateResourceException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.JwtTokenProvider;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.SignedToken;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.VerifiedToken;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Role;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.User;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.UserRepository;
@@ -19,6 +22,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +44,12 @@ class AuthServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
     @InjectMocks
     private AuthService authService;
 
@@ -104,6 +114,7 @@ class AuthServiceTest {
         
         assertTrue(exception.getMessage().contains("já existe"));
         verify(userRepository, never()).save(any(User.class));
+        verify(passwordEncoder, never()).encode(any());
     }
 
     @Test
@@ -131,6 +142,7 @@ class AuthServiceTest {
         
         assertTrue(exception.getMessage().contains("já existe"));
         verify(userRepository, never()).save(any(User.class));
+        verify(passwordEncoder, never()).encode(any());
     }
 
     @Test
@@ -143,7 +155,8 @@ class AuthServiceTest {
         
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(jwtTokenProvider.generateToken(authentication)).thenReturn(token);
+        VerifiedToken verified = new VerifiedToken("jti-1", "user", List.of(), Long.MAX_VALUE);
+        when(jwtTokenProvider.sign(authentication)).thenReturn(new SignedToken(token, verified));
 
         // Act
         AuthResponseDto response = authService.login(loginDto);
@@ -153,6 +166,19 @@ class AuthServiceTest {
         assertEquals(token, response.token());
         
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtTokenProvider).generateToken(authentication);
+        verify(jwtTokenProvider).sign(authentication);
+        verify(jwtTokenProvider, never()).verify(any());
+        verify(tokenRevocationService).recordIssued(verified);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o login com o circuito do banco aberto, sem autenticar")
+    void shouldRejectLoginWhenCircuitIsOpen() {
+        // Arrange
+        when(databaseCircuitBreaker.isOpen()).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> authService.login(new LoginDto("user", "password")));
+        verifyNoInteractions(authenticationManager, jwtTokenProvider, tokenRevocationService);
     }
 }
\ No newline at end of file
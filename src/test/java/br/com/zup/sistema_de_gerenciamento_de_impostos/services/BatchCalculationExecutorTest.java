@@ -0,0 +1,63 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchCalculationExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BatchCalculationExecutor executor = new BatchCalculationExecutor(meterRegistry, 4, 1000, 100);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve executar sequencialmente lotes abaixo do limite configurado")
+    void shouldRunSequentiallyBelowThreshold() {
+        // Arrange
+        String[] results = new String[999];
+        String caller = Thread.currentThread().getName();
+
+        // Act
+        int errors = executor.execute(results, i -> Thread.currentThread().getName(), r -> false);
+
+        // Assert
+        assertEquals(0, errors);
+        assertTrue(Arrays.stream(results).allMatch(caller::equals));
+        assertEquals(1.0, meterRegistry.get("impostos.calculo.lote.execucoes").tag("modo", "sequencial").counter().count());
+        assertEquals(0.0, meterRegistry.get("impostos.calculo.lote.execucoes").tag("modo", "paralelo").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve executar lotes grandes no pool dedicado preservando a ordem e somando os erros de cada bloco")
+    void shouldRunInParallelPreservingOrder() {
+        // Arrange
+        Integer[] results = new Integer[100_000];
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // Act
+        int errors = executor.execute(results, i -> {
+            threads.add(Thread.currentThread().getName());
+            return i;
+        }, r -> r % 10 == 0);
+
+        // Assert
+        for (int i = 0; i < results.length; i++) {
+            assertEquals(i, results[i]);
+        }
+        assertEquals(10_000, errors);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("calculo-lote-")));
+        assertEquals(1.0, meterRegistry.get("impostos.calculo.lote.execucoes").tag("modo", "paralelo").counter().count());
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BracketTaxStrategyTest {
+
+    // Tabela mensal do IRPF vigente a partir de fevereiro de 2024
+    private final BracketTaxStrategy irpf = new BracketTaxStrategy(
+            new double[]{0, 2259.21, 2826.66, 3751.06, 4664.69},
+            new double[]{0, 7.5, 15, 22.5, 27.5},
+            new double[]{0, 169.44, 381.44, 662.77, 896.00});
+
+    @Test
+    @DisplayName("Deve aplicar a alíquota da faixa e a parcela a deduzir")
+    void shouldApplyBracketRateAndDeduction() {
+        assertEquals(0, irpf.calculateTaxCentavos(200_000, RoundingMode.HALF_EVEN));
+        assertEquals(6_856, irpf.calculateTaxCentavos(300_000, RoundingMode.HALF_EVEN));
+        assertEquals(47_900, irpf.calculateTaxCentavos(500_000, RoundingMode.HALF_EVEN));
+        assertEquals(479.0, irpf.calculateTax(5000), 0.000001);
+        assertEquals(68.56, irpf.calculateTax(3000), 0.000001);
+    }
+
+    @Test
+    @DisplayName("Deve tratar o limite inferior como pertencente à faixa")
+    void shouldIncludeLowerBoundInBracket() {
+        assertEquals(0, irpf.rateFor(2259.20));
+        assertEquals(7.5, irpf.rateFor(2259.21));
+        assertEquals(27.5, irpf.rateFor(1_000_000));
+    }
+
+    @Test
+    @DisplayName("Deve retornar zero abaixo da primeira faixa e nunca imposto negativo")
+    void shouldNeverReturnNegativeTax() {
+        BracketTaxStrategy strategy = new BracketTaxStrategy(
+                new double[]{1000, 2000}, new double[]{10, 20}, new double[]{150, 300});
+
+        assertEquals(0, strategy.calculateTax(500));
+        assertEquals(0, strategy.rateFor(500));
+        assertEquals(0, strategy.calculateTax(1200));
+        assertEquals(0, strategy.calculateTaxCentavos(120_000, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar a faixa por busca binária em tabelas com centenas de faixas")
+    void shouldMatchLinearLookupOnLargeTables() {
+        int size = 500;
+        double[] bounds = new double[size];
+        double[] rates = new double[size];
+        double[] deductions = new double[size];
+        for (int i = 0; i < size; i++) {
+            bounds[i] = i * 100.0;
+            rates[i] = i % 30;
+            deductions[i] = 0;
+        }
+        BracketTaxStrategy strategy = new BracketTaxStrategy(bounds, rates, deductions);
+
+        for (double value = 0; value < size * 100.0 + 500; value += 37.5) {
+            int expected = -1;
+            for (int i = 0; i < size && bounds[i] <= value; i++) {
+                expected = i;
+            }
+            assertEquals(rates[expected], strategy.rateFor(value), "valor " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("O lote em centavos deve coincidir com o cálculo item a item")
+    void batchShouldMatchSingleCalculation() {
+        long[] bases = {0, 150_000, 225_921, 300_000, 466_469, 1_000_000_00};
+        long[] taxes = new long[bases.length];
+
+        irpf.calculateTaxCentavos(bases, taxes, RoundingMode.HALF_EVEN);
+
+        for (int i = 0; i < bases.length; i++) {
+            assertEquals(irpf.calculateTaxCentavos(bases[i], RoundingMode.HALF_EVEN), taxes[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar tabelas vazias, de tamanhos diferentes ou fora de ordem")
+    void shouldRejectInvalidTables() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BracketTaxStrategy(new double[0], new double[0], new double[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BracketTaxStrategy(new double[]{0, 100}, new double[]{5}, new double[]{0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BracketTaxStrategy(new double[]{100, 100}, new double[]{5, 10}, new double[]{0, 0}));
+    }
+}
@@ -0,0 +1,216 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalculationHistoryRecorderTest {
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Deve gravar em lote quando o buffer atinge o tamanho configurado")
+    void shouldFlushWhenBatchIsFull() throws Exception {
+        // Arrange
+        List<Integer> batchSizes = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(eq(CalculationHistoryRecorder.INSERT_SQL), any(SqlParameterSource[].class)))
+                .thenAnswer(invocation -> {
+                    SqlParameterSource[] rows = invocation.getArgument(1);
+                    batchSizes.add(rows.length);
+                    return new int[rows.length];
+                });
+        CalculationHistoryRecorder recorder = new CalculationHistoryRecorder(
+                jdbcTemplate, transactionManager, meterRegistry, true, 100, 10, Duration.ofHours(1));
+
+        // Act
+        for (int i = 0; i < 25; i++) {
+            recorder.record(1L, "ICMS", 100.0, 18.0, 18.0);
+        }
+        recorder.start();
+        verify(jdbcTemplate, timeout(5000).times(2)).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        recorder.shutdown();
+
+        // Assert
+        assertEquals(List.of(10, 10, 5), batchSizes);
+        assertEquals(25.0, meterRegistry.get("impostos.historico.gravados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve gravar o que estiver pendente quando o intervalo expirar")
+    void shouldFlushWhenIntervalExpires() throws Exception {
+        // Arrange
+        CalculationHistoryRecorder recorder = new CalculationHistoryRecorder(
+                jdbcTemplate, transactionManager, meterRegistry, true, 100, 500, Duration.ofMillis(50));
+        recorder.start();
+        ArgumentCaptor<SqlParameterSource[]> captor = ArgumentCaptor.forClass(SqlParameterSource[].class);
+
+        // Act
+        recorder.record(2L, "ISS", 200.0, 5.0, 10.0);
+
+        // Assert
+        verify(jdbcTemplate, timeout(5000)).batchUpdate(eq(CalculationHistoryRecorder.INSERT_SQL), captor.capture());
+        SqlParameterSource row = captor.getValue()[0];
+        assertEquals("ISS", row.getValue("taxTypeName"));
+        assertEquals(10.0, row.getValue("taxValue"));
+        assertNotNull(row.getValue("calculatedAt"));
+        recorder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve descartar e contar registros quando a fila estiver cheia, sem bloquear")
+    void shouldDropWhenQueueIsFull() throws Exception {
+        // Arrange
+        CalculationHistoryRecorder recorder = new CalculationHistoryRecorder(
+                jdbcTemplate, transactionManager, meterRegistry, true, 3, 500, Duration.ofHours(1));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            recorder.record(1L, "ICMS", 100.0, 18.0, 18.0);
+        }
+
+        // Assert
+        assertEquals(2.0, meterRegistry.get("impostos.historico.descartados").counter().count());
+        assertEquals(3.0, meterRegistry.get("impostos.historico.fila").gauge().value());
+
+        // A parada grava os registros pendentes
+        recorder.start();
+        recorder.shutdown();
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((SqlParameterSource[] rows) -> rows.length == 3));
+    }
+
+    @Test
+    @DisplayName("Deve contar os registros perdidos quando a gravação falhar")
+    void shouldCountFailedWrites() throws Exception {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+                .thenThrow(new RuntimeException("banco indisponível"));
+        CalculationHistoryRecorder recorder = new CalculationHistoryRecorder(
+                jdbcTemplate, transactionManager, meterRegistry, true, 100, 500, Duration.ofHours(1));
+        recorder.record(1L, "ICMS", 100.0, 18.0, 18.0);
+        recorder.record(1L, "ICMS", 200.0, 18.0, 36.0);
+
+        // Act
+        recorder.start();
+        recorder.shutdown();
+
+        // Assert
+        assertEquals(2.0, meterRegistry.get("impostos.historico.falhas").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve concluir o último lote no desligamento sem interromper a gravação")
+    void shouldFinishLastBatchOnShutdownWithoutInterrupting() throws Exception {
+        // Arrange
+        CountDownLatch saving = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            saving.countDown();
+            Thread.sleep(200);
+            interrupted.set(Thread.currentThread().isInterrupted());
+            return new int[1];
+        });
+        CalculationHistoryRecorder recorder = new CalculationHistoryRecorder(
+                jdbcTemplate, transactionManager, meterRegistry, true, 100, 1, Duration.ofHours(1));
+        recorder.start();
+
+        // Act
+        recorder.record(1L, "ICMS", 100.0, 18.0, 18.0, 7L, 0);
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+        recorder.shutdown();
+
+        // Assert
+        assertFalse(interrupted.get());
+        assertEquals(1.0, meterRegistry.get("impostos.historico.gravados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve vincular por nome todos os parâmetros do INSERT, inclusive job e linha")
+    void shouldBindEveryInsertParameterByName() throws Exception {
+        // Arrange
+        CalculationHistoryRecorder recorder = new CalculationHistoryRecorder(
+                jdbcTemplate, transactionManager, meterRegistry, true, 100, 500, Duration.ofHours(1));
+        ArgumentCaptor<SqlParameterSource[]> captor = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        recorder.record(3L, "PIS", 1000.0, 1.65, 16.5, 9L, 4);
+
+        // Act
+        recorder.start();
+        recorder.shutdown();
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(eq(CalculationHistoryRecorder.INSERT_SQL), captor.capture());
+        SqlParameterSource row = captor.getValue()[0];
+        Matcher names = Pattern.compile(":(\\w+)").matcher(CalculationHistoryRecorder.INSERT_SQL);
+        List<String> bound = new ArrayList<>();
+        while (names.find()) {
+            assertTrue(row.hasValue(names.group(1)), names.group(1));
+            bound.add(names.group(1));
+        }
+        assertEquals(8, bound.size());
+        assertEquals(List.of(3L, "PIS", 1000.0, 1.65, 16.5, 9L, 4), List.of(row.getValue("taxTypeId"),
+                row.getValue("taxTypeName"), row.getValue("baseValue"), row.getValue("rate"), row.getValue("taxValue"),
+                row.getValue("jobId"), row.getValue("itemIndex")));
+    }
+
+    @Test
+    @DisplayName("Deve fazer o job esperar espaço na fila cheia em vez de descartar o registro")
+    void shouldBlockJobRecordsInsteadOfDropping() throws Exception {
+        // Arrange: fila de 1 e gravação presa até a liberação
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            for (SqlParameterSource row : (SqlParameterSource[]) invocation.getArgument(1)) {
+                written.add(row.getValue("itemIndex"));
+            }
+            return new int[0];
+        });
+        CalculationHistoryRecorder recorder = new CalculationHistoryRecorder(
+                jdbcTemplate, transactionManager, meterRegistry, true, 1, 1, Duration.ofHours(1));
+        recorder.start();
+
+        // Act
+        Thread job = new Thread(() -> {
+            for (int i = 0; i < 4; i++) {
+                recorder.record(1L, "ICMS", 100.0, 18.0, 18.0, 7L, i);
+            }
+        });
+        job.start();
+        job.join(300);
+        boolean blocked = job.isAlive();
+        release.countDown();
+        job.join(5000);
+        recorder.shutdown();
+
+        // Assert
+        assertTrue(blocked);
+        assertEquals(List.of(0, 1, 2, 3), written);
+        assertEquals(0.0, meterRegistry.get("impostos.historico.descartados").counter().count());
+    }
+}
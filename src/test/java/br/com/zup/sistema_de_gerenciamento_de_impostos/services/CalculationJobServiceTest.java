@@ -0,0 +1,322 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.CalculationJobDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.CalculationJobResultPageDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationResponseDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJob;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.CalculationJobStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CalculationJobServiceTest {
+    @Mock
+    private TaxCalculationService taxCalculationService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InMemoryCalculationJobStore jobStore;
+
+    private CalculationJobService calculationJobService;
+
+    @BeforeEach
+    void setUp() {
+        jobStore = new InMemoryCalculationJobStore();
+        calculationJobService = new CalculationJobService(jobStore, taxCalculationService, objectMapper,
+                meterRegistry, 1, 1, 2, 100, "no-1", Duration.ofSeconds(30), Duration.ofSeconds(5));
+
+        // 18% sobre o valor base; tipo 999 inexistente
+        when(taxCalculationService.calculateItem(anyInt(), any(TaxCalculationRequestDto.class), anyLong())).thenAnswer(invocation -> {
+            int index = invocation.getArgument(0);
+            TaxCalculationRequestDto request = invocation.getArgument(1);
+            if (request.tipoImpostoId() == 999L) {
+                return new TaxCalculationBatchItemDto(index, null, "TipoImposto não encontrado com id: 999");
+            }
+            return new TaxCalculationBatchItemDto(index, new TaxCalculationResponseDto(
+                    "ICMS", request.valorBase(), 18.0, request.valorBase() * 0.18), null);
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        calculationJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve processar o job em segundo plano e disponibilizar os resultados paginados em ordem")
+    void shouldProcessJobAndPageResults() throws Exception {
+        // Arrange
+        List<TaxCalculationRequestDto> requests = List.of(
+                new TaxCalculationRequestDto(1L, 100.0),
+                new TaxCalculationRequestDto(999L, 100.0),
+                new TaxCalculationRequestDto(1L, 200.0),
+                new TaxCalculationRequestDto(1L, 300.0),
+                new TaxCalculationRequestDto(1L, 400.0));
+
+        // Act
+        CalculationJobDto submitted = calculationJobService.submit(requests);
+        CalculationJobDto finished = awaitFinished(submitted.id());
+        CalculationJobResultPageDto page = calculationJobService.findResults(submitted.id(), 1, 2);
+
+        // Assert
+        assertEquals("PENDING", submitted.status());
+        assertEquals("COMPLETED", finished.status());
+        assertEquals(5, finished.processados());
+        assertEquals(1, finished.erros());
+        assertEquals(List.of(2, 3), page.itens().stream().map(TaxCalculationBatchItemDto::indice).toList());
+        assertEquals(36.0, page.itens().get(0).resultado().valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve recusar novos jobs quando a fila do executor estiver cheia")
+    void shouldRejectJobsWhenQueueIsFull() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taxCalculationService.calculateItem(anyInt(), any(TaxCalculationRequestDto.class), anyLong())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new TaxCalculationBatchItemDto(invocation.getArgument(0), null, "erro");
+        });
+        List<TaxCalculationRequestDto> requests = List.of(new TaxCalculationRequestDto(1L, 100.0));
+
+        // Act
+        calculationJobService.submit(requests);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CalculationJobDto queued = calculationJobService.submit(requests);
+
+        // Assert
+        assertThrows(ServiceUnavailableException.class, () -> calculationJobService.submit(requests));
+        assertThrows(ResourceNotFoundException.class, () -> calculationJobService.findById(queued.id() + 1));
+        assertEquals(1.0, meterRegistry.get("impostos.jobs.rejeitados").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve assumir jobs com lease vencido de outro nó a partir do último bloco gravado")
+    void shouldResumeUnfinishedJobsFromLastChunk() throws Exception {
+        // Arrange
+        List<TaxCalculationRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(new TaxCalculationRequestDto(1L, 100.0 * (i + 1)));
+        }
+        Long jobId = createJob(requests, "no-anterior", LocalDateTime.now().minusMinutes(1));
+        jobStore.appendResults(jobId, "no-anterior", List.of(
+                new TaxCalculationBatchItemDto(0, null, "já calculado"),
+                new TaxCalculationBatchItemDto(1, null, "já calculado")), 2, 2);
+
+        // Act
+        calculationJobService.resumeUnfinished();
+        CalculationJobDto finished = awaitFinished(jobId);
+
+        // Assert
+        assertEquals("COMPLETED", finished.status());
+        assertEquals(2, finished.erros());
+        verify(taxCalculationService, never()).calculateItem(eq(0), any(), anyLong());
+        verify(taxCalculationService, never()).calculateItem(eq(1), any(), anyLong());
+        List<TaxCalculationBatchItemDto> items = calculationJobService.findResults(jobId, 0, 10).itens();
+        assertEquals(5, items.size());
+        assertEquals(90.0, items.get(4).resultado().valorImposto());
+    }
+
+    @Test
+    @DisplayName("Não deve assumir jobs cujo lease ainda está em dia")
+    void shouldNotClaimJobsWithLiveLease() throws Exception {
+        // Arrange
+        Long jobId = createJob(List.of(new TaxCalculationRequestDto(1L, 100.0)), "outro-no",
+                LocalDateTime.now().plusMinutes(1));
+
+        // Act
+        calculationJobService.resumeUnfinished();
+
+        // Assert
+        CalculationJob job = jobStore.findById(jobId).orElseThrow();
+        assertEquals(CalculationJobStatus.RUNNING, job.getStatus());
+        assertEquals("outro-no", job.getNodeId());
+        verify(taxCalculationService, never()).calculateItem(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve gravar resultados nem status de um nó que perdeu o lease para outro")
+    void shouldDiscardWritesFromStaleOwner() throws Exception {
+        // Arrange: o nó antigo trava no primeiro item com um lease curto, que vence sem renovação
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(taxCalculationService.calculateItem(anyInt(), any(TaxCalculationRequestDto.class), anyLong())).thenAnswer(invocation -> {
+            int index = invocation.getArgument(0);
+            if (first.compareAndSet(true, false)) {
+                started.countDown();
+                release.await();
+                return new TaxCalculationBatchItemDto(index, null, "nó antigo");
+            }
+            return new TaxCalculationBatchItemDto(index, null, "nó novo");
+        });
+        CalculationJobService staleNode = new CalculationJobService(jobStore, taxCalculationService, objectMapper,
+                new SimpleMeterRegistry(), 1, 1, 2, 100, "no-antigo", Duration.ofMillis(1), Duration.ofSeconds(5));
+        CalculationJobDto submitted = staleNode.submit(List.of(
+                new TaxCalculationRequestDto(1L, 100.0),
+                new TaxCalculationRequestDto(1L, 200.0)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(10);
+
+        // Act
+        calculationJobService.claimStale();
+        CalculationJobDto finished = awaitFinished(submitted.id());
+        release.countDown();
+        staleNode.shutdown();
+
+        // Assert
+        CalculationJob job = jobStore.findById(submitted.id()).orElseThrow();
+        assertEquals(CalculationJobStatus.COMPLETED, job.getStatus());
+        assertEquals("COMPLETED", finished.status());
+        assertTrue(job.getNodeId().startsWith("no-1-"));
+        List<TaxCalculationBatchItemDto> items = jobStore.findResults(submitted.id(), 0, 10);
+        assertEquals(2, items.size());
+        assertTrue(items.stream().allMatch(item -> "nó novo".equals(item.erro())));
+    }
+
+    @Test
+    @DisplayName("Deve terminar o bloco atual no desligamento e deixar o job pendente para retomada")
+    void shouldReleaseRunningJobOnShutdown() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taxCalculationService.calculateItem(anyInt(), any(TaxCalculationRequestDto.class), anyLong())).thenAnswer(invocation -> {
+            int index = invocation.getArgument(0);
+            if (index == 2) {
+                started.countDown();
+                release.await();
+            }
+            return new TaxCalculationBatchItemDto(index, null, "erro");
+        });
+        List<TaxCalculationRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            requests.add(new TaxCalculationRequestDto(1L, 100.0));
+        }
+        CalculationJobDto submitted = calculationJobService.submit(requests);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Thread stopper = new Thread(() -> {
+            try {
+                calculationJobService.shutdown();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+        Thread.sleep(50);
+        release.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Assert
+        CalculationJob job = jobStore.findById(submitted.id()).orElseThrow();
+        assertEquals(CalculationJobStatus.PENDING, job.getStatus());
+        assertEquals(4, job.getProcessedItems());
+        assertNull(job.getLeaseExpiresAt());
+        assertEquals(1, jobStore.findClaimable(LocalDateTime.now()).size());
+    }
+
+    @Test
+    @DisplayName("Deve marcar o job como falho com a mensagem de erro cortada no limite")
+    void shouldFailJobWithTruncatedMessage() throws Exception {
+        // Arrange
+        when(taxCalculationService.calculateItem(anyInt(), any(TaxCalculationRequestDto.class), anyLong()))
+                .thenThrow(new IllegalStateException("x".repeat(10_000)));
+
+        // Act
+        CalculationJobDto submitted = calculationJobService.submit(List.of(new TaxCalculationRequestDto(1L, 100.0)));
+        CalculationJobDto finished = awaitFinished(submitted.id());
+
+        // Assert
+        assertEquals("FAILED", finished.status());
+        assertEquals(4000, finished.erro().length());
+    }
+
+    @Test
+    @DisplayName("Deve escrever os resultados do job em NDJSON")
+    void shouldStreamResultsAsNdjson() throws Exception {
+        // Arrange
+        CalculationJobDto submitted = calculationJobService.submit(List.of(
+                new TaxCalculationRequestDto(1L, 100.0),
+                new TaxCalculationRequestDto(1L, 200.0),
+                new TaxCalculationRequestDto(1L, 300.0)));
+        awaitFinished(submitted.id());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long lines = calculationJobService.streamResults(submitted.id(), output);
+
+        // Assert
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines);
+        assertEquals(3, results.length);
+        assertEquals(2, objectMapper.readTree(results[2]).get("indice").asInt());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para páginas inválidas ou lote vazio")
+    void shouldValidatePageAndBatch() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> calculationJobService.submit(List.of()));
+        assertThrows(BadRequestException.class, () -> calculationJobService.findResults(1L, -1, 10));
+        assertThrows(BadRequestException.class, () -> calculationJobService.findResults(1L, 0, 101));
+        assertThrows(ResourceNotFoundException.class, () -> calculationJobService.findResults(42L, 0, 10));
+    }
+
+    private Long createJob(List<TaxCalculationRequestDto> requests, String nodeId, LocalDateTime leaseExpiresAt)
+            throws Exception {
+        CalculationJob job = new CalculationJob();
+        job.setStatus(CalculationJobStatus.RUNNING);
+        job.setNodeId(nodeId);
+        job.setLeaseExpiresAt(leaseExpiresAt);
+        job.setTotalItems(requests.size());
+        job.setPayload(objectMapper.writeValueAsString(requests));
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(LocalDateTime.now());
+        return jobStore.create(job).getId();
+    }
+
+    private CalculationJobDto awaitFinished(Long jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        CalculationJobDto job = calculationJobService.findById(jobId);
+        while (!CalculationJobStatus.valueOf(job.status()).isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = calculationJobService.findById(jobId);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentavosBulkKernelTest {
+
+    private static final double[] RATES = {18.0, 1.65, 7.6, 0.65, 27.5, 100.0, 0.000001, 250.0};
+
+    @Test
+    @DisplayName("Deve carregar o kernel SIMD com o módulo da Vector API configurado no surefire")
+    void shouldHaveVectorModuleAvailable() {
+        assertTrue(CentavosBulkKernel.VECTOR_AVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Deve produzir no modo VECTOR, bit a bit, o mesmo resultado do escalar em todos os arredondamentos")
+    void shouldMatchScalarForAllRoundingModes() {
+        Random random = new Random(42);
+        // Comprimentos com e sem cauda escalar, inclusive menores que um vetor
+        for (int length : new int[]{0, 1, 3, 7, 8, 9, 15, 16, 17, 63, 1000}) {
+            long[] bases = new long[length];
+            for (int i = 0; i < length; i++) {
+                bases[i] = switch (i % 4) {
+                    case 0 -> random.nextLong(1, 10_000_000);
+                    case 1 -> -random.nextLong(1, 10_000_000);
+                    // Empates: base * alíquota com resto de meio milhão
+                    case 2 -> 5 * random.nextLong(-1_000, 1_000);
+                    // Produtos perto do limite do long com a maior alíquota, onde a estimativa em double mais erra
+                    default -> random.nextLong(-Long.MAX_VALUE / 2_500_000, Long.MAX_VALUE / 2_500_000);
+                };
+            }
+            for (double rate : RATES) {
+                FlatRateTaxStrategy strategy = new FlatRateTaxStrategy(rate);
+                for (RoundingMode mode : RoundingMode.values()) {
+                    if (mode == RoundingMode.UNNECESSARY) {
+                        continue;
+                    }
+                    long[] expected = new long[length];
+                    for (int i = 0; i < length; i++) {
+                        expected[i] = strategy.calculateTaxCentavos(bases[i], mode);
+                    }
+                    long[] scalar = new long[length];
+                    long[] vector = new long[length];
+                    strategy.calculateTaxCentavos(bases, scalar, mode, BulkCalculationMode.SCALAR);
+                    strategy.calculateTaxCentavos(bases, vector, mode, BulkCalculationMode.VECTOR);
+
+                    String context = "alíquota " + rate + ", " + mode + ", " + length + " bases";
+                    assertArrayEquals(expected, scalar, context);
+                    assertArrayEquals(expected, vector, context);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve lançar no mesmo item do escalar quando base * alíquota estourar, mantendo os anteriores")
+    void shouldFailOnSameItemAsScalarWhenOverflowing() {
+        FlatRateTaxStrategy strategy = new FlatRateTaxStrategy(18.0);
+        long[] bases = new long[40];
+        Arrays.fill(bases, 100_000);
+        bases[21] = Long.MAX_VALUE / 1_000;
+        long[] scalar = new long[bases.length];
+        long[] vector = new long[bases.length];
+
+        assertThrows(ArithmeticException.class,
+                () -> strategy.calculateTaxCentavos(bases, scalar, RoundingMode.HALF_EVEN, BulkCalculationMode.SCALAR));
+        assertThrows(ArithmeticException.class,
+                () -> strategy.calculateTaxCentavos(bases, vector, RoundingMode.HALF_EVEN, BulkCalculationMode.VECTOR));
+        assertArrayEquals(scalar, vector);
+        assertEquals(18_000, vector[20]);
+        assertEquals(0, vector[22]);
+    }
+
+    @Test
+    @DisplayName("Deve usar o escalar com UNNECESSARY, lançando na primeira divisão inexata")
+    void shouldFallBackToScalarForUnnecessaryRounding() {
+        FlatRateTaxStrategy strategy = new FlatRateTaxStrategy(1.65);
+        long[] exact = {100, 200, 300, 400, 500, 600, 700, 800, 900};
+        long[] taxes = new long[exact.length];
+        long[] inexact = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        strategy.calculateTaxCentavos(new long[]{10_000}, taxes, RoundingMode.UNNECESSARY, BulkCalculationMode.VECTOR);
+        assertEquals(165, taxes[0]);
+        assertThrows(ArithmeticException.class, () -> strategy.calculateTaxCentavos(
+                inexact, taxes, RoundingMode.UNNECESSARY, BulkCalculationMode.VECTOR));
+        assertThrows(ArithmeticException.class, () -> strategy.calculateTaxCentavos(
+                exact, taxes, RoundingMode.UNNECESSARY, BulkCalculationMode.VECTOR));
+    }
+}
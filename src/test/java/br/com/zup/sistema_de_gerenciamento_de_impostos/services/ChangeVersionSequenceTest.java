@@ -0,0 +1,96 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.ChangeVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeVersionSequenceTest {
+    @Mock
+    private TaxTypeChangeNotifier notifier;
+
+    @Mock
+    private ChangeVersionRepository changeVersionRepository;
+
+    private ChangeVersionSequence versions;
+
+    private final List<String> actions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notifier.nodeId()).thenReturn("local");
+        versions = new ChangeVersionSequence("escopo", changeVersionRepository, notifier);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a versão seguinte, ignorar as já aplicadas e as do próprio nó")
+    void shouldApplyNextVersionOnly() {
+        // Arrange
+        when(changeVersionRepository.findById("escopo")).thenReturn(Optional.of(version(3)));
+        versions.resync(() -> actions.add("recarga"));
+
+        // Act
+        accept(4, "outro");
+        accept(4, "outro");
+        accept(3, "outro");
+        accept(5, "local");
+        accept(6, "outro");
+
+        // Assert
+        assertEquals(List.of("aplica 4", "aplica 6"), actions);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar tudo quando houver lacuna de versões ou o banco divergir no resync")
+    void shouldReloadOnGapOrDivergentVersion() {
+        // Arrange
+        when(changeVersionRepository.findById("escopo")).thenReturn(Optional.of(version(1)), Optional.of(version(9)));
+        versions.resync(() -> actions.add("recarga"));
+
+        // Act
+        accept(3, "outro");
+        versions.resync(() -> actions.add("recarga"));
+        accept(10, "outro");
+
+        // Assert
+        assertEquals(List.of("recarga 3", "recarga", "aplica 10"), actions);
+    }
+
+    @Test
+    @DisplayName("Deve seguir para a próxima notificação quando aplicar uma versão falhar")
+    void shouldKeepGoingWhenApplyFails() {
+        // Arrange
+        accept(1, "outro");
+
+        // Act
+        versions.accept(2, "outro", () -> {
+            throw new IllegalStateException("falha");
+        }, () -> actions.add("recarga 2"));
+        accept(3, "outro");
+
+        // Assert
+        assertEquals(List.of("aplica 1", "aplica 3"), actions);
+    }
+
+    private void accept(long version, String nodeId) {
+        versions.accept(version, nodeId, () -> actions.add("aplica " + version), () -> actions.add("recarga " + version));
+    }
+
+    private static ChangeVersion version(long value) {
+        ChangeVersion version = new ChangeVersion();
+        version.setVersion(value);
+        return version;
+    }
+}
@@ -0,0 +1,200 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TokenRevocationNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.UserChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.ChangeVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Role;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.User;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Mock
+    private TaxTypeChangeNotifier notifier;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(notifier.nodeId()).thenReturn("local");
+        userDetailsService = new CustomUserDetailsService(userRepository, changeVersionRepository, notifier, meterRegistry,
+                100, Duration.ofMinutes(1), "impostos_revogacoes");
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco apenas na primeira carga do usuário")
+    void shouldQueryRepositoryOnlyOnFirstLoad() {
+        // Arrange
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user("admin", Role.ADMIN)));
+
+        // Act
+        userDetailsService.loadUserByUsername("admin");
+        UserDetails result = userDetailsService.loadUserByUsername("admin");
+
+        // Assert
+        assertEquals("admin", result.getUsername());
+        assertEquals("ROLE_ADMIN", result.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(1)).findByUsername("admin");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "usersByUsername").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Deve devolver uma nova instância com a senha mesmo depois que a anterior foi apagada")
+    void shouldReturnFreshInstanceAfterCredentialsErased() {
+        // Arrange
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user("admin", Role.ADMIN)));
+        UserDetails first = userDetailsService.loadUserByUsername("admin");
+
+        // Act
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = userDetailsService.loadUserByUsername("admin");
+
+        // Assert
+        assertNull(first.getPassword());
+        assertEquals("hash", second.getPassword());
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco de novo depois que o usuário for alterado")
+    void shouldReloadAfterUserChanged() {
+        // Arrange
+        when(userRepository.findByUsername("admin"))
+                .thenReturn(Optional.of(user("admin", Role.ADMIN)))
+                .thenReturn(Optional.of(user("admin", Role.USER)));
+        userDetailsService.loadUserByUsername("admin");
+
+        // Act
+        userDetailsService.onUserChanged(new UserChangedEvent("admin"));
+        UserDetails result = userDetailsService.loadUserByUsername("admin");
+
+        // Assert
+        assertEquals("ROLE_USER", result.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("Deve descartar do cache o usuário alterado em outro nó")
+    void shouldEvictUserChangedOnAnotherNode() {
+        // Arrange
+        whenVersionIs(4L);
+        userDetailsService.resync();
+        when(userRepository.findByUsername("admin"))
+                .thenReturn(Optional.of(user("admin", Role.ADMIN)))
+                .thenReturn(Optional.of(user("admin", Role.USER)));
+        userDetailsService.loadUserByUsername("admin");
+
+        // Act
+        userDetailsService.handle(new TokenRevocationNotification("remoto", 5L, "admin").format());
+        UserDetails result = userDetailsService.loadUserByUsername("admin");
+
+        // Assert
+        assertEquals("ROLE_USER", result.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("Deve esvaziar o cache quando uma notificação de outro nó for perdida")
+    void shouldInvalidateAllWhenNotificationMissed() {
+        // Arrange
+        whenVersionIs(4L);
+        userDetailsService.resync();
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user("admin", Role.ADMIN)));
+        userDetailsService.loadUserByUsername("admin");
+
+        // Act
+        userDetailsService.handle(new TokenRevocationNotification("remoto", 7L, "maria").format());
+        userDetailsService.loadUserByUsername("admin");
+
+        // Assert
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("Não deve manter em cache usuário inexistente")
+    void shouldNotCacheMissingUser() {
+        // Arrange
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    @DisplayName("Deve regravar o hash da senha e descartar o usuário do cache")
+    void shouldUpdatePasswordHash() {
+        // Arrange
+        User stored = user("admin", Role.ADMIN);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(stored));
+        UserDetails loaded = userDetailsService.loadUserByUsername("admin");
+
+        // Act
+        UserDetails updated = userDetailsService.updatePassword(loaded, "novo-hash");
+        userDetailsService.loadUserByUsername("admin");
+
+        // Assert
+        assertEquals("novo-hash", updated.getPassword());
+        assertEquals("novo-hash", stored.getPassword());
+        verify(userRepository).save(stored);
+        verify(userRepository, times(3)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("Não deve falhar o login quando o banco recusar a regravação do hash")
+    void shouldKeepLoginWhenHashUpdateFails() {
+        // Arrange
+        when(userRepository.findByUsername("admin")).thenThrow(new DataAccessResourceFailureException("fora do ar"));
+        UserDetails user = org.springframework.security.core.userdetails.User.withUsername("admin")
+                .password("hash").roles("ADMIN").build();
+
+        // Act
+        UserDetails result = userDetailsService.updatePassword(user, "novo-hash");
+
+        // Assert
+        assertSame(user, result);
+    }
+
+    private User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("hash");
+        user.setRole(role);
+        return user;
+    }
+
+    private void whenVersionIs(long version) {
+        ChangeVersion changeVersion = new ChangeVersion();
+        changeVersion.setScope(TokenRevocationService.SCOPE);
+        changeVersion.setVersion(version);
+        when(changeVersionRepository.findById(TokenRevocationService.SCOPE)).thenReturn(Optional.of(changeVersion));
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseCircuitBreakerTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DatabaseCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new DatabaseCircuitBreaker(jdbcTemplate, meterRegistry, 3, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Deve abrir após falhas consecutivas e recusar chamadas sem executá-las")
+    void shouldOpenAfterConsecutiveFailures() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ServiceUnavailableException.class, () -> breaker.call(() -> {
+                calls.incrementAndGet();
+                throw new CannotCreateTransactionException("Connection is not available, request timed out");
+            }));
+        }
+        assertThrows(ServiceUnavailableException.class, () -> breaker.call(calls::incrementAndGet));
+
+        // Assert
+        assertTrue(breaker.isOpen());
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.get("impostos.banco.circuito.rejeicoes").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve zerar a contagem de falhas após um sucesso")
+    void shouldResetFailuresAfterSuccess() {
+        // Act
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ServiceUnavailableException.class, () -> breaker.call(() -> {
+                throw new DataAccessResourceFailureException("timeout");
+            }));
+        }
+        breaker.call(() -> 1);
+        assertThrows(ServiceUnavailableException.class, () -> breaker.call(() -> {
+            throw new DataAccessResourceFailureException("timeout");
+        }));
+
+        // Assert
+        assertFalse(breaker.isOpen());
+    }
+
+    @Test
+    @DisplayName("Deve fechar o circuito quando a sonda alcançar o banco")
+    void shouldCloseWhenProbeSucceeds() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(new DataAccessResourceFailureException("timeout"));
+        }
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class))
+                .thenThrow(new DataAccessResourceFailureException("timeout"))
+                .thenReturn(1);
+
+        // Act & Assert
+        assertFalse(breaker.probe());
+        assertTrue(breaker.isOpen());
+        assertTrue(breaker.probe());
+        assertFalse(breaker.isOpen());
+        assertEquals(42, breaker.call(() -> 42));
+    }
+}
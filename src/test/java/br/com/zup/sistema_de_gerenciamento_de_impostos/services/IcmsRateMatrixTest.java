@@ -0,0 +1,48 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IcmsRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcmsRateMatrixTest {
+
+    @Test
+    @DisplayName("Deve indexar as alíquotas por UF de origem e de destino")
+    void shouldIndexRatesByOriginAndDestination() {
+        IcmsRateMatrix matrix = IcmsRateMatrix.of(List.of(
+                rate(Uf.SP, Uf.SP, 18.0),
+                rate(Uf.SP, Uf.BA, 7.0),
+                rate(Uf.BA, Uf.SP, 12.0)));
+
+        assertEquals(3, matrix.size());
+        assertEquals(18.0, matrix.rate(Uf.SP, Uf.SP));
+        assertEquals(70_000, matrix.rateMicros(Uf.SP, Uf.BA));
+        assertEquals(12.0, matrix.rate(Uf.BA, Uf.SP));
+        assertTrue(matrix.contains(Uf.SP, Uf.BA));
+    }
+
+    @Test
+    @DisplayName("Pares não cadastrados devem ser distinguíveis de alíquota zero")
+    void shouldDistinguishMissingPairFromZeroRate() {
+        IcmsRateMatrix matrix = IcmsRateMatrix.of(List.of(rate(Uf.AM, Uf.AM, 0.0)));
+
+        assertEquals(0, matrix.rateMicros(Uf.AM, Uf.AM));
+        assertEquals(-1, matrix.rateMicros(Uf.AM, Uf.PA));
+        assertFalse(matrix.contains(Uf.TO, Uf.AC));
+        assertSame(IcmsRateMatrix.EMPTY, IcmsRateMatrix.of(List.of()));
+        assertEquals(-1, IcmsRateMatrix.EMPTY.rateMicros(Uf.SP, Uf.SP));
+    }
+
+    private static IcmsRate rate(Uf origin, Uf destination, Double value) {
+        IcmsRate icmsRate = new IcmsRate();
+        icmsRate.setOriginUf(origin);
+        icmsRate.setDestinationUf(destination);
+        icmsRate.setRate(value);
+        return icmsRate;
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.IcmsRateRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.IcmsRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IcmsRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.IcmsRateRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IcmsRateServiceTest {
+    @Mock
+    private IcmsRateRepository icmsRateRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private IcmsRateService icmsRateService;
+
+    @Test
+    @DisplayName("Deve substituir a matriz e publicar o evento de recarga")
+    void shouldReplaceMatrixAndPublishEvent() {
+        // Arrange
+        when(icmsRateRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<IcmsRate> saved = icmsRateService.replace(List.of(
+                new IcmsRateRequestDto(Uf.SP, Uf.SP, 18.0),
+                new IcmsRateRequestDto(Uf.SP, Uf.BA, 7.0)));
+
+        // Assert
+        assertEquals(2, saved.size());
+        assertEquals(Uf.BA, saved.get(1).getDestinationUf());
+        verify(icmsRateRepository).deleteAllInBatch();
+        verify(eventPublisher).publishEvent(new IcmsRatesChangedEvent());
+    }
+
+    @Test
+    @DisplayName("Deve recusar pares de UF repetidos")
+    void shouldRejectDuplicatePairs() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> icmsRateService.replace(List.of(
+                new IcmsRateRequestDto(Uf.SP, Uf.BA, 7.0),
+                new IcmsRateRequestDto(Uf.SP, Uf.BA, 12.0))));
+        verifyNoInteractions(icmsRateRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve recusar alíquotas fora do intervalo de 0 a 100")
+    void shouldRejectRatesOutOfRange() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> icmsRateService.replace(List.of(
+                new IcmsRateRequestDto(Uf.SP, Uf.SP, 100.0))));
+        verifyNoInteractions(icmsRateRepository, eventPublisher);
+    }
+}
@@ -0,0 +1,255 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.InvoiceResponseDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.FlatRateTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.InvoicePlan;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTrie;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.RegisteredTaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitMatcher;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateTimeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceCalculationServiceTest {
+    @Mock
+    private TaxCalculationStrategyRegistry strategyRegistry;
+
+    @Mock
+    private TaxBenefitTable taxBenefitTable;
+
+    @Mock
+    private NcmRateTable ncmRateTable;
+
+    @Mock
+    private CalculationHistoryRecorder historyRecorder;
+
+    private InvoiceCalculationService invoiceCalculationService;
+
+    private final RegisteredTaxType ipi = tax(1L, "IPI", 10.0, false, Set.of());
+
+    private final RegisteredTaxType icms = tax(2L, "ICMS", 18.0, false, Set.of(1L));
+
+    private final RegisteredTaxType pis = tax(3L, "PIS", 1.65, false, Set.of());
+
+    @BeforeEach
+    void setUp() {
+        invoiceCalculationService = new InvoiceCalculationService(strategyRegistry, taxBenefitTable, ncmRateTable,
+                historyRecorder, new SimpleMeterRegistry(), RoundingMode.HALF_EVEN, 100);
+        lenient().when(taxBenefitTable.current(anyLong())).thenReturn(TaxBenefitMatcher.EMPTY);
+        lenient().when(ncmRateTable.current(anyLong())).thenReturn(NcmRateTrie.EMPTY);
+    }
+
+    @Test
+    @DisplayName("Deve calcular os impostos de cada item e totalizar por imposto na ordem informada")
+    void shouldCalculateInvoiceTotals() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(ipi);
+        when(strategyRegistry.find(2L)).thenReturn(icms);
+        when(strategyRegistry.find(3L)).thenReturn(pis);
+
+        // Act
+        InvoiceResponseDto result = invoiceCalculationService.calculate(new InvoiceRequestDto(List.of(2L, 1L, 3L),
+                List.of(new InvoiceItemDto("Produto A", 1000.0), new InvoiceItemDto("Produto B", 500.0))));
+
+        // Assert
+        assertEquals(2, result.totalItens());
+        assertEquals(1500.0, result.valorItens());
+        assertEquals(List.of("ICMS", "IPI", "PIS"), result.impostos().stream().map(total -> total.tipoImposto()).toList());
+        assertEquals(297.0, result.impostos().get(0).valorImposto());
+        assertEquals(150.0, result.impostos().get(1).valorImposto());
+        assertEquals(24.75, result.impostos().get(2).valorImposto());
+        assertEquals(471.75, result.valorImpostos());
+        assertEquals(198.0, result.itens().get(0).impostos().get("ICMS"));
+        assertEquals(8.25, result.itens().get(1).impostos().get("PIS"));
+        verify(historyRecorder).record(2L, "ICMS", 1000.0, 18.0, 198.0);
+        verify(historyRecorder).record(3L, "PIS", 500.0, 1.65, 8.25);
+        verify(historyRecorder, times(6)).record(anyLong(), anyString(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o plano da mesma combinação de impostos, em qualquer ordem")
+    void shouldReusePlanForSameCombination() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(ipi);
+        when(strategyRegistry.find(2L)).thenReturn(icms);
+
+        // Act
+        InvoicePlan first = invoiceCalculationService.planFor(Set.of(1L, 2L), null);
+        InvoicePlan second = invoiceCalculationService.planFor(Set.of(2L, 1L), null);
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Deve recompilar o plano quando um dos tipos mudar no registro")
+    void shouldRecompilePlanWhenTaxTypeChanges() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(ipi);
+        when(strategyRegistry.find(2L)).thenReturn(icms);
+        InvoicePlan first = invoiceCalculationService.planFor(Set.of(1L, 2L), null);
+        RegisteredTaxType icmsUpdated = tax(2L, "ICMS", 20.0, false, Set.of(1L));
+        when(strategyRegistry.find(2L)).thenReturn(icmsUpdated);
+
+        // Act
+        InvoicePlan second = invoiceCalculationService.planFor(Set.of(1L, 2L), null);
+
+        // Assert
+        assertNotSame(first, second);
+        assertSame(icmsUpdated, second.taxAt(second.positionOf(2L)));
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException para tipo de imposto inexistente")
+    void shouldThrowWhenTaxTypeNotFound() {
+        // Arrange
+        when(strategyRegistry.find(9L)).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> invoiceCalculationService.calculate(
+                new InvoiceRequestDto(List.of(9L), List.of(new InvoiceItemDto("Produto", 10.0)))));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para item sem valor positivo")
+    void shouldThrowWhenItemValueIsInvalid() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(ipi);
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> invoiceCalculationService.calculate(
+                new InvoiceRequestDto(List.of(1L), List.of(new InvoiceItemDto("A", 10.0), new InvoiceItemDto("B", 0.0)))));
+        assertTrue(exception.getMessage().contains("Item 1"));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException quando as bases formarem um ciclo")
+    void shouldThrowWhenBasesAreCircular() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(tax(1L, "A", 1.0, false, Set.of(2L)));
+        when(strategyRegistry.find(2L)).thenReturn(tax(2L, "B", 1.0, false, Set.of(1L)));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> invoiceCalculationService.calculate(
+                new InvoiceRequestDto(List.of(1L, 2L), List.of(new InvoiceItemDto("Produto", 10.0)))));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para id de tipo de imposto nulo")
+    void shouldThrowWhenTaxTypeIdIsNull() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> invoiceCalculationService.calculate(
+                new InvoiceRequestDto(Arrays.asList(1L, null), List.of(new InvoiceItemDto("Produto", 10.0)))));
+        assertTrue(exception.getMessage().contains("Tipo de imposto 1"));
+        verifyNoInteractions(strategyRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a alíquota vigente na data de referência em todos os itens")
+    void shouldApplyRateValidAtReferenceDate() {
+        // Arrange
+        TaxRateVersion old = new TaxRateVersion();
+        old.setRate(12.0);
+        old.setValidFrom(LocalDate.of(2020, 1, 1));
+        old.setValidTo(LocalDate.of(2022, 12, 31));
+        TaxRateVersion current = new TaxRateVersion();
+        current.setRate(18.0);
+        current.setValidFrom(LocalDate.of(2023, 1, 1));
+        RegisteredTaxType dated = new RegisteredTaxType(2L, "ICMS", 18.0, new FlatRateTaxStrategy(18.0),
+                TaxRateTimeline.of(List.of(old, current), FlatRateTaxStrategy::new));
+        when(strategyRegistry.find(2L)).thenReturn(dated);
+        List<InvoiceItemDto> items = List.of(new InvoiceItemDto("A", 100.0), new InvoiceItemDto("B", 200.0));
+
+        // Act
+        InvoiceResponseDto past = invoiceCalculationService.calculate(
+                new InvoiceRequestDto(List.of(2L), items, LocalDate.of(2021, 6, 1)));
+        InvoiceResponseDto today = invoiceCalculationService.calculate(new InvoiceRequestDto(List.of(2L), items));
+
+        // Assert
+        assertEquals(36.0, past.valorImpostos());
+        assertEquals(24.0, past.itens().get(1).impostos().get("ICMS"));
+        assertEquals(54.0, today.valorImpostos());
+        assertThrows(BadRequestException.class, () -> invoiceCalculationService.calculate(
+                new InvoiceRequestDto(List.of(2L), items, LocalDate.of(2019, 1, 1))));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar por item os benefícios e as regras por NCM, como no cálculo avulso")
+    void shouldApplyBenefitsAndNcmRulesPerItem() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(ipi);
+        when(strategyRegistry.find(2L)).thenReturn(icms);
+        when(taxBenefitTable.current(2L)).thenReturn(TaxBenefitMatcher.of(List.of(
+                benefit(1L, TaxBenefitType.EXEMPTION, null, 10, "8471", null),
+                benefit(2L, TaxBenefitType.BASE_REDUCTION, 40.0, 0, null, "5102"))));
+        NcmRate ipiNcm = new NcmRate();
+        ipiNcm.setNcmPrefix("8471");
+        ipiNcm.setRate(5.0);
+        when(ncmRateTable.current(1L)).thenReturn(NcmRateTrie.of(List.of(ipiNcm)));
+        List<InvoiceItemDto> items = List.of(
+                new InvoiceItemDto("Notebook", 1000.0, "8471.30.12", null),
+                new InvoiceItemDto("Revenda", 1000.0, null, "5102"),
+                new InvoiceItemDto("Outro", 1000.0));
+
+        // Act
+        InvoiceResponseDto result = invoiceCalculationService.calculate(new InvoiceRequestDto(List.of(1L, 2L), items));
+
+        // Assert: IPI de 5% pelo NCM e ICMS isento; ICMS com base (1000 + 100) reduzida em 40%; cálculo padrão
+        assertEquals(50.0, result.itens().get(0).impostos().get("IPI"));
+        assertEquals(0.0, result.itens().get(0).impostos().get("ICMS"));
+        assertEquals(100.0, result.itens().get(1).impostos().get("IPI"));
+        assertEquals(118.8, result.itens().get(1).impostos().get("ICMS"));
+        assertEquals(198.0, result.itens().get(2).impostos().get("ICMS"));
+        verify(historyRecorder).record(1L, "IPI", 1000.0, 5.0, 50.0);
+        verify(historyRecorder).record(2L, "ICMS", 1000.0, 0.0, 0.0);
+        verify(historyRecorder).record(2L, "ICMS", 1000.0, 18.0, 118.8);
+        clearInvocations(historyRecorder);
+        assertThrows(BadRequestException.class, () -> invoiceCalculationService.calculate(
+                new InvoiceRequestDto(List.of(1L, 2L), items, LocalDate.of(2021, 6, 1))));
+        verifyNoInteractions(historyRecorder);
+    }
+
+    private static TaxBenefitRule benefit(Long id, TaxBenefitType type, Double reduction, int priority, String ncm,
+                                          String cfop) {
+        TaxBenefitRule rule = new TaxBenefitRule();
+        rule.setId(id);
+        rule.setBenefitType(type);
+        rule.setBaseReduction(reduction);
+        rule.setPriority(priority);
+        rule.setDescription(type.name());
+        rule.setNcmPrefix(ncm);
+        rule.setCfop(cfop);
+        return rule;
+    }
+
+    private static RegisteredTaxType tax(Long id, String name, double rate, boolean inclusive, Set<Long> includes) {
+        return new RegisteredTaxType(id, name, rate, new FlatRateTaxStrategy(rate)).withBaseComposition(inclusive, includes);
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvoicePlanTest {
+
+    private final RegisteredTaxType ipi = tax(1L, "IPI", 10.0, false, Set.of());
+
+    @Test
+    @DisplayName("Deve calcular as dependências antes dos impostos cuja base as inclui")
+    void shouldOrderDependenciesFirst() {
+        // ICMS informado antes do IPI, mas com o IPI na base
+        RegisteredTaxType icms = tax(2L, "ICMS", 18.0, false, Set.of(1L));
+        InvoicePlan plan = InvoicePlan.compile(List.of(icms, ipi));
+        long[] taxes = new long[2];
+
+        plan.execute(new long[]{100_000}, taxes, RoundingMode.HALF_EVEN);
+
+        assertTrue(plan.positionOf(1L) < plan.positionOf(2L));
+        assertEquals(10_000, taxes[plan.positionOf(1L)]);
+        assertEquals(19_800, taxes[plan.positionOf(2L)]);
+    }
+
+    @Test
+    @DisplayName("Deve calcular o imposto por dentro sobre a base bruta")
+    void shouldGrossUpInclusiveBase() {
+        RegisteredTaxType icms = tax(2L, "ICMS", 18.0, true, Set.of());
+        InvoicePlan plan = InvoicePlan.compile(List.of(icms));
+        long[] taxes = new long[1];
+
+        plan.execute(new long[]{100_000}, taxes, RoundingMode.HALF_EVEN);
+
+        // 1000 / 0,82 = 1219,51; 18% = 219,51
+        assertEquals(21_951, taxes[0]);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar dependências de impostos que não estão na nota")
+    void shouldIgnoreDependenciesOutsideInvoice() {
+        RegisteredTaxType icms = tax(2L, "ICMS", 18.0, false, Set.of(1L));
+        long[] taxes = new long[1];
+
+        InvoicePlan.compile(List.of(icms)).execute(new long[]{100_000}, taxes, RoundingMode.HALF_EVEN);
+
+        assertEquals(18_000, taxes[0]);
+    }
+
+    @Test
+    @DisplayName("Deve calcular várias linhas em sequência no mesmo array")
+    void shouldExecuteManyLines() {
+        RegisteredTaxType icms = tax(2L, "ICMS", 18.0, false, Set.of(1L));
+        InvoicePlan plan = InvoicePlan.compile(List.of(ipi, icms));
+        long[] taxes = new long[6];
+
+        plan.execute(new long[]{100_000, 50_000, 1}, taxes, RoundingMode.HALF_EVEN);
+
+        assertArrayEquals(new long[]{10_000, 19_800, 5_000, 9_900, 0, 0}, taxes);
+    }
+
+    @Test
+    @DisplayName("Deve recusar dependências circulares")
+    void shouldRejectCycles() {
+        RegisteredTaxType a = tax(1L, "A", 1.0, false, Set.of(2L));
+        RegisteredTaxType b = tax(2L, "B", 1.0, false, Set.of(3L));
+        RegisteredTaxType c = tax(3L, "C", 1.0, false, Set.of(1L));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> InvoicePlan.compile(List.of(a, b, c, tax(4L, "IPI", 10.0, false, Set.of()))));
+        assertTrue(exception.getMessage().contains("circular"));
+        assertFalse(exception.getMessage().contains("IPI"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar data de referência para tabela progressiva, que não tem vigências")
+    void shouldRejectReferenceDateForBrackets() {
+        BracketTaxStrategy brackets = new BracketTaxStrategy(
+                new double[]{0, 2259.21}, new double[]{0, 7.5}, new double[]{0, 169.44});
+        RegisteredTaxType irpf = new RegisteredTaxType(4L, "IRPF", 7.5, brackets);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> InvoicePlan.compile(List.of(irpf), LocalDate.of(2021, 1, 1)));
+        assertTrue(exception.getMessage().contains("IRPF"));
+        assertEquals(1, InvoicePlan.compile(List.of(irpf), null).size());
+    }
+
+    @Test
+    @DisplayName("Deve usar a vigência de hoje sem data de referência e recusar data para tipo sem vigências")
+    void shouldResolveVersionsAgainstToday() {
+        TaxRateVersion old = version(8.0, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31));
+        TaxRateVersion current = version(12.0, LocalDate.of(2023, 1, 1), null);
+        RegisteredTaxType versioned = new RegisteredTaxType(2L, "ICMS", 18.0, new FlatRateTaxStrategy(18.0),
+                TaxRateTimeline.of(List.of(old, current), FlatRateTaxStrategy::new));
+        long[] taxes = new long[1];
+
+        InvoicePlan.compile(List.of(versioned), null, LocalDate.of(2024, 6, 1))
+                .execute(new long[]{100_000}, taxes, RoundingMode.HALF_EVEN);
+        assertEquals(12_000, taxes[0]);
+        InvoicePlan.compile(List.of(versioned), null, LocalDate.of(2021, 6, 1))
+                .execute(new long[]{100_000}, taxes, RoundingMode.HALF_EVEN);
+        assertEquals(8_000, taxes[0]);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> InvoicePlan.compile(List.of(versioned, ipi), LocalDate.of(2021, 1, 1)));
+        assertTrue(exception.getMessage().contains("IPI"));
+    }
+
+    private static RegisteredTaxType tax(Long id, String name, double rate, boolean inclusive, Set<Long> includes) {
+        return new RegisteredTaxType(id, name, rate, new FlatRateTaxStrategy(rate)).withBaseComposition(inclusive, includes);
+    }
+
+    private static TaxRateVersion version(double rate, LocalDate from, LocalDate to) {
+        TaxRateVersion version = new TaxRateVersion();
+        version.setTaxTypeId(2L);
+        version.setRate(rate);
+        version.setValidFrom(from);
+        version.setValidTo(to);
+        return version;
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSnapshotStoreTest {
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("Deve gravar a cópia a cada carga do banco e usá-la na subida com o banco fora")
+    void shouldRestoreLastLoadOnColdStart() {
+        // Arrange
+        LocalSnapshotStore store = new LocalSnapshotStore(objectMapper, directory.toString());
+        store.loadList(LocalSnapshotStore.NCM_RATES, NcmRate.class, () -> List.of(ncmRate(1L, "8471", 15.0)), true);
+
+        // Act
+        List<NcmRate> restored = store.loadList(LocalSnapshotStore.NCM_RATES, NcmRate.class, () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }, true);
+
+        // Assert
+        assertEquals(1, restored.size());
+        assertEquals("8471", restored.get(0).getNcmPrefix());
+        assertEquals(15.0, restored.get(0).getRate());
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha do banco fora da subida ou sem cópia em disco")
+    void shouldPropagateFailureOutsideColdStart() {
+        // Arrange
+        LocalSnapshotStore store = new LocalSnapshotStore(objectMapper, directory.toString());
+        store.save(LocalSnapshotStore.NCM_RATES, List.of(ncmRate(1L, "8471", 15.0)));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> store.loadList(
+                LocalSnapshotStore.NCM_RATES, NcmRate.class, () -> {
+                    throw new DataAccessResourceFailureException("sem conexão");
+                }, false));
+        assertThrows(DataAccessResourceFailureException.class, () -> store.loadList(
+                LocalSnapshotStore.BENEFIT_RULES, NcmRate.class, () -> {
+                    throw new DataAccessResourceFailureException("sem conexão");
+                }, true));
+    }
+
+    @Test
+    @DisplayName("Deve gravar em segundo plano, com a última alteração agendada prevalecendo")
+    void shouldSaveInBackground() throws Exception {
+        // Arrange
+        LocalSnapshotStore store = new LocalSnapshotStore(objectMapper, directory.toString());
+        AtomicInteger reads = new AtomicInteger();
+
+        // Act
+        store.saveInBackground(LocalSnapshotStore.NCM_RATES, () -> {
+            reads.incrementAndGet();
+            return List.of(ncmRate(1L, "8471", 15.0));
+        });
+        store.saveInBackground(LocalSnapshotStore.NCM_RATES, () -> {
+            reads.incrementAndGet();
+            return List.of(ncmRate(1L, "8471", 12.0));
+        });
+        store.shutdown();
+
+        // Assert
+        List<NcmRate> restored = store.loadList(LocalSnapshotStore.NCM_RATES, NcmRate.class, () -> {
+            throw new DataAccessResourceFailureException("sem conexão");
+        }, true);
+        assertEquals(12.0, restored.get(0).getRate());
+        assertTrue(reads.get() <= 2);
+    }
+
+    private NcmRate ncmRate(Long taxTypeId, String prefix, Double rate) {
+        NcmRate ncmRate = new NcmRate();
+        ncmRate.setTaxTypeId(taxTypeId);
+        ncmRate.setNcmPrefix(prefix);
+        ncmRate.setRate(rate);
+        return ncmRate;
+    }
+}
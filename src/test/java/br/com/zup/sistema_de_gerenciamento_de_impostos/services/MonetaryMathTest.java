@@ -0,0 +1,90 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonetaryMathTest {
+
+    @Test
+    @DisplayName("Deve converter alíquotas percentuais para milionésimos sem perda")
+    void shouldConvertRatesToMicros() {
+        assertEquals(180_000, MonetaryMath.toRateMicros(18.0));
+        assertEquals(16_500, MonetaryMath.toRateMicros(1.65));
+        assertEquals(76_000, MonetaryMath.toRateMicros(7.6));
+    }
+
+    @Test
+    @DisplayName("Deve arredondar empates conforme o modo informado")
+    void shouldRoundTiesAccordingToMode() {
+        // 0,25 centavo: 25 / 100
+        assertEquals(0, MonetaryMath.divide(50, 100, RoundingMode.HALF_EVEN));
+        assertEquals(2, MonetaryMath.divide(150, 100, RoundingMode.HALF_EVEN));
+        assertEquals(1, MonetaryMath.divide(50, 100, RoundingMode.HALF_UP));
+        assertEquals(0, MonetaryMath.divide(50, 100, RoundingMode.HALF_DOWN));
+        assertEquals(-1, MonetaryMath.divide(-50, 100, RoundingMode.HALF_UP));
+        assertEquals(-1, MonetaryMath.divide(-1, 100, RoundingMode.FLOOR));
+        assertEquals(0, MonetaryMath.divide(-1, 100, RoundingMode.CEILING));
+        assertThrows(ArithmeticException.class, () -> MonetaryMath.divide(1, 100, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo resultado que BigDecimal em todos os modos de arredondamento")
+    void shouldMatchBigDecimalForAllRoundingModes() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long dividend = random.nextLong() >> 8;
+            long divisor = random.nextInt(1, 1_000_001) * (random.nextBoolean() ? 1L : -1L);
+            for (RoundingMode mode : RoundingMode.values()) {
+                if (mode == RoundingMode.UNNECESSARY) {
+                    continue;
+                }
+                long expected = BigDecimal.valueOf(dividend)
+                        .divide(BigDecimal.valueOf(divisor), 0, mode)
+                        .longValueExact();
+                assertEquals(expected, MonetaryMath.divide(dividend, divisor, mode), dividend + "/" + divisor + " " + mode);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve calcular o imposto em centavos com arredondamento explícito")
+    void shouldCalculateTaxInCentavos() {
+        TaxCalculationStrategy icms = new IcmsTaxStrategy();
+
+        assertEquals(18_000, icms.calculateTaxCentavos(100_000, RoundingMode.HALF_EVEN));
+        // 18% de R$ 333,33 = 59,9994 -> R$ 60,00
+        assertEquals(6_000, icms.calculateTaxCentavos(33_333, RoundingMode.HALF_EVEN));
+        assertEquals(5_999, icms.calculateTaxCentavos(33_333, RoundingMode.DOWN));
+    }
+
+    @Test
+    @DisplayName("Deve calcular um lote em arrays primitivos com o mesmo resultado do cálculo unitário")
+    void shouldCalculateBatchOverPrimitiveArrays() {
+        TaxCalculationStrategy pis = new PisTaxStrategy();
+        long[] bases = {100_000, 33_333, 1, 999_999_999};
+        long[] taxes = new long[bases.length];
+
+        pis.calculateTaxCentavos(bases, taxes, RoundingMode.HALF_UP);
+
+        for (int i = 0; i < bases.length; i++) {
+            assertEquals(pis.calculateTaxCentavos(bases[i], RoundingMode.HALF_UP), taxes[i]);
+        }
+        assertEquals(1_650, taxes[0]);
+    }
+
+    @Test
+    @DisplayName("Deve usar o cálculo em double como fallback para estratégias sem implementação em centavos")
+    void shouldFallBackToDoubleForCustomStrategies() {
+        TaxCalculationStrategy custom = value -> value * 0.125;
+
+        assertEquals(1_250, custom.calculateTaxCentavos(10_000, RoundingMode.HALF_EVEN));
+        assertEquals(12, custom.calculateTaxCentavos(100, RoundingMode.HALF_EVEN));
+        assertEquals(13, custom.calculateTaxCentavos(100, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MunicipalIssIndexTest {
+
+    @Test
+    @DisplayName("Deve encontrar a alíquota do município por busca binária no código IBGE")
+    void shouldFindRateByIbgeCode() {
+        MunicipalIssIndex index = MunicipalIssIndex.of(List.of(
+                municipality(3550308, Uf.SP, 2.9),
+                municipality(3304557, Uf.RJ, 5.0),
+                municipality(2927408, Uf.BA, 3.0)));
+
+        int position = index.indexOf(3550308);
+
+        assertEquals(3, index.size());
+        assertEquals(2.9, index.rateAt(position));
+        assertEquals(29_000, index.rateMicrosAt(position));
+        assertEquals(5.0, index.rateAt(index.indexOf(3304557)));
+    }
+
+    @Test
+    @DisplayName("Deve devolver -1 para município não cadastrado")
+    void shouldReturnMinusOneForUnknownCode() {
+        MunicipalIssIndex index = MunicipalIssIndex.of(List.of(municipality(3550308, Uf.SP, 2.9)));
+
+        assertEquals(-1, index.indexOf(3304557));
+        assertEquals(-1, index.indexOf(9999999));
+        assertEquals(-1, MunicipalIssIndex.EMPTY.indexOf(3550308));
+    }
+
+    @Test
+    @DisplayName("Deve recusar código IBGE repetido")
+    void shouldRejectDuplicateCodes() {
+        assertThrows(IllegalArgumentException.class, () -> MunicipalIssIndex.of(List.of(
+                municipality(3550308, Uf.SP, 2.9), municipality(3550308, Uf.SP, 5.0))));
+    }
+
+    @Test
+    @DisplayName("Deve calcular o ISS com a alíquota do município")
+    void shouldCalculateIssWithMunicipalRate() {
+        MunicipalIssIndex index = MunicipalIssIndex.of(List.of(municipality(3550308, Uf.SP, 2.9)));
+
+        long tax = index.calculateTaxCentavos(index.indexOf(3550308), 100_000, RoundingMode.HALF_EVEN);
+
+        assertEquals(2_900, tax);
+    }
+
+    private MunicipalIssRate municipality(int ibgeCode, Uf uf, double rate) {
+        MunicipalIssRate municipalRate = new MunicipalIssRate();
+        municipalRate.setIbgeCode(ibgeCode);
+        municipalRate.setName("Município " + ibgeCode);
+        municipalRate.setUf(uf);
+        municipalRate.setRate(rate);
+        return municipalRate;
+    }
+}
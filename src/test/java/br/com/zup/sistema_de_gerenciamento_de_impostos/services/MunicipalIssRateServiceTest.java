@@ -0,0 +1,108 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.MunicipalIssImportResultDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.MunicipalIssRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.MunicipalIssRateRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MunicipalIssRateServiceTest {
+    @Mock
+    private MunicipalIssRateRepository municipalIssRateRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private MunicipalIssRateService municipalIssRateService;
+
+    @Test
+    @DisplayName("Deve importar o CSV, substituir a tabela e publicar o evento de recarga")
+    @SuppressWarnings("unchecked")
+    void shouldImportCsvAndPublishEvent() throws Exception {
+        // Arrange
+        String csv = """
+                codigo_ibge;municipio;uf;aliquota
+                3550308;São Paulo;SP;2,9
+                3304557;Rio de Janeiro;rj;5.0
+
+                """;
+
+        // Act
+        MunicipalIssImportResultDto result = municipalIssRateService.importCsv(csv(csv));
+
+        // Assert
+        ArgumentCaptor<List<MunicipalIssRate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(municipalIssRateRepository).deleteAllInBatch();
+        verify(municipalIssRateRepository).saveAll(saved.capture());
+        verify(eventPublisher).publishEvent(new MunicipalIssRatesChangedEvent());
+        assertEquals(2, result.municipiosImportados());
+        assertEquals(2.9, saved.getValue().get(0).getRate());
+        assertEquals(Uf.RJ, saved.getValue().get(1).getUf());
+    }
+
+    @Test
+    @DisplayName("Deve recusar o CSV inteiro informando a linha inválida")
+    void shouldRejectInvalidLines() {
+        // Act & Assert
+        BadRequestException code = assertThrows(BadRequestException.class,
+                () -> municipalIssRateService.importCsv(csv("3550308;São Paulo;SP;2.9\n355030;Outro;SP;3\n")));
+        assertTrue(code.getMessage().startsWith("Linha 2"));
+        assertThrows(BadRequestException.class,
+                () -> municipalIssRateService.importCsv(csv("3550308;São Paulo;XX;2.9\n")));
+        assertThrows(BadRequestException.class,
+                () -> municipalIssRateService.importCsv(csv("3550308;São Paulo;SP;100\n")));
+        assertThrows(BadRequestException.class,
+                () -> municipalIssRateService.importCsv(csv("3550308;São Paulo;SP\n")));
+        assertThrows(BadRequestException.class,
+                () -> municipalIssRateService.importCsv(csv("codigo_ibge;municipio;uf;aliquota\n")));
+        verifyNoInteractions(municipalIssRateRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve recusar município repetido no CSV")
+    void shouldRejectDuplicateMunicipality() {
+        // Act & Assert
+        BadRequestException duplicate = assertThrows(BadRequestException.class, () -> municipalIssRateService.importCsv(
+                csv("3550308;São Paulo;SP;2.9\n3550308;São Paulo;SP;5\n")));
+        assertTrue(duplicate.getMessage().contains("repetido"));
+        verifyNoInteractions(municipalIssRateRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve importar a primeira linha de um CSV sem cabeçalho salvo com BOM")
+    @SuppressWarnings("unchecked")
+    void shouldImportFirstLineAfterBom() throws Exception {
+        // Act
+        MunicipalIssImportResultDto result = municipalIssRateService.importCsv(
+                csv("\uFEFF3550308;São Paulo;SP;2.9\n3304557;Rio de Janeiro;RJ;5\n"));
+
+        // Assert
+        ArgumentCaptor<List<MunicipalIssRate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(municipalIssRateRepository).saveAll(saved.capture());
+        assertEquals(2, result.municipiosImportados());
+        assertEquals(3550308, saved.getValue().get(0).getIbgeCode());
+    }
+
+    private InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.NcmRateRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.NcmRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxCalculationType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.NcmRateRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NcmRateServiceTest {
+    @Mock
+    private NcmRateRepository ncmRateRepository;
+
+    @Mock
+    private TaxTypeRepository taxTypeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private NcmRateService ncmRateService;
+
+    @Test
+    @DisplayName("Deve substituir as regras por NCM, normalizando os códigos, e publicar o evento de recarga")
+    void shouldReplaceRulesAndPublishEvent() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(taxType(TaxCalculationType.FLAT)));
+        when(ncmRateRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<NcmRate> saved = ncmRateService.replace(1L, List.of(
+                new NcmRateRequestDto("84", 10.0),
+                new NcmRateRequestDto("8471.30", 4.0),
+                new NcmRateRequestDto("2402.20.00", 300.0)));
+
+        // Assert
+        assertEquals(3, saved.size());
+        assertEquals("847130", saved.get(1).getNcmPrefix());
+        assertEquals(1L, saved.get(2).getTaxTypeId());
+        verify(ncmRateRepository).deleteByTaxTypeId(1L);
+        verify(eventPublisher).publishEvent(new NcmRatesChangedEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve recusar NCM inválido ou repetido")
+    void shouldRejectInvalidOrDuplicateNcm() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(taxType(TaxCalculationType.FLAT)));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> ncmRateService.replace(1L, List.of(
+                new NcmRateRequestDto("8", 10.0))));
+        assertThrows(BadRequestException.class, () -> ncmRateService.replace(1L, List.of(
+                new NcmRateRequestDto("8471-30", 10.0))));
+        assertThrows(BadRequestException.class, () -> ncmRateService.replace(1L, List.of(
+                new NcmRateRequestDto("8471", 10.0), new NcmRateRequestDto("84.71", 12.0))));
+        verifyNoInteractions(ncmRateRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve recusar regras por NCM em tipos calculados por tabela progressiva ou fórmula")
+    void shouldRejectNonFlatTaxTypes() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(taxType(TaxCalculationType.BRACKETS)));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> ncmRateService.replace(1L, List.of(
+                new NcmRateRequestDto("8471", 10.0))));
+        verifyNoInteractions(ncmRateRepository);
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException para tipo de imposto inexistente")
+    void shouldThrowWhenTaxTypeNotFound() {
+        // Arrange
+        when(taxTypeRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> ncmRateService.delete(99L));
+        verifyNoInteractions(ncmRateRepository, eventPublisher);
+    }
+
+    private TaxType taxType(TaxCalculationType calculationType) {
+        TaxType taxType = new TaxType();
+        taxType.setId(1L);
+        taxType.setName("IPI");
+        taxType.setRate(10.0);
+        taxType.setCalculationType(calculationType);
+        return taxType;
+    }
+}
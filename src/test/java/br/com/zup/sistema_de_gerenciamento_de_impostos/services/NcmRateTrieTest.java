@@ -0,0 +1,74 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NcmRateTrieTest {
+
+    @Test
+    @DisplayName("Deve resolver a regra de prefixo mais longo")
+    void shouldResolveLongestPrefix() {
+        NcmRateTrie trie = NcmRateTrie.of(List.of(
+                rule("84", 10.0),
+                rule("8471", 15.0),
+                rule("84713012", 0.0),
+                rule("847130", 4.0)));
+
+        assertEquals(4, trie.size());
+        assertEquals(0.0, trie.rateAt(trie.longestMatch("84713012")));
+        assertEquals(4.0, trie.rateAt(trie.longestMatch("84713019")));
+        assertEquals(15.0, trie.rateAt(trie.longestMatch("84714100")));
+        assertEquals(10.0, trie.rateAt(trie.longestMatch("84159010")));
+        assertEquals(40_000, trie.rateMicrosAt(trie.longestMatch("84713019")));
+    }
+
+    @Test
+    @DisplayName("Deve devolver -1 quando nenhum prefixo casar")
+    void shouldReturnMinusOneWithoutMatch() {
+        NcmRateTrie trie = NcmRateTrie.of(List.of(rule("8471", 15.0)));
+
+        assertEquals(-1, trie.longestMatch("84159010"));
+        assertEquals(-1, trie.longestMatch("22030000"));
+        assertEquals(-1, NcmRateTrie.EMPTY.longestMatch("84713012"));
+    }
+
+    @Test
+    @DisplayName("Deve normalizar códigos com pontos e recusar outros caracteres")
+    void shouldNormalizeDottedCodes() {
+        assertEquals("84713012", NcmRateTrie.normalize("8471.30.12"));
+        assertNull(NcmRateTrie.normalize("8471-30-12"));
+        assertNull(NcmRateTrie.normalize(null));
+    }
+
+    @Test
+    @DisplayName("Deve recusar prefixos repetidos ou inválidos")
+    void shouldRejectDuplicateOrInvalidPrefixes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> NcmRateTrie.of(List.of(rule("8471", 15.0), rule("84.71", 10.0))));
+        assertThrows(IllegalArgumentException.class, () -> NcmRateTrie.of(List.of(rule("8", 15.0))));
+        assertThrows(IllegalArgumentException.class, () -> NcmRateTrie.of(List.of(rule("847130120", 15.0))));
+    }
+
+    @Test
+    @DisplayName("Deve calcular com a alíquota da regra por NCM")
+    void shouldCalculateWithNcmRate() {
+        NcmRateTrie trie = NcmRateTrie.of(List.of(rule("2402", 300.0)));
+
+        long tax = trie.calculateTaxCentavos(trie.longestMatch("24022000"), 10_000, RoundingMode.HALF_EVEN);
+
+        assertEquals(30_000, tax);
+    }
+
+    private NcmRate rule(String prefix, double rate) {
+        NcmRate ncmRate = new NcmRate();
+        ncmRate.setNcmPrefix(prefix);
+        ncmRate.setRate(rate);
+        return ncmRate;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.IcmsRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.NcmRatesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.ReferenceTableChangeNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.ChangeVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IcmsRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MunicipalIssTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceTableChangeSyncTest {
+    @Mock
+    private TaxTypeChangeNotifier notifier;
+
+    @Mock
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Mock
+    private NcmRateTable ncmRateTable;
+
+    @Mock
+    private TaxBenefitTable taxBenefitTable;
+
+    @Mock
+    private IcmsRateTable icmsRateTable;
+
+    @Mock
+    private MunicipalIssTable municipalIssTable;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReferenceTableChangeSync sync;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notifier.nodeId()).thenReturn("local");
+        sync = new ReferenceTableChangeSync(notifier, changeVersionRepository, ncmRateTable, taxBenefitTable,
+                icmsRateTable, municipalIssTable, meterRegistry, "impostos_tabelas");
+    }
+
+    @Test
+    @DisplayName("Deve emitir o NOTIFY com a tabela e o tipo alterados, na transação da alteração")
+    void shouldNotifyTableChange() {
+        // Arrange
+        when(notifier.isEnabled()).thenReturn(true);
+        when(notifier.nextVersion(ReferenceTableChangeSync.SCOPE)).thenReturn(3L, 4L);
+
+        // Act
+        sync.onNcmRatesChanged(new NcmRatesChangedEvent(2L));
+        sync.onIcmsRatesChanged(new IcmsRatesChangedEvent());
+
+        // Assert
+        verify(notifier).notify("impostos_tabelas", "local;3;ncm;2");
+        verify(notifier).notify("impostos_tabelas", "local;4;icms;-");
+    }
+
+    @Test
+    @DisplayName("Deve recarregar só a tabela alterada por outro nó")
+    void shouldApplyChangeFromAnotherNode() {
+        // Arrange
+        whenVersionIs(4L);
+        sync.resync();
+
+        // Act
+        sync.handle(new ReferenceTableChangeNotification("remoto", 5L, LocalSnapshotStore.NCM_RATES, 2L).format());
+        sync.handle(new ReferenceTableChangeNotification("remoto", 6L, LocalSnapshotStore.BENEFIT_RULES, 3L).format());
+        sync.handle(new ReferenceTableChangeNotification("remoto", 7L, LocalSnapshotStore.MUNICIPAL_ISS_RATES, null).format());
+
+        // Assert
+        verify(ncmRateTable).reload(2L);
+        verify(taxBenefitTable).reload(3L);
+        verify(municipalIssTable).reload();
+        verifyNoInteractions(icmsRateTable);
+        assertEquals(3.0, meterRegistry.get("impostos.cluster.tabelas.notificacoes").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar as notificações emitidas pelo próprio nó")
+    void shouldIgnoreOwnNotifications() {
+        // Arrange
+        whenVersionIs(4L);
+        sync.resync();
+
+        // Act
+        sync.handle(new ReferenceTableChangeNotification("local", 5L, LocalSnapshotStore.ICMS_RATES, null).format());
+
+        // Assert
+        verifyNoInteractions(ncmRateTable, taxBenefitTable, icmsRateTable, municipalIssTable);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar todas as tabelas quando uma versão for pulada ou o polling achar outra versão")
+    void shouldReloadAllWhenVersionIsMissed() {
+        // Arrange
+        whenVersionIs(4L);
+        sync.resync();
+
+        // Act
+        sync.handle(new ReferenceTableChangeNotification("remoto", 7L, LocalSnapshotStore.NCM_RATES, 2L).format());
+        whenVersionIs(9L);
+        sync.resync();
+
+        // Assert
+        verify(ncmRateTable, times(2)).reload();
+        verify(taxBenefitTable, times(2)).reload();
+        verify(icmsRateTable, times(2)).reload();
+        verify(municipalIssTable, times(2)).reload();
+        verify(ncmRateTable, never()).reload(anyLong());
+        assertEquals(2.0, meterRegistry.get("impostos.cluster.tabelas.recargas").counter().count());
+    }
+
+    private void whenVersionIs(long version) {
+        ChangeVersion changeVersion = new ChangeVersion();
+        changeVersion.setScope(ReferenceTableChangeSync.SCOPE);
+        changeVersion.setVersion(version);
+        when(changeVersionRepository.findById(ReferenceTableChangeSync.SCOPE)).thenReturn(Optional.of(changeVersion));
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxBenefitMatcherTest {
+
+    @Test
+    @DisplayName("Deve escolher a regra de maior prioridade entre as que casam com a operação")
+    void shouldPickHighestPriorityMatchingRule() {
+        TaxBenefitMatcher matcher = TaxBenefitMatcher.of(List.of(
+                rule(1L, 0, "Geral SP", Uf.SP, null, null, null),
+                rule(2L, 10, "Informática SP", Uf.SP, "8471", null, null),
+                rule(3L, 20, "Simples em qualquer UF", null, null, null, TaxRegime.SIMPLES_NACIONAL)));
+
+        assertEquals("Informática SP", describe(matcher, Uf.SP, "84713012", null, TaxRegime.LUCRO_REAL));
+        assertEquals("Geral SP", describe(matcher, Uf.SP, "22030000", null, TaxRegime.LUCRO_REAL));
+        assertEquals("Simples em qualquer UF", describe(matcher, Uf.SP, "84713012", null, TaxRegime.SIMPLES_NACIONAL));
+        assertEquals(-1, matcher.match(Uf.RJ, "84713012", null, TaxRegime.LUCRO_REAL));
+        assertEquals(-1, matcher.match(null, "84713012", null, null));
+    }
+
+    @Test
+    @DisplayName("Deve desempatar pela ordem de cadastro e exigir todas as condições informadas")
+    void shouldBreakTiesByIdAndRequireAllConditions() {
+        TaxBenefitMatcher matcher = TaxBenefitMatcher.of(List.of(
+                rule(5L, 0, "Segunda", null, null, "5102", null),
+                rule(4L, 0, "Primeira", null, "84", "5102", null)));
+
+        assertEquals("Primeira", describe(matcher, null, "84713012", "5102", null));
+        assertEquals("Segunda", describe(matcher, null, "22030000", "5102", null));
+        assertEquals(-1, matcher.match(null, "84713012", "6102", null));
+        assertEquals(-1, matcher.match(null, "84713012", null, null));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar regras além da primeira palavra do bitset")
+    void shouldMatchRulesBeyondFirstWord() {
+        List<TaxBenefitRule> rules = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rules.add(rule((long) i, 0, "CFOP " + (5000 + i), null, null, String.valueOf(5000 + i), null));
+        }
+        rules.add(rule(999L, -1, "NCM 2203", null, "2203", null, null));
+        TaxBenefitMatcher matcher = TaxBenefitMatcher.of(rules);
+
+        assertEquals(201, matcher.size());
+        assertEquals("CFOP 5150", describe(matcher, null, "84713012", "5150", null));
+        assertEquals("CFOP 5199", describe(matcher, null, "22030000", "5199", null));
+        assertEquals("NCM 2203", describe(matcher, null, "22030000", "6102", null));
+    }
+
+    @Test
+    @DisplayName("Deve reduzir a base pelo percentual da regra")
+    void shouldReduceBase() {
+        TaxBenefitRule reduction = rule(1L, 0, "Redução", null, null, null, null);
+        reduction.setBenefitType(TaxBenefitType.BASE_REDUCTION);
+        reduction.setBaseReduction(33.33);
+        TaxBenefitMatcher matcher = TaxBenefitMatcher.of(List.of(reduction));
+
+        int rule = matcher.match(null, null, null, null);
+
+        assertFalse(matcher.isExemption(rule));
+        assertEquals(66_670, matcher.reduceBase(rule, 100_000, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    @DisplayName("Deve recusar redução fora do intervalo, CFOP ou NCM inválidos")
+    void shouldRejectInvalidRules() {
+        TaxBenefitRule reduction = rule(1L, 0, "Redução", null, null, null, null);
+        reduction.setBenefitType(TaxBenefitType.BASE_REDUCTION);
+        reduction.setBaseReduction(100.0);
+
+        assertThrows(IllegalArgumentException.class, () -> TaxBenefitMatcher.of(List.of(reduction)));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaxBenefitMatcher.of(List.of(rule(1L, 0, "CFOP", null, null, "510", null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaxBenefitMatcher.of(List.of(rule(1L, 0, "NCM", null, "8", null, null))));
+    }
+
+    private String describe(TaxBenefitMatcher matcher, Uf uf, String ncm, String cfop, TaxRegime regime) {
+        int rule = matcher.match(uf, ncm, cfop, regime);
+        return rule >= 0 ? matcher.descriptionAt(rule) : null;
+    }
+
+    private TaxBenefitRule rule(Long id, int priority, String description, Uf uf, String ncm, String cfop, TaxRegime regime) {
+        TaxBenefitRule rule = new TaxBenefitRule();
+        rule.setId(id);
+        rule.setBenefitType(TaxBenefitType.EXEMPTION);
+        rule.setPriority(priority);
+        rule.setDescription(description);
+        rule.setUf(uf);
+        rule.setNcmPrefix(ncm);
+        rule.setCfop(cfop);
+        rule.setRegime(regime);
+        return rule;
+    }
+}
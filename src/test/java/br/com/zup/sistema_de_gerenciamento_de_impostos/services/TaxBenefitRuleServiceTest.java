@@ -0,0 +1,111 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxBenefitRuleRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxBenefitRulesChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBenefitRuleRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxBenefitRuleServiceTest {
+    @Mock
+    private TaxBenefitRuleRepository taxBenefitRuleRepository;
+
+    @Mock
+    private TaxTypeRepository taxTypeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaxBenefitRuleService taxBenefitRuleService;
+
+    @Test
+    @DisplayName("Deve substituir as regras de benefício e publicar o evento de recarga")
+    void shouldReplaceRulesAndPublishEvent() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(taxType("ICMS")));
+        when(taxBenefitRuleRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<TaxBenefitRule> saved = taxBenefitRuleService.replace(1L, List.of(
+                new TaxBenefitRuleRequestDto(TaxBenefitType.EXEMPTION, null, 10, "Convênio ICMS 52/91",
+                        Uf.SP, "8471.30", null, null),
+                new TaxBenefitRuleRequestDto(TaxBenefitType.BASE_REDUCTION, 40.0, null, "Redução",
+                        null, null, "5102", TaxRegime.LUCRO_REAL)));
+
+        // Assert
+        assertEquals(2, saved.size());
+        assertEquals("847130", saved.get(0).getNcmPrefix());
+        assertEquals(0, saved.get(1).getPriority());
+        verify(taxBenefitRuleRepository).deleteByTaxTypeId(1L);
+        verify(eventPublisher).publishEvent(new TaxBenefitRulesChangedEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve recusar regras que não compilam")
+    void shouldRejectInvalidRules() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(taxType("ICMS")));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> taxBenefitRuleService.replace(1L, List.of(
+                new TaxBenefitRuleRequestDto(TaxBenefitType.BASE_REDUCTION, null, 0, "Sem percentual",
+                        null, null, null, null))));
+        assertThrows(BadRequestException.class, () -> taxBenefitRuleService.replace(1L, List.of(
+                new TaxBenefitRuleRequestDto(TaxBenefitType.EXEMPTION, null, 0, "CFOP inválido",
+                        null, null, "51020", null))));
+        verifyNoInteractions(taxBenefitRuleRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a condição por UF em tipos que não recebem UF no cálculo")
+    void shouldRejectUfConditionOutsideIcms() {
+        // Arrange
+        when(taxTypeRepository.findById(2L)).thenReturn(Optional.of(taxType("IPI")));
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> taxBenefitRuleService.replace(2L,
+                List.of(new TaxBenefitRuleRequestDto(TaxBenefitType.EXEMPTION, null, 0, "Isenção em SP",
+                        Uf.SP, null, null, null))));
+        assertTrue(exception.getMessage().contains("ICMS"));
+        verifyNoInteractions(taxBenefitRuleRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException para tipo de imposto inexistente")
+    void shouldThrowWhenTaxTypeNotFound() {
+        // Arrange
+        when(taxTypeRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> taxBenefitRuleService.findByTaxType(99L));
+        verifyNoInteractions(taxBenefitRuleRepository);
+    }
+
+    private static TaxType taxType(String name) {
+        TaxType taxType = new TaxType();
+        taxType.setName(name);
+        return taxType;
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxBracketRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBracket;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxCalculationType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBracketRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxBracketServiceTest {
+    @Mock
+    private TaxBracketRepository taxBracketRepository;
+
+    @Mock
+    private TaxTypeRepository taxTypeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaxBracketService taxBracketService;
+
+    private TaxType irpf;
+
+    @BeforeEach
+    void setUp() {
+        irpf = new TaxType();
+        irpf.setId(1L);
+        irpf.setName("IRPF");
+        irpf.setDescription("Imposto de Renda Pessoa Física");
+        irpf.setRate(27.5);
+    }
+
+    @Test
+    @DisplayName("Deve substituir a tabela, marcar o tipo como progressivo e recompilar o registro")
+    void shouldReplaceBracketsAndSwitchCalculationType() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(irpf));
+        when(taxBracketRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<TaxBracket> saved = taxBracketService.replace(1L, List.of(
+                new TaxBracketRequestDto(0.0, 0.0, null),
+                new TaxBracketRequestDto(2259.21, 7.5, 169.44)));
+
+        // Assert
+        assertEquals(2, saved.size());
+        assertEquals(0.0, saved.get(0).getDeduction());
+        assertEquals(1L, saved.get(1).getTaxTypeId());
+        assertEquals(TaxCalculationType.BRACKETS, irpf.getCalculationType());
+        verify(taxBracketRepository).deleteByTaxTypeId(1L);
+        verify(taxTypeRepository).save(irpf);
+        verify(eventPublisher).publishEvent(TaxTypeChangedEvent.saved(irpf));
+    }
+
+    @Test
+    @DisplayName("Deve recusar faixas com o mesmo valor inicial")
+    void shouldRejectDuplicateLowerBounds() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(irpf));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> taxBracketService.replace(1L, List.of(
+                new TaxBracketRequestDto(0.0, 0.0, 0.0),
+                new TaxBracketRequestDto(0.0, 7.5, 169.44))));
+        verify(taxBracketRepository, never()).saveAll(anyList());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve recusar tabela vazia")
+    void shouldRejectEmptyTable() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(irpf));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> taxBracketService.replace(1L, List.of()));
+        verify(taxBracketRepository, never()).deleteByTaxTypeId(any());
+    }
+
+    @Test
+    @DisplayName("Deve excluir a tabela e voltar ao cálculo por alíquota única")
+    void shouldDeleteBracketsAndRevertToFlat() {
+        // Arrange
+        irpf.setCalculationType(TaxCalculationType.BRACKETS);
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(irpf));
+
+        // Act
+        taxBracketService.delete(1L);
+
+        // Assert
+        assertEquals(TaxCalculationType.FLAT, irpf.getCalculationType());
+        verify(taxBracketRepository).deleteByTaxTypeId(1L);
+        verify(eventPublisher).publishEvent(TaxTypeChangedEvent.saved(irpf));
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException para tipo de imposto inexistente")
+    void shouldThrowWhenTaxTypeNotFound() {
+        // Arrange
+        when(taxTypeRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> taxBracketService.findByTaxType(99L));
+    }
+}
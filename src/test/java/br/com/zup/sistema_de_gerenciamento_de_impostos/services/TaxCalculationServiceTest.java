@@ -1,22 +1,55 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchItemDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationBatchResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationRequestDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxCalculationResponseDto;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
-import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
-import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IcmsRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.MunicipalIssRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.NcmRate;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitRule;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBenefitType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRegime;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Uf;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.BracketTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.BulkCalculationMode;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IcmsRateMatrix;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IcmsRateTable;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IcmsTaxStrategy;
-import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategy;
-import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyFactory;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.IssTaxStrategy;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MunicipalIssIndex;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.MunicipalIssTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.NcmRateTrie;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.RegisteredTaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitMatcher;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxBenefitTable;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateSnapshot;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateTimeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.Optional;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,14 +57,46 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class TaxCalculationServiceTest {
     @Mock
-    private TaxTypeRepository taxTypeRepository;
-    
+    private TaxCalculationStrategyRegistry strategyRegistry;
+
+    @Mock
+    private CalculationHistoryRecorder historyRecorder;
+
+    @Mock
+    private IcmsRateTable icmsRateTable;
+
+    @Mock
+    private MunicipalIssTable municipalIssTable;
+
+    @Mock
+    private NcmRateTable ncmRateTable;
+
     @Mock
-    private TaxCalculationStrategyFactory strategyFactory;
-    
+    private TaxBenefitTable taxBenefitTable;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    // Limite baixo para que os testes de lote também exercitem o caminho paralelo
+    @Spy
+    private BatchCalculationExecutor batchExecutor = new BatchCalculationExecutor(new SimpleMeterRegistry(), 4, 2, 1);
+
+    @Mock
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
     @InjectMocks
     private TaxCalculationService taxCalculationService;
-    
+
+    private final RegisteredTaxType icms = new RegisteredTaxType(1L, "ICMS", 18.0, new IcmsTaxStrategy(18.0));
+
+    private final RegisteredTaxType iss = new RegisteredTaxType(2L, "ISS", 5.0, new IssTaxStrategy(5.0));
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(taxBenefitTable.current(anyLong())).thenReturn(TaxBenefitMatcher.EMPTY);
+        lenient().when(strategyRegistry.snapshot()).thenReturn(TaxRateSnapshot.EMPTY);
+    }
+
     @Test
     @DisplayName("Deve calcular o imposto corretamente usando a estratégia apropriada para o tipo de imposto")
     void shouldCalculateTaxUsingCorrectStrategy() {
@@ -40,68 +105,685 @@ class TaxCalculationServiceTest {
         Double baseValue = 1000.0;
         Double rate = 18.0;
         Double expectedTaxValue = 180.0;
-        
-        TaxType taxType = new TaxType();
-        taxType.setId(taxTypeId);
-        taxType.setName("ICMS");
-        taxType.setDescription("Imposto sobre Circulação de Mercadorias e Serviços");
-        taxType.setRate(rate);
-        
+
         TaxCalculationRequestDto requestDto = new TaxCalculationRequestDto(taxTypeId, baseValue);
-        IcmsTaxStrategy icmsStrategy = new IcmsTaxStrategy();
-        
-        when(taxTypeRepository.findById(taxTypeId)).thenReturn(Optional.of(taxType));
-        when(strategyFactory.getStrategy("ICMS")).thenReturn(icmsStrategy);
-        
+
+        when(strategyRegistry.find(taxTypeId)).thenReturn(icms);
+
         // Act
         TaxCalculationResponseDto result = taxCalculationService.calculate(requestDto);
-        
+
         // Assert
         assertEquals("ICMS", result.tipoImposto());
         assertEquals(baseValue, result.valorBase());
         assertEquals(rate, result.aliquota());
         assertEquals(expectedTaxValue, result.valorImposto());
-        
-        // Verificar se a fábrica foi chamada com o nome do imposto correto
-        verify(strategyFactory).getStrategy("ICMS");
+
+        // Verificar se o registro foi consultado com o id correto
+        verify(strategyRegistry).find(taxTypeId);
+        verify(historyRecorder).record(1L, "ICMS", 1000.0, 18.0, 180.0);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o histórico de um item de job com o job e a linha de origem")
+    void shouldRecordJobItemWithJobAndLine() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+
+        // Act
+        TaxCalculationBatchItemDto item = taxCalculationService.calculateItem(3, new TaxCalculationRequestDto(1L, 1000.0), 7L);
+
+        // Assert
+        assertEquals(180.0, item.resultado().valorImposto());
+        verify(historyRecorder).record(1L, "ICMS", 1000.0, 18.0, 180.0, 7L, 3);
+        verify(historyRecorder, never()).record(anyLong(), anyString(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Deve calcular o imposto com a alíquota cadastrada, mantendo a alíquota da resposta coerente com o valor cobrado")
+    void shouldCalculateTaxWithRegisteredRate() {
+        // Arrange
+        RegisteredTaxType icmsRj = new RegisteredTaxType(3L, "ICMS", 20.0, new IcmsTaxStrategy(20.0));
+        when(strategyRegistry.find(3L)).thenReturn(icmsRj);
+
+        // Act
+        TaxCalculationResponseDto result = taxCalculationService.calculate(new TaxCalculationRequestDto(3L, 1000.0));
+
+        // Assert
+        assertEquals(20.0, result.aliquota());
+        assertEquals(200.0, result.valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve usar a alíquota vigente na data de referência e, sem ela, a vigente hoje, sem consultar o banco")
+    void shouldUseRateEffectiveOnReferenceDate() {
+        // Arrange: a alíquota do cadastro difere da vigência atual, que é a que deve valer sem data
+        TaxRateVersion old = rateVersion(17.0, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31));
+        TaxRateVersion current = rateVersion(18.0, LocalDate.of(2023, 1, 1), null);
+        TaxRateTimeline timeline = TaxRateTimeline.of(List.of(old, current), IcmsTaxStrategy::new);
+        RegisteredTaxType versioned = new RegisteredTaxType(1L, "ICMS", 12.0, new IcmsTaxStrategy(12.0), timeline);
+        when(strategyRegistry.find(1L)).thenReturn(versioned);
+
+        // Act
+        TaxCalculationResponseDto past = taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, LocalDate.of(2021, 3, 10)));
+        TaxCalculationResponseDto withoutDate = taxCalculationService.calculate(new TaxCalculationRequestDto(1L, 1000.0));
+
+        // Assert
+        assertEquals(17.0, past.aliquota());
+        assertEquals(170.0, past.valorImposto());
+        assertEquals(18.0, withoutDate.aliquota());
+        assertEquals(180.0, withoutDate.valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException quando não houver alíquota vigente na data de referência")
+    void shouldThrowBadRequestExceptionWhenNoRateIsEffective() {
+        // Arrange
+        TaxRateTimeline timeline = TaxRateTimeline.of(
+                List.of(rateVersion(18.0, LocalDate.of(2023, 1, 1), null)), IcmsTaxStrategy::new);
+        when(strategyRegistry.find(1L)).thenReturn(new RegisteredTaxType(1L, "ICMS", 18.0, new IcmsTaxStrategy(18.0), timeline));
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, LocalDate.of(2019, 1, 1))));
+        assertTrue(exception.getMessage().contains("2019-01-01"));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para data de referência em tipo sem vigências cadastradas")
+    void shouldRejectReferenceDateWithoutVersions() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(new RegisteredTaxType(1L, "ICMS", 18.0, new IcmsTaxStrategy(18.0)));
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, LocalDate.of(2021, 1, 1))));
+        assertTrue(exception.getMessage().contains("dataReferencia"));
+        verifyNoInteractions(historyRecorder);
+    }
+
+    @Test
+    @DisplayName("Deve calcular pela tabela progressiva, informando a alíquota da faixa aplicada")
+    void shouldCalculateWithBracketTable() {
+        // Arrange
+        BracketTaxStrategy brackets = new BracketTaxStrategy(
+                new double[]{0, 2259.21, 2826.66, 3751.06, 4664.69},
+                new double[]{0, 7.5, 15, 22.5, 27.5},
+                new double[]{0, 169.44, 381.44, 662.77, 896.00});
+        when(strategyRegistry.find(4L)).thenReturn(new RegisteredTaxType(4L, "IRPF", 27.5, brackets));
+
+        // Act
+        TaxCalculationResponseDto result = taxCalculationService.calculate(new TaxCalculationRequestDto(4L, 3000.0));
+
+        // Assert
+        assertEquals(15.0, result.aliquota());
+        assertEquals(68.56, result.valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para data de referência em tabela progressiva, que não tem vigências")
+    void shouldRejectReferenceDateWithBracketTable() {
+        // Arrange
+        BracketTaxStrategy brackets = new BracketTaxStrategy(
+                new double[]{0, 2259.21}, new double[]{0, 7.5}, new double[]{0, 169.44});
+        when(strategyRegistry.find(4L)).thenReturn(new RegisteredTaxType(4L, "IRPF", 27.5, brackets));
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(4L, 3000.0, LocalDate.of(2021, 1, 1))));
+        assertTrue(exception.getMessage().contains("dataReferencia"));
+        verifyNoInteractions(historyRecorder);
+    }
+
+    @Test
+    @DisplayName("Deve calcular o ICMS interestadual pela matriz de UFs, com o DIFAL do destino")
+    void shouldCalculateInterstateIcmsWithDifal() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(icmsRateTable.current()).thenReturn(IcmsRateMatrix.of(List.of(
+                icmsRate(Uf.SP, Uf.BA, 7.0), icmsRate(Uf.BA, Uf.BA, 20.5), icmsRate(Uf.SP, Uf.SP, 18.0))));
+
+        // Act
+        TaxCalculationResponseDto interstate = taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, Uf.SP, Uf.BA));
+        TaxCalculationResponseDto internal = taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, Uf.SP, Uf.SP));
+
+        // Assert
+        assertEquals(7.0, interstate.aliquota());
+        assertEquals(70.0, interstate.valorImposto());
+        assertEquals(135.0, interstate.valorDifal());
+        assertEquals(180.0, internal.valorImposto());
+        assertNull(internal.valorDifal());
     }
-    
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para par de UFs sem alíquota ou imposto que não seja ICMS")
+    void shouldRejectUnknownUfPairOrNonIcmsTax() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(strategyRegistry.find(2L)).thenReturn(iss);
+        when(icmsRateTable.current()).thenReturn(IcmsRateMatrix.EMPTY);
+
+        // Act & Assert
+        BadRequestException missing = assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, Uf.SP, Uf.RJ)));
+        assertTrue(missing.getMessage().contains("SP para RJ"));
+        assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(2L, 1000.0, null, Uf.SP, Uf.RJ)));
+        assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, Uf.SP, null)));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para data de referência com UFs, já que a matriz não tem vigências")
+    void shouldRejectReferenceDateWithUfPair() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, LocalDate.of(2021, 1, 1), Uf.SP, Uf.BA)));
+        assertTrue(exception.getMessage().contains("dataReferencia"));
+        verify(icmsRateTable, never()).current();
+    }
+
+    @Test
+    @DisplayName("Deve calcular o ISS com a alíquota do município informado")
+    void shouldCalculateIssWithMunicipalRate() {
+        // Arrange
+        when(strategyRegistry.find(2L)).thenReturn(iss);
+        when(municipalIssTable.current()).thenReturn(MunicipalIssIndex.of(List.of(municipality(3550308, 2.9))));
+
+        // Act
+        TaxCalculationResponseDto response = taxCalculationService.calculate(
+                new TaxCalculationRequestDto(2L, 1000.0, null, null, null, 3550308));
+
+        // Assert
+        assertEquals(2.9, response.aliquota());
+        assertEquals(29.0, response.valorImposto());
+        verify(historyRecorder).record(2L, "ISS", 1000.0, 2.9, 29.0);
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para município sem alíquota ou imposto que não seja ISS")
+    void shouldRejectUnknownMunicipalityOrNonIssTax() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(strategyRegistry.find(2L)).thenReturn(iss);
+        when(municipalIssTable.current()).thenReturn(MunicipalIssIndex.EMPTY);
+
+        // Act & Assert
+        BadRequestException missing = assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(2L, 1000.0, null, null, null, 3304557)));
+        assertTrue(missing.getMessage().contains("3304557"));
+        assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, null, null, 3304557)));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para data de referência com município, já que o ISS municipal não tem vigências")
+    void shouldRejectReferenceDateWithMunicipality() {
+        // Arrange
+        when(strategyRegistry.find(2L)).thenReturn(iss);
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(2L, 1000.0, LocalDate.of(2021, 1, 1), null, null, 3550308)));
+        assertTrue(exception.getMessage().contains("dataReferencia"));
+        verify(municipalIssTable, never()).current();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a regra por NCM de prefixo mais longo e, sem regra, a alíquota do tipo")
+    void shouldApplyMostSpecificNcmRule() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(ncmRateTable.current(1L)).thenReturn(NcmRateTrie.of(List.of(ncmRate("84", 10.0), ncmRate("847130", 4.0))));
+
+        // Act
+        TaxCalculationResponseDto specific = taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, null, null, null, "8471.30.12"));
+        TaxCalculationResponseDto chapter = taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, null, null, null, "84159010"));
+        TaxCalculationResponseDto fallback = taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, null, null, null, "22030000"));
+
+        // Assert
+        assertEquals(4.0, specific.aliquota());
+        assertEquals(40.0, specific.valorImposto());
+        assertEquals(100.0, chapter.valorImposto());
+        assertEquals(18.0, fallback.aliquota());
+        assertEquals(180.0, fallback.valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para data de referência quando uma regra por NCM se aplica")
+    void shouldRejectReferenceDateWhenNcmRuleApplies() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(ncmRateTable.current(1L)).thenReturn(NcmRateTrie.of(List.of(ncmRate("847130", 4.0))));
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, LocalDate.of(2021, 1, 1), null, null, null, "84713012")));
+        assertTrue(exception.getMessage().contains("dataReferencia"));
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para NCM que não tenha 8 dígitos")
+    void shouldRejectMalformedNcm() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, null, null, null, "8471")));
+        assertThrows(BadRequestException.class, () -> taxCalculationService.calculate(
+                new TaxCalculationRequestDto(1L, 1000.0, null, null, null, null, "8471-30-12")));
+        verifyNoInteractions(ncmRateTable);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar isenção e redução de base da tabela de benefícios antes da estratégia")
+    void shouldApplyBenefitRulesBeforeStrategy() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(taxBenefitTable.current(1L)).thenReturn(TaxBenefitMatcher.of(List.of(
+                benefit(TaxBenefitType.EXEMPTION, null, "Isenção para o Simples", TaxRegime.SIMPLES_NACIONAL, null),
+                benefit(TaxBenefitType.BASE_REDUCTION, 40.0, "Redução de base na venda", null, "5102"))));
+
+        // Act
+        TaxCalculationResponseDto exempt = taxCalculationService.calculate(new TaxCalculationRequestDto(
+                1L, 1000.0, null, null, null, null, null, "5102", TaxRegime.SIMPLES_NACIONAL));
+        TaxCalculationResponseDto reduced = taxCalculationService.calculate(new TaxCalculationRequestDto(
+                1L, 1000.0, null, null, null, null, null, "5102", TaxRegime.LUCRO_REAL));
+        TaxCalculationResponseDto regular = taxCalculationService.calculate(new TaxCalculationRequestDto(
+                1L, 1000.0, null, null, null, null, null, "6102", TaxRegime.LUCRO_REAL));
+
+        // Assert
+        assertEquals(0.0, exempt.valorImposto());
+        assertEquals("Isenção para o Simples", exempt.beneficio());
+        assertEquals(1000.0, reduced.valorBase());
+        assertEquals(108.0, reduced.valorImposto());
+        assertEquals("Redução de base na venda", reduced.beneficio());
+        assertEquals(180.0, regular.valorImposto());
+        assertNull(regular.beneficio());
+    }
+
+    @Test
+    @DisplayName("Deve arredondar o valor do imposto para centavos")
+    void shouldRoundTaxValueToCentavos() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+
+        // Act
+        TaxCalculationResponseDto result = taxCalculationService.calculate(new TaxCalculationRequestDto(1L, 333.33));
+
+        // Assert
+        assertEquals(60.0, result.valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve calcular um lote em centavos sobre arrays primitivos")
+    void shouldCalculateCentavosBatch() {
+        // Arrange
+        long[] bases = {100_000, 20_000, 33_333};
+        long[] taxes = new long[bases.length];
+        long[] vectorTaxes = new long[bases.length];
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(ncmRateTable.current(1L)).thenReturn(NcmRateTrie.EMPTY);
+
+        // Act
+        taxCalculationService.calculateCentavos(1L, bases, taxes, BulkCalculationMode.SCALAR);
+        taxCalculationService.calculateCentavos(1L, bases, vectorTaxes, BulkCalculationMode.VECTOR);
+
+        // Assert
+        assertArrayEquals(new long[]{18_000, 3_600, 6_000}, taxes);
+        assertArrayEquals(taxes, vectorTaxes);
+        verify(strategyRegistry, times(2)).find(1L);
+        verify(historyRecorder, times(2)).record(1L, "ICMS", 1000.0, 18.0, 180.0);
+    }
+
+    @Test
+    @DisplayName("Deve calcular o lote em centavos com a vigência de hoje, como o cálculo sem data")
+    void shouldUseTodaysVersionInCentavosBatch() {
+        // Arrange
+        TaxRateTimeline timeline = TaxRateTimeline.of(List.of(
+                rateVersion(17.0, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31)),
+                rateVersion(12.0, LocalDate.of(2023, 1, 1), null)), IcmsTaxStrategy::new);
+        when(strategyRegistry.find(1L)).thenReturn(new RegisteredTaxType(1L, "ICMS", 18.0, new IcmsTaxStrategy(18.0), timeline));
+        when(ncmRateTable.current(1L)).thenReturn(NcmRateTrie.EMPTY);
+        long[] taxes = new long[1];
+
+        // Act
+        taxCalculationService.calculateCentavos(1L, new long[]{100_000}, taxes, BulkCalculationMode.VECTOR);
+
+        // Assert
+        assertEquals(12_000, taxes[0]);
+        verify(historyRecorder).record(1L, "ICMS", 1000.0, 12.0, 120.0);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o lote em centavos para tipos com regras de benefício ou por NCM e bases não positivas")
+    void shouldRejectCentavosBatchThatNeedsItemAttributes() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(ncmRateTable.current(1L)).thenReturn(NcmRateTrie.of(List.of(ncmRate("847130", 4.0))));
+        long[] taxes = new long[2];
+
+        // Act & Assert
+        BadRequestException ncm = assertThrows(BadRequestException.class, () -> taxCalculationService.calculateCentavos(
+                1L, new long[]{100_000, 20_000}, taxes, BulkCalculationMode.SCALAR));
+        assertTrue(ncm.getMessage().contains("NCM"));
+        BadRequestException zero = assertThrows(BadRequestException.class, () -> taxCalculationService.calculateCentavos(
+                1L, new long[]{100_000, 0}, taxes, BulkCalculationMode.SCALAR));
+        assertTrue(zero.getMessage().startsWith("Item 1"));
+        assertArrayEquals(new long[2], taxes);
+        verifyNoInteractions(historyRecorder);
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException quando o valor base estourar a aritmética em centavos")
+    void shouldThrowBadRequestExceptionWhenCentavosOverflow() {
+        // Arrange
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> taxCalculationService.calculate(new TaxCalculationRequestDto(1L, 1e15)));
+    }
+
     @Test
     @DisplayName("Deve lançar BadRequestException quando valorBase for menor ou igual a zero")
     void shouldThrowBadRequestExceptionWhenBaseValueIsZeroOrNegative() {
         // Arrange
         Long taxTypeId = 1L;
         Double baseValue = 0.0; // Valor inválido
-        
+
         TaxCalculationRequestDto requestDto = new TaxCalculationRequestDto(taxTypeId, baseValue);
-        
+
         // Act & Assert
         BadRequestException exception = assertThrows(BadRequestException.class, () -> {
             taxCalculationService.calculate(requestDto);
         });
-        
+
         assertEquals("Valor base deve ser maior que zero.", exception.getMessage());
-        verifyNoInteractions(strategyFactory);
+        verifyNoInteractions(strategyRegistry);
+        verifyNoInteractions(historyRecorder);
     }
-    
+
     @Test
     @DisplayName("Deve lançar ResourceNotFoundException quando tipo de imposto não for encontrado")
     void shouldThrowResourceNotFoundExceptionWhenTaxTypeNotFound() {
         // Arrange
         Long taxTypeId = 999L;
         Double baseValue = 1000.0;
-        
+
         TaxCalculationRequestDto requestDto = new TaxCalculationRequestDto(taxTypeId, baseValue);
-        
-        when(taxTypeRepository.findById(taxTypeId)).thenReturn(Optional.empty());
-        
+
+        when(strategyRegistry.find(taxTypeId)).thenReturn(null);
+
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             taxCalculationService.calculate(requestDto);
         });
-        
+
         assertTrue(exception.getMessage().contains("não encontrado"));
-        verify(taxTypeRepository).findById(taxTypeId);
-        verifyNoInteractions(strategyFactory);
+        verify(strategyRegistry).find(taxTypeId);
+    }
+
+    @Test
+    @DisplayName("Deve calcular um lote resolvendo os tipos de imposto pelo registro, sem consultar o banco")
+    void shouldCalculateBatchUsingRegistry() {
+        // Arrange
+        List<TaxCalculationRequestDto> requests = List.of(
+                new TaxCalculationRequestDto(1L, 1000.0),
+                new TaxCalculationRequestDto(2L, 200.0),
+                new TaxCalculationRequestDto(1L, 500.0)
+        );
+
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(strategyRegistry.find(2L)).thenReturn(iss);
+
+        // Act
+        TaxCalculationBatchResponseDto result = taxCalculationService.calculateBatch(requests);
+
+        // Assert
+        assertEquals(3, result.totalItens());
+        assertEquals(3, result.totalSucessos());
+        assertEquals(0, result.totalErros());
+        assertEquals(180.0, result.itens().get(0).resultado().valorImposto());
+        assertEquals(10.0, result.itens().get(1).resultado().valorImposto());
+        assertEquals(90.0, result.itens().get(2).resultado().valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve reportar erros por item sem interromper o restante do lote")
+    void shouldReportPerItemErrorsWithoutFailingBatch() {
+        // Arrange
+        List<TaxCalculationRequestDto> requests = List.of(
+                new TaxCalculationRequestDto(1L, 1000.0),
+                new TaxCalculationRequestDto(999L, 100.0),
+                new TaxCalculationRequestDto(1L, -5.0)
+        );
+
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(strategyRegistry.find(999L)).thenReturn(null);
+
+        // Act
+        TaxCalculationBatchResponseDto result = taxCalculationService.calculateBatch(requests);
+
+        // Assert
+        assertEquals(1, result.totalSucessos());
+        assertEquals(2, result.totalErros());
+        assertNotNull(result.itens().get(0).resultado());
+        assertNull(result.itens().get(1).resultado());
+        assertTrue(result.itens().get(1).erro().contains("não encontrado"));
+        assertEquals("Valor base deve ser maior que zero.", result.itens().get(2).erro());
+    }
+
+    @Test
+    @DisplayName("Deve manter a ordem e os totais de um lote grande processado em paralelo")
+    void shouldKeepOrderAndTotalsInParallelBatch() {
+        // Arrange
+        List<TaxCalculationRequestDto> requests = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            requests.add(new TaxCalculationRequestDto(i % 100 == 0 ? 999L : 1L, i * 100.0));
+        }
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(strategyRegistry.find(999L)).thenReturn(null);
+
+        // Act
+        TaxCalculationBatchResponseDto result = taxCalculationService.calculateBatch(requests);
+
+        // Assert
+        assertEquals(990, result.totalSucessos());
+        assertEquals(10, result.totalErros());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, result.itens().get(i).indice());
+        }
+        assertEquals(18.0 * 7, result.itens().get(6).resultado().valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve resolver alíquotas de datas diferentes em um mesmo lote")
+    void shouldResolveRatesAcrossDatesInBatch() {
+        // Arrange
+        TaxRateTimeline timeline = TaxRateTimeline.of(List.of(
+                rateVersion(17.0, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31)),
+                rateVersion(18.0, LocalDate.of(2023, 1, 1), null)), IcmsTaxStrategy::new);
+        when(strategyRegistry.find(1L)).thenReturn(new RegisteredTaxType(1L, "ICMS", 18.0, new IcmsTaxStrategy(18.0), timeline));
+
+        // Act
+        TaxCalculationBatchResponseDto result = taxCalculationService.calculateBatch(List.of(
+                new TaxCalculationRequestDto(1L, 1000.0, LocalDate.of(2022, 12, 31)),
+                new TaxCalculationRequestDto(1L, 1000.0, LocalDate.of(2023, 1, 1))));
+
+        // Assert
+        assertEquals(170.0, result.itens().get(0).resultado().valorImposto());
+        assertEquals(180.0, result.itens().get(1).resultado().valorImposto());
+    }
+
+    @Test
+    @DisplayName("Deve calcular todo o lote com o snapshot lido no início, mesmo que ele seja trocado")
+    void shouldCalculateWholeBatchWithSingleSnapshot() {
+        // Arrange
+        TaxRateSnapshot current = TaxRateSnapshot.of(Map.of(1L, icms), 1, "banco");
+        TaxRateSnapshot reloaded = TaxRateSnapshot.of(
+                Map.of(1L, new RegisteredTaxType(1L, "ICMS", 20.0, new IcmsTaxStrategy(20.0))), 2, "banco");
+        when(strategyRegistry.snapshot()).thenReturn(current, reloaded);
+
+        // Act
+        TaxCalculationBatchResponseDto result = taxCalculationService.calculateBatch(List.of(
+                new TaxCalculationRequestDto(1L, 1000.0),
+                new TaxCalculationRequestDto(1L, 500.0)));
+
+        // Assert
+        assertEquals(180.0, result.itens().get(0).resultado().valorImposto());
+        assertEquals(90.0, result.itens().get(1).resultado().valorImposto());
+        verify(strategyRegistry, times(1)).snapshot();
+        verify(strategyRegistry, never()).find(any());
+    }
+
+    @Test
+    @DisplayName("Deve indicar o snapshot em uso apenas com o banco indisponível")
+    void shouldExposeSnapshotOnlyInDegradedMode() {
+        // Arrange
+        TaxRateSnapshot fromDatabase = TaxRateSnapshot.of(Map.of(1L, icms), 1, TaxCalculationStrategyRegistry.ORIGIN_DATABASE);
+        TaxRateSnapshot fromDisk = TaxRateSnapshot.of(Map.of(1L, icms), 1, TaxCalculationStrategyRegistry.ORIGIN_LOCAL);
+        when(strategyRegistry.snapshot()).thenReturn(fromDatabase, fromDatabase, fromDisk);
+        when(databaseCircuitBreaker.isOpen()).thenReturn(false, true, false);
+
+        // Act & Assert
+        assertNull(taxCalculationService.degradedSnapshot());
+        assertSame(fromDatabase, taxCalculationService.degradedSnapshot());
+        assertSame(fromDisk, taxCalculationService.degradedSnapshot());
+    }
+
+    @Test
+    @DisplayName("Deve reportar por item a indisponibilidade do banco e calcular os tipos do snapshot")
+    void shouldReportUnavailableDatabasePerItem() {
+        // Arrange
+        when(strategyRegistry.snapshot()).thenReturn(TaxRateSnapshot.of(Map.of(1L, icms), 1, "banco"));
+        when(strategyRegistry.find(7L)).thenThrow(new ServiceUnavailableException("Banco de dados indisponível. Tente novamente em instantes."));
+
+        // Act
+        TaxCalculationBatchResponseDto result = taxCalculationService.calculateBatch(List.of(
+                new TaxCalculationRequestDto(1L, 1000.0),
+                new TaxCalculationRequestDto(7L, 1000.0)));
+
+        // Assert
+        assertEquals(180.0, result.itens().get(0).resultado().valorImposto());
+        assertEquals("Banco de dados indisponível. Tente novamente em instantes.", result.itens().get(1).erro());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException quando o lote estiver vazio")
+    void shouldThrowBadRequestExceptionWhenBatchIsEmpty() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> taxCalculationService.calculateBatch(List.of()));
+        verifyNoInteractions(strategyRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve processar NDJSON linha a linha, reportando erros por linha")
+    void shouldCalculateNdjsonStream() throws Exception {
+        // Arrange
+        String input = """
+                {"tipoImpostoId":1,"valorBase":1000.0}
+                {"tipoImpostoId":1,"valorBase":500.0}
+
+                {"tipoImpostoId":2,"valorBase":100.0}
+                {"tipoImpostoId":999,"valorBase":100.0}
+                não é json
+                {"tipoImpostoId":1,"valorBase":0}
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+        when(strategyRegistry.find(2L)).thenReturn(iss);
+        when(strategyRegistry.find(999L)).thenReturn(null);
+
+        // Act
+        long lines = taxCalculationService.calculateStream(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        // Assert
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(6, lines);
+        assertEquals(6, results.length);
+        assertEquals(180.0, objectMapper.readTree(results[0]).get("resultado").get("valorImposto").asDouble());
+        assertEquals(90.0, objectMapper.readTree(results[1]).get("resultado").get("valorImposto").asDouble());
+        assertEquals(5.0, objectMapper.readTree(results[2]).get("resultado").get("valorImposto").asDouble());
+        assertTrue(objectMapper.readTree(results[3]).get("erro").asText().contains("não encontrado"));
+        assertTrue(objectMapper.readTree(results[4]).get("erro").asText().startsWith("Linha inválida"));
+        assertEquals(5, objectMapper.readTree(results[5]).get("indice").asInt());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar linhas do NDJSON acima do tamanho máximo sem interromper o stream")
+    void shouldRejectNdjsonLinesLongerThanLimit() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(taxCalculationService, "maxStreamLineLength", 64);
+        String longLine = "{\"tipoImpostoId\":1,\"valorBase\":1000.0,\"ncm\":\"" + "9".repeat(20_000) + "\"}";
+        String input = longLine + "\r\n{\"tipoImpostoId\":1,\"valorBase\":500.0}\r\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        when(strategyRegistry.find(1L)).thenReturn(icms);
+
+        // Act
+        long lines = taxCalculationService.calculateStream(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        // Assert
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines);
+        assertTrue(objectMapper.readTree(results[0]).get("erro").asText().contains("excede o limite de 64 caracteres"));
+        assertEquals(1, objectMapper.readTree(results[1]).get("indice").asInt());
+        assertEquals(90.0, objectMapper.readTree(results[1]).get("resultado").get("valorImposto").asDouble());
+    }
+
+    private TaxRateVersion rateVersion(Double rate, LocalDate from, LocalDate to) {
+        TaxRateVersion version = new TaxRateVersion();
+        version.setTaxTypeId(1L);
+        version.setRate(rate);
+        version.setValidFrom(from);
+        version.setValidTo(to);
+        return version;
+    }
+
+    private IcmsRate icmsRate(Uf origin, Uf destination, Double rate) {
+        IcmsRate icmsRate = new IcmsRate();
+        icmsRate.setOriginUf(origin);
+        icmsRate.setDestinationUf(destination);
+        icmsRate.setRate(rate);
+        return icmsRate;
+    }
+
+    private MunicipalIssRate municipality(int ibgeCode, double rate) {
+        MunicipalIssRate municipalRate = new MunicipalIssRate();
+        municipalRate.setIbgeCode(ibgeCode);
+        municipalRate.setRate(rate);
+        return municipalRate;
+    }
+
+    private NcmRate ncmRate(String prefix, double rate) {
+        NcmRate ncmRate = new NcmRate();
+        ncmRate.setNcmPrefix(prefix);
+        ncmRate.setRate(rate);
+        return ncmRate;
+    }
+
+    private TaxBenefitRule benefit(TaxBenefitType type, Double reduction, String description, TaxRegime regime, String cfop) {
+        TaxBenefitRule rule = new TaxBenefitRule();
+        rule.setBenefitType(type);
+        rule.setBaseReduction(reduction);
+        rule.setDescription(description);
+        rule.setPriority(0);
+        rule.setRegime(regime);
+        rule.setCfop(cfop);
+        return rule;
     }
-}
\ No newline at end of file
+}
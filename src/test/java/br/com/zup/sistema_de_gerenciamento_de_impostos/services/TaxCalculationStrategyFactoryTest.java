@@ -1,5 +1,6 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,4 +42,32 @@ class TaxCalculationStrategyFactoryTest {
         // Verificar se calcula usando a estratégia padrão (10%)
         assertEquals(100, strategy.calculateTax(1000));
     }
+
+    @Test
+    @DisplayName("Deve construir a estratégia com a alíquota cadastrada no tipo de imposto")
+    void shouldBuildStrategyWithTaxTypeRate() {
+        TaxCalculationStrategyFactory factory = new TaxCalculationStrategyFactory();
+        TaxType taxType = new TaxType();
+        taxType.setName("icms");
+        taxType.setRate(20.0);
+
+        TaxCalculationStrategy strategy = factory.getStrategy(taxType);
+
+        assertTrue(strategy instanceof IcmsTaxStrategy);
+        assertEquals(20.0, ((IcmsTaxStrategy) strategy).getRate());
+        assertEquals(200, strategy.calculateTax(1000));
+    }
+
+    @Test
+    @DisplayName("Deve usar a alíquota cadastrada para tipos de imposto sem estratégia própria")
+    void shouldUseTaxTypeRateForUnknownTaxType() {
+        TaxCalculationStrategyFactory factory = new TaxCalculationStrategyFactory();
+        TaxType taxType = new TaxType();
+        taxType.setName("IPI");
+        taxType.setRate(12.0);
+
+        TaxCalculationStrategy strategy = factory.getStrategy(taxType);
+
+        assertEquals(120, strategy.calculateTax(1000));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,366 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxBracket;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxCalculationType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBracketRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxRateVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ServiceUnavailableException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.DatabaseCircuitBreaker;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.LocalSnapshotStore;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.services.TaxTypeCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxCalculationStrategyRegistryTest {
+
+    @Mock
+    private TaxTypeRepository taxTypeRepository;
+
+    @Mock
+    private TaxTypeCache taxTypeCache;
+
+    @Mock
+    private TaxRateVersionRepository taxRateVersionRepository;
+
+    @Mock
+    private TaxBracketRepository taxBracketRepository;
+
+    @Spy
+    private TaxCalculationStrategyFactory strategyFactory = new TaxCalculationStrategyFactory();
+
+    @Spy
+    private DatabaseCircuitBreaker databaseCircuitBreaker =
+            new DatabaseCircuitBreaker(null, new SimpleMeterRegistry(), 1, Duration.ofHours(1));
+
+    @Mock
+    private LocalSnapshotStore localSnapshotStore;
+
+    @InjectMocks
+    private TaxCalculationStrategyRegistry registry;
+
+    @Test
+    @DisplayName("Deve construir as estratégias uma única vez a partir da tabela de tipos de imposto")
+    void shouldBuildStrategiesOnceFromTaxTypes() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS", 20.0), taxType(2L, "ISS", 3.0)));
+
+        // Act
+        registry.refresh();
+        RegisteredTaxType first = registry.find(1L);
+        RegisteredTaxType second = registry.find(1L);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(20.0, first.rate());
+        assertEquals(200.0, first.strategy().calculateTax(1000));
+        assertEquals(30.0, registry.find(2L).strategy().calculateTax(1000));
+        verify(strategyFactory, times(2)).getStrategy(any(TaxType.class));
+        verifyNoInteractions(taxTypeCache);
+    }
+
+    @Test
+    @DisplayName("Deve registrar tipos de imposto desconhecidos encontrados no cache")
+    void shouldRegisterUnknownTaxTypeFoundInCache() {
+        // Arrange
+        when(taxTypeCache.findById(3L)).thenReturn(Optional.of(taxType(3L, "IPI", 12.0)));
+        when(taxTypeCache.findById(4L)).thenReturn(Optional.empty());
+
+        // Act
+        RegisteredTaxType ipi = registry.find(3L);
+        registry.find(3L);
+        RegisteredTaxType missing = registry.find(4L);
+
+        // Assert
+        assertEquals(120.0, ipi.strategy().calculateTax(1000));
+        assertNull(missing);
+        verify(taxTypeCache, times(1)).findById(3L);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o registro quando um tipo de imposto for salvo ou excluído")
+    void shouldUpdateRegistryOnTaxTypeChanges() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS", 18.0)));
+        when(taxTypeCache.findById(1L)).thenReturn(Optional.empty());
+        registry.refresh();
+
+        // Act
+        registry.onTaxTypeChanged(TaxTypeChangedEvent.saved(taxType(2L, "PIS", 1.65)));
+        RegisteredTaxType pis = registry.find(2L);
+        registry.onTaxTypeChanged(TaxTypeChangedEvent.deleted(1L));
+        RegisteredTaxType icms = registry.find(1L);
+
+        // Assert
+        assertEquals(16.5, pis.strategy().calculateTax(1000));
+        assertNull(icms);
+    }
+
+    @Test
+    @DisplayName("Deve compilar o índice de vigências de todos os tipos com uma única consulta")
+    void shouldBuildRateTimelinesWithSingleQuery() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS", 18.0), taxType(2L, "ISS", 5.0)));
+        when(taxRateVersionRepository.findAll()).thenReturn(List.of(
+                version(1L, 17.0, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31)),
+                version(1L, 18.0, LocalDate.of(2023, 1, 1), null)));
+
+        // Act
+        registry.refresh();
+        RegisteredTaxType icms = registry.find(1L);
+
+        // Assert
+        assertEquals(2, icms.timeline().size());
+        int index = icms.timeline().indexOf(LocalDate.of(2021, 6, 1));
+        assertEquals(17.0, icms.timeline().rateAt(index));
+        assertEquals(170.0, icms.timeline().strategyAt(index).calculateTax(1000));
+        assertTrue(registry.find(2L).timeline().isEmpty());
+        verify(taxRateVersionRepository, times(1)).findAll();
+        verify(taxRateVersionRepository, never()).findByTaxTypeIdOrderByValidFrom(any());
+    }
+
+    @Test
+    @DisplayName("Deve compilar a tabela progressiva dos tipos calculados por faixas")
+    void shouldBuildBracketStrategyForBracketTaxTypes() {
+        // Arrange
+        TaxType irpf = taxType(1L, "IRPF", 27.5);
+        irpf.setCalculationType(TaxCalculationType.BRACKETS);
+        when(taxTypeRepository.findAll()).thenReturn(List.of(irpf, taxType(2L, "ISS", 5.0)));
+        when(taxBracketRepository.findAll()).thenReturn(List.of(
+                bracket(1L, 2000.0, 15.0, 300.0),
+                bracket(1L, 0.0, 0.0, 0.0),
+                bracket(1L, 1000.0, 10.0, 100.0)));
+
+        // Act
+        registry.refresh();
+        RegisteredTaxType registered = registry.find(1L);
+
+        // Assert
+        assertInstanceOf(BracketTaxStrategy.class, registered.strategy());
+        assertEquals(0.0, registered.strategy().calculateTax(800));
+        assertEquals(50.0, registered.strategy().calculateTax(1500));
+        assertEquals(150.0, registered.strategy().calculateTax(3000));
+        assertEquals(50.0, registry.find(2L).strategy().calculateTax(1000));
+        verify(taxBracketRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Não deve consultar faixas quando nenhum tipo usa tabela progressiva")
+    void shouldNotLoadBracketsWithoutBracketTaxTypes() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS", 18.0)));
+
+        // Act
+        registry.refresh();
+
+        // Assert
+        assertInstanceOf(IcmsTaxStrategy.class, registry.find(1L).strategy());
+        verifyNoInteractions(taxBracketRepository);
+    }
+
+    @Test
+    @DisplayName("Deve compilar a fórmula uma vez e ligar a alíquota de cada vigência")
+    void shouldCompileFormulaTaxTypes() {
+        // Arrange
+        TaxType cide = taxType(1L, "CIDE", 10.0);
+        cide.setCalculationType(TaxCalculationType.FORMULA);
+        cide.setFormula("se(base > 1000, base * aliquota / 100, 0)");
+        when(taxTypeRepository.findAll()).thenReturn(List.of(cide));
+        when(taxRateVersionRepository.findAll()).thenReturn(List.of(
+                version(1L, 5.0, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31))));
+
+        // Act
+        registry.refresh();
+        RegisteredTaxType registered = registry.find(1L);
+        FormulaTaxStrategy current = (FormulaTaxStrategy) registered.strategy();
+        FormulaTaxStrategy past = (FormulaTaxStrategy) registered.timeline()
+                .strategyAt(registered.timeline().indexOf(LocalDate.of(2021, 1, 1)));
+
+        // Assert
+        assertEquals(0.0, current.calculateTax(1000));
+        assertEquals(200.0, current.calculateTax(2000));
+        assertEquals(100.0, past.calculateTax(2000));
+        assertSame(current.getFormula(), past.getFormula());
+        verify(strategyFactory, never()).getStrategy(any(TaxType.class));
+    }
+
+    @Test
+    @DisplayName("Deve publicar um novo snapshot a cada alteração, sem modificar o anterior")
+    void shouldPublishNewSnapshotOnEachChange() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS", 18.0)));
+        registry.refresh();
+        TaxRateSnapshot before = registry.snapshot();
+
+        // Act
+        registry.register(taxType(2L, "PIS", 1.65));
+        TaxRateSnapshot after = registry.snapshot();
+
+        // Assert
+        assertEquals(before.version() + 1, after.version());
+        assertEquals(1, before.size());
+        assertNull(before.find(2L));
+        assertEquals(2, after.size());
+        assertSame(before.find(1L), after.find(1L));
+        assertEquals(TaxCalculationStrategyRegistry.ORIGIN_DATABASE, after.origin());
+    }
+
+    @Test
+    @DisplayName("Não deve publicar uma recarga quando o snapshot mudou durante a leitura")
+    void shouldRejectStaleReload() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS", 18.0)));
+        registry.refresh();
+        long readVersion = registry.snapshot().version();
+        registry.register(taxType(1L, "ICMS", 19.0));
+        TaxRateSource stale = new TaxRateSource(List.of(taxType(1L, "ICMS", 18.0)), List.of(), List.of());
+
+        // Act
+        boolean installed = registry.installIfCurrent(stale, TaxCalculationStrategyRegistry.ORIGIN_DATABASE, readVersion);
+
+        // Assert
+        assertFalse(installed);
+        assertEquals(19.0, registry.find(1L).rate());
+    }
+
+    @Test
+    @DisplayName("Deve publicar a recarga sem o tipo cuja fórmula não compila")
+    void shouldSkipTypeThatFailsToCompileOnReload() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS", 18.0)));
+        registry.refresh();
+        TaxRateSnapshot current = registry.snapshot();
+        TaxType broken = taxType(2L, "CIDE", 10.0);
+        broken.setCalculationType(TaxCalculationType.FORMULA);
+        broken.setFormula("base * (");
+
+        // Act
+        boolean installed = registry.installIfCurrent(
+                new TaxRateSource(List.of(taxType(1L, "ICMS", 20.0), broken), List.of(), List.of()),
+                TaxCalculationStrategyRegistry.ORIGIN_FILE, current.version());
+
+        // Assert
+        assertTrue(installed);
+        assertEquals(20.0, registry.find(1L).rate());
+        assertNull(registry.snapshot().find(2L));
+    }
+
+    @Test
+    @DisplayName("Deve retirar do snapshot um tipo alterado para uma fórmula que não compila")
+    void shouldUnregisterTypeThatNoLongerCompiles() {
+        // Arrange
+        TaxType cide = taxType(2L, "CIDE", 10.0);
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS", 18.0), cide));
+        registry.refresh();
+        TaxType broken = taxType(2L, "CIDE", 10.0);
+        broken.setCalculationType(TaxCalculationType.FORMULA);
+        broken.setFormula("base * (");
+
+        // Act
+        RegisteredTaxType registered = registry.register(broken);
+
+        // Assert
+        assertNull(registered);
+        assertNull(registry.snapshot().find(2L));
+        assertNotNull(registry.snapshot().find(1L));
+    }
+
+    @Test
+    @DisplayName("Deve subir com o snapshot local e gravar a cópia a cada carga do banco")
+    void shouldFallBackToLocalSnapshotOnColdStart() {
+        // Arrange
+        TaxRateSource saved = new TaxRateSource(List.of(taxType(1L, "ICMS", 18.0)), List.of(), List.of());
+        when(taxTypeRepository.findAll())
+                .thenThrow(new DataAccessResourceFailureException("sem conexão"))
+                .thenReturn(List.of(taxType(1L, "ICMS", 19.0)));
+        when(localSnapshotStore.load(LocalSnapshotStore.TAX_TYPES, TaxRateSource.class)).thenReturn(Optional.of(saved));
+
+        // Act
+        registry.refresh();
+        RegisteredTaxType fromDisk = registry.find(1L);
+        String originOnStart = registry.snapshot().origin();
+        registry.refresh();
+
+        // Assert
+        assertEquals(18.0, fromDisk.rate());
+        assertEquals(TaxCalculationStrategyRegistry.ORIGIN_LOCAL, originOnStart);
+        assertEquals(19.0, registry.find(1L).rate());
+        assertEquals(TaxCalculationStrategyRegistry.ORIGIN_DATABASE, registry.snapshot().origin());
+        verify(localSnapshotStore, times(1)).save(eq(LocalSnapshotStore.TAX_TYPES), any());
+    }
+
+    @Test
+    @DisplayName("Não deve trocar a tabela em memória pela cópia em disco quando o banco falhar")
+    void shouldKeepLoadedSnapshotWhenDatabaseFails() {
+        // Arrange
+        when(taxTypeRepository.findAll())
+                .thenReturn(List.of(taxType(1L, "ICMS", 19.0)))
+                .thenThrow(new DataAccessResourceFailureException("sem conexão"));
+        registry.refresh();
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> registry.refresh());
+        assertEquals(19.0, registry.find(1L).rate());
+        verify(localSnapshotStore, never()).load(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve falhar na hora, sem consultar o banco, para tipos fora do snapshot com o circuito aberto")
+    void shouldFailFastForUnknownTaxTypeWhileCircuitIsOpen() {
+        // Arrange
+        when(taxTypeCache.findById(3L)).thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> registry.find(3L));
+        assertThrows(ServiceUnavailableException.class, () -> registry.find(3L));
+        assertTrue(databaseCircuitBreaker.isOpen());
+        verify(taxTypeCache, times(1)).findById(3L);
+    }
+
+    private TaxBracket bracket(Long taxTypeId, Double lowerBound, Double rate, Double deduction) {
+        TaxBracket bracket = new TaxBracket();
+        bracket.setTaxTypeId(taxTypeId);
+        bracket.setLowerBound(lowerBound);
+        bracket.setRate(rate);
+        bracket.setDeduction(deduction);
+        return bracket;
+    }
+
+    private TaxRateVersion version(Long taxTypeId, Double rate, LocalDate from, LocalDate to) {
+        TaxRateVersion version = new TaxRateVersion();
+        version.setTaxTypeId(taxTypeId);
+        version.setRate(rate);
+        version.setValidFrom(from);
+        version.setValidTo(to);
+        return version;
+    }
+
+    private TaxType taxType(Long id, String name, Double rate) {
+        TaxType taxType = new TaxType();
+        taxType.setId(id);
+        taxType.setName(name);
+        taxType.setDescription(name);
+        taxType.setRate(rate);
+        return taxType;
+    }
+}
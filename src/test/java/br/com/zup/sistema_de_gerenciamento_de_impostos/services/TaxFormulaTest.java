@@ -0,0 +1,73 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxFormulaTest {
+
+    @Test
+    @DisplayName("Deve respeitar a precedência dos operadores e os parênteses")
+    void shouldRespectOperatorPrecedence() {
+        assertEquals(7.0, TaxFormula.compile("1 + 2 * 3").evaluate(0, 0));
+        assertEquals(9.0, TaxFormula.compile("(1 + 2) * 3").evaluate(0, 0));
+        assertEquals(-4.0, TaxFormula.compile("-2 * 2").evaluate(0, 0));
+        assertEquals(2.5, TaxFormula.compile("10 / 2 / 2").evaluate(0, 0));
+    }
+
+    @Test
+    @DisplayName("Deve ler as variáveis base e aliquota a cada avaliação")
+    void shouldBindVariables() {
+        TaxFormula formula = TaxFormula.compile("base * aliquota / 100");
+
+        assertEquals(180.0, formula.evaluate(1000, 18));
+        assertEquals(50.0, formula.evaluate(1000, 5));
+    }
+
+    @Test
+    @DisplayName("Deve avaliar condições, mínimo e máximo")
+    void shouldEvaluateConditionsAndLimits() {
+        // Isento até 1000; acima, alíquota sobre o excedente limitada a 500
+        TaxFormula formula = TaxFormula.compile("se(base <= 1000, 0, min((base - 1000) * aliquota / 100, 500))");
+
+        assertEquals(0.0, formula.evaluate(1000, 10));
+        assertEquals(100.0, formula.evaluate(2000, 10));
+        assertEquals(500.0, formula.evaluate(100_000, 10));
+        assertEquals(1.0, TaxFormula.compile("base > 10 && !(base >= 20) || base == 0").evaluate(15, 0));
+        assertEquals(0.0, TaxFormula.compile("base > 10 && base != 15").evaluate(15, 0));
+        assertEquals(3.0, TaxFormula.compile("ABS(max(-3, -5))").evaluate(0, 0));
+    }
+
+    @Test
+    @DisplayName("Deve recusar fórmulas inválidas informando a posição do erro")
+    void shouldRejectInvalidFormulas() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> TaxFormula.compile("base * taxa"));
+        assertTrue(unknown.getMessage().contains("posição 8"));
+        assertTrue(unknown.getMessage().contains("taxa"));
+
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile(""));
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile("base *"));
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile("(base + 1"));
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile("base 1"));
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile("min(base)"));
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile("raiz(base)"));
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile("1.2.3 * base"));
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile("base / (2 - 2)"));
+        assertThrows(IllegalArgumentException.class, () -> TaxFormula.compile("base".repeat(200)));
+    }
+
+    @Test
+    @DisplayName("A estratégia de fórmula deve arredondar em centavos e nunca cobrar imposto negativo")
+    void strategyShouldRoundAndClampToZero() {
+        FormulaTaxStrategy strategy = new FormulaTaxStrategy(TaxFormula.compile("base * aliquota / 100 - 10"), 18);
+
+        assertEquals(0.0, strategy.calculateTax(10));
+        assertEquals(5_000, strategy.calculateTaxCentavos(33_333, RoundingMode.HALF_EVEN));
+        assertThrows(ArithmeticException.class,
+                () -> new FormulaTaxStrategy(TaxFormula.compile("1 / (base - 100)"), 0).calculateTax(100));
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateSnapshot;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxRateSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxRateSnapshotRefresherTest {
+    @Mock
+    private TaxCalculationStrategyRegistry registry;
+
+    @Mock
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Mock
+    private LocalSnapshotStore localSnapshotStore;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(registry.snapshot()).thenReturn(TaxRateSnapshot.EMPTY);
+        lenient().when(databaseCircuitBreaker.call(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    @Test
+    @DisplayName("Deve recompilar a partir do banco só quando o conteúdo mudar")
+    void shouldReloadFromDatabaseOnlyWhenContentChanges() {
+        // Arrange
+        TaxRateSource original = new TaxRateSource(List.of(taxType(1L, "ICMS", 18.0)), List.of(), List.of());
+        TaxRateSource changed = new TaxRateSource(List.of(taxType(1L, "ICMS", 19.0)), List.of(), List.of());
+        when(registry.loadSource()).thenReturn(original,
+                new TaxRateSource(List.of(taxType(1L, "ICMS", 18.0)), List.of(), List.of()), changed);
+        when(registry.installIfCurrent(any(), eq(TaxCalculationStrategyRegistry.ORIGIN_DATABASE), eq(0L))).thenReturn(true);
+        TaxRateSnapshotRefresher refresher = refresher("");
+
+        // Act
+        boolean first = refresher.refreshNow();
+        boolean unchanged = refresher.refreshNow();
+        boolean third = refresher.refreshNow();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(unchanged);
+        assertTrue(third);
+        verify(registry).installIfCurrent(original, TaxCalculationStrategyRegistry.ORIGIN_DATABASE, 0L);
+        verify(registry).installIfCurrent(changed, TaxCalculationStrategyRegistry.ORIGIN_DATABASE, 0L);
+        assertEquals(2.0, meterRegistry.get("impostos.aliquotas.recargas").counter().count());
+        verify(localSnapshotStore).save(LocalSnapshotStore.TAX_TYPES, original);
+        verify(localSnapshotStore).save(LocalSnapshotStore.TAX_TYPES, changed);
+    }
+
+    @Test
+    @DisplayName("Deve carregar o arquivo na subida e relê-lo apenas quando for alterado")
+    void shouldLoadFileOnStartAndReloadWhenModified() throws Exception {
+        // Arrange
+        Path file = directory.resolve("aliquotas.json");
+        Files.writeString(file, """
+                {"taxTypes": [{"id": 1, "name": "ICMS", "description": "ICMS", "rate": 18.0}],
+                 "versions": [{"id": 1, "taxTypeId": 1, "rate": 17.0, "validFrom": "2020-01-01", "validTo": "2022-12-31"}],
+                 "brackets": []}
+                """);
+        when(registry.installIfCurrent(any(), eq(TaxCalculationStrategyRegistry.ORIGIN_FILE), anyLong())).thenReturn(true);
+        TaxRateSnapshotRefresher refresher = new TaxRateSnapshotRefresher(registry, databaseCircuitBreaker, localSnapshotStore, objectMapper, meterRegistry,
+                false, Duration.ofHours(1), file.toString());
+
+        // Act
+        refresher.start();
+        boolean untouched = refresher.refreshNow();
+        Files.writeString(file, """
+                {"taxTypes": [{"id": 1, "name": "ICMS", "description": "ICMS", "rate": 19.5}]}
+                """);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+        boolean modified = refresher.refreshNow();
+
+        // Assert
+        assertFalse(untouched);
+        assertTrue(modified);
+        ArgumentCaptor<TaxRateSource> captor = ArgumentCaptor.captor();
+        verify(registry, times(2)).installIfCurrent(captor.capture(), eq(TaxCalculationStrategyRegistry.ORIGIN_FILE), anyLong());
+        TaxRateSource loaded = captor.getAllValues().get(0);
+        assertEquals(18.0, loaded.taxTypes().get(0).getRate());
+        assertEquals(17.0, loaded.versions().get(0).getRate());
+        assertEquals(19.5, captor.getAllValues().get(1).taxTypes().get(0).getRate());
+        verify(registry, never()).loadSource();
+        verifyNoInteractions(localSnapshotStore);
+    }
+
+    @Test
+    @DisplayName("Deve manter o snapshot atual quando o arquivo for inválido")
+    void shouldKeepSnapshotWhenFileIsInvalid() throws Exception {
+        // Arrange
+        Path file = directory.resolve("aliquotas.json");
+        Files.writeString(file, "{\"taxTypes\": [{\"name\": \"ICMS\", \"rate\": 18.0}]}");
+        TaxRateSnapshotRefresher refresher = refresher(file.toString());
+
+        // Act
+        boolean reloaded = refresher.refreshNow();
+        boolean retried = refresher.refreshNow();
+
+        // Assert
+        assertFalse(reloaded);
+        assertFalse(retried);
+        verify(registry, never()).installIfCurrent(any(), any(), anyLong());
+        assertEquals(1.0, meterRegistry.get("impostos.aliquotas.falhas-recarga").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve tentar de novo na rodada seguinte quando um cadastro concorrente trocou o snapshot")
+    void shouldRetryWhenSnapshotChangedDuringReload() {
+        // Arrange
+        TaxRateSource source = new TaxRateSource(List.of(taxType(1L, "ICMS", 18.0)), List.of(), List.of());
+        when(registry.loadSource()).thenReturn(source);
+        when(registry.installIfCurrent(any(), any(), anyLong())).thenReturn(false, true);
+        TaxRateSnapshotRefresher refresher = refresher("");
+
+        // Act
+        boolean first = refresher.refreshNow();
+        boolean second = refresher.refreshNow();
+
+        // Assert
+        assertFalse(first);
+        assertTrue(second);
+        verify(registry, times(2)).installIfCurrent(source, TaxCalculationStrategyRegistry.ORIGIN_DATABASE, 0L);
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o banco com o circuito aberto")
+    void shouldSkipDatabaseWhileCircuitIsOpen() {
+        // Arrange
+        when(databaseCircuitBreaker.isOpen()).thenReturn(true);
+        TaxRateSnapshotRefresher refresher = refresher("");
+
+        // Act
+        boolean reloaded = refresher.refreshNow();
+
+        // Assert
+        assertFalse(reloaded);
+        verify(registry, never()).loadSource();
+        verify(registry, never()).installIfCurrent(any(), any(), anyLong());
+    }
+
+    private TaxRateSnapshotRefresher refresher(String file) {
+        return new TaxRateSnapshotRefresher(registry, databaseCircuitBreaker, localSnapshotStore, objectMapper, meterRegistry, false, Duration.ofHours(1), file);
+    }
+
+    private TaxType taxType(Long id, String name, Double rate) {
+        TaxType taxType = new TaxType();
+        taxType.setId(id);
+        taxType.setName(name);
+        taxType.setDescription(name);
+        taxType.setRate(rate);
+        return taxType;
+    }
+}
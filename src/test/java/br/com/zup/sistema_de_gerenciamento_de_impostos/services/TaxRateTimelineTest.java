@@ -0,0 +1,60 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.strategies;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxRateTimelineTest {
+
+    @Test
+    @DisplayName("Deve encontrar a vigência que contém a data, com limites inclusivos")
+    void shouldFindVersionContainingDate() {
+        // Versões fora de ordem e com lacuna entre 2021 e 2023
+        TaxRateTimeline timeline = TaxRateTimeline.of(List.of(
+                version(18.0, "2023-01-01", null),
+                version(12.0, "2019-01-01", "2019-12-31"),
+                version(17.0, "2020-01-01", "2021-12-31")), IcmsTaxStrategy::new);
+
+        assertEquals(-1, timeline.indexOf(LocalDate.of(2018, 12, 31)));
+        assertEquals(12.0, timeline.rateAt(timeline.indexOf(LocalDate.of(2019, 1, 1))));
+        assertEquals(12.0, timeline.rateAt(timeline.indexOf(LocalDate.of(2019, 12, 31))));
+        assertEquals(17.0, timeline.rateAt(timeline.indexOf(LocalDate.of(2020, 1, 1))));
+        assertEquals(17.0, timeline.rateAt(timeline.indexOf(LocalDate.of(2021, 12, 31))));
+        assertEquals(-1, timeline.indexOf(LocalDate.of(2022, 6, 1)));
+        assertEquals(18.0, timeline.rateAt(timeline.indexOf(LocalDate.of(2099, 1, 1))));
+    }
+
+    @Test
+    @DisplayName("Deve construir uma estratégia por vigência com a alíquota correspondente")
+    void shouldBuildStrategyPerVersion() {
+        TaxRateTimeline timeline = TaxRateTimeline.of(List.of(
+                version(2.0, "2020-01-01", "2020-12-31"),
+                version(5.0, "2021-01-01", null)), IssTaxStrategy::new);
+
+        assertEquals(20.0, timeline.strategyAt(timeline.indexOf(LocalDate.of(2020, 5, 1))).calculateTax(1000));
+        assertEquals(50.0, timeline.strategyAt(timeline.indexOf(LocalDate.of(2021, 5, 1))).calculateTax(1000));
+    }
+
+    @Test
+    @DisplayName("Deve retornar o índice vazio quando não houver vigências")
+    void shouldReturnEmptyTimelineWithoutVersions() {
+        TaxRateTimeline timeline = TaxRateTimeline.of(List.of(), IcmsTaxStrategy::new);
+
+        assertSame(TaxRateTimeline.EMPTY, timeline);
+        assertTrue(timeline.isEmpty());
+        assertEquals(-1, timeline.indexOf(LocalDate.now()));
+    }
+
+    private static TaxRateVersion version(Double rate, String from, String to) {
+        TaxRateVersion version = new TaxRateVersion();
+        version.setRate(rate);
+        version.setValidFrom(LocalDate.parse(from));
+        version.setValidTo(to != null ? LocalDate.parse(to) : null);
+        return version;
+    }
+}
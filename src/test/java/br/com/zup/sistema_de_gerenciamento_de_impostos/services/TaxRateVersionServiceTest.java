@@ -0,0 +1,119 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.dto.TaxRateVersionRequestDto;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.DuplicateResourceException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxRateVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxRateVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxRateVersionServiceTest {
+    @Mock
+    private TaxRateVersionRepository taxRateVersionRepository;
+
+    @Mock
+    private TaxTypeRepository taxTypeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaxRateVersionService taxRateVersionService;
+
+    private TaxType icms;
+
+    @BeforeEach
+    void setUp() {
+        icms = new TaxType();
+        icms.setId(1L);
+        icms.setName("ICMS");
+        icms.setDescription("ICMS");
+        icms.setRate(18.0);
+    }
+
+    @Test
+    @DisplayName("Deve cadastrar uma vigência sem sobreposição e recompilar o tipo de imposto")
+    void shouldSaveNonOverlappingVersion() {
+        // Arrange
+        when(taxTypeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(icms));
+        when(taxRateVersionRepository.findByTaxTypeIdOrderByValidFrom(1L)).thenReturn(List.of(
+                existing(17.0, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31))));
+        when(taxRateVersionRepository.save(any(TaxRateVersion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        TaxRateVersion saved = taxRateVersionService.save(1L,
+                new TaxRateVersionRequestDto(18.0, LocalDate.of(2023, 1, 1), null));
+
+        // Assert
+        assertEquals(1L, saved.getTaxTypeId());
+        assertEquals(18.0, saved.getRate());
+        assertNull(saved.getValidTo());
+        verify(eventPublisher).publishEvent(TaxTypeChangedEvent.saved(icms));
+    }
+
+    @Test
+    @DisplayName("Deve lançar DuplicateResourceException quando a vigência se sobrepõe a outra")
+    void shouldRejectOverlappingVersion() {
+        // Arrange
+        when(taxTypeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(icms));
+        when(taxRateVersionRepository.findByTaxTypeIdOrderByValidFrom(1L)).thenReturn(List.of(
+                existing(18.0, LocalDate.of(2023, 1, 1), null)));
+
+        // Act & Assert
+        assertThrows(DuplicateResourceException.class, () -> taxRateVersionService.save(1L,
+                new TaxRateVersionRequestDto(19.0, LocalDate.of(2022, 6, 1), LocalDate.of(2023, 1, 1))));
+        verify(taxRateVersionRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException quando o fim da vigência for anterior ao início")
+    void shouldRejectInvertedInterval() {
+        // Arrange
+        when(taxTypeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(icms));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> taxRateVersionService.save(1L,
+                new TaxRateVersionRequestDto(18.0, LocalDate.of(2023, 1, 1), LocalDate.of(2022, 1, 1))));
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException para tipo de imposto inexistente")
+    void shouldThrowWhenTaxTypeNotFound() {
+        // Arrange
+        when(taxTypeRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> taxRateVersionService.findByTaxType(99L));
+    }
+
+    private TaxRateVersion existing(Double rate, LocalDate from, LocalDate to) {
+        TaxRateVersion version = new TaxRateVersion();
+        version.setId(10L);
+        version.setTaxTypeId(1L);
+        version.setRate(rate);
+        version.setValidFrom(from);
+        version.setValidTo(to);
+        return version;
+    }
+}
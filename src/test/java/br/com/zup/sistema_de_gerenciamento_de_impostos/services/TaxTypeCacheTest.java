@@ -0,0 +1,143 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxTypeCacheTest {
+
+    @Mock
+    private TaxTypeRepository taxTypeRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private TaxTypeCache taxTypeCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taxTypeCache = new TaxTypeCache(taxTypeRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco apenas na primeira busca por ID")
+    void shouldQueryRepositoryOnlyOnFirstLookupById() {
+        // Arrange
+        TaxType icms = taxType(1L, "ICMS");
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(icms));
+
+        // Act
+        taxTypeCache.findById(1L);
+        taxTypeCache.findById(1L);
+        Optional<TaxType> result = taxTypeCache.findById(1L);
+
+        // Assert
+        assertEquals("ICMS", result.orElseThrow().getName());
+        verify(taxTypeRepository, times(1)).findById(1L);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "taxTypesById").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "taxTypesById").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Deve manter em cache a ausência de um tipo de imposto")
+    void shouldCacheMissingTaxType() {
+        // Arrange
+        when(taxTypeRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        taxTypeCache.findById(99L);
+        Optional<TaxType> result = taxTypeCache.findById(99L);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(taxTypeRepository, times(1)).findById(99L);
+    }
+
+    @Test
+    @DisplayName("Deve popular os índices por ID e por nome ao carregar todos os tipos de imposto")
+    void shouldPopulateIndexesWhenLoadingAll() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS"), taxType(2L, "ISS")));
+
+        // Act
+        taxTypeCache.findAll();
+        List<TaxType> all = taxTypeCache.findAll();
+        Optional<TaxType> byName = taxTypeCache.findByName("ISS");
+        Optional<TaxType> byId = taxTypeCache.findById(1L);
+
+        // Assert
+        assertEquals(2, all.size());
+        assertEquals(2L, byName.orElseThrow().getId());
+        assertEquals("ICMS", byId.orElseThrow().getName());
+        verify(taxTypeRepository, times(1)).findAll();
+        verify(taxTypeRepository, never()).findByName("ISS");
+        verify(taxTypeRepository, never()).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve buscar em lote apenas os IDs que ainda não estão em cache")
+    void shouldLoadOnlyMissingIdsInBulk() {
+        // Arrange
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.of(taxType(1L, "ICMS")));
+        when(taxTypeRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(taxType(2L, "ISS")));
+        taxTypeCache.findById(1L);
+
+        // Act
+        Map<Long, TaxType> result = taxTypeCache.findAllById(List.of(1L, 2L, 3L));
+        Map<Long, TaxType> cachedResult = taxTypeCache.findAllById(List.of(1L, 2L, 3L));
+
+        // Assert
+        assertEquals(Set.of(1L, 2L), result.keySet());
+        assertEquals(Set.of(1L, 2L), cachedResult.keySet());
+        verify(taxTypeRepository, times(1)).findAllById(Set.of(2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o cache ao salvar e invalidá-lo ao excluir")
+    void shouldUpdateOnPutAndInvalidateOnEvict() {
+        // Arrange
+        when(taxTypeRepository.findAll()).thenReturn(List.of(taxType(1L, "ICMS")));
+        when(taxTypeRepository.findById(1L)).thenReturn(Optional.empty());
+        taxTypeCache.findAll();
+
+        // Act
+        taxTypeCache.put(taxType(2L, "IPI"));
+        Optional<TaxType> saved = taxTypeCache.findByName("IPI");
+        taxTypeCache.evict(1L);
+        Optional<TaxType> deleted = taxTypeCache.findById(1L);
+        taxTypeCache.findAll();
+
+        // Assert
+        assertEquals(2L, saved.orElseThrow().getId());
+        assertTrue(deleted.isEmpty());
+        verify(taxTypeRepository, never()).findByName("IPI");
+        verify(taxTypeRepository, times(1)).findById(1L);
+        verify(taxTypeRepository, times(2)).findAll();
+    }
+
+    private TaxType taxType(Long id, String name) {
+        TaxType taxType = new TaxType();
+        taxType.setId(id);
+        taxType.setName(name);
+        taxType.setDescription(name);
+        taxType.setRate(10.0);
+        return taxType;
+    }
+}
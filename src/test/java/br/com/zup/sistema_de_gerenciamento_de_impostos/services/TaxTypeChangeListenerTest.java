@@ -0,0 +1,145 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangeNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.ChangeVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.strategies.TaxCalculationStrategyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxTypeChangeListenerTest {
+    @Mock
+    private TaxTypeChangeNotifier notifier;
+
+    @Mock
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Mock
+    private TaxTypeCache taxTypeCache;
+
+    @Mock
+    private TaxCalculationStrategyRegistry registry;
+
+    @Mock
+    private ClusterNotificationHandler revocations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaxTypeChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notifier.nodeId()).thenReturn("local");
+        lenient().when(notifier.channel()).thenReturn("impostos_alteracoes");
+        lenient().when(revocations.channel()).thenReturn("impostos_revogacoes");
+        listener = new TaxTypeChangeListener(notifier, changeVersionRepository, taxTypeCache, registry, List.of(revocations), meterRegistry,
+                "jdbc:postgresql://localhost:5432/impostos", "postgres", "", Duration.ofSeconds(5), Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Deve recarregar só o tipo alterado por outro nó")
+    void shouldApplyChangeFromAnotherNode() {
+        // Arrange
+        whenVersionIs(4L);
+        listener.pollVersion();
+        TaxType pis = new TaxType();
+        pis.setId(2L);
+        when(taxTypeCache.findById(2L)).thenReturn(Optional.of(pis));
+
+        // Act
+        listener.handle(new TaxTypeChangeNotification("remoto", 5L, 2L, false).format());
+        listener.handle(new TaxTypeChangeNotification("remoto", 6L, 1L, true).format());
+
+        // Assert
+        verify(taxTypeCache).evict(2L);
+        verify(registry).register(pis);
+        verify(taxTypeCache).evict(1L);
+        verify(registry).unregister(1L);
+        verify(registry, never()).refresh();
+        assertEquals(2.0, meterRegistry.get("impostos.cluster.notificacoes").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar as notificações emitidas pelo próprio nó")
+    void shouldIgnoreOwnNotifications() {
+        // Arrange
+        whenVersionIs(4L);
+        listener.pollVersion();
+
+        // Act
+        listener.handle(new TaxTypeChangeNotification("local", 5L, 2L, false).format());
+
+        // Assert
+        verifyNoInteractions(taxTypeCache, registry);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar tudo quando uma versão for pulada")
+    void shouldReloadAllWhenNotificationIsMissed() {
+        // Arrange
+        whenVersionIs(4L);
+        listener.pollVersion();
+
+        // Act
+        listener.handle(new TaxTypeChangeNotification("remoto", 7L, 2L, false).format());
+        listener.handle(new TaxTypeChangeNotification("remoto", 6L, 3L, false).format());
+
+        // Assert
+        verify(taxTypeCache).invalidateAll();
+        verify(registry).refresh();
+        verify(registry, never()).register(any());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar tudo no polling quando a versão do banco mudar")
+    void shouldReloadAllWhenPolledVersionChanges() {
+        // Arrange
+        whenVersionIs(4L);
+        listener.pollVersion();
+        listener.pollVersion();
+        whenVersionIs(9L);
+
+        // Act
+        listener.pollVersion();
+
+        // Assert
+        verify(taxTypeCache, times(1)).invalidateAll();
+        verify(registry, times(1)).refresh();
+        assertEquals(1.0, meterRegistry.get("impostos.cluster.recargas").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve encaminhar ao assinante as notificações do canal dele")
+    void shouldDispatchToHandlerChannel() {
+        // Act
+        listener.dispatch("impostos_revogacoes", "remoto;1;admin");
+        listener.resyncHandlers();
+
+        // Assert
+        verify(revocations).handle("remoto;1;admin");
+        verify(revocations).resync();
+        verifyNoInteractions(taxTypeCache, registry);
+    }
+
+    private void whenVersionIs(long version) {
+        ChangeVersion changeVersion = new ChangeVersion();
+        changeVersion.setScope(TaxTypeChangeNotifier.SCOPE);
+        changeVersion.setVersion(version);
+        when(changeVersionRepository.findById(TaxTypeChangeNotifier.SCOPE)).thenReturn(Optional.of(changeVersion));
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangeNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxTypeChangeNotifierTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve incrementar a versão e notificar o canal com o id do tipo excluído")
+    void shouldIncrementVersionAndNotify() {
+        // Arrange
+        TaxTypeChangeNotifier notifier = new TaxTypeChangeNotifier(jdbcTemplate, true, "impostos_alteracoes");
+        when(jdbcTemplate.queryForObject(startsWith("INSERT INTO change_versions"), eq(Long.class), eq("tax_types")))
+                .thenReturn(7L);
+
+        // Act
+        notifier.onTaxTypeChanged(TaxTypeChangedEvent.deleted(3L));
+
+        // Assert
+        verify(jdbcTemplate).queryForObject("SELECT pg_notify(?, ?)", Object.class,
+                "impostos_alteracoes", notifier.nodeId() + ";7;3;D");
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o banco com as notificações desabilitadas")
+    void shouldNotNotifyWhenDisabled() {
+        // Arrange
+        TaxTypeChangeNotifier notifier = new TaxTypeChangeNotifier(jdbcTemplate, false, "impostos_alteracoes");
+
+        // Act
+        notifier.onTaxTypeChanged(TaxTypeChangedEvent.deleted(3L));
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve recusar um nome de canal que não seja um identificador simples")
+    void shouldRejectInvalidChannel() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new TaxTypeChangeNotifier(jdbcTemplate, true, "canal; DROP TABLE tax_types"));
+    }
+
+    @Test
+    @DisplayName("Deve ler de volta o payload gerado e recusar payloads fora do formato")
+    void shouldParseNotificationPayload() {
+        // Arrange
+        TaxTypeChangeNotification notification = new TaxTypeChangeNotification("no-1", 42L, 5L, false);
+
+        // Act
+        TaxTypeChangeNotification parsed = TaxTypeChangeNotification.parse(notification.format());
+
+        // Assert
+        assertEquals(notification, parsed);
+        assertThrows(IllegalArgumentException.class, () -> TaxTypeChangeNotification.parse("no-1;x;5;S"));
+        assertThrows(IllegalArgumentException.class, () -> TaxTypeChangeNotification.parse("no-1;1;5"));
+    }
+}
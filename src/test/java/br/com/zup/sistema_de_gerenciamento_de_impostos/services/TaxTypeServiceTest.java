@@ -1,16 +1,28 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TaxTypeChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.BadRequestException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.DuplicateResourceException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxCalculationType;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.TaxType;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.NcmRateRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBenefitRuleRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxBracketRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxRateVersionRepository;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.TaxTypeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -26,9 +38,31 @@ class TaxTypeServiceTest {
     @Mock
     private TaxTypeRepository taxTypeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaxRateVersionRepository taxRateVersionRepository;
+
+    @Mock
+    private TaxBracketRepository taxBracketRepository;
+
+    @Mock
+    private NcmRateRepository ncmRateRepository;
+
+    @Mock
+    private TaxBenefitRuleRepository taxBenefitRuleRepository;
+
     @InjectMocks
     private TaxTypeService taxTypeService;
 
+    @BeforeEach
+    void setUp() {
+        // Cache real sobre o repositório mockado: as consultas ainda chegam ao repositório na primeira leitura
+        TaxTypeCache taxTypeCache = new TaxTypeCache(taxTypeRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(taxTypeService, "taxTypeCache", taxTypeCache);
+    }
+
     @Test
     @DisplayName("Deve retornar todos os tipos de impostos")
     void shouldReturnAllTaxTypes() {
@@ -136,6 +170,45 @@ class TaxTypeServiceTest {
         
         verify(taxTypeRepository).findByName(taxTypeToSave.getName());
         verify(taxTypeRepository).save(taxTypeToSave);
+        verify(eventPublisher).publishEvent(TaxTypeChangedEvent.saved(savedTaxType));
+    }
+
+    @Test
+    @DisplayName("Deve validar a fórmula no cadastro e marcar o tipo como calculado por fórmula")
+    void shouldValidateFormulaOnSave() {
+        // Arrange
+        TaxType taxType = new TaxType();
+        taxType.setName("CIDE");
+        taxType.setDescription("Contribuição de Intervenção no Domínio Econômico");
+        taxType.setRate(10.0);
+        taxType.setFormula("  se(base > 1000, base * aliquota / 100, 0)  ");
+        when(taxTypeRepository.findByName("CIDE")).thenReturn(Optional.empty());
+        when(taxTypeRepository.save(taxType)).thenReturn(taxType);
+
+        // Act
+        TaxType result = taxTypeService.save(taxType);
+
+        // Assert
+        assertEquals(TaxCalculationType.FORMULA, result.getCalculationType());
+        assertEquals("se(base > 1000, base * aliquota / 100, 0)", result.getFormula());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException quando a fórmula for inválida")
+    void shouldThrowBadRequestExceptionWhenFormulaIsInvalid() {
+        // Arrange
+        TaxType taxType = new TaxType();
+        taxType.setName("CIDE");
+        taxType.setDescription("Contribuição de Intervenção no Domínio Econômico");
+        taxType.setRate(10.0);
+        taxType.setFormula("base * taxa");
+        when(taxTypeRepository.findByName("CIDE")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> taxTypeService.save(taxType));
+        assertTrue(exception.getMessage().contains("taxa"));
+        verify(taxTypeRepository, never()).save(any(TaxType.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -164,6 +237,7 @@ class TaxTypeServiceTest {
         
         verify(taxTypeRepository).findByName("ICMS");
         verify(taxTypeRepository, never()).save(any(TaxType.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -181,6 +255,11 @@ class TaxTypeServiceTest {
         
         verify(taxTypeRepository).existsById(id);
         verify(taxTypeRepository).deleteById(id);
+        verify(taxRateVersionRepository).deleteByTaxTypeId(id);
+        verify(taxBracketRepository).deleteByTaxTypeId(id);
+        verify(ncmRateRepository).deleteByTaxTypeId(id);
+        verify(taxBenefitRuleRepository).deleteByTaxTypeId(id);
+        verify(eventPublisher).publishEvent(TaxTypeChangedEvent.deleted(id));
     }
 
     @Test
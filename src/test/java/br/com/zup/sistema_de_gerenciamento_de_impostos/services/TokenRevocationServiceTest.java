@@ -0,0 +1,200 @@
+package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
+
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.TokenRevocationNotification;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.UserChangedEvent;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.infra.jwt.VerifiedToken;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.ChangeVersion;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.models.IssuedToken;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.ChangeVersionRepository;
+import br.com.zup.sistema_de_gerenciamento_de_impostos.repositories.IssuedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+    @Mock
+    private IssuedTokenRepository issuedTokenRepository;
+
+    @Mock
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Mock
+    private TaxTypeChangeNotifier notifier;
+
+    @Mock
+    private LocalSnapshotStore localSnapshotStore;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notifier.nodeId()).thenReturn("local");
+        lenient().when(notifier.isEnabled()).thenReturn(true);
+        DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(null, new SimpleMeterRegistry(), 5, Duration.ofHours(1));
+        service = new TokenRevocationService(issuedTokenRepository, changeVersionRepository, notifier, breaker,
+                localSnapshotStore, meterRegistry, 1_000, 0.01, "impostos_revogacoes", Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Deve carregar os tokens revogados na subida e recusá-los sem consultar o banco")
+    void shouldLoadRevokedTokensOnStartup() {
+        // Arrange
+        whenLoadListReturns(List.of(token("jti-1", "admin", true)));
+
+        // Act
+        service.reload();
+
+        // Assert
+        assertTrue(service.isRevoked("jti-1"));
+        assertFalse(service.isRevoked("jti-2"));
+        assertFalse(service.isRevoked(null));
+        verify(localSnapshotStore).loadList(eq(LocalSnapshotStore.REVOKED_TOKENS), eq(IssuedToken.class), any(), eq(true));
+        assertEquals(1.0, meterRegistry.get("impostos.jwt.revogacao.rejeicoes").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve registrar o jti do token emitido no login")
+    void shouldRecordIssuedToken() {
+        // Arrange
+        long expiresAt = Instant.now().plus(1, ChronoUnit.HOURS).toEpochMilli();
+
+        // Act
+        service.recordIssued(new VerifiedToken("jti-1", "admin", List.of(), expiresAt));
+        service.recordIssued(new VerifiedToken(null, "admin", List.of(), expiresAt));
+
+        // Assert
+        ArgumentCaptor<IssuedToken> captor = ArgumentCaptor.forClass(IssuedToken.class);
+        verify(issuedTokenRepository, times(1)).save(captor.capture());
+        assertEquals("jti-1", captor.getValue().getJti());
+        assertEquals("admin", captor.getValue().getUsername());
+        assertNull(captor.getValue().getRevokedAt());
+    }
+
+    @Test
+    @DisplayName("Deve revogar os tokens do usuário alterado, avisar os demais nós e aplicar após o commit")
+    void shouldRevokeTokensOfChangedUser() {
+        // Arrange
+        IssuedToken active = token("jti-1", "admin", false);
+        when(issuedTokenRepository.findByUsernameAndRevokedAtIsNullAndExpiresAtAfter(eq("admin"), any()))
+                .thenReturn(List.of(active));
+        when(notifier.nextVersion(TokenRevocationService.SCOPE)).thenReturn(3L);
+        when(issuedTokenRepository.findByUsernameAndRevokedAtIsNotNullAndExpiresAtAfter(eq("admin"), any()))
+                .thenReturn(List.of(token("jti-1", "admin", true)));
+
+        // Act
+        service.onUserChanged(new UserChangedEvent("admin"));
+        service.onUserChangeCommitted(new UserChangedEvent("admin"));
+
+        // Assert
+        assertNotNull(active.getRevokedAt());
+        verify(issuedTokenRepository).saveAll(List.of(active));
+        verify(notifier).notify("impostos_revogacoes", "local;3;admin");
+        // Aplicado em segundo plano; a cópia local é gravada depois da troca em memória
+        verify(localSnapshotStore, timeout(2_000)).save(eq(LocalSnapshotStore.REVOKED_TOKENS), any());
+        assertTrue(service.isRevoked("jti-1"));
+    }
+
+    @Test
+    @DisplayName("Deve notificar os demais nós mesmo quando o usuário não tiver tokens ativos")
+    void shouldNotifyWithoutActiveTokens() {
+        // Arrange
+        when(issuedTokenRepository.findByUsernameAndRevokedAtIsNullAndExpiresAtAfter(eq("admin"), any()))
+                .thenReturn(List.of());
+        when(notifier.nextVersion(TokenRevocationService.SCOPE)).thenReturn(3L);
+
+        // Act
+        service.onUserChanged(new UserChangedEvent("admin"));
+
+        // Assert
+        verify(issuedTokenRepository, never()).saveAll(any());
+        verify(notifier).notify("impostos_revogacoes", "local;3;admin");
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a revogação de outro nó e ignorar as do próprio nó")
+    void shouldApplyRevocationFromAnotherNode() {
+        // Arrange
+        whenVersionIs(4L);
+        service.resync();
+        when(issuedTokenRepository.findByUsernameAndRevokedAtIsNotNullAndExpiresAtAfter(eq("maria"), any()))
+                .thenReturn(List.of(token("jti-9", "maria", true)));
+
+        // Act
+        service.handle(new TokenRevocationNotification("remoto", 5L, "maria").format());
+        service.handle(new TokenRevocationNotification("local", 6L, "admin").format());
+
+        // Assert
+        assertTrue(service.isRevoked("jti-9"));
+        verify(issuedTokenRepository, never()).findByUsernameAndRevokedAtIsNotNullAndExpiresAtAfter(eq("admin"), any());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar tudo quando uma notificação for perdida")
+    void shouldReloadWhenNotificationMissed() {
+        // Arrange
+        whenVersionIs(4L);
+        service.resync();
+        whenLoadListReturns(List.of(token("jti-1", "admin", true), token("jti-2", "maria", true)));
+
+        // Act
+        service.handle(new TokenRevocationNotification("remoto", 7L, "maria").format());
+
+        // Assert
+        assertTrue(service.isRevoked("jti-1"));
+        assertTrue(service.isRevoked("jti-2"));
+        verify(issuedTokenRepository, never()).findByUsernameAndRevokedAtIsNotNullAndExpiresAtAfter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve ler de volta o payload gerado e recusar payloads fora do formato")
+    void shouldParseNotificationPayload() {
+        // Act
+        TokenRevocationNotification parsed = TokenRevocationNotification.parse("no;12;nome;com;ponto-e-virgula");
+
+        // Assert
+        assertEquals(new TokenRevocationNotification("no", 12L, "nome;com;ponto-e-virgula"), parsed);
+        assertThrows(IllegalArgumentException.class, () -> TokenRevocationNotification.parse("no;x;admin"));
+        assertThrows(IllegalArgumentException.class, () -> TokenRevocationNotification.parse("no;1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void whenLoadListReturns(List<IssuedToken> tokens) {
+        when(localSnapshotStore.loadList(eq(LocalSnapshotStore.REVOKED_TOKENS), eq(IssuedToken.class), any(Supplier.class), anyBoolean()))
+                .thenReturn(tokens);
+    }
+
+    private void whenVersionIs(long version) {
+        ChangeVersion changeVersion = new ChangeVersion();
+        changeVersion.setScope(TokenRevocationService.SCOPE);
+        changeVersion.setVersion(version);
+        when(changeVersionRepository.findById(TokenRevocationService.SCOPE)).thenReturn(Optional.of(changeVersion));
+    }
+
+    private IssuedToken token(String jti, String username, boolean revoked) {
+        IssuedToken token = new IssuedToken();
+        token.setJti(jti);
+        token.setUsername(username);
+        token.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS));
+        token.setRevokedAt(revoked ? Instant.now() : null);
+        return token;
+    }
+}
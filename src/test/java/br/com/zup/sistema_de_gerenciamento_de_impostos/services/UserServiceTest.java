@@ -1,5 +1,6 @@
 package br.com.zup.sistema_de_gerenciamento_de_impostos.services;
 
+import br.com.zup.sistema_de_gerenciamento_de_impostos.events.UserChangedEvent;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.exceptions.ResourceNotFoundException;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.Role;
 import br.com.zup.sistema_de_gerenciamento_de_impostos.models.User;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +28,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -125,6 +130,8 @@ class UserServiceTest {
         assertEquals("new@example.com", result.getEmail());
         assertEquals("newpassword", result.getPassword());
         verify(userRepository).save(existingUser);
+        verify(eventPublisher).publishEvent(new UserChangedEvent("oldusername"));
+        verify(eventPublisher).publishEvent(new UserChangedEvent("newusername"));
     }
 
     @Test
@@ -150,7 +157,10 @@ class UserServiceTest {
     void shouldDeleteUserSuccessfully() {
         // Arrange
         Long userId = 1L;
-        when(userRepository.existsById(userId)).thenReturn(true);
+        User existingUser = new User();
+        existingUser.setId(userId);
+        existingUser.setUsername("testuser");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
         doNothing().when(userRepository).deleteById(userId);
         
         // Act
@@ -158,6 +168,7 @@ class UserServiceTest {
         
         // Assert
         verify(userRepository).deleteById(userId);
+        verify(eventPublisher).publishEvent(new UserChangedEvent("testuser"));
     }
 
     @Test
@@ -165,7 +176,7 @@ class UserServiceTest {
     void shouldThrowResourceNotFoundExceptionWhenDeletingNonExistentUser() {
         // Arrange
         Long userId = 999L;
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
         
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -174,5 +185,6 @@ class UserServiceTest {
         
         assertTrue(exception.getMessage().contains("Usuário não encontrado"));
         verify(userRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
     }
 }
\ No newline at end of file